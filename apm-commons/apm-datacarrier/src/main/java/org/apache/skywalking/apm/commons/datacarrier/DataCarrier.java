@@ -19,11 +19,13 @@
 package org.apache.skywalking.apm.commons.datacarrier;
 
 import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferType;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.Channels;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.ConsumeDriver;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.ConsumerPool;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.IDriver;
+import org.apache.skywalking.apm.commons.datacarrier.consumer.WaitStrategy;
 import org.apache.skywalking.apm.commons.datacarrier.partition.IDataPartitioner;
 import org.apache.skywalking.apm.commons.datacarrier.partition.SimpleRollingPartitioner;
 
@@ -48,16 +50,30 @@ public class DataCarrier<T> {
     }
 
     public DataCarrier(String name, String envPrefix, int channelSize, int bufferSize, BufferStrategy strategy) {
+        this(name, envPrefix, channelSize, bufferSize, strategy, BufferType.DEFAULT);
+    }
+
+    /**
+     * The buffer size, channel size and buffer type could be overridden by the system env, named as {@code
+     * envPrefix}_BUFFER_SIZE, {@code envPrefix}_CHANNEL_SIZE and {@code envPrefix}_BUFFER_TYPE.
+     */
+    public DataCarrier(String name, String envPrefix, int channelSize, int bufferSize, BufferStrategy strategy,
+                       BufferType bufferType) {
         this.name = name;
         bufferSize = EnvUtil.getInt(envPrefix + "_BUFFER_SIZE", bufferSize);
         channelSize = EnvUtil.getInt(envPrefix + "_CHANNEL_SIZE", channelSize);
-        channels = new Channels<>(channelSize, bufferSize, new SimpleRollingPartitioner<T>(), strategy);
+        bufferType = EnvUtil.getEnum(envPrefix + "_BUFFER_TYPE", bufferType);
+        channels = new Channels<>(channelSize, bufferSize, new SimpleRollingPartitioner<T>(), strategy, bufferType);
     }
 
     public DataCarrier(int channelSize, int bufferSize, BufferStrategy strategy) {
         this("DEFAULT", "DEFAULT", channelSize, bufferSize, strategy);
     }
 
+    public DataCarrier(int channelSize, int bufferSize, BufferStrategy strategy, BufferType bufferType) {
+        this("DEFAULT", "DEFAULT", channelSize, bufferSize, strategy, bufferType);
+    }
+
     /**
      * set a new IDataPartitioner. It will cover the current one or default one.(Default is {@link
      * SimpleRollingPartitioner}
@@ -92,10 +108,22 @@ public class DataCarrier<T> {
      * @param num           number of consumer threads
      */
     public DataCarrier consume(Class<? extends IConsumer<T>> consumerClass, int num, long consumeCycle) {
+        return this.consume(consumerClass, num, consumeCycle, WaitStrategy.SLEEP);
+    }
+
+    /**
+     * set consumeDriver to this Carrier. consumer begin to run when {@link DataCarrier#produce} begin to work.
+     *
+     * @param consumerClass class of consumer
+     * @param num           number of consumer threads
+     * @param waitStrategy  the way of the consumer threads waiting for data, when nothing to consume.
+     */
+    public DataCarrier consume(Class<? extends IConsumer<T>> consumerClass, int num, long consumeCycle,
+                               WaitStrategy waitStrategy) {
         if (driver != null) {
             driver.close(channels);
         }
-        driver = new ConsumeDriver<T>(this.name, this.channels, consumerClass, num, consumeCycle);
+        driver = new ConsumeDriver<T>(this.name, this.channels, consumerClass, num, consumeCycle, waitStrategy);
         driver.begin(channels);
         return this;
     }
@@ -118,10 +146,21 @@ public class DataCarrier<T> {
      * @param num      number of consumer threads
      */
     public DataCarrier consume(IConsumer<T> consumer, int num, long consumeCycle) {
+        return this.consume(consumer, num, consumeCycle, WaitStrategy.SLEEP);
+    }
+
+    /**
+     * set consumeDriver to this Carrier. consumer begin to run when {@link DataCarrier#produce} begin to work.
+     *
+     * @param consumer     single instance of consumer, all consumer threads will all use this instance.
+     * @param num          number of consumer threads
+     * @param waitStrategy the way of the consumer threads waiting for data, when nothing to consume.
+     */
+    public DataCarrier consume(IConsumer<T> consumer, int num, long consumeCycle, WaitStrategy waitStrategy) {
         if (driver != null) {
             driver.close(channels);
         }
-        driver = new ConsumeDriver<T>(this.name, this.channels, consumer, num, consumeCycle);
+        driver = new ConsumeDriver<T>(this.name, this.channels, consumer, num, consumeCycle, waitStrategy);
         driver.begin(channels);
         return this;
     }
@@ -47,4 +47,17 @@ public class EnvUtil {
         }
         return value;
     }
+
+    public static <E extends Enum<E>> E getEnum(String envName, E defaultValue) {
+        E value = defaultValue;
+        String envValue = System.getenv(envName);
+        if (envValue != null) {
+            try {
+                value = Enum.valueOf(defaultValue.getDeclaringClass(), envValue.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+
+            }
+        }
+        return value;
+    }
 }
@@ -18,6 +18,10 @@
 
 package org.apache.skywalking.apm.commons.datacarrier.buffer;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.skywalking.apm.commons.datacarrier.consumer.ConsumerWaiter;
 import org.apache.skywalking.apm.commons.datacarrier.partition.IDataPartitioner;
 
 /**
@@ -29,13 +33,25 @@ public class Channels<T> {
     private IDataPartitioner<T> dataPartitioner;
     private final BufferStrategy strategy;
     private final long size;
+    /**
+     * The waiters of the consumers which could be waked up by the producers. Copy on write, as the consumers are
+     * rarely changed.
+     */
+    private volatile ConsumerWaiter[] waiters = new ConsumerWaiter[0];
 
     public Channels(int channelSize, int bufferSize, IDataPartitioner<T> partitioner, BufferStrategy strategy) {
+        this(channelSize, bufferSize, partitioner, strategy, BufferType.DEFAULT);
+    }
+
+    public Channels(int channelSize, int bufferSize, IDataPartitioner<T> partitioner, BufferStrategy strategy,
+                    BufferType bufferType) {
         this.dataPartitioner = partitioner;
         this.strategy = strategy;
         bufferChannels = new QueueBuffer[channelSize];
         for (int i = 0; i < channelSize; i++) {
-            if (BufferStrategy.BLOCKING.equals(strategy)) {
+            if (BufferType.MPSC_RING.equals(bufferType)) {
+                bufferChannels[i] = new MpscRingBuffer<>(bufferSize, strategy);
+            } else if (BufferStrategy.BLOCKING.equals(strategy)) {
                 bufferChannels[i] = new ArrayBlockingQueueBuffer<>(bufferSize, strategy);
             } else {
                 bufferChannels[i] = new Buffer<>(bufferSize, strategy);
@@ -56,12 +72,42 @@ public class Channels<T> {
         }
         for (; retryCountDown > 0; retryCountDown--) {
             if (bufferChannels[index].save(data)) {
+                notifyWaiters();
                 return true;
             }
         }
         return false;
     }
 
+    private void notifyWaiters() {
+        final ConsumerWaiter[] current = waiters;
+        for (ConsumerWaiter waiter : current) {
+            waiter.wakeUp();
+        }
+    }
+
+    /**
+     * Register the waiter of the consumer thread, which would be waked up when the new data saved. Only the waiter
+     * requiring the notification is kept.
+     */
+    public synchronized void addWaiter(ConsumerWaiter waiter) {
+        if (!waiter.isNotifiable()) {
+            return;
+        }
+        List<ConsumerWaiter> newWaiters = new ArrayList<ConsumerWaiter>(Arrays.asList(waiters));
+        if (!newWaiters.contains(waiter)) {
+            newWaiters.add(waiter);
+            waiters = newWaiters.toArray(new ConsumerWaiter[0]);
+        }
+    }
+
+    public synchronized void removeWaiter(ConsumerWaiter waiter) {
+        List<ConsumerWaiter> newWaiters = new ArrayList<ConsumerWaiter>(Arrays.asList(waiters));
+        if (newWaiters.remove(waiter)) {
+            waiters = newWaiters.toArray(new ConsumerWaiter[0]);
+        }
+    }
+
     public void setPartitioner(IDataPartitioner<T> dataPartitioner) {
         this.dataPartitioner = dataPartitioner;
     }
@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.buffer;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sequence based ring buffer for multiple producers and single consumer.
+ * <p>
+ * Producers claim a sequence by CAS on the producer cursor, and publish the data into the slot of the sequence. The
+ * consumer drains the published slots from the consumer cursor in one batch, until the first claimed but not yet
+ * published slot, then moves the consumer cursor forward. Both cursors are padded to their own cache line, in the same
+ * way as {@link org.apache.skywalking.apm.commons.datacarrier.common.AtomicRangeInteger}.
+ * <p>
+ * The consumer side is expected to be one thread, which is guaranteed by the consume drivers, as every channel is
+ * assigned to only one consumer thread. {@link #obtain(List)} is still guarded, to keep the buffer safe when the
+ * consume driver is replaced at runtime.
+ */
+public class MpscRingBuffer<T> implements QueueBuffer<T> {
+    private static final int PADDED_SIZE = 15;
+    private static final int VALUE_OFFSET = 7;
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 200;
+    private static final long PARK_NANOS = 100_000L;
+
+    private final AtomicReferenceArray<T> buffer;
+    private final int bufferSize;
+    private final AtomicLongArray producerCursor;
+    private final AtomicLongArray consumerCursor;
+    private BufferStrategy strategy;
+
+    MpscRingBuffer(int bufferSize, BufferStrategy strategy) {
+        this.buffer = new AtomicReferenceArray<T>(bufferSize);
+        this.bufferSize = bufferSize;
+        this.strategy = strategy;
+        this.producerCursor = new AtomicLongArray(PADDED_SIZE);
+        this.consumerCursor = new AtomicLongArray(PADDED_SIZE);
+    }
+
+    /**
+     * @throws NullPointerException if the data is null, as a null slot means not yet published to the consumer.
+     */
+    @Override
+    public boolean save(T data) {
+        if (data == null) {
+            throw new NullPointerException("Can't save null into the ring buffer.");
+        }
+        long sequence = claim();
+        if (sequence < 0) {
+            return false;
+        }
+        buffer.lazySet(index(sequence), data);
+        return true;
+    }
+
+    /**
+     * @return the claimed sequence, or -1 if no slot is available and the producer shouldn't wait for it.
+     */
+    private long claim() {
+        int idleTimes = 0;
+        while (true) {
+            long current = producerCursor.get(VALUE_OFFSET);
+            if (current - consumerCursor.get(VALUE_OFFSET) >= bufferSize) {
+                if (BufferStrategy.IF_POSSIBLE.equals(strategy) || Thread.currentThread().isInterrupted()) {
+                    return -1;
+                }
+                idleTimes = backOff(idleTimes);
+                continue;
+            }
+            if (producerCursor.compareAndSet(VALUE_OFFSET, current, current + 1)) {
+                return current;
+            }
+        }
+    }
+
+    private int backOff(int idleTimes) {
+        if (idleTimes < SPIN_TRIES) {
+            return idleTimes + 1;
+        }
+        if (idleTimes < SPIN_TRIES + YIELD_TRIES) {
+            Thread.yield();
+            return idleTimes + 1;
+        }
+        LockSupport.parkNanos(PARK_NANOS);
+        return idleTimes;
+    }
+
+    @Override
+    public void setStrategy(BufferStrategy strategy) {
+        this.strategy = strategy;
+    }
+
+    @Override
+    public synchronized void obtain(List<T> consumeList) {
+        final long consumed = consumerCursor.get(VALUE_OFFSET);
+        final long claimed = producerCursor.get(VALUE_OFFSET);
+        long sequence = consumed;
+        for (; sequence < claimed; sequence++) {
+            int i = index(sequence);
+            T data = buffer.get(i);
+            if (data == null) {
+                // The slot is claimed, but the producer hasn't published the data yet.
+                break;
+            }
+            consumeList.add(data);
+            buffer.lazySet(i, null);
+        }
+        if (sequence != consumed) {
+            consumerCursor.lazySet(VALUE_OFFSET, sequence);
+        }
+    }
+
+    @Override
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    private int index(long sequence) {
+        return (int) (sequence % bufferSize);
+    }
+}
@@ -35,10 +35,19 @@ public class BulkConsumePool implements ConsumerPool {
     private volatile boolean isStarted = false;
 
     public BulkConsumePool(String name, int size, long consumeCycle) {
+        this(name, size, consumeCycle, WaitStrategy.SLEEP);
+    }
+
+    /**
+     * The thread size and wait strategy could be overridden by the system env, named as {@code name}_THREAD and {@code
+     * name}_WAIT_STRATEGY.
+     */
+    public BulkConsumePool(String name, int size, long consumeCycle, WaitStrategy waitStrategy) {
         size = EnvUtil.getInt(name + "_THREAD", size);
+        waitStrategy = EnvUtil.getEnum(name + "_WAIT_STRATEGY", waitStrategy);
         allConsumers = new ArrayList<MultipleChannelsConsumer>(size);
         for (int i = 0; i < size; i++) {
-            MultipleChannelsConsumer multipleChannelsConsumer = new MultipleChannelsConsumer("DataCarrier." + name + ".BulkConsumePool." + i + ".Thread", consumeCycle);
+            MultipleChannelsConsumer multipleChannelsConsumer = new MultipleChannelsConsumer("DataCarrier." + name + ".BulkConsumePool." + i + ".Thread", consumeCycle, waitStrategy);
             multipleChannelsConsumer.setDaemon(true);
             allConsumers.add(multipleChannelsConsumer);
         }
@@ -99,16 +108,22 @@ public class BulkConsumePool implements ConsumerPool {
         private String name;
         private int size;
         private long consumeCycle;
+        private WaitStrategy waitStrategy;
 
         public Creator(String name, int poolSize, long consumeCycle) {
+            this(name, poolSize, consumeCycle, WaitStrategy.SLEEP);
+        }
+
+        public Creator(String name, int poolSize, long consumeCycle, WaitStrategy waitStrategy) {
             this.name = name;
             this.size = poolSize;
             this.consumeCycle = consumeCycle;
+            this.waitStrategy = waitStrategy;
         }
 
         @Override
         public ConsumerPool call() {
-            return new BulkConsumePool(name, size, consumeCycle);
+            return new BulkConsumePool(name, size, consumeCycle, waitStrategy);
         }
 
         public static int recommendMaxSize() {
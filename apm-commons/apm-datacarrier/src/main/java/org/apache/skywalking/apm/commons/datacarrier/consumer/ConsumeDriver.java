@@ -33,18 +33,28 @@ public class ConsumeDriver<T> implements IDriver {
 
     public ConsumeDriver(String name, Channels<T> channels, Class<? extends IConsumer<T>> consumerClass, int num,
         long consumeCycle) {
+        this(name, channels, consumerClass, num, consumeCycle, WaitStrategy.SLEEP);
+    }
+
+    public ConsumeDriver(String name, Channels<T> channels, Class<? extends IConsumer<T>> consumerClass, int num,
+        long consumeCycle, WaitStrategy waitStrategy) {
         this(channels, num);
         for (int i = 0; i < num; i++) {
-            consumerThreads[i] = new ConsumerThread("DataCarrier." + name + ".Consumer." + i + ".Thread", getNewConsumerInstance(consumerClass), consumeCycle);
+            consumerThreads[i] = new ConsumerThread("DataCarrier." + name + ".Consumer." + i + ".Thread", getNewConsumerInstance(consumerClass), consumeCycle, waitStrategy);
             consumerThreads[i].setDaemon(true);
         }
     }
 
     public ConsumeDriver(String name, Channels<T> channels, IConsumer<T> prototype, int num, long consumeCycle) {
+        this(name, channels, prototype, num, consumeCycle, WaitStrategy.SLEEP);
+    }
+
+    public ConsumeDriver(String name, Channels<T> channels, IConsumer<T> prototype, int num, long consumeCycle,
+        WaitStrategy waitStrategy) {
         this(channels, num);
         prototype.init();
         for (int i = 0; i < num; i++) {
-            consumerThreads[i] = new ConsumerThread("DataCarrier." + name + ".Consumer." + i + ".Thread", prototype, consumeCycle);
+            consumerThreads[i] = new ConsumerThread("DataCarrier." + name + ".Consumer." + i + ".Thread", prototype, consumeCycle, waitStrategy);
             consumerThreads[i].setDaemon(true);
         }
 
@@ -112,6 +122,12 @@ public class ConsumeDriver<T> implements IDriver {
             consumerThreads[consumerIndex].addDataSource(channels.getBuffer(channelIndex));
         }
 
+        for (ConsumerThread consumerThread : consumerThreads) {
+            if (consumerThread.hasDataSource()) {
+                channels.addWaiter(consumerThread.getWaiter());
+            }
+        }
+
     }
 
     @Override
@@ -120,6 +136,7 @@ public class ConsumeDriver<T> implements IDriver {
         try {
             this.running = false;
             for (ConsumerThread consumerThread : consumerThreads) {
+                this.channels.removeWaiter(consumerThread.getWaiter());
                 consumerThread.shutdown();
             }
         } finally {
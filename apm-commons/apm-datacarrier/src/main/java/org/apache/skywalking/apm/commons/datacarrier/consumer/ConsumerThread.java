@@ -27,14 +27,19 @@ public class ConsumerThread<T> extends Thread {
     private volatile boolean running;
     private IConsumer<T> consumer;
     private List<DataSource> dataSources;
-    private long consumeCycle;
+    private final ConsumerWaiter waiter;
 
     ConsumerThread(String threadName, IConsumer<T> consumer, long consumeCycle) {
+        this(threadName, consumer, consumeCycle, WaitStrategy.SLEEP);
+    }
+
+    ConsumerThread(String threadName, IConsumer<T> consumer, long consumeCycle, WaitStrategy waitStrategy) {
         super(threadName);
         this.consumer = consumer;
         running = false;
         dataSources = new ArrayList<DataSource>(1);
-        this.consumeCycle = consumeCycle;
+        this.waiter = new ConsumerWaiter(waitStrategy, consumeCycle);
+        this.waiter.bind(this);
     }
 
     /**
@@ -50,11 +55,10 @@ public class ConsumerThread<T> extends Thread {
 
         final List<T> consumeList = new ArrayList<T>(1500);
         while (running) {
-            if (!consume(consumeList)) {
-                try {
-                    Thread.sleep(consumeCycle);
-                } catch (InterruptedException e) {
-                }
+            if (consume(consumeList)) {
+                waiter.reset();
+            } else {
+                waiter.idle();
             }
         }
 
@@ -85,6 +89,15 @@ public class ConsumerThread<T> extends Thread {
 
     void shutdown() {
         running = false;
+        waiter.interrupt();
+    }
+
+    boolean hasDataSource() {
+        return !dataSources.isEmpty();
+    }
+
+    ConsumerWaiter getWaiter() {
+        return waiter;
     }
 
     /**
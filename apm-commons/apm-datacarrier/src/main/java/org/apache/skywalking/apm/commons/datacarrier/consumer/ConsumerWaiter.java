@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.consumer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * ConsumerWaiter executes the {@link WaitStrategy} for one consumer thread. The consumer thread calls {@link #idle()}
+ * when nothing has been consumed in the last round, and {@link #reset()} once consumed.
+ * <p>
+ * In {@link WaitStrategy#ADAPTIVE}, before parking, the waiter announces it is going to park and lets the consumer
+ * check its buffers once more, then the producer only needs to check the flag to know whether the consumer should be
+ * waked up by {@link #wakeUp()}. Parking is always limited by the consume cycle, which is the upper bound of the
+ * delivery latency if any wakeup is missed.
+ */
+public class ConsumerWaiter {
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+
+    private final WaitStrategy strategy;
+    private final long consumeCycle;
+    private final long parkNanos;
+    private final AtomicBoolean parking = new AtomicBoolean(false);
+    private volatile Thread owner;
+    private int idleTimes;
+
+    public ConsumerWaiter(WaitStrategy strategy, long consumeCycle) {
+        this.strategy = strategy;
+        this.consumeCycle = consumeCycle;
+        this.parkNanos = TimeUnit.MILLISECONDS.toNanos(consumeCycle);
+    }
+
+    /**
+     * @return true if the producers should notify this waiter through {@link #wakeUp()}.
+     */
+    public boolean isNotifiable() {
+        return WaitStrategy.ADAPTIVE.equals(strategy);
+    }
+
+    /**
+     * Bind the consumer thread, which is the one to park and unpark.
+     */
+    void bind(Thread owner) {
+        this.owner = owner;
+    }
+
+    /**
+     * Wait according to the strategy, called by the consumer thread when there is no data.
+     */
+    void idle() {
+        if (WaitStrategy.SLEEP.equals(strategy)) {
+            try {
+                Thread.sleep(consumeCycle);
+            } catch (InterruptedException e) {
+            }
+            return;
+        }
+
+        if (idleTimes < SPIN_TRIES) {
+            idleTimes++;
+        } else if (idleTimes < SPIN_TRIES + YIELD_TRIES) {
+            idleTimes++;
+            Thread.yield();
+        } else if (!parking.get()) {
+            // Announce the parking, and check the buffers once more before really parking.
+            parking.set(true);
+        } else {
+            LockSupport.parkNanos(this, parkNanos);
+            parking.set(false);
+        }
+    }
+
+    /**
+     * Reset the wait state, called by the consumer thread after data consumed.
+     */
+    void reset() {
+        idleTimes = 0;
+        if (parking.get()) {
+            parking.set(false);
+        }
+    }
+
+    /**
+     * Wake up the consumer thread if it is parking or going to park. Called by the producers.
+     */
+    public void wakeUp() {
+        if (parking.get() && parking.compareAndSet(true, false)) {
+            Thread thread = owner;
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
+        }
+    }
+
+    /**
+     * Unpark the consumer thread anyway, used in shutdown.
+     */
+    void interrupt() {
+        Thread thread = owner;
+        if (thread != null && isNotifiable()) {
+            LockSupport.unpark(thread);
+        }
+    }
+}
@@ -32,12 +32,17 @@ public class MultipleChannelsConsumer extends Thread {
     private volatile ArrayList<Group> consumeTargets;
     @SuppressWarnings("NonAtomicVolatileUpdate")
     private volatile long size;
-    private final long consumeCycle;
+    private final ConsumerWaiter waiter;
 
     public MultipleChannelsConsumer(String threadName, long consumeCycle) {
+        this(threadName, consumeCycle, WaitStrategy.SLEEP);
+    }
+
+    public MultipleChannelsConsumer(String threadName, long consumeCycle, WaitStrategy waitStrategy) {
         super(threadName);
         this.consumeTargets = new ArrayList<Group>();
-        this.consumeCycle = consumeCycle;
+        this.waiter = new ConsumerWaiter(waitStrategy, consumeCycle);
+        this.waiter.bind(this);
     }
 
     @Override
@@ -52,11 +57,10 @@ public class MultipleChannelsConsumer extends Thread {
                 hasData = hasData || consume;
             }
 
-            if (!hasData) {
-                try {
-                    Thread.sleep(consumeCycle);
-                } catch (InterruptedException e) {
-                }
+            if (hasData) {
+                waiter.reset();
+            } else {
+                waiter.idle();
             }
         }
 
@@ -101,6 +105,7 @@ public class MultipleChannelsConsumer extends Thread {
         newList.add(group);
         consumeTargets = newList;
         size += channels.size();
+        channels.addWaiter(waiter);
     }
 
     public long size() {
@@ -109,6 +114,10 @@ public class MultipleChannelsConsumer extends Thread {
 
     void shutdown() {
         running = false;
+        for (Group target : consumeTargets) {
+            target.channels.removeWaiter(waiter);
+        }
+        waiter.interrupt();
     }
 
     private static class Group {
@@ -0,0 +1,35 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.consumer;
+
+/**
+ * The strategy of the consumer thread, when there is no data to consume in all its buffers.
+ */
+public enum WaitStrategy {
+    /**
+     * Sleep the consume cycle, then try to consume again.
+     */
+    SLEEP,
+    /**
+     * Spin, then yield, then park the consumer thread. The parked consumer is waked up by the producer of the
+     * {@link org.apache.skywalking.apm.commons.datacarrier.buffer.Channels} once the new data arrives, or after the
+     * consume cycle at most.
+     */
+    ADAPTIVE
+}
@@ -21,6 +21,7 @@ package org.apache.skywalking.apm.commons.datacarrier;
 import java.util.ArrayList;
 import java.util.List;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferType;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.Channels;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.QueueBuffer;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
@@ -101,6 +102,24 @@ public class DataCarrierTest {
         Assert.assertEquals(200, result.size());
     }
 
+    @Test
+    public void testMpscRingProduce() throws IllegalAccessException {
+        DataCarrier<SampleData> carrier = new DataCarrier<>(2, 100, BufferStrategy.IF_POSSIBLE, BufferType.MPSC_RING);
+
+        for (int i = 0; i < 200; i++) {
+            Assert.assertTrue(carrier.produce(new SampleData().setName("d" + i)));
+        }
+        Assert.assertFalse(carrier.produce(new SampleData().setName("full")));
+
+        Channels<SampleData> channels = (Channels<SampleData>) (MemberModifier.field(DataCarrier.class, "channels")
+                                                                              .get(carrier));
+        Assert.assertEquals(100, channels.getBuffer(0).getBufferSize());
+        List result = new ArrayList();
+        channels.getBuffer(0).obtain(result);
+        channels.getBuffer(1).obtain(result);
+        Assert.assertEquals(200, result.size());
+    }
+
     @Test
     public void testBlockingProduce() throws IllegalAccessException {
         final DataCarrier<SampleData> carrier = new DataCarrier<SampleData>(2, 100);
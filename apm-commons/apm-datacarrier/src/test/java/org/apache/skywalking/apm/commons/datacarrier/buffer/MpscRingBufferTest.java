@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.buffer;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MpscRingBufferTest {
+    @Test
+    public void testSaveAndObtain() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(10, BufferStrategy.IF_POSSIBLE);
+        for (int i = 0; i < 10; i++) {
+            Assert.assertTrue(buffer.save(i));
+        }
+        Assert.assertFalse(buffer.save(10));
+
+        List<Integer> result = new ArrayList<>();
+        buffer.obtain(result);
+        Assert.assertEquals(10, result.size());
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals(i, result.get(i).intValue());
+        }
+
+        result.clear();
+        buffer.obtain(result);
+        Assert.assertTrue(result.isEmpty());
+
+        // Wrap around the ring.
+        for (int i = 0; i < 25; i++) {
+            Assert.assertTrue(buffer.save(i));
+            buffer.obtain(result);
+        }
+        Assert.assertEquals(25, result.size());
+    }
+
+    @Test
+    public void testSaveNull() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(10, BufferStrategy.IF_POSSIBLE);
+        try {
+            buffer.save(null);
+            Assert.fail("Null should be rejected.");
+        } catch (NullPointerException e) {
+            // expected
+        }
+        Assert.assertTrue(buffer.save(1));
+        List<Integer> result = new ArrayList<>();
+        buffer.obtain(result);
+        Assert.assertEquals(1, result.size());
+    }
+
+    @Test(timeout = 20_000)
+    public void testMultipleProducers() throws InterruptedException {
+        final int producers = 8;
+        final int perProducer = 20_000;
+        final MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(128, BufferStrategy.BLOCKING);
+        final CountDownLatch latch = new CountDownLatch(producers);
+        for (int p = 0; p < producers; p++) {
+            final int base = p * perProducer;
+            new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    buffer.save(base + i);
+                }
+                latch.countDown();
+            }).start();
+        }
+
+        Set<Integer> received = new HashSet<>();
+        List<Integer> consumeList = new ArrayList<>();
+        while (received.size() < producers * perProducer) {
+            buffer.obtain(consumeList);
+            received.addAll(consumeList);
+            consumeList.clear();
+        }
+        latch.await();
+
+        buffer.obtain(consumeList);
+        Assert.assertTrue(consumeList.isEmpty());
+        Assert.assertEquals(producers * perProducer, received.size());
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.buffer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.apm.commons.datacarrier.SampleData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compare the produce throughput and latency(p99 in the sample mode) of the {@link QueueBuffer} implementations, with
+ * one consumer thread draining the buffer continuously. Run {@link #main(String[])} to get the results from 1 to 64
+ * producer threads.
+ */
+@BenchmarkMode({
+    Mode.Throughput,
+    Mode.SampleTime
+})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class QueueBufferBenchmark {
+    private static final SampleData DATA = new SampleData();
+
+    @Param({
+        "MPSC_RING",
+        "BUFFER",
+        "ARRAY_BLOCKING_QUEUE"
+    })
+    private String type;
+
+    private QueueBuffer<SampleData> buffer;
+    private volatile boolean running;
+    private Thread consumer;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        switch (type) {
+            case "MPSC_RING":
+                buffer = new MpscRingBuffer<>(10000, BufferStrategy.BLOCKING);
+                break;
+            case "BUFFER":
+                buffer = new Buffer<>(10000, BufferStrategy.BLOCKING);
+                break;
+            default:
+                buffer = new ArrayBlockingQueueBuffer<>(10000, BufferStrategy.BLOCKING);
+        }
+        running = true;
+        consumer = new Thread(() -> {
+            List<SampleData> consumeList = new ArrayList<>(10000);
+            while (running) {
+                buffer.obtain(consumeList);
+                consumeList.clear();
+            }
+        });
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        running = false;
+        consumer.join();
+    }
+
+    @Benchmark
+    public boolean produce() {
+        return buffer.save(DATA);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : new int[] {
+            1,
+            4,
+            16,
+            64
+        }) {
+            Options opt = new OptionsBuilder().include(QueueBufferBenchmark.class.getSimpleName())
+                                              .forks(1)
+                                              .warmupIterations(3)
+                                              .measurementIterations(5)
+                                              .threads(threads)
+                                              .output("/tmp/jmh-queue-buffer-" + threads + ".log")
+                                              .build();
+
+            new Runner(opt).run();
+        }
+    }
+}
@@ -21,7 +21,9 @@ package org.apache.skywalking.apm.commons.datacarrier.consumer;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
 import org.apache.skywalking.apm.commons.datacarrier.SampleData;
 import org.junit.Assert;
@@ -98,6 +100,63 @@ public class ConsumerTest {
         Assert.assertTrue(IS_OCCUR_ERROR);
     }
 
+    @Test
+    public void testAdaptiveConsumerWakeUp() throws InterruptedException {
+        final DataCarrier<SampleData> carrier = new DataCarrier<SampleData>(2, 100);
+        final CountDownLatch latch = new CountDownLatch(1);
+        // The consume cycle is long enough, the data should only be consumed in time by waking up the consumer.
+        carrier.consume(new SampleConsumer3(latch), 1, 60_000, WaitStrategy.ADAPTIVE);
+
+        // Make sure the consumer thread has been parked.
+        Thread.sleep(500);
+        Assert.assertTrue(carrier.produce(new SampleData().setName("data")));
+
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        carrier.shutdownConsumers();
+    }
+
+    @Test
+    public void testAdaptiveBulkConsumePoolWakeUp() throws InterruptedException {
+        final BulkConsumePool pool = new BulkConsumePool("adaptive-test", 1, 60_000, WaitStrategy.ADAPTIVE);
+        final DataCarrier<SampleData> carrier = new DataCarrier<SampleData>(2, 100);
+        final CountDownLatch latch = new CountDownLatch(1);
+        carrier.consume(pool, new SampleConsumer3(latch));
+
+        Thread.sleep(500);
+        Assert.assertTrue(carrier.produce(new SampleData().setName("data")));
+
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        carrier.shutdownConsumers();
+    }
+
+    class SampleConsumer3 implements IConsumer<SampleData> {
+        private final CountDownLatch latch;
+
+        SampleConsumer3(CountDownLatch latch) {
+            this.latch = latch;
+        }
+
+        @Override
+        public void init() {
+
+        }
+
+        @Override
+        public void consume(List<SampleData> data) {
+            latch.countDown();
+        }
+
+        @Override
+        public void onError(List<SampleData> data, Throwable t) {
+
+        }
+
+        @Override
+        public void onExit() {
+
+        }
+    }
+
     class SampleConsumer2 implements IConsumer<SampleData> {
         public int i = 1;
 
@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.consumer;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
+import org.apache.skywalking.apm.commons.datacarrier.SampleData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compare {@link WaitStrategy#SLEEP} and {@link WaitStrategy#ADAPTIVE} with the L1/L2 aggregation settings(20ms
+ * consume cycle).
+ * <p>
+ * The benchmark measures the delivery time from the producer to the consumer of the sparse traffic, which is the
+ * worst case of the sleep strategy, p99 is reported in the sample mode. {@link #main(String[])} also reports the CPU
+ * time of 200 idle consumer threads in 10 seconds.
+ */
+@Slf4j
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class WaitStrategyBenchmark {
+    @Param({
+        "SLEEP",
+        "ADAPTIVE"
+    })
+    private String strategy;
+
+    private DataCarrier<SampleData> carrier;
+    private final AtomicLong consumed = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        carrier = new DataCarrier<>(1, 1000);
+        carrier.consume(new CountConsumer(consumed), 1, 20, WaitStrategy.valueOf(strategy));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        carrier.shutdownConsumers();
+    }
+
+    /**
+     * Produce one data, and wait until it is consumed.
+     */
+    @Benchmark
+    public long delivery() throws InterruptedException {
+        long expected = consumed.get() + 1;
+        carrier.produce(new SampleData());
+        while (consumed.get() < expected) {
+            Thread.yield();
+        }
+        // Let the consumer get idle again.
+        TimeUnit.MILLISECONDS.sleep(1);
+        return expected;
+    }
+
+    static double idleCpuMillis(WaitStrategy strategy, int consumers, long idleMillis) throws InterruptedException {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        BulkConsumePool pool = new BulkConsumePool("idle-" + strategy, consumers, 20, strategy);
+        List<DataCarrier<SampleData>> carriers = new ArrayList<>();
+        for (int i = 0; i < consumers; i++) {
+            DataCarrier<SampleData> idleCarrier = new DataCarrier<>(1, 100);
+            idleCarrier.consume(pool, new CountConsumer(new AtomicLong()));
+            carriers.add(idleCarrier);
+        }
+        // Warmup, all consumers get into the idle state.
+        TimeUnit.SECONDS.sleep(1);
+        long start = cpuTimeOfPool(threadMXBean, "idle-" + strategy);
+        TimeUnit.MILLISECONDS.sleep(idleMillis);
+        long end = cpuTimeOfPool(threadMXBean, "idle-" + strategy);
+        pool.close(null);
+        return (end - start) / 1_000_000D;
+    }
+
+    private static long cpuTimeOfPool(ThreadMXBean threadMXBean, String poolName) {
+        long total = 0;
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().contains(poolName)) {
+                total += threadMXBean.getThreadCpuTime(thread.getId());
+            }
+        }
+        return total;
+    }
+
+    public static void main(String[] args) throws RunnerException, InterruptedException {
+        for (WaitStrategy waitStrategy : WaitStrategy.values()) {
+            log.info(
+                "CPU time of 200 idle consumers in 10s, {}: {} ms", waitStrategy,
+                String.format("%.2f", idleCpuMillis(waitStrategy, 200, 10_000))
+            );
+        }
+
+        Options opt = new OptionsBuilder().include(WaitStrategyBenchmark.class.getSimpleName())
+                                          .forks(1)
+                                          .warmupIterations(3)
+                                          .measurementIterations(5)
+                                          .threads(1)
+                                          .output("/tmp/jmh-wait-strategy.log")
+                                          .build();
+
+        new Runner(opt).run();
+    }
+
+    private static class CountConsumer implements IConsumer<SampleData> {
+        private final AtomicLong counter;
+
+        private CountConsumer(AtomicLong counter) {
+            this.counter = counter;
+        }
+
+        @Override
+        public void init() {
+        }
+
+        @Override
+        public void consume(List<SampleData> data) {
+            counter.addAndGet(data.size());
+        }
+
+        @Override
+        public void onError(List<SampleData> data, Throwable t) {
+        }
+
+        @Override
+        public void onExit() {
+        }
+    }
+}
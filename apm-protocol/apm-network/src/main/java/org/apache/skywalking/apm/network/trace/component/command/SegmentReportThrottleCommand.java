@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.network.trace.component.command;
+
+import org.apache.skywalking.apm.network.common.v3.Command;
+import org.apache.skywalking.apm.network.common.v3.KeyStringValuePair;
+
+/**
+ * Ask the agent to report the segments in the given sample rate during the given duration, as the OAP node receiving
+ * the segments is overloaded. The sample rate precision is 1/10000.
+ */
+public class SegmentReportThrottleCommand extends BaseCommand implements Serializable {
+    public static final String NAME = "SegmentReportThrottle";
+
+    private final int sampleRate;
+    private final int duration;
+
+    public SegmentReportThrottleCommand(String serialNumber, int sampleRate, int duration) {
+        super(NAME, serialNumber);
+        this.sampleRate = sampleRate;
+        this.duration = duration;
+    }
+
+    @Override
+    public Command.Builder serialize() {
+        final Command.Builder builder = commandBuilder();
+        builder.addArgs(KeyStringValuePair.newBuilder().setKey("SampleRate").setValue(String.valueOf(sampleRate)));
+        builder.addArgs(KeyStringValuePair.newBuilder().setKey("Duration").setValue(String.valueOf(duration)));
+        return builder;
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    public int getDuration() {
+        return duration;
+    }
+}
@@ -28,6 +28,7 @@ import org.apache.skywalking.apm.agent.core.logging.core.LogOutput;
 import org.apache.skywalking.apm.agent.core.logging.core.ResolverType;
 import org.apache.skywalking.apm.agent.core.logging.core.WriterFactory;
 import org.apache.skywalking.apm.agent.core.plugin.bytebuddy.ClassCacheMode;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferType;
 import org.apache.skywalking.apm.util.Length;
 
 /**
@@ -222,6 +223,11 @@ public class Config {
         public static int CHANNEL_SIZE = 5;
 
         public static int BUFFER_SIZE = 300;
+
+        /**
+         * The implementation of the buffer. DEFAULT or MPSC_RING.
+         */
+        public static BufferType BUFFER_TYPE = BufferType.DEFAULT;
     }
 
     public static class Logging {
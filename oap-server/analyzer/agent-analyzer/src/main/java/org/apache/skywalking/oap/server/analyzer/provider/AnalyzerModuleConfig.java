@@ -26,8 +26,10 @@ import org.apache.skywalking.oap.server.analyzer.provider.trace.DBLatencyThresho
 import org.apache.skywalking.oap.server.analyzer.provider.trace.TraceLatencyThresholdsAndWatcher;
 import org.apache.skywalking.oap.server.analyzer.provider.trace.TraceSampleRateWatcher;
 import org.apache.skywalking.oap.server.analyzer.provider.trace.UninstrumentedGatewaysConfig;
+import org.apache.skywalking.oap.server.analyzer.provider.trace.parser.SegmentAnalysisOverflowPolicy;
 import org.apache.skywalking.oap.server.analyzer.provider.trace.parser.listener.strategy.SegmentStatusStrategy;
 import org.apache.skywalking.oap.server.core.Const;
+import org.apache.skywalking.oap.server.core.analysis.manual.segment.SegmentDataBinary;
 import org.apache.skywalking.oap.server.library.module.ModuleConfig;
 
 import java.util.ArrayList;
@@ -120,6 +122,45 @@ public class AnalyzerModuleConfig extends ModuleConfig {
     @Getter
     private String segmentStatusAnalysisStrategy = FROM_SPAN_STATUS.name();
 
+    /**
+     * The number of the threads analyzing the segments asynchronously, as well as the number of the partitioned
+     * queues. The segments are partitioned by the trace id. 0 means analyzing the segment in the receiving thread.
+     *
+     * @since 8.4.0
+     */
+    @Setter
+    @Getter
+    private int segmentAnalysisThreads = 0;
+
+    /**
+     * The capacity of every queue of the asynchronous segment analysis.
+     *
+     * @since 8.4.0
+     */
+    @Setter
+    @Getter
+    private int segmentAnalysisQueueSize = 10000;
+
+    /**
+     * The policy when the queue of the asynchronous segment analysis is full.
+     *
+     * @see SegmentAnalysisOverflowPolicy
+     * @since 8.4.0
+     */
+    @Setter
+    @Getter
+    private String segmentAnalysisOverflowPolicy = SegmentAnalysisOverflowPolicy.BLOCK.name();
+
+    /**
+     * Compress the data binary of the segment records, which can't be read by the previous releases.
+     *
+     * @see SegmentDataBinary
+     * @since 8.4.0
+     */
+    @Setter
+    @Getter
+    private boolean compressSegmentDataBinary = false;
+
     private List<Integer> virtualPeers;
 
     /**
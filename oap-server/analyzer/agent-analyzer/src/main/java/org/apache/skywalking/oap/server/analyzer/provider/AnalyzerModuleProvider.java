@@ -19,6 +19,7 @@
 package org.apache.skywalking.oap.server.analyzer.provider;
 
 import lombok.Getter;
+import org.apache.skywalking.oap.meter.analyzer.dsl.counter.CounterWindow;
 import org.apache.skywalking.oap.server.analyzer.module.AnalyzerModule;
 import org.apache.skywalking.oap.server.analyzer.provider.meter.config.MeterConfig;
 import org.apache.skywalking.oap.server.analyzer.provider.meter.config.MeterConfigs;
@@ -45,6 +46,7 @@ import org.apache.skywalking.oap.server.library.module.ModuleProvider;
 import org.apache.skywalking.oap.server.library.module.ModuleStartException;
 import org.apache.skywalking.oap.server.library.module.ServiceNotProvidedException;
 import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
 
 import java.util.List;
 
@@ -124,8 +126,14 @@ public class AnalyzerModuleProvider extends ModuleProvider {
         dynamicConfigurationService.registerConfigChangeWatcher(traceSampleRateWatcher);
 
         segmentParserService.setListenerManager(listenerManager());
+        segmentParserService.startAnalysisStage();
 
         processService.start(meterConfigs);
+
+        // The counter window is shared by all the MAL conversions of the OAP, including the fetchers and receivers.
+        CounterWindow.INSTANCE.enableTelemetry(getManager().find(TelemetryModule.NAME)
+                                                           .provider()
+                                                           .getService(MetricsCreator.class));
     }
 
     @Override
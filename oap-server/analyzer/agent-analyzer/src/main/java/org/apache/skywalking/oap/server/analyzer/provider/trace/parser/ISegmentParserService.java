@@ -26,4 +26,10 @@ import org.apache.skywalking.oap.server.library.module.Service;
  */
 public interface ISegmentParserService extends Service {
     void send(SegmentObject segment);
+
+    /**
+     * @return the occupancy of the asynchronous analysis queues in [0, 1], which is always 0 when the segments are
+     * analyzed in the receiving thread.
+     */
+    double analysisQueueOccupancy();
 }
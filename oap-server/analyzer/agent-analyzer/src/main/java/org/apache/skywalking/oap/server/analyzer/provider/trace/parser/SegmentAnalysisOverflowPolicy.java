@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.analyzer.provider.trace.parser;
+
+/**
+ * Define the available policies when the queue of the asynchronous segment analysis stage is full.
+ *
+ * @see SegmentAnalysisStage
+ */
+public enum SegmentAnalysisOverflowPolicy {
+    /**
+     * `BLOCK` holds the receiving thread until the queue has room, which back-pressures the agents as the inline
+     * analysis does.
+     */
+    BLOCK,
+    /**
+     * `DROP` discards the segment and counts it in the telemetry.
+     */
+    DROP,
+    /**
+     * `SAMPLE` discards the segment like `DROP`, except the segment including error span(s) when
+     * forceSampleErrorSegment is active. The kept segment is analyzed in the receiving thread.
+     */
+    SAMPLE;
+
+    public static SegmentAnalysisOverflowPolicy findByName(String name) {
+        for (final SegmentAnalysisOverflowPolicy policy : SegmentAnalysisOverflowPolicy.values()) {
+            if (policy.name().equalsIgnoreCase(name)) {
+                return policy;
+            }
+        }
+        return BLOCK;
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.analyzer.provider.trace.parser;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
+import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
+import org.apache.skywalking.apm.commons.datacarrier.partition.IDataPartitioner;
+import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
+import org.apache.skywalking.apm.network.language.agent.v3.SpanObject;
+import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.GaugeMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.HistogramMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsTag;
+
+/**
+ * SegmentAnalysisStage decouples the segment analysis from the receiving thread. The segments are partitioned by the
+ * trace id into the bounded queues, and every queue is consumed by one analysis thread, so the segments of one trace
+ * are analyzed in the receiving order. When the queue is full, the segment is handled by the {@link
+ * SegmentAnalysisOverflowPolicy}.
+ */
+@Slf4j
+public class SegmentAnalysisStage {
+    private final DataCarrier<SegmentObject> dataCarrier;
+    private final SegmentAnalysisOverflowPolicy overflowPolicy;
+    private final boolean forceSampleErrorSegment;
+    private final Consumer<SegmentObject> analyzer;
+    private final GaugeMetrics queueDepth;
+    private final HistogramMetrics analysisLatency;
+    private final CounterMetrics overflowCounter;
+    private final AtomicLong pending = new AtomicLong();
+    private final long capacity;
+
+    /**
+     * @param threads                 the number of the analysis threads, as well as the number of the queues.
+     * @param queueSize               the capacity of every queue.
+     * @param overflowPolicy          the policy when the queue is full.
+     * @param forceSampleErrorSegment true means keeping the segment including error span(s) in the {@link
+     *                                SegmentAnalysisOverflowPolicy#SAMPLE} policy.
+     * @param metricsCreator          to create the telemetry of the stage.
+     * @param analyzer                the analysis of one segment.
+     */
+    public SegmentAnalysisStage(int threads, int queueSize, SegmentAnalysisOverflowPolicy overflowPolicy,
+                                boolean forceSampleErrorSegment, MetricsCreator metricsCreator,
+                                Consumer<SegmentObject> analyzer) {
+        this.overflowPolicy = overflowPolicy;
+        this.forceSampleErrorSegment = forceSampleErrorSegment;
+        this.analyzer = analyzer;
+        this.capacity = (long) threads * queueSize;
+
+        queueDepth = metricsCreator.createGauge(
+            "segment_analysis_queue_depth", "The number of the segments waiting for the analysis",
+            MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE
+        );
+        analysisLatency = metricsCreator.createHistogramMetric(
+            "segment_analysis_latency", "The process latency of the segment analysis",
+            MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE
+        );
+        overflowCounter = metricsCreator.createCounter(
+            "segment_analysis_overflow_count", "The number of the segments dropped as the analysis queue is full",
+            MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE
+        );
+
+        final BufferStrategy strategy = SegmentAnalysisOverflowPolicy.BLOCK.equals(overflowPolicy)
+            ? BufferStrategy.BLOCKING : BufferStrategy.IF_POSSIBLE;
+        dataCarrier = new DataCarrier<>(
+            "SegmentAnalysisStage", "SEGMENT_ANALYSIS", threads, queueSize, strategy);
+        dataCarrier.setPartitioner(new TraceIdPartitioner());
+        dataCarrier.consume(new AnalysisConsumer(), threads);
+    }
+
+    /**
+     * Enqueue the segment, or handle it by the overflow policy when the queue is full.
+     *
+     * @return false if the segment is dropped.
+     */
+    public boolean in(SegmentObject segment) {
+        queueDepth.setValue(pending.incrementAndGet());
+        if (dataCarrier.produce(segment)) {
+            return true;
+        }
+        queueDepth.setValue(pending.decrementAndGet());
+
+        if (SegmentAnalysisOverflowPolicy.SAMPLE.equals(overflowPolicy)
+            && forceSampleErrorSegment && hasErrorSpan(segment)) {
+            analyze(segment);
+            return true;
+        }
+        overflowCounter.inc();
+        return false;
+    }
+
+    /**
+     * @return the ratio of the segments waiting for the analysis to the capacity of all queues, in [0, 1].
+     */
+    public double occupancy() {
+        return Math.min(1D, Math.max(0D, (double) pending.get() / capacity));
+    }
+
+    private void analyze(SegmentObject segment) {
+        HistogramMetrics.Timer timer = analysisLatency.createTimer();
+        try {
+            analyzer.accept(segment);
+        } catch (Throwable t) {
+            log.error(t.getMessage(), t);
+        } finally {
+            timer.finish();
+        }
+    }
+
+    private static boolean hasErrorSpan(SegmentObject segment) {
+        for (final SpanObject span : segment.getSpansList()) {
+            if (span.getIsError()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static class TraceIdPartitioner implements IDataPartitioner<SegmentObject> {
+        @Override
+        public int partition(int total, SegmentObject segment) {
+            return Math.abs(segment.getTraceId().hashCode() % total);
+        }
+
+        @Override
+        public int maxRetryCount() {
+            return 1;
+        }
+    }
+
+    private class AnalysisConsumer implements IConsumer<SegmentObject> {
+        @Override
+        public void init() {
+        }
+
+        @Override
+        public void consume(List<SegmentObject> data) {
+            for (final SegmentObject segment : data) {
+                queueDepth.setValue(pending.decrementAndGet());
+                analyze(segment);
+            }
+        }
+
+        @Override
+        public void onError(List<SegmentObject> data, Throwable t) {
+            log.error(t.getMessage(), t);
+        }
+
+        @Override
+        public void onExit() {
+        }
+    }
+}
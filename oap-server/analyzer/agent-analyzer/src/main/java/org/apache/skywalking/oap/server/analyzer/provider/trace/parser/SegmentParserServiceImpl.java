@@ -23,6 +23,8 @@ import lombok.Setter;
 import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 import org.apache.skywalking.oap.server.analyzer.provider.AnalyzerModuleConfig;
+import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
 
 /**
  * The open service to the receivers.
@@ -33,10 +35,51 @@ public class SegmentParserServiceImpl implements ISegmentParserService {
     private final AnalyzerModuleConfig config;
     @Setter
     private SegmentParserListenerManager listenerManager;
+    /**
+     * The asynchronous analysis stage, null means analyzing the segment in the receiving thread.
+     */
+    private SegmentAnalysisStage analysisStage;
+    /**
+     * The analyzer of every analysis thread, which reuses the listeners across the segments.
+     */
+    private final ThreadLocal<TraceAnalyzer> traceAnalyzers = ThreadLocal.withInitial(this::newTraceAnalyzer);
+
+    /**
+     * Start the asynchronous analysis stage, if {@link AnalyzerModuleConfig#getSegmentAnalysisThreads()} is positive.
+     */
+    public void startAnalysisStage() {
+        if (config.getSegmentAnalysisThreads() <= 0) {
+            return;
+        }
+        final MetricsCreator metricsCreator = moduleManager.find(TelemetryModule.NAME)
+                                                           .provider()
+                                                           .getService(MetricsCreator.class);
+        analysisStage = new SegmentAnalysisStage(
+            config.getSegmentAnalysisThreads(), config.getSegmentAnalysisQueueSize(),
+            SegmentAnalysisOverflowPolicy.findByName(config.getSegmentAnalysisOverflowPolicy()),
+            config.isForceSampleErrorSegment(), metricsCreator, this::analyze
+        );
+    }
 
     @Override
     public void send(SegmentObject segment) {
-        final TraceAnalyzer traceAnalyzer = new TraceAnalyzer(moduleManager, listenerManager, config);
-        traceAnalyzer.doAnalysis(segment);
+        if (analysisStage != null) {
+            analysisStage.in(segment);
+        } else {
+            analyze(segment);
+        }
+    }
+
+    @Override
+    public double analysisQueueOccupancy() {
+        return analysisStage != null ? analysisStage.occupancy() : 0;
+    }
+
+    private void analyze(SegmentObject segment) {
+        traceAnalyzers.get().doAnalysis(segment);
+    }
+
+    private TraceAnalyzer newTraceAnalyzer() {
+        return new TraceAnalyzer(moduleManager, listenerManager, config);
     }
 }
@@ -28,19 +28,35 @@ import org.apache.skywalking.apm.network.language.agent.v3.SpanType;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 import org.apache.skywalking.oap.server.analyzer.provider.AnalyzerModuleConfig;
 import org.apache.skywalking.oap.server.analyzer.provider.trace.parser.listener.AnalysisListener;
+import org.apache.skywalking.oap.server.analyzer.provider.trace.parser.listener.AnalysisListenerFactory;
 import org.apache.skywalking.oap.server.analyzer.provider.trace.parser.listener.EntryAnalysisListener;
 import org.apache.skywalking.oap.server.analyzer.provider.trace.parser.listener.ExitAnalysisListener;
 import org.apache.skywalking.oap.server.analyzer.provider.trace.parser.listener.FirstAnalysisListener;
 import org.apache.skywalking.oap.server.analyzer.provider.trace.parser.listener.LocalAnalysisListener;
+import org.apache.skywalking.oap.server.analyzer.provider.trace.parser.listener.ResettableAnalysisListener;
 import org.apache.skywalking.oap.server.analyzer.provider.trace.parser.listener.SegmentListener;
 
+/**
+ * TraceAnalyzer notifies the listeners created by the registered factories when traversing the segment.
+ *
+ * One instance is reused by one analysis thread, to keep the {@link ResettableAnalysisListener}s from the previous
+ * segments. The other listeners are created per segment. The listeners are grouped by the {@link
+ * AnalysisListener.Point} at the first analysis, so the traversal only notifies the listeners of every point.
+ */
 @Slf4j
 @RequiredArgsConstructor
 public class TraceAnalyzer {
+    private static final AnalysisListener.Point[] POINTS = AnalysisListener.Point.values();
+
     private final ModuleManager moduleManager;
     private final SegmentParserListenerManager listenerManager;
     private final AnalyzerModuleConfig config;
-    private List<AnalysisListener> analysisListeners = new ArrayList<>();
+    private List<AnalysisListenerFactory> factories;
+    private AnalysisListener[] analysisListeners;
+    /**
+     * The indexes of {@link #analysisListeners} including the point, indexed by {@link AnalysisListener.Point#ordinal()}.
+     */
+    private int[][] listenersOfPoint;
 
     public void doAnalysis(SegmentObject segmentObject) {
         if (segmentObject.getSpansList().size() == 0) {
@@ -72,57 +88,83 @@ public class TraceAnalyzer {
             notifyListenerToBuild();
         } catch (Throwable e) {
             log.error(e.getMessage(), e);
+        } finally {
+            releaseSpanListeners();
         }
     }
 
     private void notifyListenerToBuild() {
-        analysisListeners.forEach(AnalysisListener::build);
+        for (final AnalysisListener listener : analysisListeners) {
+            listener.build();
+        }
     }
 
     private void notifyExitListener(SpanObject span, SegmentObject segmentObject) {
-        analysisListeners.forEach(listener -> {
-            if (listener.containsPoint(AnalysisListener.Point.Exit)) {
-                ((ExitAnalysisListener) listener).parseExit(span, segmentObject);
-            }
-        });
+        for (final int index : listenersOfPoint[AnalysisListener.Point.Exit.ordinal()]) {
+            ((ExitAnalysisListener) analysisListeners[index]).parseExit(span, segmentObject);
+        }
     }
 
     private void notifyEntryListener(SpanObject span, SegmentObject segmentObject) {
-        analysisListeners.forEach(listener -> {
-            if (listener.containsPoint(AnalysisListener.Point.Entry)) {
-                ((EntryAnalysisListener) listener).parseEntry(span, segmentObject);
-            }
-        });
+        for (final int index : listenersOfPoint[AnalysisListener.Point.Entry.ordinal()]) {
+            ((EntryAnalysisListener) analysisListeners[index]).parseEntry(span, segmentObject);
+        }
     }
 
     private void notifyLocalListener(SpanObject span, SegmentObject segmentObject) {
-        analysisListeners.forEach(listener -> {
-            if (listener.containsPoint(AnalysisListener.Point.Local)) {
-                ((LocalAnalysisListener) listener).parseLocal(span, segmentObject);
-            }
-        });
+        for (final int index : listenersOfPoint[AnalysisListener.Point.Local.ordinal()]) {
+            ((LocalAnalysisListener) analysisListeners[index]).parseLocal(span, segmentObject);
+        }
     }
 
     private void notifyFirstListener(SpanObject span, SegmentObject segmentObject) {
-        analysisListeners.forEach(listener -> {
-            if (listener.containsPoint(AnalysisListener.Point.First)) {
-                ((FirstAnalysisListener) listener).parseFirst(span, segmentObject);
-            }
-        });
+        for (final int index : listenersOfPoint[AnalysisListener.Point.First.ordinal()]) {
+            ((FirstAnalysisListener) analysisListeners[index]).parseFirst(span, segmentObject);
+        }
     }
 
     private void notifySegmentListener(SegmentObject segmentObject) {
-        analysisListeners.forEach(listener -> {
-            if (listener.containsPoint(AnalysisListener.Point.Segment)) {
-                ((SegmentListener) listener).parseSegment(segmentObject);
-            }
-        });
+        for (final int index : listenersOfPoint[AnalysisListener.Point.Segment.ordinal()]) {
+            ((SegmentListener) analysisListeners[index]).parseSegment(segmentObject);
+        }
     }
 
+    /**
+     * Create the listeners and group them by the points at the first analysis.
+     */
     private void createSpanListeners() {
-        listenerManager.getSpanListenerFactories()
-                       .forEach(
-                           spanListenerFactory -> analysisListeners.add(
-                               spanListenerFactory.create(moduleManager, config)));
+        if (analysisListeners != null) {
+            return;
+        }
+        factories = new ArrayList<>(listenerManager.getSpanListenerFactories());
+        analysisListeners = new AnalysisListener[factories.size()];
+        for (int i = 0; i < analysisListeners.length; i++) {
+            analysisListeners[i] = factories.get(i).create(moduleManager, config);
+        }
+
+        listenersOfPoint = new int[POINTS.length][];
+        for (final AnalysisListener.Point point : POINTS) {
+            final List<Integer> indexes = new ArrayList<>(analysisListeners.length);
+            for (int i = 0; i < analysisListeners.length; i++) {
+                if (analysisListeners[i].containsPoint(point)) {
+                    indexes.add(i);
+                }
+            }
+            listenersOfPoint[point.ordinal()] = indexes.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    /**
+     * Reset the {@link ResettableAnalysisListener}s, and replace the others by the new instances for the next
+     * segment.
+     */
+    private void releaseSpanListeners() {
+        for (int i = 0; i < analysisListeners.length; i++) {
+            if (analysisListeners[i] instanceof ResettableAnalysisListener) {
+                ((ResettableAnalysisListener) analysisListeners[i]).reset();
+            } else {
+                analysisListeners[i] = factories.get(i).create(moduleManager, config);
+            }
+        }
     }
 }
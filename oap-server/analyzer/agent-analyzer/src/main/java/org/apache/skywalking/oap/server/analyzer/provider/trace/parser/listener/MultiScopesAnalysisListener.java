@@ -59,12 +59,12 @@ import static org.apache.skywalking.oap.server.analyzer.provider.trace.parser.Sp
  */
 @Slf4j
 @RequiredArgsConstructor
-public class MultiScopesAnalysisListener implements EntryAnalysisListener, ExitAnalysisListener, LocalAnalysisListener {
+public class MultiScopesAnalysisListener implements EntryAnalysisListener, ExitAnalysisListener, LocalAnalysisListener, ResettableAnalysisListener {
     private final List<SourceBuilder> entrySourceBuilders = new ArrayList<>(10);
     private final List<SourceBuilder> exitSourceBuilders = new ArrayList<>(10);
     private final List<DatabaseSlowStatement> slowDatabaseAccesses = new ArrayList<>(10);
     private final List<SourceBuilder> logicEndpointBuilders = new ArrayList<>(10);
-    private final Gson gson = new Gson();
+    private static final Gson GSON = new Gson();
     private final SourceReceiver sourceReceiver;
     private final AnalyzerModuleConfig config;
     private final NetworkAddressAliasCache networkAddressAliasCache;
@@ -314,6 +314,14 @@ public class MultiScopesAnalysisListener implements EntryAnalysisListener, ExitA
         });
     }
 
+    @Override
+    public void reset() {
+        entrySourceBuilders.clear();
+        exitSourceBuilders.clear();
+        slowDatabaseAccesses.clear();
+        logicEndpointBuilders.clear();
+    }
+
     /**
      * Logic endpoint could be represent through an entry span or local span. It has special meaning from API
      * perspective. But it is an actual RPC call.
@@ -322,7 +330,7 @@ public class MultiScopesAnalysisListener implements EntryAnalysisListener, ExitA
         span.getTagsList().forEach(tag -> {
             switch (tag.getKey()) {
                 case LOGIC_ENDPOINT:
-                    final JsonObject tagValue = gson.fromJson(tag.getValue(), JsonObject.class);
+                    final JsonObject tagValue = GSON.fromJson(tag.getValue(), JsonObject.class);
                     final boolean isLocalSpan = SpanType.Local.equals(span.getSpanType());
                     String logicEndpointName;
                     int latency;
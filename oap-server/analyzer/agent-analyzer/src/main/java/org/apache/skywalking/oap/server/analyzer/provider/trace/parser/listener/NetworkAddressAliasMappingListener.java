@@ -43,7 +43,7 @@ import org.apache.skywalking.oap.server.analyzer.provider.AnalyzerModuleConfig;
  */
 @Slf4j
 @RequiredArgsConstructor
-public class NetworkAddressAliasMappingListener implements EntryAnalysisListener {
+public class NetworkAddressAliasMappingListener implements EntryAnalysisListener, ResettableAnalysisListener {
     private final SourceReceiver sourceReceiver;
     private final AnalyzerModuleConfig config;
     private final NamingControl namingControl;
@@ -90,6 +90,10 @@ public class NetworkAddressAliasMappingListener implements EntryAnalysisListener
     public void build() {
     }
 
+    @Override
+    public void reset() {
+    }
+
     @Override
     public boolean containsPoint(Point point) {
         return Point.Entry.equals(point);
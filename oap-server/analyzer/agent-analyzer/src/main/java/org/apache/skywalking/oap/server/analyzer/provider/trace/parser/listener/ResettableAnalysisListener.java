@@ -0,0 +1,33 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.analyzer.provider.trace.parser.listener;
+
+/**
+ * ResettableAnalysisListener could be reset to the initial status after the analysis of one segment. Then, it is
+ * reused in the same analysis thread for the next segment, rather than being created by the {@link
+ * AnalysisListenerFactory} per segment.
+ *
+ * The objects forwarded to the source receiver should not be reused, as the dispatchers could hold them.
+ */
+public interface ResettableAnalysisListener extends AnalysisListener {
+    /**
+     * Clear the status of the analyzed segment.
+     */
+    void reset();
+}
@@ -23,6 +23,7 @@ import java.util.HashSet;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.skywalking.apm.network.common.v3.KeyStringValuePair;
 import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
 import org.apache.skywalking.apm.network.language.agent.v3.SpanObject;
 import org.apache.skywalking.apm.util.StringUtil;
@@ -35,6 +36,7 @@ import org.apache.skywalking.oap.server.core.CoreModule;
 import org.apache.skywalking.oap.server.core.analysis.IDManager;
 import org.apache.skywalking.oap.server.core.analysis.NodeType;
 import org.apache.skywalking.oap.server.core.analysis.TimeBucket;
+import org.apache.skywalking.oap.server.core.analysis.manual.segment.SegmentDataBinary;
 import org.apache.skywalking.oap.server.core.analysis.manual.segment.SpanTag;
 import org.apache.skywalking.oap.server.core.config.ConfigService;
 import org.apache.skywalking.oap.server.core.config.NamingControl;
@@ -48,7 +50,7 @@ import org.apache.skywalking.oap.server.library.util.BooleanUtils;
  */
 @Slf4j
 @RequiredArgsConstructor
-public class SegmentAnalysisListener implements FirstAnalysisListener, EntryAnalysisListener, SegmentListener {
+public class SegmentAnalysisListener implements FirstAnalysisListener, EntryAnalysisListener, SegmentListener, ResettableAnalysisListener {
     private final SourceReceiver sourceReceiver;
     private final TraceSegmentSampler sampler;
     private final boolean forceSampleErrorSegment;
@@ -56,8 +58,12 @@ public class SegmentAnalysisListener implements FirstAnalysisListener, EntryAnal
     private final List<String> searchableTagKeys;
     private final SegmentStatusAnalyzer segmentStatusAnalyzer;
     private final TraceLatencyThresholdsAndWatcher traceLatencyThresholdsAndWatcher;
+    private final boolean compressDataBinary;
 
-    private final Segment segment = new Segment();
+    /**
+     * The source is forwarded to the dispatchers, which could hold it, so it is created per segment.
+     */
+    private Segment segment = new Segment();
     private SAMPLE_STATUS sampleStatus = SAMPLE_STATUS.UNKNOWN;
     private String serviceName = Const.EMPTY_STRING;
     private String serviceId = Const.EMPTY_STRING;
@@ -100,7 +106,8 @@ public class SegmentAnalysisListener implements FirstAnalysisListener, EntryAnal
         segment.setTimeBucket(timeBucket);
         segment.setEndTime(endTimestamp);
         segment.setIsError(BooleanUtils.booleanToValue(isError));
-        segment.setDataBinary(segmentObject.toByteArray());
+        segment.setDataBinary(
+            compressDataBinary ? SegmentDataBinary.compress(segmentObject) : segmentObject.toByteArray());
         segment.setVersion(3);
 
         endpointName = namingControl.formatEndpointName(serviceName, span.getOperationName());
@@ -155,17 +162,18 @@ public class SegmentAnalysisListener implements FirstAnalysisListener, EntryAnal
     }
 
     private void appendSearchableTags(SpanObject span) {
-        HashSet<SpanTag> segmentTags = new HashSet<>();
-        span.getTagsList().forEach(tag -> {
+        HashSet<SpanTag> segmentTags = null;
+        for (final KeyStringValuePair tag : span.getTagsList()) {
             if (searchableTagKeys.contains(tag.getKey())) {
-                final SpanTag spanTag = new SpanTag(tag.getKey(), tag.getValue());
-                if (!segmentTags.contains(spanTag)) {
-                    segmentTags.add(spanTag);
+                if (segmentTags == null) {
+                    segmentTags = new HashSet<>();
                 }
-
+                segmentTags.add(new SpanTag(tag.getKey(), tag.getValue()));
             }
-        });
-        segment.getTags().addAll(segmentTags);
+        }
+        if (segmentTags != null) {
+            segment.getTags().addAll(segmentTags);
+        }
     }
 
     @Override
@@ -184,6 +192,20 @@ public class SegmentAnalysisListener implements FirstAnalysisListener, EntryAnal
         sourceReceiver.receive(segment);
     }
 
+    @Override
+    public void reset() {
+        segment = new Segment();
+        sampleStatus = SAMPLE_STATUS.UNKNOWN;
+        serviceName = Const.EMPTY_STRING;
+        serviceId = Const.EMPTY_STRING;
+        endpointId = Const.EMPTY_STRING;
+        endpointName = Const.EMPTY_STRING;
+        startTimestamp = 0;
+        endTimestamp = 0;
+        duration = 0;
+        isError = false;
+    }
+
     private enum SAMPLE_STATUS {
         UNKNOWN, SAMPLED, IGNORE
     }
@@ -196,6 +218,7 @@ public class SegmentAnalysisListener implements FirstAnalysisListener, EntryAnal
         private final List<String> searchTagKeys;
         private final SegmentStatusAnalyzer segmentStatusAnalyzer;
         private final TraceLatencyThresholdsAndWatcher traceLatencyThresholdsAndWatcher;
+        private final boolean compressDataBinary;
 
         public Factory(ModuleManager moduleManager, AnalyzerModuleConfig config) {
             this.sourceReceiver = moduleManager.find(CoreModule.NAME).provider().getService(SourceReceiver.class);
@@ -211,6 +234,7 @@ public class SegmentAnalysisListener implements FirstAnalysisListener, EntryAnal
             this.segmentStatusAnalyzer = SegmentStatusStrategy.findByName(config.getSegmentStatusAnalysisStrategy())
                                                               .getExceptionAnalyzer();
             this.traceLatencyThresholdsAndWatcher = config.getTraceLatencyThresholdsAndWatcher();
+            this.compressDataBinary = config.isCompressSegmentDataBinary();
         }
 
         @Override
@@ -222,7 +246,8 @@ public class SegmentAnalysisListener implements FirstAnalysisListener, EntryAnal
                 namingControl,
                 searchTagKeys,
                 segmentStatusAnalyzer,
-                traceLatencyThresholdsAndWatcher
+                traceLatencyThresholdsAndWatcher,
+                compressDataBinary
             );
         }
     }
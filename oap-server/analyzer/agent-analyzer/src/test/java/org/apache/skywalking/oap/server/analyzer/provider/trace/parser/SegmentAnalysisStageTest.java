@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.analyzer.provider.trace.parser;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
+import org.apache.skywalking.apm.network.language.agent.v3.SpanObject;
+import org.apache.skywalking.oap.server.telemetry.none.MetricsCreatorNoop;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SegmentAnalysisStageTest {
+
+    @Test(timeout = 20000)
+    public void testAnalyzeTraceInOneThread() throws InterruptedException {
+        final Map<String, Set<String>> threadsOfTrace = new ConcurrentHashMap<>();
+        final CountDownLatch analyzed = new CountDownLatch(100);
+        final SegmentAnalysisStage stage = new SegmentAnalysisStage(
+            4, 100, SegmentAnalysisOverflowPolicy.BLOCK, true, new MetricsCreatorNoop(), segment -> {
+                threadsOfTrace.computeIfAbsent(segment.getTraceId(), id -> ConcurrentHashMap.newKeySet())
+                              .add(Thread.currentThread().getName());
+                analyzed.countDown();
+            });
+
+        for (int i = 0; i < 100; i++) {
+            Assert.assertTrue(stage.in(segment("trace-" + (i % 10), false)));
+        }
+
+        Assert.assertTrue(analyzed.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(10, threadsOfTrace.size());
+        threadsOfTrace.values().forEach(threads -> Assert.assertEquals(1, threads.size()));
+    }
+
+    @Test(timeout = 20000)
+    public void testDropWhenFull() throws InterruptedException {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final SegmentAnalysisStage stage = new SegmentAnalysisStage(
+            1, 2, SegmentAnalysisOverflowPolicy.DROP, true, new MetricsCreatorNoop(), segment -> {
+                started.countDown();
+                await(blocked);
+            });
+        Assert.assertTrue(stage.in(segment("trace", true)));
+        Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        int dropped = 0;
+        for (int i = 0; i < 10; i++) {
+            if (!stage.in(segment("trace", true))) {
+                dropped++;
+            }
+        }
+        blocked.countDown();
+
+        Assert.assertEquals(8, dropped);
+    }
+
+    @Test(timeout = 20000)
+    public void testSampleErrorSegmentWhenFull() throws InterruptedException {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final Set<String> analyzedInline = ConcurrentHashMap.newKeySet();
+        final Thread receiver = Thread.currentThread();
+        final SegmentAnalysisStage stage = new SegmentAnalysisStage(
+            1, 2, SegmentAnalysisOverflowPolicy.SAMPLE, true, new MetricsCreatorNoop(), segment -> {
+                if (Thread.currentThread() == receiver) {
+                    analyzedInline.add(segment.getTraceId());
+                } else {
+                    started.countDown();
+                    await(blocked);
+                }
+            });
+        Assert.assertTrue(stage.in(segment("trace", false)));
+        Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        for (int i = 0; i < 2; i++) {
+            Assert.assertTrue(stage.in(segment("trace", false)));
+        }
+        Assert.assertFalse(stage.in(segment("normal", false)));
+        Assert.assertTrue(stage.in(segment("error", true)));
+        blocked.countDown();
+
+        Assert.assertTrue(analyzedInline.contains("error"));
+        Assert.assertFalse(analyzedInline.contains("normal"));
+    }
+
+    private static SegmentObject segment(String traceId, boolean isError) {
+        return SegmentObject.newBuilder()
+                            .setTraceId(traceId)
+                            .addSpans(SpanObject.newBuilder().setSpanId(0).setIsError(isError))
+                            .build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -24,6 +24,7 @@ import io.vavr.Tuple;
 import io.vavr.Tuple2;
 import java.util.List;
 import lombok.AccessLevel;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
@@ -80,6 +81,10 @@ public class Analyzer {
 
     private static final String FUNCTION_NAME_TEMP = "%s%s";
 
+    /**
+     * The names of the sample families referenced by the expression.
+     */
+    @Getter
     private List<String> samples;
 
     private final String metricName;
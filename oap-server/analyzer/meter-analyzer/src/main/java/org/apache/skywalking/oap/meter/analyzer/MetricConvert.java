@@ -27,10 +27,12 @@ import org.apache.skywalking.oap.server.core.analysis.meter.MeterSystem;
 import org.elasticsearch.common.Strings;
 
 import java.util.List;
+import java.util.Set;
 import java.util.StringJoiner;
 import java.util.stream.Stream;
 
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
 
 /**
  * MetricConvert converts {@link SampleFamily} collection to meter-system metrics, then store them to backend storage.
@@ -73,6 +75,14 @@ public class MetricConvert {
         }
     }
 
+    /**
+     * @return the names of the sample families referenced by the expressions of the rule, the others are ignored in
+     * {@link #toMeter(ImmutableMap)}.
+     */
+    public Set<String> sampleNames() {
+        return analyzers.stream().flatMap(analyzer -> analyzer.getSamples().stream()).collect(toSet());
+    }
+
     private String formatMetricName(MetricRuleConfig rule, String meterRuleName) {
         StringJoiner metricName = new StringJoiner("_");
         metricName.add(rule.getMetricPrefix()).add(meterRuleName);
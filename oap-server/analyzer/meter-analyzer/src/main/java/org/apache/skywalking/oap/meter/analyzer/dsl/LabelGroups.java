@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.meter.analyzer.dsl;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * LabelGroups groups the samples by the values of the given labels for the aggregation. Every group is assigned an
+ * index in the order of its first sample, so the aggregation accumulates the values into the primitive arrays by the
+ * index, and the labels of a group are built once rather than for every sample.
+ */
+final class LabelGroups {
+    private final Sample[] samples;
+    private final List<String> labelKeys;
+    /**
+     * The group index of every sample.
+     */
+    private final int[] groupOfSamples;
+    /**
+     * The label values of every group.
+     */
+    private final String[][] groups;
+    /**
+     * The index of the first sample of every group.
+     */
+    private final int[] firstSamples;
+    private int size;
+
+    LabelGroups(Sample[] samples, List<String> labelKeys) {
+        this.samples = samples;
+        this.labelKeys = labelKeys;
+        this.groupOfSamples = new int[samples.length];
+        this.groups = new String[samples.length][];
+        this.firstSamples = new int[samples.length];
+
+        final Map<LabelValues, Integer> dictionary = new HashMap<>();
+        for (int i = 0; i < samples.length; i++) {
+            final String[] values = new String[labelKeys.size()];
+            for (int k = 0; k < values.length; k++) {
+                values[k] = samples[i].labels.getOrDefault(labelKeys.get(k), "");
+            }
+            final LabelValues key = new LabelValues(values);
+            Integer group = dictionary.get(key);
+            if (group == null) {
+                group = size++;
+                dictionary.put(key, group);
+                groups[group] = values;
+                firstSamples[group] = i;
+            }
+            groupOfSamples[i] = group;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    int groupOf(int sample) {
+        return groupOfSamples[sample];
+    }
+
+    boolean isFirstOf(int sample) {
+        return firstSamples[groupOfSamples[sample]] == sample;
+    }
+
+    /**
+     * @param values the aggregated value of every group.
+     * @return the samples of the groups with the aggregated values, in the order of the first samples of the groups.
+     */
+    Sample[] toSamples(double[] values) {
+        final Sample[] result = new Sample[size];
+        for (int group = 0; group < size; group++) {
+            final String[] labelValues = groups[group];
+            final ImmutableMap.Builder<String, String> labels = ImmutableMap.builderWithExpectedSize(labelValues.length);
+            for (int k = 0; k < labelValues.length; k++) {
+                labels.put(labelKeys.get(k), labelValues[k]);
+            }
+            result[group] = Sample.builder()
+                                  .value(values[group])
+                                  .labels(labels.build())
+                                  .timestamp(samples[firstSamples[group]].timestamp)
+                                  .build();
+        }
+        return result;
+    }
+
+    private static final class LabelValues {
+        private final String[] values;
+        private final int hashCode;
+
+        private LabelValues(String[] values) {
+            this.values = values;
+            this.hashCode = Arrays.hashCode(values);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof LabelValues && hashCode == ((LabelValues) o).hashCode
+                && Arrays.equals(values, ((LabelValues) o).values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -26,8 +26,6 @@ import com.google.common.collect.Maps;
 import com.google.common.util.concurrent.AtomicDouble;
 import groovy.lang.Closure;
 import io.vavr.Function2;
-import io.vavr.Tuple;
-import io.vavr.Tuple2;
 import java.util.function.DoubleBinaryOperator;
 import lombok.AccessLevel;
 import lombok.Builder;
@@ -41,6 +39,7 @@ import org.apache.skywalking.oap.server.core.analysis.meter.ScopeType;
 
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.DoubleSummaryStatistics;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -52,11 +51,6 @@ import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import static com.google.common.collect.ImmutableMap.toImmutableMap;
-import static java.util.stream.Collectors.groupingBy;
-import static java.util.stream.Collectors.mapping;
-import static java.util.stream.Collectors.toList;
-
 /**
  * SampleFamily represents a collection of {@link Sample}.
  */
@@ -183,17 +177,20 @@ public class SampleFamily {
             double result = Arrays.stream(samples).mapToDouble(s -> s.value).average().orElse(0.0D);
             return SampleFamily.build(this.context, newSample(ImmutableMap.of(), samples[0].timestamp, result));
         }
-        return SampleFamily.build(
-            this.context,
-            Arrays.stream(samples)
-                  .map(sample -> Tuple.of(by.stream()
-                                            .collect(toImmutableMap(labelKey -> labelKey, labelKey -> sample.labels.getOrDefault(labelKey, ""))), sample))
-                  .collect(groupingBy(Tuple2::_1, mapping(Tuple2::_2, toList())))
-                  .entrySet().stream()
-                  .map(entry -> newSample(entry.getKey(), entry.getValue().get(0).timestamp, entry.getValue().stream()
-                                                                                                  .mapToDouble(s -> s.value).average().orElse(0.0D)))
-                  .toArray(Sample[]::new)
-        );
+        LabelGroups groups = new LabelGroups(samples, by);
+        DoubleSummaryStatistics[] statistics = new DoubleSummaryStatistics[groups.size()];
+        for (int i = 0; i < samples.length; i++) {
+            int group = groups.groupOf(i);
+            if (groups.isFirstOf(i)) {
+                statistics[group] = new DoubleSummaryStatistics();
+            }
+            statistics[group].accept(samples[i].value);
+        }
+        double[] averages = new double[statistics.length];
+        for (int group = 0; group < statistics.length; group++) {
+            averages[group] = statistics[group].getAverage();
+        }
+        return SampleFamily.build(this.context, groups.toSamples(averages));
     }
 
     protected SampleFamily aggregate(List<String> by, DoubleBinaryOperator aggregator) {
@@ -205,14 +202,14 @@ public class SampleFamily {
             double result = Arrays.stream(samples).mapToDouble(s -> s.value).reduce(aggregator).orElse(0.0D);
             return SampleFamily.build(this.context, newSample(ImmutableMap.of(), samples[0].timestamp, result));
         }
-        return SampleFamily.build(this.context, Arrays.stream(samples)
-            .map(sample -> Tuple.of(by.stream()
-                .collect(toImmutableMap(labelKey -> labelKey, labelKey -> sample.labels.getOrDefault(labelKey, ""))), sample))
-            .collect(groupingBy(Tuple2::_1, mapping(Tuple2::_2, toList())))
-            .entrySet().stream()
-            .map(entry -> newSample(entry.getKey(), entry.getValue().get(0).timestamp, entry.getValue().stream()
-                .mapToDouble(s -> s.value).reduce(aggregator).orElse(0.0D)))
-            .toArray(Sample[]::new));
+        LabelGroups groups = new LabelGroups(samples, by);
+        double[] results = new double[groups.size()];
+        for (int i = 0; i < samples.length; i++) {
+            int group = groups.groupOf(i);
+            results[group] = groups.isFirstOf(i) ? samples[i].value
+                : aggregator.applyAsDouble(results[group], samples[i].value);
+        }
+        return SampleFamily.build(this.context, groups.toSamples(results));
     }
 
     /* Function */
@@ -396,11 +393,14 @@ public class SampleFamily {
     }
 
     private SampleFamily newValue(SampleFamily another, Function2<Double, Double, Double> transform) {
+        // Index the first sample of every labels in another, rather than finding it for every sample.
+        Map<ImmutableMap<String, String>, Sample> anotherSamples = Maps.newHashMapWithExpectedSize(another.samples.length);
+        for (Sample as : another.samples) {
+            anotherSamples.putIfAbsent(as.labels, as);
+        }
         Sample[] ss = Arrays.stream(samples)
-            .flatMap(cs -> io.vavr.collection.Stream.of(another.samples)
-                .find(as -> cs.labels.equals(as.labels))
-                .map(as -> newSample(cs.labels, cs.timestamp, transform.apply(cs.value, as.value)))
-                .toJavaStream())
+            .filter(cs -> anotherSamples.containsKey(cs.labels))
+            .map(cs -> newSample(cs.labels, cs.timestamp, transform.apply(cs.value, anotherSamples.get(cs.labels).value)))
             .toArray(Sample[]::new);
         return ss.length > 0 ? SampleFamily.build(this.context, ss) : EMPTY;
     }
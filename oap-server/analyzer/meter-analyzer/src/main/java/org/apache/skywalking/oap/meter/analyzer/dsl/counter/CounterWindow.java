@@ -19,46 +19,155 @@
 package org.apache.skywalking.oap.meter.analyzer.dsl.counter;
 
 import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.Maps;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import io.vavr.Tuple;
 import io.vavr.Tuple2;
-import java.util.LinkedList;
-import java.util.Map;
-import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import lombok.AccessLevel;
-import lombok.EqualsAndHashCode;
 import lombok.RequiredArgsConstructor;
-import lombok.ToString;
+import org.apache.skywalking.oap.server.telemetry.api.GaugeMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsTag;
 
 /**
  * CounterWindow stores a series of counter samples in order to calculate the increase
  * or instant rate of increase.
  *
+ * The samples of every series are kept in a ring buffer of the primitive timestamps and values, which is guarded by
+ * its own lock, so the series are increased concurrently by the fetcher and receiver threads. The labels of the series
+ * are interned, and the series not increased in {@link #TTL} are expired.
  */
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
-@ToString
-@EqualsAndHashCode
 public class CounterWindow {
 
     public static final CounterWindow INSTANCE = new CounterWindow();
 
-    private final Map<ID, Queue<Tuple2<Long, Double>>> windows = Maps.newHashMap();
+    /**
+     * The series not increased in the TTL are expired.
+     */
+    private static final long TTL = TimeUnit.HOURS.toMillis(1);
+    private static final long EXPIRE_INTERVAL = TimeUnit.MINUTES.toMillis(1);
+    /**
+     * The estimated bytes of a series except the samples and the labels, including the window, the array headers, the
+     * ID and the map entry.
+     */
+    private static final long SERIES_OVERHEAD = 128;
+
+    private final ConcurrentHashMap<ID, Window> windows = new ConcurrentHashMap<>();
+    private final Interner<String> interner = Interners.newWeakInterner();
+    private final AtomicLong lastExpireTime = new AtomicLong(System.currentTimeMillis());
+    private volatile GaugeMetrics seriesGauge;
+    private volatile GaugeMetrics memoryGauge;
 
     public Tuple2<Long, Double> increase(String name, ImmutableMap<String, String> labels, Double value, long windowSize, long now) {
-        ID id = new ID(name, labels);
-        if (!windows.containsKey(id)) {
-            windows.put(id, new LinkedList<>());
+        final long currentTime = System.currentTimeMillis();
+        final long expireTime = lastExpireTime.get();
+        if (currentTime - expireTime >= EXPIRE_INTERVAL && lastExpireTime.compareAndSet(expireTime, currentTime)) {
+            expire(currentTime);
         }
-        Queue<Tuple2<Long, Double>> window = windows.get(id);
-        window.offer(Tuple.of(now, value));
-        Tuple2<Long, Double> ps = window.element();
-        if ((now - ps._1) >= windowSize) {
-            window.remove();
+
+        ID id = new ID(name, labels);
+        Window window = windows.get(id);
+        if (window == null) {
+            window = windows.computeIfAbsent(intern(id), key -> new Window());
         }
-        return ps;
+        return window.increase(value, windowSize, now, currentTime);
+    }
+
+    /**
+     * Report the number and the estimated memory of the series through the telemetry, which are refreshed when the
+     * idle series are expired.
+     */
+    public void enableTelemetry(MetricsCreator metricsCreator) {
+        seriesGauge = metricsCreator.createGauge(
+            "meter_counter_window_series", "The number of the series in the counter window of MAL",
+            MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE
+        );
+        memoryGauge = metricsCreator.createGauge(
+            "meter_counter_window_memory_bytes", "The estimated bytes of the counter window of MAL, except the labels",
+            MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE
+        );
+    }
+
+    public int seriesCount() {
+        return windows.size();
     }
 
     public void reset() {
         windows.clear();
     }
+
+    /**
+     * Remove the series not increased in the {@link #TTL} before the current time, and refresh the telemetry.
+     */
+    void expire(long currentTime) {
+        windows.values().removeIf(window -> currentTime - window.lastIncreaseTime >= TTL);
+
+        if (seriesGauge == null) {
+            return;
+        }
+        long memory = 0;
+        for (final Window window : windows.values()) {
+            memory += SERIES_OVERHEAD + window.capacity() * (Long.BYTES + Double.BYTES);
+        }
+        seriesGauge.setValue(windows.size());
+        memoryGauge.setValue(memory);
+    }
+
+    private ID intern(ID id) {
+        final ImmutableMap.Builder<String, String> labels = ImmutableMap.builderWithExpectedSize(id.getLabels().size());
+        id.getLabels().forEach((k, v) -> labels.put(interner.intern(k), interner.intern(v)));
+        return new ID(id.getName() == null ? null : interner.intern(id.getName()), labels.build());
+    }
+
+    /**
+     * Window is the ring buffer of the samples of one series, in the order of the increasing.
+     */
+    private static class Window {
+        private static final int INITIAL_CAPACITY = 4;
+
+        private long[] timestamps = new long[INITIAL_CAPACITY];
+        private double[] values = new double[INITIAL_CAPACITY];
+        private int head;
+        private int size;
+        private volatile long lastIncreaseTime;
+
+        synchronized Tuple2<Long, Double> increase(double value, long windowSize, long now, long currentTime) {
+            lastIncreaseTime = currentTime;
+            if (size == timestamps.length) {
+                grow();
+            }
+            final int tail = (head + size) % timestamps.length;
+            timestamps[tail] = now;
+            values[tail] = value;
+            size++;
+
+            final long lowerBoundTime = timestamps[head];
+            final double lowerBoundValue = values[head];
+            if ((now - lowerBoundTime) >= windowSize) {
+                head = (head + 1) % timestamps.length;
+                size--;
+            }
+            return Tuple.of(lowerBoundTime, lowerBoundValue);
+        }
+
+        synchronized int capacity() {
+            return timestamps.length;
+        }
+
+        private void grow() {
+            final long[] newTimestamps = new long[timestamps.length << 1];
+            final double[] newValues = new double[values.length << 1];
+            for (int i = 0; i < size; i++) {
+                newTimestamps[i] = timestamps[(head + i) % timestamps.length];
+                newValues[i] = values[(head + i) % values.length];
+            }
+            timestamps = newTimestamps;
+            values = newValues;
+            head = 0;
+        }
+    }
 }
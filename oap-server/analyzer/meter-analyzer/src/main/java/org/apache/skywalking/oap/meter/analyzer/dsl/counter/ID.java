@@ -19,16 +19,45 @@
 package org.apache.skywalking.oap.meter.analyzer.dsl.counter;
 
 import com.google.common.collect.ImmutableMap;
-import lombok.EqualsAndHashCode;
-import lombok.RequiredArgsConstructor;
+import java.util.Objects;
+import lombok.Getter;
 import lombok.ToString;
 
-@RequiredArgsConstructor
-@EqualsAndHashCode
+/**
+ * ID identifies a series by the name and the labels. The hash code is computed once, as the ID is created for every
+ * sample to look up the window.
+ */
+@Getter
 @ToString
 class ID {
 
     private final String name;
 
     private final ImmutableMap<String, String> labels;
+
+    @ToString.Exclude
+    private final int hashCode;
+
+    ID(String name, ImmutableMap<String, String> labels) {
+        this.name = name;
+        this.labels = labels;
+        this.hashCode = 31 * Objects.hashCode(name) + labels.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ID)) {
+            return false;
+        }
+        ID id = (ID) o;
+        return hashCode == id.hashCode && Objects.equals(name, id.name) && labels.equals(id.labels);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
 }
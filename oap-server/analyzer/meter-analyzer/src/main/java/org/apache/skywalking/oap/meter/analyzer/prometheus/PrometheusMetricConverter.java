@@ -36,6 +36,7 @@ import org.apache.skywalking.oap.server.library.util.prometheus.metrics.Summary;
 
 import java.util.Collections;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Stream;
 
 import static com.google.common.collect.ImmutableMap.toImmutableMap;
@@ -54,8 +55,11 @@ public class PrometheusMetricConverter {
 
     private final MetricConvert convert;
 
+    private final Set<String> sampleNames;
+
     public PrometheusMetricConverter(Rule rule, MeterSystem service) {
         this.convert = new MetricConvert(rule, service);
+        this.sampleNames = convert.sampleNames();
     }
 
     /**
@@ -68,6 +72,15 @@ public class PrometheusMetricConverter {
         convert.toMeter(data);
     }
 
+    /**
+     * @param metricFamily the name of the prometheus metric family.
+     * @return true if any sample converted from the metric family is referenced by the rule.
+     */
+    public boolean accepts(String metricFamily) {
+        final String name = escapedName(metricFamily);
+        return sampleNames.contains(name) || sampleNames.contains(name + "_count") || sampleNames.contains(name + "_sum");
+    }
+
     public ImmutableMap<String, SampleFamily> convertPromMetricToSampleFamily(Stream<Metric> metricStream) {
         return metricStream
             .peek(metric -> log.debug("Prom metric to be convert to SampleFamily: {}", metric))
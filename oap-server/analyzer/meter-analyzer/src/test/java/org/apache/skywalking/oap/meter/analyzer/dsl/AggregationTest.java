@@ -19,6 +19,7 @@
 package org.apache.skywalking.oap.meter.analyzer.dsl;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableMultiset;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -187,6 +188,11 @@ public class AggregationTest {
         if (isThrow) {
             fail("Should throw something");
         }
-        assertThat(r, is(want));
+        // The aggregated samples are compared regardless of their order.
+        assertThat(r.isSuccess(), is(want.isSuccess()));
+        assertThat(r.getError(), is(want.getError()));
+        assertThat(r.getData().context, is(want.getData().context));
+        assertThat(
+            ImmutableMultiset.copyOf(r.getData().samples), is(ImmutableMultiset.copyOf(want.getData().samples)));
     }
 }
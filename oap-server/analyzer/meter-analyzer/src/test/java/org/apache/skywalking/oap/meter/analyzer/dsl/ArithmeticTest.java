@@ -182,6 +182,23 @@ public class ArithmeticTest {
                 ).build()),
                 false,
             },
+            {
+                "sampleFamily-minus-sampleFamily-of-other-order",
+                of("http_success_request", SampleFamilyBuilder.newBuilder(
+                    Sample.builder().labels(of("idc", "t1", "region", "us")).value(100).build(),
+                    Sample.builder().labels(of("idc", "t2")).value(30).build()
+                ).build(), "http_error_request", SampleFamilyBuilder.newBuilder(
+                    Sample.builder().labels(of("idc", "t2")).value(3).build(),
+                    Sample.builder().labels(of("region", "us", "idc", "t1")).value(50).build(),
+                    Sample.builder().labels(of("idc", "t2")).value(7).build()
+                ).build()),
+                "http_success_request - http_error_request",
+                Result.success(SampleFamilyBuilder.newBuilder(
+                    Sample.builder().labels(of("idc", "t1", "region", "us")).value(50).build(),
+                    Sample.builder().labels(of("idc", "t2")).value(27).build()
+                ).build()),
+                false,
+            },
             {
                 "empty-minus-empty",
                 of("http_success_request", SampleFamily.EMPTY,
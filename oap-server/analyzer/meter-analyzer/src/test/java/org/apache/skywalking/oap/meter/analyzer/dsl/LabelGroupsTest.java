@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.meter.analyzer.dsl;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Test;
+
+import static com.google.common.collect.ImmutableMap.of;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LabelGroupsTest {
+
+    @Test
+    public void testGroupsInOrderOfFirstSamples() {
+        Sample[] samples = new Sample[] {
+            sample(of("idc", "t1"), 1),
+            sample(of("idc", "t3", "region", "cn", "svc", "catalog"), 2),
+            sample(of("idc", "t1", "region", "us", "svc", "product"), 3),
+            sample(of("region", "us", "idc", "t1", "instance", "10.0.0.1"), 4),
+            sample(of("idc", "t3", "region", "cn", "instance", "10.0.0.1"), 5)
+        };
+        LabelGroups groups = new LabelGroups(samples, Arrays.asList("region", "idc"));
+
+        assertEquals(3, groups.size());
+        int[] groupOfSamples = new int[samples.length];
+        for (int i = 0; i < samples.length; i++) {
+            groupOfSamples[i] = groups.groupOf(i);
+        }
+        assertArrayEquals(new int[] {0, 1, 2, 2, 1}, groupOfSamples);
+        assertTrue(groups.isFirstOf(0));
+        assertTrue(groups.isFirstOf(1));
+        assertTrue(groups.isFirstOf(2));
+        assertFalse(groups.isFirstOf(3));
+        assertFalse(groups.isFirstOf(4));
+
+        Sample[] result = groups.toSamples(new double[] {10, 20, 30});
+        assertArrayEquals(new Sample[] {
+            sample(of("region", "", "idc", "t1"), 1, 10),
+            sample(of("region", "cn", "idc", "t3"), 2, 20),
+            sample(of("region", "us", "idc", "t1"), 3, 30)
+        }, result);
+    }
+
+    @Test
+    public void testWithoutLabelKeys() {
+        Sample[] samples = new Sample[] {
+            sample(of("idc", "t1"), 1),
+            sample(of("idc", "t2"), 2)
+        };
+        LabelGroups groups = new LabelGroups(samples, Collections.emptyList());
+
+        assertEquals(1, groups.size());
+        assertEquals(0, groups.groupOf(1));
+        assertFalse(groups.isFirstOf(1));
+        assertArrayEquals(
+            new Sample[] {sample(ImmutableMap.of(), 1, 3)}, groups.toSamples(new double[] {3}));
+    }
+
+    private static Sample sample(ImmutableMap<String, String> labels, long timestamp) {
+        return sample(labels, timestamp, timestamp);
+    }
+
+    private static Sample sample(ImmutableMap<String, String> labels, long timestamp, double value) {
+        return Sample.builder().labels(labels).timestamp(timestamp).value(value).build();
+    }
+}
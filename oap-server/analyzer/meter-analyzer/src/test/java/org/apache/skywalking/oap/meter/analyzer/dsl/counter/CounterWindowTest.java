@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.meter.analyzer.dsl.counter;
+
+import com.google.common.collect.ImmutableMap;
+import io.vavr.Tuple2;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CounterWindowTest {
+    private static final ImmutableMap<String, String> LABELS = ImmutableMap.of("svc", "catalog");
+
+    @Before
+    @After
+    public void reset() {
+        CounterWindow.INSTANCE.reset();
+    }
+
+    @Test
+    public void testIncreaseInWindow() {
+        final CounterWindow window = CounterWindow.INSTANCE;
+        // The window grows beyond the initial capacity before the first sample is out of the window.
+        for (int i = 0; i < 10; i++) {
+            final Tuple2<Long, Double> lowerBound = window.increase("http", LABELS, (double) i, 10_000, i * 1000L);
+            Assert.assertEquals(0L, lowerBound._1.longValue());
+            Assert.assertEquals(0D, lowerBound._2, 0D);
+        }
+        for (int i = 10; i < 30; i++) {
+            final Tuple2<Long, Double> lowerBound = window.increase("http", LABELS, (double) i, 10_000, i * 1000L);
+            Assert.assertEquals((i - 10) * 1000L, lowerBound._1.longValue());
+            Assert.assertEquals(i - 10, lowerBound._2, 0D);
+        }
+        Assert.assertEquals(1, window.seriesCount());
+    }
+
+    @Test
+    public void testSeriesOfLabels() {
+        final CounterWindow window = CounterWindow.INSTANCE;
+        window.increase("http", LABELS, 1D, 10_000, 1000);
+        window.increase("http", ImmutableMap.of("svc", "product"), 5D, 10_000, 1000);
+
+        Assert.assertEquals(1D, window.increase("http", ImmutableMap.of("svc", "catalog"), 2D, 10_000, 2000)._2, 0D);
+        Assert.assertEquals(5D, window.increase("http", ImmutableMap.of("svc", "product"), 6D, 10_000, 2000)._2, 0D);
+        Assert.assertEquals(2, window.seriesCount());
+    }
+
+    @Test
+    public void testExpireIdleSeries() {
+        final CounterWindow window = CounterWindow.INSTANCE;
+        window.increase("http", LABELS, 1D, 10_000, 1000);
+
+        window.expire(System.currentTimeMillis());
+        Assert.assertEquals(1, window.seriesCount());
+
+        window.expire(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(2));
+        Assert.assertEquals(0, window.seriesCount());
+        Assert.assertEquals(2D, window.increase("http", LABELS, 2D, 10_000, 2000)._2, 0D);
+    }
+
+    @Test
+    public void testConcurrentIncrease() throws Exception {
+        final int threads = 4;
+        final int series = 1000;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            final String service = "service-" + t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int time = 0; time < 20; time++) {
+                    for (int s = 0; s < series; s++) {
+                        final Tuple2<Long, Double> lowerBound = CounterWindow.INSTANCE.increase(
+                            "http", ImmutableMap.of("svc", service, "instance", String.valueOf(s)),
+                            (double) time, 5_000, time * 1000L
+                        );
+                        Assert.assertEquals(Math.max(0, time - 5), lowerBound._2, 0D);
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (final Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        Assert.assertEquals(threads * series, CounterWindow.INSTANCE.seriesCount());
+    }
+}
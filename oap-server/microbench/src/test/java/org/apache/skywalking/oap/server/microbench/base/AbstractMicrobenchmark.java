@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.microbench.base;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * The base of the microbenchmarks of the OAP. {@link #run(Class, String[])} runs the benchmarks of the given class
+ * twice, with the GC profiler for the allocations per operation(gc.alloc.rate.norm),
+ * <ul>
+ * <li>in the throughput mode, the score is the records per second, as every benchmark declares the number of records
+ * in one operation through {@link org.openjdk.jmh.annotations.OperationsPerInvocation}.</li>
+ * <li>in the sample time mode, the score includes the percentiles of the latency of one operation, such as p0.99, in
+ * microseconds.</li>
+ * </ul>
+ * The arguments of the JMH command line are accepted, such as {@code -p cardinality=100000} to change the entity
+ * cardinality, and {@code -rf json -rff result.json} to save the results.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public abstract class AbstractMicrobenchmark {
+
+    protected static void run(Class<? extends AbstractMicrobenchmark> benchmark,
+                              String[] args) throws CommandLineOptionException, RunnerException {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        new Runner(options(benchmark, commandLineOptions).mode(Mode.Throughput)
+                                                         .timeUnit(TimeUnit.SECONDS)
+                                                         .build()).run();
+        new Runner(options(benchmark, commandLineOptions).mode(Mode.SampleTime)
+                                                         .timeUnit(TimeUnit.MICROSECONDS)
+                                                         .build()).run();
+    }
+
+    private static ChainedOptionsBuilder options(Class<? extends AbstractMicrobenchmark> benchmark,
+                                                 CommandLineOptions commandLineOptions) {
+        ChainedOptionsBuilder builder = new OptionsBuilder().parent(commandLineOptions)
+                                                            .addProfiler(GCProfiler.class);
+        if (commandLineOptions.getIncludes().isEmpty()) {
+            builder.include(benchmark.getName());
+        }
+        return builder;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.microbench.base;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import lombok.Getter;
+import org.apache.skywalking.oap.server.core.CoreModule;
+import org.apache.skywalking.oap.server.core.analysis.config.NoneStream;
+import org.apache.skywalking.oap.server.core.analysis.management.ManagementData;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.analysis.record.Record;
+import org.apache.skywalking.oap.server.core.config.DownSamplingConfigService;
+import org.apache.skywalking.oap.server.core.remote.RemoteSenderService;
+import org.apache.skywalking.oap.server.core.remote.client.RemoteClientManager;
+import org.apache.skywalking.oap.server.core.storage.IManagementDAO;
+import org.apache.skywalking.oap.server.core.storage.IMetricsDAO;
+import org.apache.skywalking.oap.server.core.storage.INoneStreamDAO;
+import org.apache.skywalking.oap.server.core.storage.IRecordDAO;
+import org.apache.skywalking.oap.server.core.storage.StorageBuilder;
+import org.apache.skywalking.oap.server.core.storage.StorageDAO;
+import org.apache.skywalking.oap.server.core.storage.StorageModule;
+import org.apache.skywalking.oap.server.core.storage.model.ModelCreator;
+import org.apache.skywalking.oap.server.core.storage.model.StorageModels;
+import org.apache.skywalking.oap.server.core.worker.IWorkerInstanceGetter;
+import org.apache.skywalking.oap.server.core.worker.IWorkerInstanceSetter;
+import org.apache.skywalking.oap.server.core.worker.WorkerInstancesService;
+import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
+import org.apache.skywalking.oap.server.telemetry.none.MetricsCreatorNoop;
+import org.apache.skywalking.oap.server.testing.module.ModuleDefineTesting;
+import org.apache.skywalking.oap.server.testing.module.ModuleManagerTesting;
+
+/**
+ * The minimal modules to run the metrics streaming in one JVM. The remote sender forwards to the local receiver, the
+ * storage keeps the metrics in memory, and only the minute precision is enabled.
+ */
+public class BenchmarkModuleManager extends ModuleManagerTesting {
+    @Getter
+    private final List<InMemoryMetricsDAO> metricsDAOs = Collections.synchronizedList(new ArrayList<>());
+
+    public BenchmarkModuleManager() {
+        ModuleDefineTesting coreModule = new ModuleDefineTesting();
+        WorkerInstancesService workerInstancesService = new WorkerInstancesService();
+        coreModule.provider().registerServiceImplementation(IWorkerInstanceGetter.class, workerInstancesService);
+        coreModule.provider().registerServiceImplementation(IWorkerInstanceSetter.class, workerInstancesService);
+        coreModule.provider().registerServiceImplementation(ModelCreator.class, new StorageModels());
+        coreModule.provider().registerServiceImplementation(
+            DownSamplingConfigService.class, new DownSamplingConfigService(Collections.emptyList()));
+        coreModule.provider().registerServiceImplementation(
+            RemoteSenderService.class, new LocalRemoteSenderService(workerInstancesService));
+        coreModule.provider().registerServiceImplementation(
+            RemoteClientManager.class, new RemoteClientManager(this, 10));
+        put(CoreModule.NAME, coreModule);
+
+        ModuleDefineTesting storageModule = new ModuleDefineTesting();
+        storageModule.provider().registerServiceImplementation(StorageDAO.class, new StorageDAO() {
+            @Override
+            public IMetricsDAO newMetricsDao(StorageBuilder<Metrics> storageBuilder) {
+                InMemoryMetricsDAO metricsDAO = new InMemoryMetricsDAO(storageBuilder);
+                metricsDAOs.add(metricsDAO);
+                return metricsDAO;
+            }
+
+            @Override
+            public IRecordDAO newRecordDao(StorageBuilder<Record> storageBuilder) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public INoneStreamDAO newNoneStreamDao(StorageBuilder<NoneStream> storageBuilder) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public IManagementDAO newManagementDao(StorageBuilder<ManagementData> storageBuilder) {
+                throw new UnsupportedOperationException();
+            }
+        });
+        put(StorageModule.NAME, storageModule);
+
+        ModuleDefineTesting telemetryModule = new ModuleDefineTesting();
+        telemetryModule.provider().registerServiceImplementation(MetricsCreator.class, new MetricsCreatorNoop());
+        put(TelemetryModule.NAME, telemetryModule);
+    }
+
+    /**
+     * Clear the metrics persisted by the previous iteration, to let every iteration start from the same state.
+     */
+    public void clearStorage() {
+        metricsDAOs.forEach(InMemoryMetricsDAO::clear);
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.microbench.base;
+
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+import org.apache.skywalking.oap.server.core.Const;
+import org.apache.skywalking.oap.server.core.analysis.Stream;
+import org.apache.skywalking.oap.server.core.analysis.metrics.CPMMetrics;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.analysis.worker.MetricsStreamProcessor;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.apache.skywalking.oap.server.core.source.DefaultScopeDefine;
+import org.apache.skywalking.oap.server.core.storage.StorageBuilder;
+import org.apache.skywalking.oap.server.core.storage.annotation.Column;
+
+/**
+ * The same metrics as the OAL generates for {@code endpoint_cpm = from(Endpoint.*).cpm()}, to benchmark the workers
+ * without the OAL engine.
+ */
+@Stream(name = EndpointCpmMetrics.INDEX_NAME, scopeId = DefaultScopeDefine.ENDPOINT,
+    builder = EndpointCpmMetrics.Builder.class, processor = MetricsStreamProcessor.class)
+public class EndpointCpmMetrics extends CPMMetrics {
+
+    public static final String INDEX_NAME = "microbench_endpoint_cpm";
+    public static final String SERVICE_ID = "service_id";
+
+    @Setter
+    @Getter
+    @Column(columnName = ENTITY_ID, length = 512)
+    private String entityId;
+    @Setter
+    @Getter
+    @Column(columnName = SERVICE_ID)
+    private String serviceId;
+
+    public EndpointCpmMetrics() {
+    }
+
+    public EndpointCpmMetrics(String entityId, String serviceId, long timeBucket) {
+        this.entityId = entityId;
+        this.serviceId = serviceId;
+        setTimeBucket(timeBucket);
+        combine(1);
+    }
+
+    @Override
+    public String id() {
+        return getTimeBucket() + Const.ID_CONNECTOR + entityId;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = 17;
+        result = 31 * result + entityId.hashCode();
+        result = 31 * result + (int) getTimeBucket();
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        EndpointCpmMetrics metrics = (EndpointCpmMetrics) obj;
+        return entityId.equals(metrics.entityId) && getTimeBucket() == metrics.getTimeBucket();
+    }
+
+    @Override
+    public int remoteHashCode() {
+        return entityId.hashCode();
+    }
+
+    @Override
+    public Metrics toHour() {
+        EndpointCpmMetrics metrics = copy();
+        metrics.setTimeBucket(toTimeBucketInHour());
+        return metrics;
+    }
+
+    @Override
+    public Metrics toDay() {
+        EndpointCpmMetrics metrics = copy();
+        metrics.setTimeBucket(toTimeBucketInDay());
+        return metrics;
+    }
+
+    private EndpointCpmMetrics copy() {
+        EndpointCpmMetrics metrics = new EndpointCpmMetrics();
+        metrics.setEntityId(getEntityId());
+        metrics.setServiceId(getServiceId());
+        metrics.setValue(getValue());
+        metrics.setTotal(getTotal());
+        return metrics;
+    }
+
+    @Override
+    public void deserialize(RemoteData remoteData) {
+        setEntityId(remoteData.getDataStrings(0));
+        setServiceId(remoteData.getDataStrings(1));
+
+        setValue(remoteData.getDataLongs(0));
+        setTotal(remoteData.getDataLongs(1));
+        setTimeBucket(remoteData.getDataLongs(2));
+    }
+
+    @Override
+    public RemoteData.Builder serialize() {
+        RemoteData.Builder remoteBuilder = RemoteData.newBuilder();
+        remoteBuilder.addDataStrings(getEntityId());
+        remoteBuilder.addDataStrings(getServiceId());
+
+        remoteBuilder.addDataLongs(getValue());
+        remoteBuilder.addDataLongs(getTotal());
+        remoteBuilder.addDataLongs(getTimeBucket());
+        return remoteBuilder;
+    }
+
+    public static class Builder implements StorageBuilder<EndpointCpmMetrics> {
+
+        @Override
+        public EndpointCpmMetrics map2Data(Map<String, Object> dbMap) {
+            EndpointCpmMetrics metrics = new EndpointCpmMetrics();
+            metrics.setEntityId((String) dbMap.get(ENTITY_ID));
+            metrics.setServiceId((String) dbMap.get(SERVICE_ID));
+            metrics.setValue(((Number) dbMap.get(VALUE)).longValue());
+            metrics.setTotal(((Number) dbMap.get(TOTAL)).longValue());
+            metrics.setTimeBucket(((Number) dbMap.get(TIME_BUCKET)).longValue());
+            return metrics;
+        }
+
+        @Override
+        public Map<String, Object> data2Map(EndpointCpmMetrics storageData) {
+            Map<String, Object> map = new HashMap<>();
+            map.put(ENTITY_ID, storageData.getEntityId());
+            map.put(SERVICE_ID, storageData.getServiceId());
+            map.put(VALUE, storageData.getValue());
+            map.put(TOTAL, storageData.getTotal());
+            map.put(TIME_BUCKET, storageData.getTimeBucket());
+            return map;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.microbench.base;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.storage.IIncrementalMetricsDAO;
+import org.apache.skywalking.oap.server.core.storage.StorageBuilder;
+import org.apache.skywalking.oap.server.core.storage.model.Model;
+import org.apache.skywalking.oap.server.library.client.request.InsertRequest;
+import org.apache.skywalking.oap.server.library.client.request.UpdateRequest;
+
+/**
+ * The metrics DAO keeps the data in the memory. The metrics are converted through the {@link StorageBuilder} as the
+ * real storage does, and the prepared requests take effect immediately.
+ */
+public class InMemoryMetricsDAO implements IIncrementalMetricsDAO {
+    private static final InsertRequest INSERT_REQUEST = new InsertRequest() {
+    };
+    private static final UpdateRequest UPDATE_REQUEST = new UpdateRequest() {
+    };
+
+    private final StorageBuilder<Metrics> storageBuilder;
+    private final Map<Metrics, Map<String, Object>> storage = new ConcurrentHashMap<>();
+
+    public InMemoryMetricsDAO(StorageBuilder<Metrics> storageBuilder) {
+        this.storageBuilder = storageBuilder;
+    }
+
+    @Override
+    public List<Metrics> multiGet(Model model, List<Metrics> metrics) {
+        List<Metrics> result = new ArrayList<>(metrics.size());
+        for (Metrics m : metrics) {
+            Map<String, Object> data = storage.get(m);
+            if (data != null) {
+                result.add(storageBuilder.map2Data(data));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public InsertRequest prepareBatchInsert(Model model, Metrics metrics) {
+        storage.put(metrics, storageBuilder.data2Map(metrics));
+        return INSERT_REQUEST;
+    }
+
+    @Override
+    public UpdateRequest prepareBatchUpdate(Model model, Metrics metrics) {
+        storage.put(metrics, storageBuilder.data2Map(metrics));
+        return UPDATE_REQUEST;
+    }
+
+    /**
+     * Merge the metrics into the persisted one, as the storage does in the upsert.
+     */
+    @Override
+    public UpdateRequest prepareBatchIncrement(Model model, Metrics metrics) {
+        storage.compute(metrics, (key, data) -> {
+            if (data == null) {
+                return storageBuilder.data2Map(metrics);
+            }
+            Metrics persisted = storageBuilder.map2Data(data);
+            persisted.combine(metrics);
+            persisted.calculate();
+            return storageBuilder.data2Map(persisted);
+        });
+        return UPDATE_REQUEST;
+    }
+
+    public void clear() {
+        storage.clear();
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.microbench.base;
+
+import org.apache.skywalking.oap.server.core.remote.RemoteSenderService;
+import org.apache.skywalking.oap.server.core.remote.data.StreamData;
+import org.apache.skywalking.oap.server.core.remote.selector.Selector;
+import org.apache.skywalking.oap.server.core.worker.IWorkerInstanceGetter;
+
+/**
+ * Send the data to the worker of the current OAP directly, as the {@link org.apache.skywalking.oap.server.core.remote.client.SelfRemoteClient}
+ * of a single node cluster does.
+ */
+public class LocalRemoteSenderService extends RemoteSenderService {
+    private final IWorkerInstanceGetter workerInstanceGetter;
+
+    public LocalRemoteSenderService(IWorkerInstanceGetter workerInstanceGetter) {
+        super(null);
+        this.workerInstanceGetter = workerInstanceGetter;
+    }
+
+    @Override
+    public void send(String nextWorkName, StreamData streamData, Selector selector) {
+        workerInstanceGetter.get(nextWorkName).getWorker().in(streamData);
+    }
+}
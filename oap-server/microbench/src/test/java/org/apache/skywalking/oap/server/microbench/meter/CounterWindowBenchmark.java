@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.microbench.meter;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.skywalking.oap.meter.analyzer.dsl.Sample;
+import org.apache.skywalking.oap.meter.analyzer.dsl.SampleFamily;
+import org.apache.skywalking.oap.meter.analyzer.dsl.SampleFamilyBuilder;
+import org.apache.skywalking.oap.meter.analyzer.dsl.counter.CounterWindow;
+import org.apache.skywalking.oap.server.microbench.base.AbstractMicrobenchmark;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Calculate the increase and the rate of the counters in the MAL, {@link SampleFamily#increase(String)} and {@link
+ * SampleFamily#rate(String)}, over the given number of the series. The series are scraped every 15 seconds, and the
+ * counter windows are filled up to the range before the measurement. Every thread has its own series, so run with
+ * {@code -t 4} for the concurrent fetchers and receivers.
+ */
+@Slf4j
+@State(Scope.Thread)
+public class CounterWindowBenchmark extends AbstractMicrobenchmark {
+    private static final int BATCH_SIZE = 1000;
+    private static final long SCRAPE_INTERVAL = 15_000;
+    private static final String RANGE = "PT1M";
+    private static final AtomicInteger THREADS = new AtomicInteger();
+
+    @Param({
+        "10000",
+        "500000"
+    })
+    private int series;
+
+    private ImmutableMap<String, String>[] labels;
+    private long timestamp;
+    private int cursor;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        final String thread = String.valueOf(THREADS.getAndIncrement());
+        labels = new ImmutableMap[series];
+        for (int i = 0; i < series; i++) {
+            labels[i] = ImmutableMap.of(
+                "thread", thread,
+                "service", "benchmark-service-" + i % 100,
+                "instance", "benchmark-instance-" + i % 1000,
+                "endpoint", "/benchmark/endpoint/" + i
+            );
+        }
+        // Fill the counter windows up to the range.
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < series / BATCH_SIZE; i++) {
+                next().increase(RANGE);
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        log.info("Series in the counter window: {}", CounterWindow.INSTANCE.seriesCount());
+        CounterWindow.INSTANCE.reset();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public SampleFamily increase() {
+        return next().increase(RANGE);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public SampleFamily rate() {
+        return next().rate(RANGE);
+    }
+
+    /**
+     * @return the next batch of the samples, in the next scrape once all series are sampled.
+     */
+    private SampleFamily next() {
+        if (cursor + BATCH_SIZE > series) {
+            cursor = 0;
+            timestamp += SCRAPE_INTERVAL;
+        }
+        final Sample[] samples = new Sample[BATCH_SIZE];
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            samples[i] = Sample.builder()
+                               .name("http_requests_total")
+                               .labels(labels[cursor + i])
+                               .value(timestamp / 10D + i)
+                               .timestamp(timestamp)
+                               .build();
+        }
+        cursor += BATCH_SIZE;
+        return SampleFamilyBuilder.newBuilder(samples).build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        run(CounterWindowBenchmark.class, args);
+    }
+}
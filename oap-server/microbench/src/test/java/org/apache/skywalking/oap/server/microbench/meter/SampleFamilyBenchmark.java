@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.microbench.meter;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.apache.skywalking.oap.meter.analyzer.dsl.Sample;
+import org.apache.skywalking.oap.meter.analyzer.dsl.SampleFamily;
+import org.apache.skywalking.oap.meter.analyzer.dsl.SampleFamilyBuilder;
+import org.apache.skywalking.oap.server.microbench.base.AbstractMicrobenchmark;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Aggregate the samples of a scrape by the labels, and calculate the binary operations between two sample families, as
+ * the MAL expressions do, e.g. {@code process_virtual_memory_bytes.sum(['cluster', 'app'])} and {@code
+ * (metric_a / metric_b).avg(['service'])}. The operations are measured per sample.
+ */
+@State(Scope.Thread)
+public class SampleFamilyBenchmark extends AbstractMicrobenchmark {
+    private static final int BATCH_SIZE = 1000;
+
+    /**
+     * The number of the groups the samples are aggregated into.
+     */
+    @Param({
+        "1",
+        "100",
+        "1000"
+    })
+    private int groups;
+
+    private final List<String> by = Arrays.asList("cluster", "service");
+
+    private SampleFamily left;
+    private SampleFamily right;
+
+    @Setup
+    public void setup() {
+        left = newSampleFamily("metric_a", 1);
+        right = newSampleFamily("metric_b", 2);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public SampleFamily sum() {
+        return left.sum(by);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public SampleFamily avg() {
+        return left.avg(by);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public SampleFamily max() {
+        return left.max(by);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public SampleFamily div() {
+        return left.div(right);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public SampleFamily sumOfAll() {
+        return left.sum(Collections.emptyList());
+    }
+
+    private SampleFamily newSampleFamily(String name, double value) {
+        final Sample[] samples = new Sample[BATCH_SIZE];
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            samples[i] = Sample.builder()
+                               .name(name)
+                               .labels(ImmutableMap.of(
+                                   "cluster", "benchmark-cluster",
+                                   "service", "benchmark-service-" + i % groups,
+                                   "instance", "benchmark-instance-" + i
+                               ))
+                               .value(value * i)
+                               .timestamp(System.currentTimeMillis())
+                               .build();
+        }
+        return SampleFamilyBuilder.newBuilder(samples).build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        run(SampleFamilyBenchmark.class, args);
+    }
+}
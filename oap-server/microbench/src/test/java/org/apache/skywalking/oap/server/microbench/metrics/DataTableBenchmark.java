@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.microbench.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.skywalking.oap.server.core.analysis.metrics.DataTable;
+import org.apache.skywalking.oap.server.microbench.base.AbstractMicrobenchmark;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compare the encode/decode throughput of the default and compact storage formats of {@link DataTable}, with a
+ * histogram dataset of 20 buckets in 100ms steps. {@link #main(String[])} logs the stored sizes too.
+ */
+@Slf4j
+@State(Scope.Thread)
+public class DataTableBenchmark extends AbstractMicrobenchmark {
+    private DataTable dataTable;
+    private String storageData;
+    private String compactStorageData;
+
+    @Setup
+    public void setup() {
+        dataTable = histogram();
+        storageData = dataTable.toStorageData();
+        compactStorageData = dataTable.toCompactStorageData();
+    }
+
+    @Benchmark
+    public String encode() {
+        return dataTable.toStorageData();
+    }
+
+    @Benchmark
+    public String encodeCompact() {
+        return dataTable.toCompactStorageData();
+    }
+
+    @Benchmark
+    public DataTable decode() {
+        return new DataTable(storageData);
+    }
+
+    @Benchmark
+    public DataTable decodeCompact() {
+        return new DataTable(compactStorageData);
+    }
+
+    private static DataTable histogram() {
+        DataTable dataTable = new DataTable(30);
+        for (int i = 0; i < 20; i++) {
+            dataTable.put(String.valueOf(i * 100), (long) (i * 37 + 1) * 1000);
+        }
+        return dataTable;
+    }
+
+    public static void main(String[] args) throws Exception {
+        DataTable dataTable = histogram();
+        log.info("Stored size of the default format: {}", dataTable.toStorageData().length());
+        log.info("Stored size of the compact format: {}", dataTable.toCompactStorageData().length());
+
+        run(DataTableBenchmark.class, args);
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.microbench.metrics;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.skywalking.oap.server.core.analysis.metrics.FixedHistogramMetrics;
+import org.apache.skywalking.oap.server.core.analysis.metrics.HistogramMetrics;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.apache.skywalking.oap.server.microbench.base.AbstractMicrobenchmark;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compare the {@link HistogramMetrics} and {@link FixedHistogramMetrics} in the {@code histogram(100, 20)} case of the
+ * OAL. Every operation builds the metrics of one source, and merges it into the aggregated metrics, as the L1
+ * aggregation does. {@link #main(String[])} logs the retained heap of 100k aggregated metrics, such as the endpoints,
+ * too.
+ */
+@Slf4j
+@State(Scope.Thread)
+public class HistogramMetricsBenchmark extends AbstractMicrobenchmark {
+    private static final int STEP = 100;
+    private static final int MAX_NUM_OF_STEPS = 20;
+    /**
+     * Keep the metrics reachable in the heap measurement.
+     */
+    private static Metrics[] RETAINED;
+
+    private HistogramMetrics histogram;
+    private FixedHistogramMetrics fixedHistogram;
+    private int[] latencies;
+    private int index;
+
+    @Setup
+    public void setup() {
+        histogram = new HistogramMetricsImpl();
+        fixedHistogram = new FixedHistogramMetricsImpl();
+        latencies = new int[1024];
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = ThreadLocalRandom.current().nextInt(STEP * (MAX_NUM_OF_STEPS + 5));
+        }
+    }
+
+    @Benchmark
+    public HistogramMetrics histogramCombine() {
+        HistogramMetrics metrics = new HistogramMetricsImpl();
+        metrics.combine(latencies[index++ & 1023], STEP, MAX_NUM_OF_STEPS);
+        histogram.combine(metrics);
+        return histogram;
+    }
+
+    @Benchmark
+    public FixedHistogramMetrics fixedHistogramCombine() {
+        FixedHistogramMetrics metrics = new FixedHistogramMetricsImpl();
+        metrics.combine(latencies[index++ & 1023], STEP, MAX_NUM_OF_STEPS);
+        fixedHistogram.combine(metrics);
+        return fixedHistogram;
+    }
+
+    private static long retainedHeap(Supplier<Metrics> creator) {
+        RETAINED = new Metrics[100_000];
+        final long before = usedHeap();
+        for (int i = 0; i < RETAINED.length; i++) {
+            RETAINED[i] = creator.get();
+        }
+        final long retained = usedHeap() - before;
+        RETAINED = null;
+        return retained;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+    }
+
+    public static void main(String[] args) throws Exception {
+        log.info("Retained heap of 100k HistogramMetrics: {}", retainedHeap(() -> {
+            HistogramMetrics metrics = new HistogramMetricsImpl();
+            metrics.combine(0, STEP, MAX_NUM_OF_STEPS);
+            return metrics;
+        }));
+        log.info("Retained heap of 100k FixedHistogramMetrics: {}", retainedHeap(() -> {
+            FixedHistogramMetrics metrics = new FixedHistogramMetricsImpl();
+            metrics.combine(0, STEP, MAX_NUM_OF_STEPS);
+            return metrics;
+        }));
+
+        run(HistogramMetricsBenchmark.class, args);
+    }
+
+    private static class HistogramMetricsImpl extends HistogramMetrics {
+        @Override
+        public String id() {
+            return null;
+        }
+
+        @Override
+        public Metrics toHour() {
+            return null;
+        }
+
+        @Override
+        public Metrics toDay() {
+            return null;
+        }
+
+        @Override
+        public int remoteHashCode() {
+            return 0;
+        }
+
+        @Override
+        public void deserialize(RemoteData remoteData) {
+
+        }
+
+        @Override
+        public RemoteData.Builder serialize() {
+            return null;
+        }
+    }
+
+    private static class FixedHistogramMetricsImpl extends FixedHistogramMetrics {
+        @Override
+        public String id() {
+            return null;
+        }
+
+        @Override
+        public Metrics toHour() {
+            return null;
+        }
+
+        @Override
+        public Metrics toDay() {
+            return null;
+        }
+
+        @Override
+        public int remoteHashCode() {
+            return 0;
+        }
+
+        @Override
+        public void deserialize(RemoteData remoteData) {
+
+        }
+
+        @Override
+        public RemoteData.Builder serialize() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.microbench.pipeline;
+
+import org.apache.skywalking.oal.rt.OALRuntime;
+import org.apache.skywalking.oap.server.core.analysis.DispatcherManager;
+import org.apache.skywalking.oap.server.core.analysis.NodeType;
+import org.apache.skywalking.oap.server.core.analysis.StreamAnnotationListener;
+import org.apache.skywalking.oap.server.core.analysis.TimeBucket;
+import org.apache.skywalking.oap.server.core.annotation.AnnotationScan;
+import org.apache.skywalking.oap.server.core.source.DefaultScopeDefine;
+import org.apache.skywalking.oap.server.core.source.DetectPoint;
+import org.apache.skywalking.oap.server.core.source.Endpoint;
+import org.apache.skywalking.oap.server.core.source.ServiceInstanceRelation;
+import org.apache.skywalking.oap.server.microbench.base.AbstractMicrobenchmark;
+import org.apache.skywalking.oap.server.microbench.base.BenchmarkModuleManager;
+import org.apache.skywalking.oap.server.microbench.base.MicrobenchOALDefine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Drive the synthetic sources through the {@link DispatcherManager} into the OAL generated metrics, and the L1 and L2
+ * aggregation behind. The workers run asynchronously, their queues block the dispatching when they are full, so the
+ * throughput of the dispatching is bounded by the whole streaming pipeline. The persistence is covered by {@link
+ * PrepareBatchBenchmark}.
+ */
+@State(Scope.Benchmark)
+public class DispatcherBenchmark extends AbstractMicrobenchmark {
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({
+        "100",
+        "10000"
+    })
+    private int cardinality;
+
+    private DispatcherManager dispatcherManager;
+    private String[] endpointNames;
+    private String[] instanceNames;
+
+    @Setup
+    public void setup() throws Exception {
+        AnnotationScan scopeScan = new AnnotationScan();
+        scopeScan.registerListener(new DefaultScopeDefine.Listener());
+        scopeScan.scan();
+
+        BenchmarkModuleManager moduleManager = new BenchmarkModuleManager();
+        dispatcherManager = new DispatcherManager();
+        OALRuntime oalRuntime = new OALRuntime(MicrobenchOALDefine.INSTANCE);
+        oalRuntime.setStreamListener(new StreamAnnotationListener(moduleManager));
+        oalRuntime.setDispatcherListener(dispatcherManager);
+        oalRuntime.start(DispatcherBenchmark.class.getClassLoader());
+        oalRuntime.notifyAllListeners();
+
+        endpointNames = new String[cardinality];
+        instanceNames = new String[cardinality];
+        for (int i = 0; i < cardinality; i++) {
+            endpointNames[i] = "/benchmark/endpoint/" + i;
+            instanceNames[i] = "benchmark-instance-" + i;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void endpoint() {
+        long timeBucket = TimeBucket.getMinuteTimeBucket(System.currentTimeMillis());
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            Endpoint endpoint = new Endpoint();
+            endpoint.setName(endpointNames[i % cardinality]);
+            endpoint.setServiceName("benchmark-service");
+            endpoint.setServiceNodeType(NodeType.Normal);
+            endpoint.setServiceInstanceName(instanceNames[i % cardinality]);
+            endpoint.setLatency(i % 500);
+            endpoint.setStatus(i % 100 != 0);
+            endpoint.setResponseCode(200);
+            endpoint.setTimeBucket(timeBucket);
+            dispatcherManager.forward(endpoint);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void serviceInstanceRelation() {
+        long timeBucket = TimeBucket.getMinuteTimeBucket(System.currentTimeMillis());
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            ServiceInstanceRelation relation = new ServiceInstanceRelation();
+            relation.setSourceServiceName("benchmark-client");
+            relation.setSourceServiceNodeType(NodeType.Normal);
+            relation.setSourceServiceInstanceName(instanceNames[i % cardinality]);
+            relation.setDestServiceName("benchmark-service");
+            relation.setDestServiceNodeType(NodeType.Normal);
+            relation.setDestServiceInstanceName(instanceNames[(i + 1) % cardinality]);
+            relation.setDetectPoint(DetectPoint.SERVER);
+            relation.setLatency(i % 500);
+            relation.setStatus(i % 100 != 0);
+            relation.setResponseCode(200);
+            relation.setTimeBucket(timeBucket);
+            dispatcherManager.forward(relation);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        run(DispatcherBenchmark.class, args);
+    }
+}
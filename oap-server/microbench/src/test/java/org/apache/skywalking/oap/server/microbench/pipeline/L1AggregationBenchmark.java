@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.microbench.pipeline;
+
+import java.util.List;
+import org.apache.skywalking.oap.server.core.analysis.TimeBucket;
+import org.apache.skywalking.oap.server.core.analysis.data.MergableBufferedData;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.microbench.base.AbstractMicrobenchmark;
+import org.apache.skywalking.oap.server.microbench.base.EndpointCpmMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The L1 aggregation of the MetricsAggregateWorker, merging a batch of metrics in the {@link MergableBufferedData} and
+ * reading the merged ones out, as the worker does for every batch consumed from its queue.
+ */
+@State(Scope.Thread)
+public class L1AggregationBenchmark extends AbstractMicrobenchmark {
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({
+        "100",
+        "10000"
+    })
+    private int cardinality;
+
+    private String[] entityIds;
+    private int offset;
+
+    @Setup
+    public void setup() {
+        entityIds = new String[cardinality];
+        for (int i = 0; i < cardinality; i++) {
+            entityIds[i] = "benchmark-service.1_/benchmark/endpoint/" + i;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<Metrics> merge() {
+        long timeBucket = TimeBucket.getMinuteTimeBucket(System.currentTimeMillis());
+        MergableBufferedData<Metrics> bufferedData = new MergableBufferedData<>();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            bufferedData.accept(new EndpointCpmMetrics(entityIds[offset], "benchmark-service.1", timeBucket));
+            offset = (offset + 1) % cardinality;
+        }
+        return bufferedData.read();
+    }
+
+    public static void main(String[] args) throws Exception {
+        run(L1AggregationBenchmark.class, args);
+    }
+}
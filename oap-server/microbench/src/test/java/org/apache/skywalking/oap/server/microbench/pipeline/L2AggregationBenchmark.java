@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.microbench.pipeline;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import org.apache.skywalking.oap.server.core.analysis.TimeBucket;
+import org.apache.skywalking.oap.server.core.analysis.data.MergableBufferedData;
+import org.apache.skywalking.oap.server.core.analysis.data.ReadWriteSafeCache;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.microbench.base.AbstractMicrobenchmark;
+import org.apache.skywalking.oap.server.microbench.base.EndpointCpmMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * The L2 aggregation of the MetricsPersistentWorker, the consumer threads merge the batches into the shared {@link
+ * ReadWriteSafeCache}, while the persistence reads the cache out in every round.
+ */
+@State(Scope.Benchmark)
+@Threads(4)
+public class L2AggregationBenchmark extends AbstractMicrobenchmark {
+    private static final int BATCH_SIZE = 1000;
+    /**
+     * Read the cache out after this number of batches of a consumer, as the persistence does every 25 seconds.
+     */
+    private static final int BATCHES_PER_ROUND = 100;
+
+    @Param({
+        "100",
+        "10000"
+    })
+    private int cardinality;
+
+    @Param({
+        "1",
+        "4"
+    })
+    private int stripes;
+
+    private String[] entityIds;
+    private ReadWriteSafeCache<Metrics> cache;
+    /**
+     * The cache is read by the single persistence thread, the consumer skips the reading if others are reading.
+     */
+    private final ReentrantLock readLock = new ReentrantLock();
+
+    @State(Scope.Thread)
+    public static class Consumer {
+        private int offset;
+        private int batches;
+    }
+
+    @Setup
+    public void setup() {
+        entityIds = new String[cardinality];
+        for (int i = 0; i < cardinality; i++) {
+            entityIds[i] = "benchmark-service.1_/benchmark/endpoint/" + i;
+        }
+        cache = new ReadWriteSafeCache<>(stripes, MergableBufferedData::new, null);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<Metrics> merge(Consumer consumer) {
+        long timeBucket = TimeBucket.getMinuteTimeBucket(System.currentTimeMillis());
+        List<Metrics> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(new EndpointCpmMetrics(entityIds[consumer.offset], "benchmark-service.1", timeBucket));
+            consumer.offset = (consumer.offset + 1) % cardinality;
+        }
+        cache.write(batch);
+        if (++consumer.batches % BATCHES_PER_ROUND == 0 && readLock.tryLock()) {
+            try {
+                return cache.read();
+            } finally {
+                readLock.unlock();
+            }
+        }
+        return batch;
+    }
+
+    public static void main(String[] args) throws Exception {
+        run(L2AggregationBenchmark.class, args);
+    }
+}
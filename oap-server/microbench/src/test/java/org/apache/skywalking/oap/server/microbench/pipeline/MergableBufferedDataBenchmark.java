@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.microbench.pipeline;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.skywalking.oap.server.core.Const;
+import org.apache.skywalking.oap.server.core.analysis.data.MergableBufferedData;
+import org.apache.skywalking.oap.server.core.analysis.metrics.CountMetrics;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.apache.skywalking.oap.server.microbench.base.AbstractMicrobenchmark;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The merge of one minute in the {@link MergableBufferedData}, every entity reports twice in the minute, then the
+ * merged metrics are read. {@code idKeyedMerge} is the previous implementation keyed by {@link Metrics#id()}, as the
+ * baseline.
+ */
+@State(Scope.Thread)
+public class MergableBufferedDataBenchmark extends AbstractMicrobenchmark {
+    private static final long MINUTE_TIME_BUCKET = 202010181200L;
+    private static final int ENTITIES = 100_000;
+
+    private EntityMetrics[] firstReports;
+    private EntityMetrics[] secondReports;
+    private MergableBufferedData<EntityMetrics> bufferedData;
+    private Map<String, EntityMetrics> idKeyedBuffer;
+
+    @Setup
+    public void setup() {
+        firstReports = new EntityMetrics[ENTITIES];
+        secondReports = new EntityMetrics[ENTITIES];
+        for (int i = 0; i < ENTITIES; i++) {
+            firstReports[i] = new EntityMetrics("c2VydmljZS0=.1_" + i);
+            secondReports[i] = new EntityMetrics("c2VydmljZS0=.1_" + i);
+        }
+        bufferedData = new MergableBufferedData<>();
+        idKeyedBuffer = new HashMap<>();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(2 * ENTITIES)
+    public List<EntityMetrics> identityMerge() {
+        for (int i = 0; i < ENTITIES; i++) {
+            bufferedData.accept(firstReports[i]);
+        }
+        for (int i = 0; i < ENTITIES; i++) {
+            bufferedData.accept(secondReports[i]);
+        }
+        return bufferedData.read();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(2 * ENTITIES)
+    public List<EntityMetrics> idKeyedMerge() {
+        for (int i = 0; i < ENTITIES; i++) {
+            idKeyedAccept(firstReports[i]);
+        }
+        for (int i = 0; i < ENTITIES; i++) {
+            idKeyedAccept(secondReports[i]);
+        }
+        try {
+            return new ArrayList<>(idKeyedBuffer.values());
+        } finally {
+            idKeyedBuffer.clear();
+        }
+    }
+
+    private void idKeyedAccept(EntityMetrics data) {
+        final String id = data.id();
+        final EntityMetrics existed = idKeyedBuffer.get(id);
+        if (existed == null) {
+            idKeyedBuffer.put(id, data);
+        } else {
+            existed.combine(data);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        run(MergableBufferedDataBenchmark.class, args);
+    }
+
+    /**
+     * The equals, hashCode and id are the same as the OAL generated metrics.
+     */
+    public static class EntityMetrics extends CountMetrics {
+        private final String entityId;
+
+        private EntityMetrics(String entityId) {
+            this.entityId = entityId;
+            setTimeBucket(MINUTE_TIME_BUCKET);
+            setValue(1);
+        }
+
+        @Override
+        public String id() {
+            String splitJointId = String.valueOf(getTimeBucket());
+            splitJointId += Const.ID_CONNECTOR + entityId;
+            return splitJointId;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = 17;
+            result = 31 * result + entityId.hashCode();
+            result = 31 * result + (int) getTimeBucket();
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            EntityMetrics metrics = (EntityMetrics) obj;
+            return entityId.equals(metrics.entityId) && getTimeBucket() == metrics.getTimeBucket();
+        }
+
+        @Override
+        public Metrics toHour() {
+            return null;
+        }
+
+        @Override
+        public Metrics toDay() {
+            return null;
+        }
+
+        @Override
+        public void deserialize(RemoteData remoteData) {
+
+        }
+
+        @Override
+        public RemoteData.Builder serialize() {
+            return null;
+        }
+
+        @Override
+        public int remoteHashCode() {
+            return entityId.hashCode();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.microbench.pipeline;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.skywalking.oap.server.core.analysis.Stream;
+import org.apache.skywalking.oap.server.core.analysis.TimeBucket;
+import org.apache.skywalking.oap.server.core.analysis.data.MetricsSessionCache;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.analysis.worker.MetricsPersistentWorker;
+import org.apache.skywalking.oap.server.core.analysis.worker.MetricsStreamProcessor;
+import org.apache.skywalking.oap.server.core.annotation.AnnotationScan;
+import org.apache.skywalking.oap.server.core.source.DefaultScopeDefine;
+import org.apache.skywalking.oap.server.library.client.request.PrepareRequest;
+import org.apache.skywalking.oap.server.microbench.base.AbstractMicrobenchmark;
+import org.apache.skywalking.oap.server.microbench.base.BenchmarkModuleManager;
+import org.apache.skywalking.oap.server.microbench.base.EndpointCpmMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The persistence of the MetricsPersistentWorker, loading the metrics of the batch from the session cache or the
+ * in-memory storage, merging and building the insert/update requests. After the first round of every entity, all
+ * metrics exist, the session cache decides whether the storage is queried. In the incremental mode, the requests are the
+ * upserts adding the values.
+ */
+@State(Scope.Benchmark)
+public class PrepareBatchBenchmark extends AbstractMicrobenchmark {
+    private static final int BATCH_SIZE = 1000;
+
+    /**
+     * The number of entities, the batch never has the same metrics twice, as the L2 aggregation merges them.
+     */
+    @Param({
+        "1000",
+        "100000"
+    })
+    private int cardinality;
+
+    @Param({
+        "true",
+        "false"
+    })
+    private boolean enableDatabaseSession;
+
+    /**
+     * True to write the metrics by the incremental upsert of the storage. The session cache and the existence index are
+     * always enabled then, as the OAP requires.
+     */
+    @Param({
+        "true",
+        "false"
+    })
+    private boolean incremental;
+
+    private String[] entityIds;
+    private int offset;
+    private MetricsPersistentWorker worker;
+
+    @Setup
+    public void setup() throws Exception {
+        entityIds = new String[cardinality];
+        for (int i = 0; i < cardinality; i++) {
+            entityIds[i] = "benchmark-service.1_/benchmark/endpoint/" + i;
+        }
+
+        AnnotationScan scopeScan = new AnnotationScan();
+        scopeScan.registerListener(new DefaultScopeDefine.Listener());
+        scopeScan.scan();
+
+        BenchmarkModuleManager moduleManager = new BenchmarkModuleManager();
+        MetricsStreamProcessor processor = MetricsStreamProcessor.getInstance();
+        if (enableDatabaseSession || incremental) {
+            processor.setMetricsSessionCache(new MetricsSessionCache(500_000L, 256L * 1024 * 1024));
+        }
+        processor.setEnableMetricsExistenceIndex(incremental);
+        processor.setEnableIncrementalMetricsPersistence(incremental);
+        processor.create(moduleManager, EndpointCpmMetrics.class.getAnnotation(Stream.class), EndpointCpmMetrics.class);
+        List<MetricsPersistentWorker> persistentWorkers = processor.getPersistentWorkers();
+        worker = persistentWorkers.get(persistentWorkers.size() - 1);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<PrepareRequest> prepareBatch() {
+        long timeBucket = TimeBucket.getMinuteTimeBucket(System.currentTimeMillis());
+        List<Metrics> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(new EndpointCpmMetrics(entityIds[offset], "benchmark-service.1", timeBucket));
+            offset = (offset + 1) % cardinality;
+        }
+        List<PrepareRequest> prepareRequests = new ArrayList<>(BATCH_SIZE);
+        worker.prepareBatch(batch, prepareRequests);
+        worker.endOfRound(0);
+        return prepareRequests;
+    }
+
+    public static void main(String[] args) throws Exception {
+        run(PrepareBatchBenchmark.class, args);
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.microbench.pipeline;
+
+import java.io.IOException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.skywalking.oap.server.core.analysis.TimeBucket;
+import org.apache.skywalking.oap.server.core.remote.RemoteBatchCompression;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteBatchMessage;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteCompression;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteMessage;
+import org.apache.skywalking.oap.server.microbench.base.AbstractMicrobenchmark;
+import org.apache.skywalking.oap.server.microbench.base.EndpointCpmMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * The CPU and bytes per metrics of the L1 to L2 hop between the OAP nodes, encoding the metrics into the gRPC messages
+ * and decoding them back, one {@link RemoteMessage} per metrics or one {@link RemoteBatchMessage} per batch. The gRPC
+ * transport is excluded, the bytes per metrics are logged at the tear down.
+ */
+@Slf4j
+@State(Scope.Thread)
+public class RemoteBatchBenchmark extends AbstractMicrobenchmark {
+    private static final int BATCH_SIZE = 1000;
+    private static final String NEXT_WORKER_NAME = EndpointCpmMetrics.INDEX_NAME + "_rec";
+
+    @Param({
+        "100",
+        "10000"
+    })
+    private int cardinality;
+
+    /**
+     * The frames of the hop, ONE_BY_ONE for a {@link RemoteMessage} per metrics, or the compression of the {@link
+     * RemoteBatchMessage}.
+     */
+    @Param({
+        "ONE_BY_ONE",
+        "NONE",
+        "DEFLATE"
+    })
+    private String frame;
+
+    private EndpointCpmMetrics[] metrics;
+    private long bytes;
+    private long records;
+
+    @Setup
+    public void setup() {
+        long timeBucket = TimeBucket.getMinuteTimeBucket(System.currentTimeMillis());
+        metrics = new EndpointCpmMetrics[BATCH_SIZE];
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            metrics[i] = new EndpointCpmMetrics(
+                "benchmark-service.1_/benchmark/endpoint/" + i % cardinality, "benchmark-service.1", timeBucket);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void encodeAndDecode(Blackhole blackhole) throws IOException {
+        if ("ONE_BY_ONE".equals(frame)) {
+            oneByOne(blackhole);
+        } else {
+            batch(blackhole, RemoteCompression.valueOf(frame));
+        }
+        records += BATCH_SIZE;
+    }
+
+    private void oneByOne(Blackhole blackhole) throws IOException {
+        for (EndpointCpmMetrics m : metrics) {
+            byte[] bytesOfMessage = RemoteMessage.newBuilder()
+                                        .setNextWorkerName(NEXT_WORKER_NAME)
+                                        .setRemoteData(m.serialize())
+                                        .build()
+                                        .toByteArray();
+            bytes += bytesOfMessage.length;
+
+            EndpointCpmMetrics received = new EndpointCpmMetrics();
+            received.deserialize(RemoteMessage.parseFrom(bytesOfMessage).getRemoteData());
+            blackhole.consume(received);
+        }
+    }
+
+    private void batch(Blackhole blackhole, RemoteCompression compression) throws IOException {
+        RemoteBatchMessage.Builder batch = RemoteBatchMessage.newBuilder().setNextWorkerName(NEXT_WORKER_NAME);
+        for (EndpointCpmMetrics m : metrics) {
+            batch.addRemoteData(m.serialize());
+        }
+        byte[] bytesOfBatch = RemoteBatchCompression.compress(batch, compression).build().toByteArray();
+        bytes += bytesOfBatch.length;
+
+        for (RemoteData remoteData : RemoteBatchCompression.remoteDataOf(RemoteBatchMessage.parseFrom(bytesOfBatch))) {
+            EndpointCpmMetrics received = new EndpointCpmMetrics();
+            received.deserialize(remoteData);
+            blackhole.consume(received);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (records > 0) {
+            log.info("Bytes per metrics of cardinality {} and frame {}: {}", cardinality, frame,
+                     (double) bytes / records
+            );
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        run(RemoteBatchBenchmark.class, args);
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.microbench.pipeline;
+
+import org.apache.skywalking.oap.server.core.analysis.TimeBucket;
+import org.apache.skywalking.oap.server.core.remote.data.StreamDataFactory;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.apache.skywalking.oap.server.microbench.base.AbstractMicrobenchmark;
+import org.apache.skywalking.oap.server.microbench.base.EndpointCpmMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * The L2 receive path of the RemoteServiceHandler, creating the metrics received from the other OAP nodes by
+ * reflection, or by the factory as the OAL and MAL engines generate.
+ */
+@State(Scope.Thread)
+public class StreamDataFactoryBenchmark extends AbstractMicrobenchmark {
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({
+        "reflective",
+        "generated"
+    })
+    private String factory;
+
+    private StreamDataFactory streamDataFactory;
+    private RemoteData[] remoteData;
+
+    @Setup
+    public void setup() {
+        streamDataFactory = "reflective".equals(factory)
+            ? StreamDataFactory.reflective(EndpointCpmMetrics.class)
+            : EndpointCpmMetrics::new;
+
+        long timeBucket = TimeBucket.getMinuteTimeBucket(System.currentTimeMillis());
+        remoteData = new RemoteData[BATCH_SIZE];
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            remoteData[i] = new EndpointCpmMetrics(
+                "benchmark-service.1_/benchmark/endpoint/" + i, "benchmark-service.1", timeBucket).serialize().build();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void decode(Blackhole blackhole) {
+        for (RemoteData data : remoteData) {
+            blackhole.consume(streamDataFactory.decode(data));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        run(StreamDataFactoryBenchmark.class, args);
+    }
+}
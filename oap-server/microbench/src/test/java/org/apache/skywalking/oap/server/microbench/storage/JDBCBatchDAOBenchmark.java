@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.microbench.storage;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import org.apache.skywalking.oap.server.library.client.jdbc.hikaricp.JDBCHikariCPClient;
+import org.apache.skywalking.oap.server.library.client.request.PrepareRequest;
+import org.apache.skywalking.oap.server.microbench.base.AbstractMicrobenchmark;
+import org.apache.skywalking.oap.server.storage.plugin.jdbc.SQLExecutor;
+import org.apache.skywalking.oap.server.storage.plugin.jdbc.h2.dao.H2BatchDAO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Persist the rows of two tables into the embedded H2 through the {@link H2BatchDAO}, the score is the rows per
+ * second. With {@code maxSizeOfBatchSql=1}, every row is one round trip, as the DAO did before the JDBC batching.
+ */
+@State(Scope.Benchmark)
+public class JDBCBatchDAOBenchmark extends AbstractMicrobenchmark {
+    private static final int BATCH_SIZE = 1000;
+    private static final String[] TABLES = {
+        "benchmark_metrics_a",
+        "benchmark_metrics_b"
+    };
+
+    @Param({
+        "1",
+        "100",
+        "1000"
+    })
+    private int maxSizeOfBatchSql;
+
+    private JDBCHikariCPClient client;
+    private H2BatchDAO batchDAO;
+    private long id;
+
+    @Setup
+    public void setup() throws Exception {
+        Properties settings = new Properties();
+        settings.setProperty("dataSourceClassName", "org.h2.jdbcx.JdbcDataSource");
+        settings.setProperty("dataSource.url", "jdbc:h2:mem:microbench-" + maxSizeOfBatchSql + ";DB_CLOSE_DELAY=-1");
+        settings.setProperty("dataSource.user", "sa");
+        client = new JDBCHikariCPClient(settings);
+        client.connect();
+        batchDAO = new H2BatchDAO(client, maxSizeOfBatchSql, 1);
+    }
+
+    @Setup(Level.Iteration)
+    public void createTables() throws Exception {
+        try (Connection connection = client.getConnection()) {
+            for (String table : TABLES) {
+                client.execute(connection, "DROP TABLE IF EXISTS " + table);
+                client.execute(
+                    connection,
+                    "CREATE TABLE " + table + " (id VARCHAR(512) PRIMARY KEY, entity_id VARCHAR(512), "
+                        + "summation BIGINT, count BIGINT, time_bucket BIGINT)"
+                );
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void insert() {
+        List<PrepareRequest> requests = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            long rowId = id++;
+            requests.add(new SQLExecutor(
+                "INSERT INTO " + TABLES[i % TABLES.length] + " VALUES(?,?,?,?,?)",
+                Arrays.asList(
+                    "202101011200_" + rowId, "benchmark-entity-" + rowId % 100, rowId, 1L, 202101011200L)
+            ));
+        }
+        batchDAO.synchronous(requests);
+    }
+
+    public static void main(String[] args) throws Exception {
+        run(JDBCBatchDAOBenchmark.class, args);
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.microbench.trace;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import java.util.Random;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.skywalking.apm.network.common.v3.KeyStringValuePair;
+import org.apache.skywalking.apm.network.language.agent.v3.Log;
+import org.apache.skywalking.apm.network.language.agent.v3.RefType;
+import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
+import org.apache.skywalking.apm.network.language.agent.v3.SegmentReference;
+import org.apache.skywalking.apm.network.language.agent.v3.SpanLayer;
+import org.apache.skywalking.apm.network.language.agent.v3.SpanObject;
+import org.apache.skywalking.apm.network.language.agent.v3.SpanType;
+import org.apache.skywalking.oap.server.core.analysis.manual.segment.SegmentDataBinary;
+import org.apache.skywalking.oap.server.microbench.base.AbstractMicrobenchmark;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Encode the synthetic segments into the data binary of the segment records, and decode them back as the trace query
+ * does, in the raw protobuf or the compressed format of {@link SegmentDataBinary}. The segments are of 1 to 30 spans,
+ * of the HTTP, database, cache and MQ exit spans with the agent tags, and some of them have the error logs. The bytes
+ * per span are logged at the tear down.
+ */
+@Slf4j
+@State(Scope.Thread)
+public class SegmentDataBinaryBenchmark extends AbstractMicrobenchmark {
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({
+        "false",
+        "true"
+    })
+    private boolean compress;
+
+    private SegmentObject[] segments;
+    private byte[][] dataBinaries;
+    private long bytes;
+    private long spans;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(0);
+        long startTime = System.currentTimeMillis();
+        segments = new SegmentObject[BATCH_SIZE];
+        dataBinaries = new byte[BATCH_SIZE][];
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            segments[i] = segment(random, i, startTime);
+            dataBinaries[i] = encode(segments[i]);
+            bytes += dataBinaries[i].length;
+            spans += segments[i].getSpansCount();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void encode(Blackhole blackhole) {
+        for (SegmentObject segment : segments) {
+            blackhole.consume(encode(segment));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void decode(Blackhole blackhole) throws InvalidProtocolBufferException {
+        for (byte[] dataBinary : dataBinaries) {
+            blackhole.consume(SegmentDataBinary.decode(dataBinary));
+        }
+    }
+
+    private byte[] encode(SegmentObject segment) {
+        return compress ? SegmentDataBinary.compress(segment) : segment.toByteArray();
+    }
+
+    @TearDown
+    public void tearDown() {
+        log.info("Bytes per span of compress {}: {}, bytes per segment: {}", compress, (double) bytes / spans,
+                 (double) bytes / BATCH_SIZE
+        );
+    }
+
+    private static SegmentObject segment(Random random, int index, long startTime) {
+        String traceId = "a1b2c3d4e5f6." + (100 + index % 50) + "." + (startTime + index) + "0001";
+        String service = "benchmark-service-" + index % 20;
+        String endpoint = "/benchmark/" + service + "/endpoint/" + index % 50;
+        int spans = 1 + random.nextInt(30);
+        boolean isError = random.nextInt(20) == 0;
+
+        SpanObject.Builder entry = SpanObject.newBuilder()
+                                             .setSpanId(0)
+                                             .setParentSpanId(-1)
+                                             .setSpanType(SpanType.Entry)
+                                             .setSpanLayer(SpanLayer.Http)
+                                             .setComponentId(14)
+                                             .setOperationName(endpoint)
+                                             .setStartTime(startTime)
+                                             .setEndTime(startTime + 20 + spans * 5)
+                                             .setIsError(isError)
+                                             .addTags(tag("url", "http://" + service + ":8080" + endpoint))
+                                             .addTags(tag("http.method", random.nextBoolean() ? "GET" : "POST"))
+                                             .addRefs(SegmentReference.newBuilder()
+                                                                      .setRefType(RefType.CrossProcess)
+                                                                      .setTraceId(traceId)
+                                                                      .setParentTraceSegmentId(traceId + ".0")
+                                                                      .setParentSpanId(1)
+                                                                      .setParentService("benchmark-gateway")
+                                                                      .setParentServiceInstance(
+                                                                          "gateway-instance@10.0.0." + index % 10)
+                                                                      .setParentEndpoint("/gateway" + endpoint)
+                                                                      .setNetworkAddressUsedAtPeer(service + ":8080"));
+        if (isError) {
+            entry.addTags(tag("status_code", "500"))
+                 .addLogs(Log.newBuilder()
+                             .setTime(startTime + 10)
+                             .addData(tag("event", "error"))
+                             .addData(tag("error.kind", "java.lang.IllegalStateException"))
+                             .addData(tag("message", "benchmark failure of " + endpoint))
+                             .addData(tag("stack", "java.lang.IllegalStateException: benchmark failure\n"
+                                 + "\tat org.apache.skywalking.benchmark.Controller.handle(Controller.java:42)\n"
+                                 + "\tat org.apache.skywalking.benchmark.Filter.doFilter(Filter.java:21)\n")));
+        }
+
+        SegmentObject.Builder segment = SegmentObject.newBuilder()
+                                                     .setTraceId(traceId)
+                                                     .setTraceSegmentId(traceId + "." + index)
+                                                     .setService(service)
+                                                     .setServiceInstance(
+                                                         "instance-" + index % 5 + "@10.0.1." + index % 10)
+                                                     .addSpans(entry);
+        for (int i = 1; i < spans; i++) {
+            SpanObject.Builder span = SpanObject.newBuilder()
+                                                .setSpanId(i)
+                                                .setParentSpanId(0)
+                                                .setSpanType(SpanType.Exit)
+                                                .setStartTime(startTime + i * 5)
+                                                .setEndTime(startTime + i * 5 + random.nextInt(5));
+            switch (random.nextInt(4)) {
+                case 0:
+                    span.setSpanLayer(SpanLayer.Database)
+                        .setComponentId(33)
+                        .setOperationName("Mysql/JDBI/PreparedStatement/executeQuery")
+                        .setPeer("benchmark-mysql:3306")
+                        .addTags(tag("db.type", "sql"))
+                        .addTags(tag("db.instance", "benchmark"))
+                        .addTags(tag("db.statement", "select id, name, status from benchmark_" + i % 5
+                            + " where id = ? and status = ?"));
+                    break;
+                case 1:
+                    span.setSpanLayer(SpanLayer.Cache)
+                        .setComponentId(30)
+                        .setOperationName("Jedis/get")
+                        .setPeer("benchmark-redis:6379")
+                        .addTags(tag("db.type", "Redis"))
+                        .addTags(tag("db.statement", "get benchmark:" + index));
+                    break;
+                case 2:
+                    span.setSpanLayer(SpanLayer.MQ)
+                        .setComponentId(40)
+                        .setOperationName("Kafka/benchmark-topic/Producer")
+                        .setPeer("benchmark-kafka:9092")
+                        .addTags(tag("mq.broker", "benchmark-kafka:9092"))
+                        .addTags(tag("mq.topic", "benchmark-topic"));
+                    break;
+                default:
+                    String peer = "benchmark-service-" + random.nextInt(20) + ":8080";
+                    span.setSpanLayer(SpanLayer.Http)
+                        .setComponentId(13)
+                        .setOperationName("/benchmark/downstream/" + i % 10)
+                        .setPeer(peer)
+                        .addTags(tag("url", "http://" + peer + "/benchmark/downstream/" + i % 10))
+                        .addTags(tag("http.method", "GET"));
+            }
+            segment.addSpans(span);
+        }
+        return segment.build();
+    }
+
+    private static KeyStringValuePair tag(String key, String value) {
+        return KeyStringValuePair.newBuilder().setKey(key).setValue(value).build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        run(SegmentDataBinaryBenchmark.class, args);
+    }
+}
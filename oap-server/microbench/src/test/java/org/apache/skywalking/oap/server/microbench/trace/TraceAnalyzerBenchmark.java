@@ -0,0 +1,206 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.microbench.trace;
+
+import org.apache.skywalking.apm.network.common.v3.KeyStringValuePair;
+import org.apache.skywalking.apm.network.language.agent.v3.RefType;
+import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
+import org.apache.skywalking.apm.network.language.agent.v3.SegmentReference;
+import org.apache.skywalking.apm.network.language.agent.v3.SpanLayer;
+import org.apache.skywalking.apm.network.language.agent.v3.SpanObject;
+import org.apache.skywalking.apm.network.language.agent.v3.SpanType;
+import org.apache.skywalking.oap.server.analyzer.provider.AnalyzerModuleConfig;
+import org.apache.skywalking.oap.server.analyzer.provider.AnalyzerModuleProvider;
+import org.apache.skywalking.oap.server.analyzer.provider.trace.DBLatencyThresholdsAndWatcher;
+import org.apache.skywalking.oap.server.analyzer.provider.trace.TraceLatencyThresholdsAndWatcher;
+import org.apache.skywalking.oap.server.analyzer.provider.trace.TraceSampleRateWatcher;
+import org.apache.skywalking.oap.server.analyzer.provider.trace.UninstrumentedGatewaysConfig;
+import org.apache.skywalking.oap.server.analyzer.provider.trace.parser.SegmentParserListenerManager;
+import org.apache.skywalking.oap.server.analyzer.provider.trace.parser.TraceAnalyzer;
+import org.apache.skywalking.oap.server.analyzer.provider.trace.parser.listener.MultiScopesAnalysisListener;
+import org.apache.skywalking.oap.server.analyzer.provider.trace.parser.listener.NetworkAddressAliasMappingListener;
+import org.apache.skywalking.oap.server.analyzer.provider.trace.parser.listener.SegmentAnalysisListener;
+import org.apache.skywalking.oap.server.core.CoreModule;
+import org.apache.skywalking.oap.server.core.CoreModuleConfig;
+import org.apache.skywalking.oap.server.core.cache.NetworkAddressAliasCache;
+import org.apache.skywalking.oap.server.core.config.ConfigService;
+import org.apache.skywalking.oap.server.core.config.NamingControl;
+import org.apache.skywalking.oap.server.core.config.group.EndpointNameGrouping;
+import org.apache.skywalking.oap.server.core.source.SourceReceiver;
+import org.apache.skywalking.oap.server.core.source.SourceReceiverImpl;
+import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.apache.skywalking.oap.server.library.module.ModuleNotFoundRuntimeException;
+import org.apache.skywalking.oap.server.library.module.ModuleProviderHolder;
+import org.apache.skywalking.oap.server.microbench.base.AbstractMicrobenchmark;
+import org.apache.skywalking.oap.server.testing.module.ModuleDefineTesting;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Analyze the synthetic segments by the {@link TraceAnalyzer} with the official listeners. The sources are forwarded
+ * to a receiver without dispatchers, so the score and the allocations(gc.alloc.rate.norm) cover the analysis only.
+ * {@code reuseAnalyzer=false} creates the analyzer and all listeners per segment, as the analysis did before the
+ * listeners are reused in the analysis thread.
+ */
+@State(Scope.Thread)
+public class TraceAnalyzerBenchmark extends AbstractMicrobenchmark {
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({
+        "true",
+        "false"
+    })
+    private boolean reuseAnalyzer;
+
+    private ModuleManager moduleManager;
+    private AnalyzerModuleConfig config;
+    private SegmentParserListenerManager listenerManager;
+    private TraceAnalyzer traceAnalyzer;
+    private SegmentObject[] segments;
+
+    @Setup
+    public void setup() {
+        CoreModuleConfig coreModuleConfig = new CoreModuleConfig();
+        ModuleDefineTesting coreModule = new ModuleDefineTesting();
+        coreModule.provider().registerServiceImplementation(SourceReceiver.class, new SourceReceiverImpl());
+        coreModule.provider().registerServiceImplementation(
+            NamingControl.class, new NamingControl(512, 512, 512, new EndpointNameGrouping()));
+        coreModule.provider().registerServiceImplementation(ConfigService.class, new ConfigService(coreModuleConfig));
+        coreModule.provider().registerServiceImplementation(
+            NetworkAddressAliasCache.class, new NetworkAddressAliasCache(coreModuleConfig));
+        moduleManager = new CoreModuleManager(coreModule);
+
+        AnalyzerModuleProvider provider = new AnalyzerModuleProvider();
+        config = (AnalyzerModuleConfig) provider.createConfigBeanIfAbsent();
+        config.setDbLatencyThresholdsAndWatcher(new DBLatencyThresholdsAndWatcher(config.getSlowDBAccessThreshold(), provider));
+        config.setUninstrumentedGatewaysConfig(new UninstrumentedGatewaysConfig(provider));
+        config.setTraceSampleRateWatcher(new TraceSampleRateWatcher(provider));
+        config.setTraceLatencyThresholdsAndWatcher(new TraceLatencyThresholdsAndWatcher(provider));
+
+        listenerManager = new SegmentParserListenerManager();
+        listenerManager.add(new MultiScopesAnalysisListener.Factory(moduleManager));
+        listenerManager.add(new NetworkAddressAliasMappingListener.Factory(moduleManager));
+        listenerManager.add(new SegmentAnalysisListener.Factory(moduleManager, config));
+        traceAnalyzer = new TraceAnalyzer(moduleManager, listenerManager, config);
+
+        segments = new SegmentObject[BATCH_SIZE];
+        long startTime = System.currentTimeMillis();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            segments[i] = segment(i, startTime);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void analyze() {
+        for (final SegmentObject segment : segments) {
+            TraceAnalyzer analyzer = reuseAnalyzer
+                ? traceAnalyzer : new TraceAnalyzer(moduleManager, listenerManager, config);
+            analyzer.doAnalysis(segment);
+        }
+    }
+
+    /**
+     * A segment of the HTTP server, with a database access and a local span.
+     */
+    private static SegmentObject segment(int index, long startTime) {
+        String traceId = "benchmark-trace-" + index;
+        return SegmentObject.newBuilder()
+                            .setTraceId(traceId)
+                            .setTraceSegmentId(traceId + ".1")
+                            .setService("benchmark-service")
+                            .setServiceInstance("benchmark-instance-" + index % 10)
+                            .addSpans(SpanObject.newBuilder()
+                                                .setSpanId(0)
+                                                .setParentSpanId(-1)
+                                                .setSpanType(SpanType.Entry)
+                                                .setSpanLayer(SpanLayer.Http)
+                                                .setComponentId(1)
+                                                .setOperationName("/benchmark/endpoint/" + index % 100)
+                                                .setStartTime(startTime)
+                                                .setEndTime(startTime + 50)
+                                                .addTags(tag("http.method", "GET"))
+                                                .addTags(tag("status_code", "200"))
+                                                .addRefs(SegmentReference.newBuilder()
+                                                                         .setRefType(RefType.CrossProcess)
+                                                                         .setTraceId(traceId)
+                                                                         .setParentTraceSegmentId(traceId + ".0")
+                                                                         .setParentSpanId(1)
+                                                                         .setParentService("benchmark-client")
+                                                                         .setParentServiceInstance("benchmark-client-instance")
+                                                                         .setParentEndpoint("/benchmark/client")
+                                                                         .setNetworkAddressUsedAtPeer("benchmark-service:8080")))
+                            .addSpans(SpanObject.newBuilder()
+                                                .setSpanId(1)
+                                                .setParentSpanId(0)
+                                                .setSpanType(SpanType.Exit)
+                                                .setSpanLayer(SpanLayer.Database)
+                                                .setComponentId(5)
+                                                .setOperationName("Mysql/JDBI/PreparedStatement/executeQuery")
+                                                .setPeer("benchmark-mysql:3306")
+                                                .setStartTime(startTime + 10)
+                                                .setEndTime(startTime + 30)
+                                                .addTags(tag("db.type", "Mysql"))
+                                                .addTags(tag("db.statement", "select * from benchmark where id = ?")))
+                            .addSpans(SpanObject.newBuilder()
+                                                .setSpanId(2)
+                                                .setParentSpanId(0)
+                                                .setSpanType(SpanType.Local)
+                                                .setOperationName("benchmark.local")
+                                                .setStartTime(startTime + 30)
+                                                .setEndTime(startTime + 40))
+                            .build();
+    }
+
+    private static KeyStringValuePair tag(String key, String value) {
+        return KeyStringValuePair.newBuilder().setKey(key).setValue(value).build();
+    }
+
+    /**
+     * The listener factories require the {@link ModuleManager}, which provides the core module only.
+     */
+    private static class CoreModuleManager extends ModuleManager {
+        private final ModuleProviderHolder coreModule;
+
+        private CoreModuleManager(ModuleProviderHolder coreModule) {
+            this.coreModule = coreModule;
+        }
+
+        @Override
+        public boolean has(String moduleName) {
+            return CoreModule.NAME.equals(moduleName);
+        }
+
+        @Override
+        public ModuleProviderHolder find(String moduleName) throws ModuleNotFoundRuntimeException {
+            if (!has(moduleName)) {
+                throw new ModuleNotFoundRuntimeException(moduleName + " is not provided in the benchmark.");
+            }
+            return coreModule;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        run(TraceAnalyzerBenchmark.class, args);
+    }
+}
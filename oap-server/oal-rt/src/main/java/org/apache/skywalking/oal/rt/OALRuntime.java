@@ -81,6 +81,7 @@ public class OALRuntime implements OALEngine {
     private static final String METRICS_FUNCTION_PACKAGE = "org.apache.skywalking.oap.server.core.analysis.metrics.";
     private static final String WITH_METADATA_INTERFACE = "org.apache.skywalking.oap.server.core.analysis.metrics.WithMetadata";
     private static final String STORAGE_BUILDER_INTERFACE = "org.apache.skywalking.oap.server.core.storage.StorageBuilder";
+    private static final String STREAM_DATA_FACTORY_INTERFACE = "org.apache.skywalking.oap.server.core.remote.data.StreamDataFactory";
     private static final String DISPATCHER_INTERFACE = "org.apache.skywalking.oap.server.core.analysis.SourceDispatcher";
     private static final String METRICS_STREAM_PROCESSOR = "org.apache.skywalking.oap.server.core.analysis.worker.MetricsStreamProcessor";
     private static final String[] METRICS_CLASS_METHODS = {
@@ -185,6 +186,7 @@ public class OALRuntime implements OALEngine {
         for (AnalysisResult metricsStmt : metricsStmts) {
             metricsClasses.add(generateMetricsClass(metricsStmt));
             generateMetricsBuilderClass(metricsStmt);
+            generateMetricsFactoryClass(metricsStmt);
         }
 
         for (Map.Entry<String, DispatcherContext> entry : allDispatcherContext.getAllContext().entrySet()) {
@@ -283,7 +285,7 @@ public class OALRuntime implements OALEngine {
         /**
          * Add following annotation to the metrics class
          *
-         * at Stream(name = "${tableName}", scopeId = ${sourceScopeId}, builder = ${metricsName}Metrics.Builder.class, processor = MetricsStreamProcessor.class)
+         * at Stream(name = "${tableName}", scopeId = ${sourceScopeId}, builder = ${metricsName}Metrics.Builder.class, processor = MetricsStreamProcessor.class, factory = ${metricsName}MetricsFactory.class)
          */
         AnnotationsAttribute annotationsAttribute = new AnnotationsAttribute(
             constPool, AnnotationsAttribute.visibleTag);
@@ -293,6 +295,8 @@ public class OALRuntime implements OALEngine {
         streamAnnotation.addMemberValue(
             "builder", new ClassMemberValue(metricsBuilderClassName(metricsStmt, true), constPool));
         streamAnnotation.addMemberValue("processor", new ClassMemberValue(METRICS_STREAM_PROCESSOR, constPool));
+        streamAnnotation.addMemberValue(
+            "factory", new ClassMemberValue(metricsFactoryClassName(metricsStmt, true), constPool));
 
         annotationsAttribute.addAnnotation(streamAnnotation);
         metricsClassClassFile.addAttribute(annotationsAttribute);
@@ -360,6 +364,57 @@ public class OALRuntime implements OALEngine {
         writeGeneratedFile(metricsBuilderClass, className, "metrics/builder");
     }
 
+    /**
+     * Generate metrics class factory and inject it to classloader, which creates the metrics received from the other
+     * OAP nodes without reflection.
+     */
+    private void generateMetricsFactoryClass(AnalysisResult metricsStmt) throws OALCompileException {
+        String className = metricsFactoryClassName(metricsStmt, false);
+        CtClass metricsFactoryClass = classPool.makeClass(metricsFactoryClassName(metricsStmt, true));
+        try {
+            metricsFactoryClass.addInterface(classPool.get(STREAM_DATA_FACTORY_INTERFACE));
+        } catch (NotFoundException e) {
+            log.error("Can't find StreamDataFactory interface for " + className + ".", e);
+            throw new OALCompileException(e.getMessage(), e);
+        }
+
+        /**
+         * Create empty construct
+         */
+        try {
+            CtConstructor defaultConstructor = CtNewConstructor.make(
+                "public " + className + "() {}", metricsFactoryClass);
+            metricsFactoryClass.addConstructor(defaultConstructor);
+        } catch (CannotCompileException e) {
+            log.error("Can't add empty constructor in " + className + ".", e);
+            throw new OALCompileException(e.getMessage(), e);
+        }
+
+        /**
+         * Generate `StreamData newInstance()` method.
+         */
+        try {
+            metricsFactoryClass.addMethod(CtNewMethod.make(
+                ""
+                    + "public org.apache.skywalking.oap.server.core.remote.data.StreamData newInstance() {"
+                    + "    return new " + metricsClassName(metricsStmt, true) + "();"
+                    + " }"
+                , metricsFactoryClass));
+        } catch (CannotCompileException e) {
+            log.error("Can't generate newInstance method for " + className + ".", e);
+            throw new OALCompileException(e.getMessage(), e);
+        }
+
+        try {
+            metricsFactoryClass.toClass(currentClassLoader, null);
+        } catch (CannotCompileException e) {
+            log.error("Can't compile/load " + className + ".", e);
+            throw new OALCompileException(e.getMessage(), e);
+        }
+
+        writeGeneratedFile(metricsFactoryClass, className, "metrics/factory");
+    }
+
     /**
      * Generate SourceDispatcher class and inject it to classloader
      */
@@ -447,6 +502,10 @@ public class OALRuntime implements OALEngine {
         return (fullName ? oalDefine.getDynamicMetricsBuilderClassPackage() : "") + metricsStmt.getMetricsName() + "MetricsBuilder";
     }
 
+    private String metricsFactoryClassName(AnalysisResult metricsStmt, boolean fullName) {
+        return (fullName ? oalDefine.getDynamicMetricsFactoryClassPackage() : "") + metricsStmt.getMetricsName() + "MetricsFactory";
+    }
+
     private String dispatcherClassName(String scopeName, boolean fullName) {
         return (fullName ? oalDefine.getDynamicDispatcherClassPackage() : "") + scopeName + "Dispatcher";
     }
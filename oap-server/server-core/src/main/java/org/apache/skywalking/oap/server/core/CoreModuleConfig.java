@@ -46,7 +46,34 @@ public class CoreModuleConfig extends ModuleConfig {
     private String gRPCSslTrustedCAPath;
     private int maxConcurrentCallsPerConnection;
     private int maxMessageSize;
+    /**
+     * Send the stream data to the other OAP nodes in batches of every worker. The nodes of the older versions are
+     * detected, and the data is sent to them one by one.
+     *
+     * @since 8.4.0
+     */
+    private boolean enableRemoteBatch = true;
+    /**
+     * The compression of the remote batches, none or deflate.
+     *
+     * @since 8.4.0
+     */
+    private String remoteBatchCompression = "none";
     private boolean enableDatabaseSession;
+    /**
+     * The max number of metrics in the session cache shared by all metrics, when {@link #enableDatabaseSession} ==
+     * true.
+     *
+     * @since 8.4.0
+     */
+    private long maxSizeOfMetricsSessionCache = 500_000L;
+    /**
+     * The max estimated bytes of metrics in the session cache shared by all metrics, when {@link
+     * #enableDatabaseSession} == true.
+     *
+     * @since 8.4.0
+     */
+    private long maxBytesOfMetricsSessionCache = 256 * 1024 * 1024L;
     private int topNReportPeriod;
     private final List<String> downsampling;
     /**
@@ -54,6 +81,47 @@ public class CoreModuleConfig extends ModuleConfig {
      */
 
     private long persistentPeriod = 3;
+    /**
+     * The number of threads used to prepare metrics data to the storage.
+     *
+     * @since 8.4.0
+     */
+    private int prepareThreads = 2;
+    /**
+     * The max number of the prepared requests executed in one batch of the storage.
+     *
+     * @since 8.4.0
+     */
+    private int maxSyncOperationNum = 50000;
+    /**
+     * The number of threads used to execute the prepared requests to the storage concurrently.
+     *
+     * @since 8.4.0
+     */
+    private int syncThreads = 2;
+    /**
+     * The number of stripes of the L2 aggregation cache of every metrics. The writers of different stripes don't block
+     * each other. More than 1 is only useful when the L2 aggregation of one metrics is consumed by several threads.
+     *
+     * @since 8.4.0
+     */
+    private int metricsPersistentCacheStripes = 1;
+    /**
+     * Remember the persisted metrics in the time bucket partitioned bloom filters, to skip the storage query of the
+     * metrics which are never persisted.
+     *
+     * @since 8.4.0
+     */
+    private boolean enableMetricsExistenceIndex = false;
+    /**
+     * Persist the metrics, which are merged by adding the values, such as count, sum, cpm and longAvg, through the
+     * upsert of the storage, which adds the new values to the persisted ones, rather than overwriting them by the merged
+     * values. The persisted metrics are still loaded once when they might exist but not in the session. Only works when
+     * the storage supports it. Requires {@link #enableDatabaseSession} and {@link #enableMetricsExistenceIndex}.
+     *
+     * @since 8.4.0
+     */
+    private boolean enableIncrementalMetricsPersistence = false;
 
     private boolean enableDataKeeperExecutor = true;
 
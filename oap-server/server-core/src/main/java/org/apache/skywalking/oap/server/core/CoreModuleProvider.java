@@ -27,6 +27,7 @@ import org.apache.skywalking.oap.server.configuration.api.DynamicConfigurationSe
 import org.apache.skywalking.oap.server.core.analysis.ApdexThresholdConfig;
 import org.apache.skywalking.oap.server.core.analysis.DisableRegister;
 import org.apache.skywalking.oap.server.core.analysis.StreamAnnotationListener;
+import org.apache.skywalking.oap.server.core.analysis.data.MetricsSessionCache;
 import org.apache.skywalking.oap.server.core.analysis.meter.MeterSystem;
 import org.apache.skywalking.oap.server.core.analysis.metrics.ApdexMetrics;
 import org.apache.skywalking.oap.server.core.analysis.worker.ManagementStreamProcessor;
@@ -66,6 +67,7 @@ import org.apache.skywalking.oap.server.core.remote.RemoteSenderService;
 import org.apache.skywalking.oap.server.core.remote.RemoteServiceHandler;
 import org.apache.skywalking.oap.server.core.remote.client.Address;
 import org.apache.skywalking.oap.server.core.remote.client.RemoteClientManager;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteCompression;
 import org.apache.skywalking.oap.server.core.remote.health.HealthCheckServiceHandler;
 import org.apache.skywalking.oap.server.core.server.GRPCHandlerRegister;
 import org.apache.skywalking.oap.server.core.server.GRPCHandlerRegisterImpl;
@@ -272,13 +274,35 @@ public class CoreModuleProvider extends ModuleProvider {
         } else {
             this.remoteClientManager = new RemoteClientManager(getManager(), moduleConfig.getRemoteTimeout());
         }
+        if (moduleConfig.isEnableRemoteBatch()) {
+            remoteClientManager.setRemoteBatchCompression(remoteBatchCompression(moduleConfig));
+        }
         this.registerServiceImplementation(RemoteClientManager.class, remoteClientManager);
 
         // Management
         this.registerServiceImplementation(
             UITemplateManagementService.class, new UITemplateManagementService(getManager()));
 
-        MetricsStreamProcessor.getInstance().setEnableDatabaseSession(moduleConfig.isEnableDatabaseSession());
+        if (moduleConfig.isEnableIncrementalMetricsPersistence() && !moduleConfig.isEnableDatabaseSession()) {
+            throw new ModuleStartException(
+                "enableIncrementalMetricsPersistence requires enableDatabaseSession, which keeps the merged metrics.");
+        }
+        if (moduleConfig.isEnableIncrementalMetricsPersistence() && !moduleConfig.isEnableMetricsExistenceIndex()) {
+            throw new ModuleStartException(
+                "enableIncrementalMetricsPersistence requires enableMetricsExistenceIndex, "
+                    + "which skips the storage query of the new metrics.");
+        }
+        if (moduleConfig.isEnableDatabaseSession()) {
+            MetricsStreamProcessor.getInstance().setMetricsSessionCache(new MetricsSessionCache(
+                moduleConfig.getMaxSizeOfMetricsSessionCache(), moduleConfig.getMaxBytesOfMetricsSessionCache()));
+        }
+        MetricsStreamProcessor.getInstance()
+                              .setMetricsPersistentCacheStripes(moduleConfig.getMetricsPersistentCacheStripes());
+        MetricsStreamProcessor.getInstance()
+                              .setEnableMetricsExistenceIndex(moduleConfig.isEnableMetricsExistenceIndex());
+        MetricsStreamProcessor.getInstance()
+                              .setEnableIncrementalMetricsPersistence(
+                                  moduleConfig.isEnableIncrementalMetricsPersistence());
         TopNStreamProcessor.getInstance().setTopNWorkerReportCycle(moduleConfig.getTopNReportPeriod());
         apdexThresholdConfig = new ApdexThresholdConfig(this);
         ApdexMetrics.setDICT(apdexThresholdConfig);
@@ -360,4 +384,15 @@ public class CoreModuleProvider extends ModuleProvider {
             ConfigurationModule.NAME
         };
     }
+
+    private static RemoteCompression remoteBatchCompression(CoreModuleConfig moduleConfig) throws ModuleStartException {
+        for (RemoteCompression compression : RemoteCompression.values()) {
+            if (compression != RemoteCompression.UNRECOGNIZED
+                && compression.name().equalsIgnoreCase(moduleConfig.getRemoteBatchCompression())) {
+                return compression;
+            }
+        }
+        throw new ModuleStartException(
+            "Unknown remote batch compression: " + moduleConfig.getRemoteBatchCompression());
+    }
 }
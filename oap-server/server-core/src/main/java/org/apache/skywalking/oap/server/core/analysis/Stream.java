@@ -27,6 +27,7 @@ import org.apache.skywalking.oap.server.core.analysis.worker.MetricsStreamProces
 import org.apache.skywalking.oap.server.core.analysis.worker.NoneStreamProcessor;
 import org.apache.skywalking.oap.server.core.analysis.worker.RecordStreamProcessor;
 import org.apache.skywalking.oap.server.core.analysis.worker.TopNStreamProcessor;
+import org.apache.skywalking.oap.server.core.remote.data.StreamDataFactory;
 import org.apache.skywalking.oap.server.core.source.ScopeDeclaration;
 import org.apache.skywalking.oap.server.core.storage.StorageBuilder;
 
@@ -58,4 +59,11 @@ public @interface Stream {
      * TopNStreamProcessor} and {@link NoneStreamProcessor} for more details.
      */
     Class<? extends StreamProcessor> processor();
+
+    /**
+     * @return the factory type of the stream data received from the other OAP nodes, only works for the metrics. The
+     * default {@link StreamDataFactory} means creating the stream data by reflection.
+     * @since 8.4.0
+     */
+    Class<? extends StreamDataFactory> factory() default StreamDataFactory.class;
 }
@@ -20,6 +20,8 @@ package org.apache.skywalking.oap.server.core.analysis;
 
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import org.apache.skywalking.oap.server.core.UnexpectedException;
+import org.apache.skywalking.oap.server.core.remote.data.StreamDataFactory;
 import org.apache.skywalking.oap.server.core.storage.StorageBuilder;
 
 @RequiredArgsConstructor
@@ -29,9 +31,21 @@ public class StreamDefinition {
     private final int scopeId;
     private final Class<? extends StorageBuilder> builder;
     private final Class<? extends StreamProcessor> processor;
+    /**
+     * The factory of the stream data received from the other OAP nodes, NULL if created by reflection.
+     */
+    private final StreamDataFactory factory;
 
     public static StreamDefinition from(Stream stream) {
-        return new StreamDefinition(stream.name(), stream.scopeId(), stream.builder(), stream.processor());
+        StreamDataFactory factory = null;
+        if (!StreamDataFactory.class.equals(stream.factory())) {
+            try {
+                factory = stream.factory().newInstance();
+            } catch (InstantiationException | IllegalAccessException e) {
+                throw new UnexpectedException("Create " + stream.factory().getSimpleName() + " failure.", e);
+            }
+        }
+        return new StreamDefinition(stream.name(), stream.scopeId(), stream.builder(), stream.processor(), factory);
     }
 
 }
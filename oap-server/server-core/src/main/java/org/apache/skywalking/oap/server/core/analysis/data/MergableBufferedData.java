@@ -18,23 +18,44 @@
 
 package org.apache.skywalking.oap.server.core.analysis.data;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
 
 /**
  * MergableBufferedData is a thread no safe implementation of {@link BufferedData}. {@link Metrics} in this cache would
- * be {@link Metrics#combine(Metrics)} if their {@link Metrics#id()}s are same.
+ * be {@link Metrics#combine(Metrics)} if they are the same metrics, which is identified by {@link Metrics#hashCode()}
+ * and {@link Metrics#equals(Object)} rather than {@link Metrics#id()}, to avoid building the ID string per merge.
+ *
+ * The metrics are kept in a dense array by the arrival order, and indexed by an open addressing(linear probing) table.
+ * The hash of every metrics is computed once when it is added, and reused in the probing and resizing. The arrays are
+ * reused after {@link #read()}, as the number of metrics in every period is usually stable.
  *
  * Concurrency {@link #accept(Metrics)}s and {@link #read()} while {@link #accept(Metrics)} are both not recommended.
  */
 public class MergableBufferedData<METRICS extends Metrics> implements BufferedData<METRICS> {
-    private Map<String, METRICS> buffer;
+    private static final int DEFAULT_CAPACITY = 64;
+
+    /**
+     * The index table, the value is the position in {@link #metrics} plus one, 0 represents an empty slot. The length
+     * is always a power of two, and at least twice of the size.
+     */
+    private int[] table;
+    /**
+     * The metrics in the arrival order.
+     */
+    private Metrics[] metrics;
+    /**
+     * The spread hash codes of {@link #metrics}.
+     */
+    private int[] hashes;
+    private int size;
 
     public MergableBufferedData() {
-        buffer = new HashMap<>();
+        table = new int[DEFAULT_CAPACITY * 2];
+        metrics = new Metrics[DEFAULT_CAPACITY];
+        hashes = new int[DEFAULT_CAPACITY];
     }
 
     /**
@@ -46,21 +67,74 @@ public class MergableBufferedData<METRICS extends Metrics> implements BufferedDa
      */
     @Override
     public void accept(final METRICS data) {
-        final String id = data.id();
-        final METRICS existed = buffer.get(id);
-        if (existed == null) {
-            buffer.put(id, data);
+        final int hash = spread(data.hashCode());
+        final int mask = table.length - 1;
+        int slot = hash & mask;
+        int position;
+        while ((position = table[slot]) != 0) {
+            final Metrics existed = metrics[position - 1];
+            if (hashes[position - 1] == hash && existed.equals(data)) {
+                existed.combine(data);
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if (size == metrics.length) {
+            grow();
+            add(data, hash);
         } else {
-            existed.combine(data);
+            metrics[size] = data;
+            hashes[size] = hash;
+            table[slot] = ++size;
         }
     }
 
+    /**
+     * Read all the merged metrics, and clear the buffer. The returned list is the only allocation of reading.
+     */
     @Override
+    @SuppressWarnings("unchecked")
     public List<METRICS> read() {
-        try {
-            return buffer.values().stream().collect(Collectors.toList());
-        } finally {
-            buffer.clear();
+        final List<METRICS> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add((METRICS) metrics[i]);
+        }
+        Arrays.fill(metrics, 0, size, null);
+        Arrays.fill(table, 0);
+        size = 0;
+        return result;
+    }
+
+    private void grow() {
+        metrics = Arrays.copyOf(metrics, metrics.length * 2);
+        hashes = Arrays.copyOf(hashes, hashes.length * 2);
+        table = new int[table.length * 2];
+        final int mask = table.length - 1;
+        for (int i = 0; i < size; i++) {
+            int slot = hashes[i] & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = i + 1;
         }
     }
+
+    private void add(final METRICS data, final int hash) {
+        final int mask = table.length - 1;
+        int slot = hash & mask;
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        metrics[size] = data;
+        hashes[size] = hash;
+        table[slot] = ++size;
+    }
+
+    /**
+     * Spread the higher bits to the lower, as the table index only takes the lower bits.
+     */
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
 }
@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.data;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.oap.server.core.analysis.DownSampling;
+import org.apache.skywalking.oap.server.core.analysis.TimeBucket;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+
+/**
+ * MetricsExistenceIndex remembers the metrics persisted by the current OAP, partitioned by the time bucket, in bloom
+ * filters. It answers whether a metrics may exist in the storage, so the persistent worker could skip the storage query
+ * of the metrics which are never persisted, such as most of the metrics of a new minute.
+ *
+ * The index only knows what the current OAP persisted, so a time bucket is trusted only when no one else could have
+ * persisted it,
+ * <ul>
+ * <li>it is later than the time bucket of the last {@link #reset(long)}, which happens at the start and when the
+ * routing of the cluster changes, with a tolerance of the clock skew.</li>
+ * <li>its partition has never been evicted. Only the latest {@link #maxTimeBuckets} partitions are kept.</li>
+ * </ul>
+ * The untrusted time buckets are always reported as might exist. A false positive only costs a storage query, while a
+ * false negative would overwrite the persisted metrics, so the index never reports absent unless it is sure.
+ *
+ * This class is not thread safe, it is expected to be used by the worker in the same way as the session cache.
+ */
+public class MetricsExistenceIndex {
+    /**
+     * The metrics reported by the clients whose clock is ahead of the OAP could have been persisted before the reset.
+     */
+    private static final long CLOCK_SKEW_TOLERANCE = TimeUnit.MINUTES.toMillis(10);
+    private static final int MIN_EXPECTED_INSERTIONS = 1024;
+
+    private final DownSampling downSampling;
+    private final int maxTimeBuckets;
+    private final double fpp;
+    private final TreeMap<Long, Partition> partitions;
+    /**
+     * The time bucket of this and before are untrusted.
+     */
+    private long untrustedTimeBucket;
+
+    /**
+     * @param downSampling   of the time buckets of the metrics.
+     * @param maxTimeBuckets the max number of the time bucket partitions kept in the index.
+     * @param fpp            the expected false positive probability of the bloom filters.
+     */
+    public MetricsExistenceIndex(DownSampling downSampling, int maxTimeBuckets, double fpp) {
+        this.downSampling = downSampling;
+        this.maxTimeBuckets = maxTimeBuckets;
+        this.fpp = fpp;
+        this.partitions = new TreeMap<>();
+        reset(System.currentTimeMillis());
+    }
+
+    /**
+     * Forget all metrics, and distrust the time buckets until the given time, including the clock skew tolerance.
+     *
+     * @param now the current timestamp in millisecond.
+     */
+    public void reset(long now) {
+        partitions.clear();
+        untrustedTimeBucket = TimeBucket.getTimeBucket(now + CLOCK_SKEW_TOLERANCE, downSampling);
+    }
+
+    /**
+     * @return true if the index knows all persisted metrics of the given time bucket.
+     */
+    public boolean isTrusted(long timeBucket) {
+        return timeBucket > untrustedTimeBucket;
+    }
+
+    /**
+     * @return false only if the metrics is never persisted for sure. The untrusted time buckets always might exist.
+     */
+    public boolean mightExist(Metrics metrics) {
+        if (!isTrusted(metrics.getTimeBucket())) {
+            return true;
+        }
+        Partition partition = partitions.get(metrics.getTimeBucket());
+        return partition != null && partition.mightContain(metrics.hashCode());
+    }
+
+    /**
+     * Remember the metrics is going to be persisted.
+     */
+    public void add(Metrics metrics) {
+        final long timeBucket = metrics.getTimeBucket();
+        if (!isTrusted(timeBucket)) {
+            return;
+        }
+        Partition partition = partitions.get(timeBucket);
+        if (partition == null) {
+            final Map.Entry<Long, Partition> latest = partitions.lastEntry();
+            partition = new Partition(
+                latest == null ? MIN_EXPECTED_INSERTIONS : Math.max(MIN_EXPECTED_INSERTIONS, latest.getValue().size));
+            partitions.put(timeBucket, partition);
+            while (partitions.size() > maxTimeBuckets) {
+                untrustedTimeBucket = Math.max(untrustedTimeBucket, partitions.pollFirstEntry().getKey());
+            }
+            if (!isTrusted(timeBucket)) {
+                return;
+            }
+        }
+        partition.put(metrics.hashCode());
+    }
+
+    /**
+     * The metrics of one time bucket. The filters are scaled out by doubling the capacity, rather than exceeding the
+     * expected insertions of the current one. The false positive probability of every new filter is halved, so the
+     * overall one stays below the {@link #fpp}.
+     */
+    private class Partition {
+        private final List<BloomFilter<Integer>> filters = new ArrayList<>(1);
+        private int capacity;
+        private int size;
+        private double nextFpp;
+
+        private Partition(int expectedInsertions) {
+            capacity = expectedInsertions;
+            nextFpp = fpp / 2;
+            filters.add(BloomFilter.create(Funnels.integerFunnel(), expectedInsertions, nextFpp));
+        }
+
+        private boolean mightContain(int hash) {
+            for (int i = filters.size() - 1; i >= 0; i--) {
+                if (filters.get(i).mightContain(hash)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void put(int hash) {
+            if (size >= capacity) {
+                nextFpp /= 2;
+                filters.add(BloomFilter.create(Funnels.integerFunnel(), capacity, nextFpp));
+                capacity *= 2;
+            }
+            filters.get(filters.size() - 1).put(hash);
+            size++;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.data;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+
+/**
+ * MetricsSessionCache is the cache of the metrics loaded from the storage, shared by the persistent workers of all
+ * models in the OAP, to avoid loading the same metrics in every round when the database session is enabled.
+ *
+ * The cache is bounded by both the number of entries and the estimated bytes. Every entry weighs its estimated bytes,
+ * but no less than {@code maxBytes / maxSize}, so the max weight limits both of them. The least recently used entries
+ * are evicted when the limit is reached, and the entries are expired once they survive more than {@link
+ * #SURVIVAL_TIME} since loaded.
+ *
+ * Every model accesses the cache through its own {@link Session}, which keeps the footprint and evictions of the
+ * model.
+ */
+public class MetricsSessionCache {
+    /**
+     * 70,000ms means more than one minute.
+     */
+    public static final long SURVIVAL_TIME = 70000;
+    /**
+     * The rounds of all persistent workers end at the same time, sweep only once for them.
+     */
+    private static final long MIN_SWEEP_INTERVAL = 1000;
+    /**
+     * The estimated bytes of the cache entry and the metrics object, besides the serialized fields.
+     */
+    private static final int ENTRY_OVERHEAD = 128;
+
+    private final Cache<Metrics, Entry> cache;
+    private final int minWeight;
+    private final AtomicLong lastSweepTime;
+
+    /**
+     * @param maxSize  the max number of metrics in the cache.
+     * @param maxBytes the max estimated bytes of metrics in the cache.
+     */
+    public MetricsSessionCache(long maxSize, long maxBytes) {
+        this.minWeight = (int) Math.min(Integer.MAX_VALUE, Math.max(1, maxBytes / Math.max(1, maxSize)));
+        this.cache = CacheBuilder.newBuilder()
+                                 .maximumWeight(maxBytes)
+                                 .weigher((Metrics key, Entry entry) -> entry.weight)
+                                 .removalListener(this::onRemoval)
+                                 .build();
+        this.lastSweepTime = new AtomicLong(System.currentTimeMillis());
+    }
+
+    /**
+     * @return the view of the cache of one model.
+     */
+    public Session session() {
+        return new Session();
+    }
+
+    /**
+     * Extend the survival time of all entries by the time elapsed since the last sweep, and remove the expired ones.
+     * Only one of the concurrent callers in a round takes effect.
+     *
+     * @param now the current timestamp in millisecond.
+     */
+    public void sweep(long now) {
+        final long last = lastSweepTime.get();
+        if (now - last < MIN_SWEEP_INTERVAL || !lastSweepTime.compareAndSet(last, now)) {
+            return;
+        }
+        final long elapsed = now - last;
+        Iterator<Entry> iterator = cache.asMap().values().iterator();
+        while (iterator.hasNext()) {
+            Metrics metrics = iterator.next().metrics;
+            metrics.extendSurvivalTime(elapsed);
+            if (metrics.getSurvivalTime() > SURVIVAL_TIME) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private void onRemoval(RemovalNotification<Metrics, Entry> notification) {
+        final Entry entry = notification.getValue();
+        if (entry == null) {
+            return;
+        }
+        entry.session.size.decrementAndGet();
+        entry.session.bytes.addAndGet(-entry.bytes);
+        if (notification.getCause() == RemovalCause.SIZE) {
+            entry.session.evictions.incrementAndGet();
+        }
+    }
+
+    /**
+     * The serialized size of the remote data is the estimation of the fields, strings are doubled as they are in
+     * UTF-16 in the heap.
+     */
+    private static int estimateBytes(Metrics metrics) {
+        final RemoteData.Builder remoteData = metrics.serialize();
+        return remoteData == null ? ENTRY_OVERHEAD : ENTRY_OVERHEAD + remoteData.build().getSerializedSize() * 2;
+    }
+
+    /**
+     * The view of the cache of one model.
+     */
+    public class Session {
+        private final AtomicLong size = new AtomicLong();
+        private final AtomicLong bytes = new AtomicLong();
+        private final AtomicLong evictions = new AtomicLong();
+
+        private Session() {
+        }
+
+        /**
+         * @return the cached metrics of the same identity, or NULL if absent.
+         */
+        public Metrics get(Metrics metrics) {
+            final Entry entry = cache.getIfPresent(metrics);
+            return entry != null && entry.session == this ? entry.metrics : null;
+        }
+
+        public void put(Metrics metrics) {
+            final int estimatedBytes = estimateBytes(metrics);
+            size.incrementAndGet();
+            bytes.addAndGet(estimatedBytes);
+            cache.put(metrics, new Entry(metrics, this, estimatedBytes, Math.max(minWeight, estimatedBytes)));
+        }
+
+        /**
+         * @return the number of metrics of this model in the cache.
+         */
+        public long size() {
+            return size.get();
+        }
+
+        /**
+         * @return the estimated bytes of metrics of this model in the cache.
+         */
+        public long bytes() {
+            return bytes.get();
+        }
+
+        /**
+         * @return the number of metrics of this model evicted for the size limits.
+         */
+        public long evictions() {
+            return evictions.get();
+        }
+    }
+
+    private static class Entry {
+        private final Metrics metrics;
+        private final Session session;
+        private final int bytes;
+        private final int weight;
+
+        private Entry(Metrics metrics, Session session, int bytes, int weight) {
+            this.metrics = metrics;
+            this.session = session;
+            this.bytes = bytes;
+            this.weight = weight;
+        }
+    }
+}
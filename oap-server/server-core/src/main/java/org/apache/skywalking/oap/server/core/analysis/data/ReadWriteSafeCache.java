@@ -18,25 +18,26 @@
 
 package org.apache.skywalking.oap.server.core.analysis.data;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import org.apache.skywalking.oap.server.telemetry.api.HistogramMetrics;
 
 /**
  * ReadWriteSafeCache provides a read/write isolated cache.
+ *
+ * The cache could be split into several stripes, the data is routed to the stripe by {@link Object#hashCode()}, which
+ * should be consistent with the merge condition of the {@link BufferedData}, such as {@link
+ * org.apache.skywalking.oap.server.core.analysis.metrics.Metrics}. Every stripe has its own read/write buffers and lock,
+ * writers of different stripes don't block each other, and {@link #read()} switches the stripes one by one.
  */
 public class ReadWriteSafeCache<T> {
+    private final Stripe<T>[] stripes;
     /**
-     * Pointer of read buffer.
-     */
-    private volatile BufferedData<T> readBufferPointer;
-    /**
-     * Pointer of write buffer.
-     */
-    private volatile BufferedData<T> writeBufferPointer;
-    /**
-     * Read/Write lock.
+     * The latency of waiting for the lock when it is held by others, NULL if not required.
      */
-    private final ReentrantLock lock;
+    private final HistogramMetrics lockWaitLatency;
 
     /**
      * Build the Cache through two given buffer instances.
@@ -44,51 +45,159 @@ public class ReadWriteSafeCache<T> {
      * @param buffer1 read/write switchable buffer
      * @param buffer2 read/write switchable buffer. It is the write buffer at the beginning.
      */
+    @SuppressWarnings("unchecked")
     public ReadWriteSafeCache(BufferedData<T> buffer1, BufferedData<T> buffer2) {
-        readBufferPointer = buffer1;
-        writeBufferPointer = buffer2;
-        lock = new ReentrantLock();
+        stripes = new Stripe[] {new Stripe<>(buffer1, buffer2)};
+        lockWaitLatency = null;
     }
 
     /**
-     * Write the into the {@link #writeBufferPointer} buffer.
+     * Build the Cache of several stripes.
+     *
+     * @param stripeNum       the number of stripes.
+     * @param bufferCreator   creates the read/write switchable buffers of every stripe.
+     * @param lockWaitLatency the metrics of lock wait latency, NULL if not required.
+     */
+    @SuppressWarnings("unchecked")
+    public ReadWriteSafeCache(int stripeNum, Supplier<BufferedData<T>> bufferCreator,
+                              HistogramMetrics lockWaitLatency) {
+        stripes = new Stripe[Math.max(stripeNum, 1)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe<>(bufferCreator.get(), bufferCreator.get());
+        }
+        this.lockWaitLatency = lockWaitLatency;
+    }
+
+    /**
+     * Write the into the write buffer of the stripe.
      *
      * @param data to enqueue.
      */
     public void write(T data) {
-        lock.lock();
+        final Stripe<T> stripe = stripes[indexOf(data)];
+        lock(stripe);
         try {
-            writeBufferPointer.accept(data);
+            stripe.writeBufferPointer.accept(data);
         } finally {
-            lock.unlock();
+            stripe.lock.unlock();
         }
     }
 
     /**
-     * Write the collection of data into the {@link #writeBufferPointer} buffer.
+     * Write the collection of data into the write buffers.
      *
      * @param data to enqueue.
      */
+    @SuppressWarnings("unchecked")
     public void write(List<T> data) {
-        lock.lock();
-        try {
-            data.forEach(writeBufferPointer::accept);
-        } finally {
-            lock.unlock();
+        if (stripes.length == 1) {
+            final Stripe<T> stripe = stripes[0];
+            lock(stripe);
+            try {
+                data.forEach(stripe.writeBufferPointer::accept);
+            } finally {
+                stripe.lock.unlock();
+            }
+            return;
+        }
+
+        final List<T>[] partitions = new List[stripes.length];
+        for (final T element : data) {
+            final int index = indexOf(element);
+            if (partitions[index] == null) {
+                partitions[index] = new ArrayList<>(data.size() / stripes.length + 1);
+            }
+            partitions[index].add(element);
+        }
+        for (int i = 0; i < partitions.length; i++) {
+            if (partitions[i] == null) {
+                continue;
+            }
+            final Stripe<T> stripe = stripes[i];
+            lock(stripe);
+            try {
+                partitions[i].forEach(stripe.writeBufferPointer::accept);
+            } finally {
+                stripe.lock.unlock();
+            }
         }
     }
 
+    /**
+     * Switch the read and write buffers of every stripe, and read all data from the switched read buffers. The read
+     * buffer is only accessed by the reader after switching, so it is drained outside the lock. This method should not
+     * be called concurrently.
+     */
     public List<T> read() {
-        lock.lock();
+        if (stripes.length == 1) {
+            return switchBuffer(stripes[0]).read();
+        }
+        final List<T> result = new ArrayList<>();
+        for (final Stripe<T> stripe : stripes) {
+            result.addAll(switchBuffer(stripe).read());
+        }
+        return result;
+    }
+
+    /**
+     * @return the read buffer after switching.
+     */
+    private BufferedData<T> switchBuffer(Stripe<T> stripe) {
+        lock(stripe);
         try {
             // Switch the read and write pointers, when there is no writing.
-            BufferedData<T> tempPointer = writeBufferPointer;
-            writeBufferPointer = readBufferPointer;
-            readBufferPointer = tempPointer;
+            final BufferedData<T> tempPointer = stripe.writeBufferPointer;
+            stripe.writeBufferPointer = stripe.readBufferPointer;
+            stripe.readBufferPointer = tempPointer;
+            return tempPointer;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private int indexOf(T data) {
+        if (stripes.length == 1) {
+            return 0;
+        }
+        final int hash = data.hashCode();
+        // Spread the higher bits, as the hash codes of IDs usually differ in the lower bits only.
+        return ((hash ^ (hash >>> 16)) & Integer.MAX_VALUE) % stripes.length;
+    }
 
-            return readBufferPointer.read();
+    private void lock(Stripe<T> stripe) {
+        if (lockWaitLatency == null) {
+            stripe.lock.lock();
+            return;
+        }
+        if (stripe.lock.tryLock()) {
+            return;
+        }
+        final HistogramMetrics.Timer timer = lockWaitLatency.createTimer();
+        try {
+            stripe.lock.lock();
         } finally {
-            lock.unlock();
+            timer.finish();
+        }
+    }
+
+    private static class Stripe<T> {
+        /**
+         * Pointer of read buffer.
+         */
+        private volatile BufferedData<T> readBufferPointer;
+        /**
+         * Pointer of write buffer.
+         */
+        private volatile BufferedData<T> writeBufferPointer;
+        /**
+         * Read/Write lock.
+         */
+        private final ReentrantLock lock;
+
+        private Stripe(BufferedData<T> readBuffer, BufferedData<T> writeBuffer) {
+            this.readBufferPointer = readBuffer;
+            this.writeBufferPointer = writeBuffer;
+            this.lock = new ReentrantLock();
         }
     }
 }
@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.manual.segment;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
+
+/**
+ * SegmentDataBinary encodes the {@link SegmentObject} into the {@link SegmentRecord#getDataBinary()}, and decodes it
+ * back. The data binary is either the raw protobuf bytes, or the compressed format as following.
+ * <pre>
+ * | 0x00 | format version | raw length in varint | deflate(raw protobuf bytes) |
+ * </pre>
+ * The leading 0x00 never begins the protobuf bytes, as the field number 0 is invalid, so the data binary of the
+ * previous releases keeps decodable. The deflate stream is started with the {@link #DICTIONARY}, which includes the
+ * frequent tag keys and values of the agents, so these strings are referenced even in the first span of the segment,
+ * while the repeated endpoint names, peers and tags in the segment are referenced by the deflate itself.
+ */
+public class SegmentDataBinary {
+    private static final byte MARK = 0;
+    private static final byte FORMAT_VERSION = 1;
+    /**
+     * The dictionary of the {@link #FORMAT_VERSION}, which must never change, as the persisted data binary can't be
+     * decoded without it. The deflate prefers the strings at the end of the dictionary.
+     */
+    private static final byte[] DICTIONARY = (
+        "mq.brokermq.topicmq.queuecache.typecache.opcache.cmdcache.keyhttp.headershttp.bodyhttp.params"
+            + "db.bind_varsdb.instanceRedisMongoDBPostgreSQLtransmission.latencyx-leevent"
+            + "error.kindmessagestackjava.lang.Exception"
+            + "http://localhost:POSTGET200db.typeMysqldb.statementselect * from  where id = ?"
+            + "status_codehttp.methodurlhttp://"
+    ).getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * The deflater and inflater hold the native buffers, which are expensive to create per segment.
+     */
+    private static final ThreadLocal<Deflater> DEFLATER = ThreadLocal.withInitial(
+        () -> new Deflater(Deflater.BEST_SPEED, true));
+    private static final ThreadLocal<Inflater> INFLATER = ThreadLocal.withInitial(() -> new Inflater(true));
+
+    /**
+     * @return the compressed data binary of the segment, or the raw protobuf bytes if it is not smaller.
+     */
+    public static byte[] compress(SegmentObject segment) {
+        final byte[] raw = segment.toByteArray();
+        if (raw.length < 3) {
+            return raw;
+        }
+        final byte[] buffer = new byte[raw.length];
+        buffer[0] = MARK;
+        buffer[1] = FORMAT_VERSION;
+        int length = writeVarint(buffer, 2, raw.length);
+        if (length < 0) {
+            return raw;
+        }
+
+        final Deflater deflater = DEFLATER.get();
+        deflater.reset();
+        deflater.setDictionary(DICTIONARY);
+        deflater.setInput(raw);
+        deflater.finish();
+        while (!deflater.finished() && length < buffer.length) {
+            length += deflater.deflate(buffer, length, buffer.length - length);
+        }
+        if (!deflater.finished()) {
+            return raw;
+        }
+        return Arrays.copyOf(buffer, length);
+    }
+
+    /**
+     * @return the segment of the data binary, in either the raw or the compressed format.
+     * @throws InvalidProtocolBufferException if the data binary is broken or in an unknown format.
+     */
+    public static SegmentObject decode(byte[] dataBinary) throws InvalidProtocolBufferException {
+        if (dataBinary.length == 0 || dataBinary[0] != MARK) {
+            return SegmentObject.parseFrom(dataBinary);
+        }
+        if (dataBinary.length < 3 || dataBinary[1] != FORMAT_VERSION) {
+            throw new InvalidProtocolBufferException("Unknown format of the segment data binary.");
+        }
+
+        int rawLength = 0;
+        int offset = 2;
+        for (int shift = 0; ; shift += 7) {
+            if (offset == dataBinary.length || shift > 28) {
+                throw new InvalidProtocolBufferException("Malformed length of the segment data binary.");
+            }
+            final byte b = dataBinary[offset++];
+            rawLength |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                break;
+            }
+        }
+        if (rawLength < 0) {
+            throw new InvalidProtocolBufferException("Negative length of the segment data binary.");
+        }
+        final byte[] raw = new byte[rawLength];
+        final Inflater inflater = INFLATER.get();
+        inflater.reset();
+        inflater.setDictionary(DICTIONARY);
+        inflater.setInput(dataBinary, offset, dataBinary.length - offset);
+        try {
+            int length = 0;
+            while (length < rawLength && !inflater.finished() && !inflater.needsInput()) {
+                length += inflater.inflate(raw, length, rawLength - length);
+            }
+            if (length != rawLength) {
+                throw new InvalidProtocolBufferException("Truncated segment data binary.");
+            }
+        } catch (DataFormatException e) {
+            throw new InvalidProtocolBufferException(e.getMessage());
+        }
+        return SegmentObject.parseFrom(raw);
+    }
+
+    /**
+     * @return the position after the varint, or -1 if the buffer is not large enough.
+     */
+    private static int writeVarint(byte[] buffer, int position, int value) {
+        while (position < buffer.length) {
+            if ((value & ~0x7F) == 0) {
+                buffer[position++] = (byte) value;
+                return position;
+            }
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        return -1;
+    }
+}
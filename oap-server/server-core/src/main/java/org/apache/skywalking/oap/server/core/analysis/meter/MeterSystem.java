@@ -43,6 +43,7 @@ import org.apache.skywalking.oap.server.core.analysis.meter.function.AcceptableV
 import org.apache.skywalking.oap.server.core.analysis.meter.function.MeterFunction;
 import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
 import org.apache.skywalking.oap.server.core.analysis.worker.MetricsStreamProcessor;
+import org.apache.skywalking.oap.server.core.remote.data.StreamData;
 import org.apache.skywalking.oap.server.core.storage.StorageException;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 import org.apache.skywalking.oap.server.library.module.Service;
@@ -227,7 +228,10 @@ public class MeterSystem implements Service {
             MetricsStreamProcessor.getInstance().create(
                 manager,
                 new StreamDefinition(
-                    metricsName, type.getScopeId(), prototype.builder(), MetricsStreamProcessor.class),
+                    metricsName, type.getScopeId(), prototype.builder(), MetricsStreamProcessor.class,
+                    // The generated createNew() of the prototype creates the metrics received from the other OAP nodes.
+                    () -> (StreamData) prototype.createNew()
+                ),
                 targetClass
             );
         } catch (CannotCompileException | IllegalAccessException | InstantiationException | StorageException e) {
@@ -0,0 +1,181 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.skywalking.oap.server.core.query.type.Bucket;
+
+/**
+ * BucketBoundaries describes the fixed layout of {@link LongBucketArray}. The element in the boundaries represents the
+ * minimal value of the bucket, the max is defined by the next element, and the last bucket has no max. The {@link
+ * Long#MIN_VALUE} could be the first element to indicate there is no minimal value.
+ *
+ * The instances are interned by the boundaries, the arrays in the same layout share one instance, and the
+ * compatibility of them is checked by the reference. The number of the layouts is expected to be small, as they are
+ * defined by the OAL and MAL scripts.
+ */
+public final class BucketBoundaries {
+    private static final ConcurrentHashMap<BucketBoundaries, BucketBoundaries> INTERNED = new ConcurrentHashMap<>();
+    /**
+     * The linear layouts indexed by the step and number of steps, to avoid building the boundaries in every lookup.
+     */
+    private static final ConcurrentHashMap<Long, BucketBoundaries> LINEAR = new ConcurrentHashMap<>();
+
+    private final long[] boundaries;
+    private final int hashCode;
+    /**
+     * The keys of the buckets in the {@link DataTable} format. Initialized before interning.
+     */
+    private String[] keys;
+    /**
+     * The step of the linear layout, which starts from 0. 0 if the layout isn't linear. Initialized before interning.
+     */
+    private long step;
+
+    private BucketBoundaries(long[] boundaries) {
+        this.boundaries = boundaries;
+        this.hashCode = Arrays.hashCode(boundaries);
+    }
+
+    /**
+     * @param boundaries in the ascending order.
+     * @return the interned layout.
+     */
+    public static BucketBoundaries of(long[] boundaries) {
+        if (boundaries == null || boundaries.length == 0) {
+            throw new IllegalArgumentException("boundaries can't be empty.");
+        }
+        for (int i = 1; i < boundaries.length; i++) {
+            if (boundaries[i] <= boundaries[i - 1]) {
+                throw new IllegalArgumentException("boundaries should be in the ascending order.");
+            }
+        }
+        // Look up by the given array first, as the layout has been interned in most cases.
+        final BucketBoundaries existing = INTERNED.get(new BucketBoundaries(boundaries));
+        if (existing != null) {
+            return existing;
+        }
+        final BucketBoundaries layout = new BucketBoundaries(boundaries.clone());
+        layout.keys = new String[boundaries.length];
+        for (int i = 0; i < boundaries.length; i++) {
+            layout.keys[i] = boundaries[i] == Long.MIN_VALUE ? Bucket.INFINITE_NEGATIVE : String.valueOf(boundaries[i]);
+        }
+        layout.step = linearStep(boundaries);
+        final BucketBoundaries interned = INTERNED.putIfAbsent(layout, layout);
+        return interned == null ? layout : interned;
+    }
+
+    /**
+     * The layout of 0, step, 2 * step, ..., step * maxNumOfSteps, which is the same as the {@link HistogramMetrics}.
+     *
+     * @param step          the size of each step. A positive integer.
+     * @param maxNumOfSteps the number of buckets is maxNumOfSteps + 1.
+     * @return the interned layout.
+     */
+    public static BucketBoundaries linear(int step, int maxNumOfSteps) {
+        if (step <= 0 || maxNumOfSteps < 0) {
+            throw new IllegalArgumentException("step should be positive, and maxNumOfSteps can't be negative.");
+        }
+        return LINEAR.computeIfAbsent(((long) step << 32) | maxNumOfSteps, key -> {
+            final long[] boundaries = new long[maxNumOfSteps + 1];
+            for (int i = 0; i < boundaries.length; i++) {
+                boundaries[i] = (long) i * step;
+            }
+            return of(boundaries);
+        });
+    }
+
+    public int size() {
+        return boundaries.length;
+    }
+
+    public long boundary(int index) {
+        return boundaries[index];
+    }
+
+    /**
+     * @return the key of the bucket in the {@link DataTable} format.
+     */
+    public String key(int index) {
+        return keys[index];
+    }
+
+    /**
+     * @return the index of the bucket which the value belongs to. The values less than the first boundary belong to
+     * the first bucket.
+     */
+    public int indexOf(long value) {
+        if (step > 0) {
+            if (value <= 0) {
+                return 0;
+            }
+            final long index = value / step;
+            return index >= boundaries.length ? boundaries.length - 1 : (int) index;
+        }
+        final int position = Arrays.binarySearch(boundaries, value);
+        if (position >= 0) {
+            return position;
+        }
+        // The insertion point is the index of the first greater boundary.
+        final int index = -position - 2;
+        return index < 0 ? 0 : index;
+    }
+
+    /**
+     * @return true if the boundaries are the same as the given ones.
+     */
+    public boolean isSame(long[] boundaries) {
+        return Arrays.equals(this.boundaries, boundaries);
+    }
+
+    private static long linearStep(long[] boundaries) {
+        if (boundaries[0] != 0 || boundaries.length < 2) {
+            return 0;
+        }
+        final long step = boundaries[1];
+        for (int i = 2; i < boundaries.length; i++) {
+            if (boundaries[i] - boundaries[i - 1] != step) {
+                return 0;
+            }
+        }
+        return step;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return Arrays.equals(boundaries, ((BucketBoundaries) o).boundaries);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        return "BucketBoundaries" + Arrays.toString(boundaries);
+    }
+}
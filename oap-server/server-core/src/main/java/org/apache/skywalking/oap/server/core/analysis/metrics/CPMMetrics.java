@@ -27,10 +27,11 @@ import org.apache.skywalking.oap.server.core.query.sql.Function;
 import org.apache.skywalking.oap.server.core.storage.annotation.Column;
 
 @MetricsFunction(functionName = "cpm")
-public abstract class CPMMetrics extends Metrics implements LongValueHolder {
+public abstract class CPMMetrics extends Metrics implements LongValueHolder, IncrementalMetrics {
 
     protected static final String VALUE = "value";
     protected static final String TOTAL = "total";
+    private static final String[] INCREMENTAL_COLUMNS = {TOTAL};
 
     @Getter
     @Setter
@@ -56,5 +57,14 @@ public abstract class CPMMetrics extends Metrics implements LongValueHolder {
     public void calculate() {
         this.value = total / getDurationInMinute();
     }
-}
 
+    @Override
+    public String[] incrementalColumns() {
+        return INCREMENTAL_COLUMNS;
+    }
+
+    @Override
+    public Quotient quotient() {
+        return Quotient.byConstant(VALUE, TOTAL, getDurationInMinute());
+    }
+}
@@ -27,9 +27,10 @@ import org.apache.skywalking.oap.server.core.query.sql.Function;
 import org.apache.skywalking.oap.server.core.storage.annotation.Column;
 
 @MetricsFunction(functionName = "count")
-public abstract class CountMetrics extends Metrics implements LongValueHolder {
+public abstract class CountMetrics extends Metrics implements LongValueHolder, IncrementalMetrics {
 
     protected static final String VALUE = "value";
+    private static final String[] INCREMENTAL_COLUMNS = {VALUE};
 
     @Getter
     @Setter
@@ -50,4 +51,9 @@ public abstract class CountMetrics extends Metrics implements LongValueHolder {
     @Override
     public void calculate() {
     }
+
+    @Override
+    public String[] incrementalColumns() {
+        return INCREMENTAL_COLUMNS;
+    }
 }
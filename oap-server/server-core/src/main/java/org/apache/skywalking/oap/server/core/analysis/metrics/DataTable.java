@@ -17,7 +17,12 @@
 
 package org.apache.skywalking.oap.server.core.analysis.metrics;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
@@ -30,10 +35,22 @@ import org.apache.skywalking.oap.server.core.storage.type.StorageDataComplexObje
 
 /**
  * DataTable includes a hashmap to store string key and long value. It enhanced the serialization capability.
+ *
+ * The storage data has two formats, both of them could be read by {@link #toObject(String)}.
+ * <ul>
+ * <li>The default, delimiter-joined key/value pairs, such as {@code 0,10|100,20}, see {@link #toStorageData()}.</li>
+ * <li>The compact, Base64 encoded varints, see {@link #toCompactStorageData()}. It never includes the {@link
+ * Const#KEY_VALUE_SPLIT}, which is the way to distinguish it from the default format.</li>
+ * </ul>
  */
 @ToString
 @EqualsAndHashCode
 public class DataTable implements StorageDataComplexObject<DataTable> {
+    /**
+     * The first byte of the compact format, for the format evolution in the future.
+     */
+    private static final byte COMPACT_FORMAT_VERSION = 1;
+
     private HashMap<String, Long> data;
 
     public DataTable() {
@@ -125,15 +142,139 @@ public class DataTable implements StorageDataComplexObject<DataTable> {
         return builder.toString();
     }
 
+    /**
+     * The bucket keys, which are non-negative integers in the canonical format such as the histogram buckets, are
+     * sorted and encoded by the delta to the previous one. Other keys are sorted and encoded in UTF-8 with the length.
+     * All values are zigzag encoded. The layout of the bytes before Base64 encoding is
+     * <pre>
+     * version, bucket key count, (bucket key delta, value)*, other key count, (key length, key bytes, value)*
+     * </pre>
+     *
+     * @return the compact format of the storage data.
+     */
+    @Override
+    public String toCompactStorageData() {
+        if (data.isEmpty()) {
+            return Const.EMPTY_STRING;
+        }
+        final long[] buckets = new long[data.size()];
+        int bucketCount = 0;
+        List<String> otherKeys = Collections.emptyList();
+        for (final String key : data.keySet()) {
+            final long bucket = parseBucket(key);
+            if (bucket >= 0) {
+                buckets[bucketCount++] = bucket;
+            } else {
+                if (otherKeys.isEmpty()) {
+                    otherKeys = new ArrayList<>();
+                }
+                otherKeys.add(key);
+            }
+        }
+        Arrays.sort(buckets, 0, bucketCount);
+        Collections.sort(otherKeys);
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(data.size() * 4 + 3);
+        out.write(COMPACT_FORMAT_VERSION);
+        writeVarint(out, bucketCount);
+        long previous = 0;
+        for (int i = 0; i < bucketCount; i++) {
+            writeVarint(out, buckets[i] - previous);
+            writeVarint(out, zigzag(data.get(String.valueOf(buckets[i]))));
+            previous = buckets[i];
+        }
+        writeVarint(out, otherKeys.size());
+        for (final String key : otherKeys) {
+            final byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+            writeVarint(out, keyBytes.length);
+            out.write(keyBytes, 0, keyBytes.length);
+            writeVarint(out, zigzag(data.get(key)));
+        }
+        return Base64.getEncoder().withoutPadding().encodeToString(out.toByteArray());
+    }
+
     @Override
     public void toObject(String data) {
-        String[] keyValues = data.split(Const.ARRAY_PARSER_SPLIT);
-        for (String keyValue : keyValues) {
-            final String[] keyValuePair = keyValue.split(Const.KEY_VALUE_SPLIT);
-            if (keyValuePair.length == 2) {
-                this.data.put(keyValuePair[0], Long.parseLong(keyValuePair[1]));
+        if (data.isEmpty()) {
+            return;
+        }
+        if (data.contains(Const.KEY_VALUE_SPLIT)) {
+            fromDelimitedFormat(data);
+        } else {
+            fromCompactFormat(data);
+        }
+    }
+
+    private void fromDelimitedFormat(String data) {
+        int start = 0;
+        while (start < data.length()) {
+            int end = data.indexOf(Const.ARRAY_SPLIT, start);
+            if (end < 0) {
+                end = data.length();
+            }
+            final int split = data.indexOf(Const.KEY_VALUE_SPLIT, start);
+            // Ignore the illegal key/value pair, which doesn't have exactly one split, or the value is empty.
+            if (split >= 0 && split < end - 1 && data.lastIndexOf(Const.KEY_VALUE_SPLIT, end - 1) == split) {
+                this.data.put(data.substring(start, split), Long.parseLong(data.substring(split + 1, end)));
+            }
+            start = end + 1;
+        }
+    }
+
+    private void fromCompactFormat(String data) {
+        final CompactReader reader = new CompactReader(Base64.getDecoder().decode(data));
+        final byte version = reader.readByte();
+        if (version != COMPACT_FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported compact format version " + version + " of data table.");
+        }
+        final int bucketCount = (int) reader.readVarint();
+        long bucket = 0;
+        for (int i = 0; i < bucketCount; i++) {
+            bucket += reader.readVarint();
+            this.data.put(String.valueOf(bucket), unzigzag(reader.readVarint()));
+        }
+        final int otherKeyCount = (int) reader.readVarint();
+        for (int i = 0; i < otherKeyCount; i++) {
+            final String key = reader.readString((int) reader.readVarint());
+            this.data.put(key, unzigzag(reader.readVarint()));
+        }
+    }
+
+    /**
+     * @return the bucket of the key, or -1 if the key isn't a non-negative integer in the canonical format, which
+     * could be restored by {@link String#valueOf(long)}.
+     */
+    private static long parseBucket(String key) {
+        final int length = key.length();
+        // 18 digits never overflow.
+        if (length == 0 || length > 18 || (length > 1 && key.charAt(0) == '0')) {
+            return -1;
+        }
+        long bucket = 0;
+        for (int i = 0; i < length; i++) {
+            final char c = key.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
             }
+            bucket = bucket * 10 + (c - '0');
+        }
+        return bucket;
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
         }
+        out.write((int) value);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
     }
 
     @Override
@@ -153,4 +294,36 @@ public class DataTable implements StorageDataComplexObject<DataTable> {
         });
         return this;
     }
+
+    private static class CompactReader {
+        private final byte[] bytes;
+        private int position;
+
+        private CompactReader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        private byte readByte() {
+            return bytes[position++];
+        }
+
+        private long readVarint() {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[position++];
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            }
+            while (b < 0);
+            return value;
+        }
+
+        private String readString(int length) {
+            final String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
 }
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.metrics;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.Arg;
+import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.Entrance;
+import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.MetricsFunction;
+import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.SourceFrom;
+import org.apache.skywalking.oap.server.core.storage.annotation.Column;
+
+/**
+ * FixedHistogramMetrics is the same as the {@link HistogramMetrics} in the calculation and storage, but the buckets
+ * are kept in the {@link LongBucketArray} rather than the {@link DataTable}, which costs much less memory and CPU in
+ * the aggregation.
+ */
+@Slf4j
+@MetricsFunction(functionName = "fixedHistogram")
+public abstract class FixedHistogramMetrics extends Metrics {
+
+    public static final String DATASET = "dataset";
+
+    @Getter
+    @Setter
+    @Column(columnName = DATASET, dataType = Column.ValueDataType.HISTOGRAM, storageOnly = true, defaultValue = 0)
+    private LongBucketArray dataset = new LongBucketArray();
+
+    /**
+     * Data will be grouped in the same way as {@link HistogramMetrics#combine(int, int, int)}.
+     *
+     * @param step          the size of each step. A positive integer.
+     * @param maxNumOfSteps Steps are used to group incoming value.
+     */
+    @Entrance
+    public final void combine(@SourceFrom int value, @Arg int step, @Arg int maxNumOfSteps) {
+        if (!dataset.hasData()) {
+            dataset = new LongBucketArray(BucketBoundaries.linear(step, maxNumOfSteps));
+        }
+        dataset.valueAccumulation(dataset.getBoundaries().indexOf(value), 1L);
+    }
+
+    @Override
+    public void combine(Metrics metrics) {
+        FixedHistogramMetrics histogramMetrics = (FixedHistogramMetrics) metrics;
+        if (!this.dataset.append(histogramMetrics.dataset)) {
+            log.warn("Incompatible buckets {} for current {}, metrics {}",
+                     histogramMetrics.dataset.getBoundaries(), this.dataset.getBoundaries(), id()
+            );
+        }
+    }
+
+    /**
+     * For Thermodynamic metrics, no single value field. Need to do nothing here.
+     */
+    @Override
+    public final void calculate() {
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.metrics;
+
+import java.util.Comparator;
+import java.util.stream.IntStream;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.Arg;
+import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.Entrance;
+import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.MetricsFunction;
+import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.SourceFrom;
+import org.apache.skywalking.oap.server.core.storage.annotation.Column;
+
+/**
+ * FixedPercentileMetrics calculates the P50/75/90/95/99 values as the {@link PercentileMetrics}, but groups the values
+ * in the fixed number of buckets kept in the {@link LongBucketArray}. The values greater than precision *
+ * maxNumOfSteps are grouped in the last bucket, so the percentile values are at most precision * maxNumOfSteps.
+ */
+@Slf4j
+@MetricsFunction(functionName = "fixedPercentile")
+public abstract class FixedPercentileMetrics extends Metrics implements MultiIntValuesHolder {
+    protected static final String DATASET = "dataset";
+    protected static final String VALUE = "value";
+
+    private static final int[] RANKS = {
+        50,
+        75,
+        90,
+        95,
+        99
+    };
+
+    @Getter
+    @Setter
+    @Column(columnName = VALUE, dataType = Column.ValueDataType.LABELED_VALUE, storageOnly = true)
+    private DataTable percentileValues;
+    @Getter
+    @Setter
+    @Column(columnName = DATASET, storageOnly = true)
+    private LongBucketArray dataset;
+
+    private boolean isCalculated;
+
+    public FixedPercentileMetrics() {
+        percentileValues = new DataTable(RANKS.length);
+        dataset = new LongBucketArray();
+    }
+
+    /**
+     * @param precision     the size of each bucket. A positive integer.
+     * @param maxNumOfSteps the number of buckets is maxNumOfSteps + 1.
+     */
+    @Entrance
+    public final void combine(@SourceFrom int value, @Arg int precision, @Arg int maxNumOfSteps) {
+        this.isCalculated = false;
+        if (!dataset.hasData()) {
+            dataset = new LongBucketArray(BucketBoundaries.linear(precision, maxNumOfSteps));
+        }
+        dataset.valueAccumulation(dataset.getBoundaries().indexOf(value), 1L);
+    }
+
+    @Override
+    public void combine(Metrics metrics) {
+        this.isCalculated = false;
+
+        FixedPercentileMetrics percentileMetrics = (FixedPercentileMetrics) metrics;
+        if (!this.dataset.append(percentileMetrics.dataset)) {
+            log.warn("Incompatible buckets {} for current {}, metrics {}",
+                     percentileMetrics.dataset.getBoundaries(), this.dataset.getBoundaries(), id()
+            );
+        }
+    }
+
+    @Override
+    public final void calculate() {
+        if (!isCalculated) {
+            long total = dataset.sumOfValues();
+
+            int[] roofs = new int[RANKS.length];
+            for (int i = 0; i < RANKS.length; i++) {
+                roofs[i] = Math.round(total * RANKS[i] * 1.0f / 100);
+            }
+
+            long count = 0;
+            int loopIndex = 0;
+            for (int i = 0; i < dataset.size(); i++) {
+                count += dataset.get(i);
+                for (int rankIdx = loopIndex; rankIdx < roofs.length; rankIdx++) {
+                    int roof = roofs[rankIdx];
+
+                    if (count >= roof) {
+                        percentileValues.put(String.valueOf(rankIdx), dataset.getBoundaries().boundary(i));
+                        loopIndex++;
+                    } else {
+                        break;
+                    }
+                }
+            }
+            isCalculated = true;
+        }
+    }
+
+    public int[] getValues() {
+        return percentileValues.sortedValues(Comparator.comparingInt(Integer::parseInt))
+                               .stream()
+                               .flatMapToInt(l -> IntStream.of(l.intValue()))
+                               .toArray();
+    }
+}
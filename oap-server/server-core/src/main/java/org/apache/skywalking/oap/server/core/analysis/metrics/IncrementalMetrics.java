@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.metrics;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * IncrementalMetrics declares the metrics could be merged by the storage, through adding the values of the incremental
+ * columns to the persisted ones, rather than overwriting them by the metrics merged through {@link
+ * Metrics#combine(Metrics)}. The storage, which supports this, merges them atomically in one upsert. The OAP still
+ * merges them in the session cache, for the alarm and exporter.
+ *
+ * The other columns, such as the entity ID, are the same for the metrics of the same ID, they are only written by the
+ * insert.
+ */
+public interface IncrementalMetrics {
+    /**
+     * @return the names of the columns merged by adding the values of this metrics.
+     */
+    String[] incrementalColumns();
+
+    /**
+     * @return the column recalculated as the quotient of the merged columns by {@link Metrics#calculate()}, NULL if
+     * there isn't.
+     */
+    default Quotient quotient() {
+        return null;
+    }
+
+    /**
+     * The column equals to the dividend column divided by the divisor column or the constant divisor, in the long
+     * integer division.
+     */
+    @Getter
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    class Quotient {
+        private final String column;
+        private final String dividendColumn;
+        /**
+         * NULL if the divisor is the constant {@link #divisor}.
+         */
+        private final String divisorColumn;
+        private final long divisor;
+
+        public static Quotient byColumn(String column, String dividendColumn, String divisorColumn) {
+            return new Quotient(column, dividendColumn, divisorColumn, 0);
+        }
+
+        public static Quotient byConstant(String column, String dividendColumn, long divisor) {
+            return new Quotient(column, dividendColumn, null, divisor);
+        }
+    }
+}
@@ -28,11 +28,16 @@ import org.apache.skywalking.oap.server.core.query.sql.Function;
 import org.apache.skywalking.oap.server.core.storage.annotation.Column;
 
 @MetricsFunction(functionName = "longAvg")
-public abstract class LongAvgMetrics extends Metrics implements LongValueHolder {
+public abstract class LongAvgMetrics extends Metrics implements LongValueHolder, IncrementalMetrics {
 
     protected static final String SUMMATION = "summation";
     protected static final String COUNT = "count";
     protected static final String VALUE = "value";
+    private static final String[] INCREMENTAL_COLUMNS = {
+        SUMMATION,
+        COUNT
+    };
+    private static final Quotient QUOTIENT = Quotient.byColumn(VALUE, SUMMATION, COUNT);
 
     @Getter
     @Setter
@@ -63,4 +68,14 @@ public abstract class LongAvgMetrics extends Metrics implements LongValueHolder
     public final void calculate() {
         this.value = this.summation / this.count;
     }
+
+    @Override
+    public String[] incrementalColumns() {
+        return INCREMENTAL_COLUMNS;
+    }
+
+    @Override
+    public Quotient quotient() {
+        return QUOTIENT;
+    }
 }
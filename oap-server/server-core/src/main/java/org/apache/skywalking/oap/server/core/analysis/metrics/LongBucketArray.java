@@ -0,0 +1,228 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.metrics;
+
+import java.util.Arrays;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.apache.skywalking.oap.server.core.Const;
+import org.apache.skywalking.oap.server.core.query.type.Bucket;
+import org.apache.skywalking.oap.server.core.storage.type.StorageDataComplexObject;
+
+/**
+ * LongBucketArray is the primitive alternative of the {@link DataTable} for the histogram like data. The values are
+ * kept in a long array in the fixed layout described by the shared {@link BucketBoundaries}, so there is no boxing and
+ * key string in {@link #append(LongBucketArray)}.
+ *
+ * The storage data is in the same format as the {@link DataTable}, which keeps the compatibility of the storage and
+ * query.
+ */
+@ToString
+@EqualsAndHashCode
+public class LongBucketArray implements StorageDataComplexObject<LongBucketArray> {
+    /**
+     * NULL if there is no data.
+     */
+    @Getter
+    private BucketBoundaries boundaries;
+    private long[] values;
+
+    public LongBucketArray() {
+    }
+
+    public LongBucketArray(BucketBoundaries boundaries) {
+        this.boundaries = boundaries;
+        this.values = new long[boundaries.size()];
+    }
+
+    public LongBucketArray(String data) {
+        toObject(data);
+    }
+
+    public boolean hasData() {
+        return boundaries != null;
+    }
+
+    public int size() {
+        return boundaries == null ? 0 : values.length;
+    }
+
+    public long get(int index) {
+        return values[index];
+    }
+
+    /**
+     * Accumulate the value in the bucket of the given index.
+     */
+    public void valueAccumulation(int index, long value) {
+        values[index] += value;
+    }
+
+    /**
+     * @return the sum of all values.
+     */
+    public long sumOfValues() {
+        long sum = 0;
+        for (int i = 0; i < size(); i++) {
+            sum += values[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Accumulate the values of the given array in the same layout.
+     *
+     * @return false if the layouts are different, and nothing changes.
+     */
+    public boolean append(LongBucketArray that) {
+        if (that.boundaries == null) {
+            return true;
+        }
+        if (this.boundaries == null) {
+            this.boundaries = that.boundaries;
+            this.values = that.values.clone();
+            return true;
+        }
+        if (this.boundaries != that.boundaries) {
+            return false;
+        }
+        final long[] thisValues = this.values;
+        final long[] thatValues = that.values;
+        for (int i = 0; i < thisValues.length; i++) {
+            thisValues[i] += thatValues[i];
+        }
+        return true;
+    }
+
+    /**
+     * @return a new {@link DataTable} of the same data.
+     */
+    public DataTable toDataTable() {
+        final DataTable dataTable = new DataTable(size() * 2);
+        for (int i = 0; i < size(); i++) {
+            dataTable.put(boundaries.key(i), values[i]);
+        }
+        return dataTable;
+    }
+
+    @Override
+    public String toStorageData() {
+        StringBuilder builder = new StringBuilder(size() * 8);
+        for (int i = 0; i < size(); i++) {
+            if (i != 0) {
+                builder.append(Const.ARRAY_SPLIT);
+            }
+            builder.append(boundaries.key(i)).append(Const.KEY_VALUE_SPLIT).append(values[i]);
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public String toCompactStorageData() {
+        return toDataTable().toCompactStorageData();
+    }
+
+    /**
+     * Initialize this object based on the data of a {@link DataTable}, in any format. The keys must be numbers or
+     * {@link Bucket#INFINITE_NEGATIVE}.
+     */
+    @Override
+    public void toObject(String data) {
+        if (data.isEmpty()) {
+            return;
+        }
+        if (!data.contains(Const.KEY_VALUE_SPLIT)) {
+            fromDataTable(new DataTable(data));
+            return;
+        }
+
+        // The delimited format is parsed directly, as it is the format of the remote data too.
+        long[] keys = new long[16];
+        long[] values = new long[16];
+        int size = 0;
+        int start = 0;
+        while (start < data.length()) {
+            int end = data.indexOf(Const.ARRAY_SPLIT, start);
+            if (end < 0) {
+                end = data.length();
+            }
+            final int split = data.indexOf(Const.KEY_VALUE_SPLIT, start);
+            if (split > start && split < end - 1) {
+                if (size == keys.length) {
+                    keys = Arrays.copyOf(keys, size * 2);
+                    values = Arrays.copyOf(values, size * 2);
+                }
+                final String key = data.substring(start, split);
+                keys[size] = Bucket.INFINITE_NEGATIVE.equals(key) ? Long.MIN_VALUE : Long.parseLong(key);
+                values[size] = Long.parseLong(data.substring(split + 1, end));
+                size++;
+            }
+            start = end + 1;
+        }
+        if (size == 0) {
+            return;
+        }
+        sort(keys, values, size);
+
+        this.boundaries = BucketBoundaries.of(size == keys.length ? keys : Arrays.copyOf(keys, size));
+        this.values = size == values.length ? values : Arrays.copyOf(values, size);
+    }
+
+    private void fromDataTable(DataTable dataTable) {
+        if (!dataTable.hasData()) {
+            return;
+        }
+        final long[] keys = new long[dataTable.size()];
+        int index = 0;
+        for (final String key : dataTable.keys()) {
+            keys[index++] = Bucket.INFINITE_NEGATIVE.equals(key) ? Long.MIN_VALUE : Long.parseLong(key);
+        }
+        Arrays.sort(keys);
+
+        this.boundaries = BucketBoundaries.of(keys);
+        this.values = new long[keys.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = dataTable.get(boundaries.key(i));
+        }
+    }
+
+    /**
+     * Insertion sort by the keys, as the data is in order usually.
+     */
+    private static void sort(long[] keys, long[] values, int size) {
+        for (int i = 1; i < size; i++) {
+            final long key = keys[i];
+            final long value = values[i];
+            int j = i - 1;
+            while (j >= 0 && keys[j] > key) {
+                keys[j + 1] = keys[j];
+                values[j + 1] = values[j];
+                j--;
+            }
+            keys[j + 1] = key;
+            values[j + 1] = value;
+        }
+    }
+
+    @Override
+    public void copyFrom(final LongBucketArray source) {
+        this.append(source);
+    }
+}
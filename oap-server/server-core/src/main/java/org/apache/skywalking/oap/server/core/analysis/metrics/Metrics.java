@@ -28,6 +28,12 @@ import org.apache.skywalking.oap.server.core.storage.annotation.Column;
 /**
  * Metrics represents the statistic data, which analysis by OAL script or hard code. It has the lifecycle controlled by
  * TTL(time to live).
+ *
+ * The identity of the metrics is represented by {@link #hashCode()} and {@link #equals(Object)}, which the
+ * implementations must compute over the raw fields of {@link #id()}, including {@link #getTimeBucket()} if it is a part
+ * of the ID. The {@link #timeBucket} is private in this class, lombok {@code @EqualsAndHashCode} of the subclasses
+ * can't include it, so these methods are written by hand. The merging and persistent caches rely on the identity,
+ * rather than the ID string, to avoid building the string per metrics.
  */
 public abstract class Metrics extends StreamData implements StorageData {
 
@@ -43,7 +49,7 @@ public abstract class Metrics extends StreamData implements StorageData {
     private long timeBucket;
 
     /**
-     * Time in the cache, only work when MetricsPersistentWorker#enableDatabaseSession == true.
+     * Time in the cache, only work when the metrics is in the MetricsSessionCache.
      */
     @Getter
     private long survivalTime = 0L;
@@ -22,21 +22,25 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.BulkConsumePool;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.ConsumerPoolFactory;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
+import org.apache.skywalking.oap.server.core.CoreModule;
 import org.apache.skywalking.oap.server.core.UnexpectedException;
 import org.apache.skywalking.oap.server.core.analysis.data.MergableBufferedData;
+import org.apache.skywalking.oap.server.core.analysis.data.MetricsExistenceIndex;
+import org.apache.skywalking.oap.server.core.analysis.data.MetricsSessionCache;
 import org.apache.skywalking.oap.server.core.analysis.data.ReadWriteSafeCache;
 import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
 import org.apache.skywalking.oap.server.core.exporter.ExportEvent;
+import org.apache.skywalking.oap.server.core.remote.client.RemoteClient;
+import org.apache.skywalking.oap.server.core.remote.client.RemoteClientManager;
+import org.apache.skywalking.oap.server.core.storage.IIncrementalMetricsDAO;
 import org.apache.skywalking.oap.server.core.storage.IMetricsDAO;
 import org.apache.skywalking.oap.server.core.storage.model.Model;
 import org.apache.skywalking.oap.server.core.worker.AbstractWorker;
@@ -44,6 +48,8 @@ import org.apache.skywalking.oap.server.library.client.request.PrepareRequest;
 import org.apache.skywalking.oap.server.library.module.ModuleDefineHolder;
 import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
 import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.GaugeMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.HistogramMetrics;
 import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
 import org.apache.skywalking.oap.server.telemetry.api.MetricsTag;
 
@@ -52,29 +58,82 @@ import org.apache.skywalking.oap.server.telemetry.api.MetricsTag;
  */
 @Slf4j
 public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
+    /**
+     * The number of the latest time buckets kept in the existence index. The metrics of the older time buckets, which
+     * arrive late, are loaded from the storage as usual.
+     */
+    private static final int EXISTENCE_INDEX_TIME_BUCKETS = 5;
+    private static final double EXISTENCE_INDEX_FPP = 0.01;
+
     private final Model model;
+    /**
+     * The metrics loaded from the session cache or the storage for the current batch.
+     */
     private final Map<Metrics, Metrics> context;
     private final IMetricsDAO metricsDAO;
     private final Optional<AbstractWorker<Metrics>> nextAlarmWorker;
     private final Optional<AbstractWorker<ExportEvent>> nextExportWorker;
     private final DataCarrier<Metrics> dataCarrier;
     private final Optional<MetricsTransWorker> transWorker;
-    private final boolean enableDatabaseSession;
+    /**
+     * The view of the shared session cache, NULL if CoreModuleConfig#enableDatabaseSession == false.
+     */
+    private final MetricsSessionCache sessionCache;
+    private final MetricsSessionCache.Session session;
     private final boolean supportUpdate;
+    /**
+     * True if the metrics are merged by the storage through {@link IIncrementalMetricsDAO#prepareBatchIncrement(Model,
+     * Metrics)}, rather than overwritten by the merged values. The storage is read as the other metrics, only when the
+     * metrics are neither in the {@link #session} nor known as new by the {@link #existenceIndex}. Both are required in
+     * this mode, see CoreModuleProvider.
+     */
+    private final boolean incremental;
+    /**
+     * The {@link #metricsDAO} in the {@link #incremental} mode, NULL otherwise.
+     */
+    private final IIncrementalMetricsDAO incrementalMetricsDAO;
     private CounterMetrics aggregationCounter;
+    /**
+     * The index of the persisted metrics, NULL if not enabled.
+     */
+    private final MetricsExistenceIndex existenceIndex;
+    private final ModuleDefineHolder moduleDefineHolder;
+    private RemoteClientManager remoteClientManager;
+    /**
+     * The remote clients when the {@link #existenceIndex} is built, the index is reset once the routing changes.
+     */
+    private List<RemoteClient> indexedRemoteClients;
+    private CounterMetrics existenceIndexSkipCounter;
+    private CounterMetrics existenceIndexHitCounter;
+    private CounterMetrics existenceIndexFalsePositiveCounter;
+    private CounterMetrics existenceIndexUntrustedCounter;
+    private CounterMetrics sessionHitCounter;
+    private CounterMetrics sessionMissCounter;
+    private CounterMetrics sessionEvictionCounter;
+    private GaugeMetrics sessionSizeGauge;
+    private GaugeMetrics sessionBytesGauge;
+    private long reportedSessionEvictions;
 
     MetricsPersistentWorker(ModuleDefineHolder moduleDefineHolder, Model model, IMetricsDAO metricsDAO,
                             AbstractWorker<Metrics> nextAlarmWorker, AbstractWorker<ExportEvent> nextExportWorker,
-                            MetricsTransWorker transWorker, boolean enableDatabaseSession, boolean supportUpdate) {
-        super(moduleDefineHolder, new ReadWriteSafeCache<>(new MergableBufferedData(), new MergableBufferedData()));
+                            MetricsTransWorker transWorker, MetricsSessionCache sessionCache, boolean supportUpdate,
+                            int cacheStripes, boolean enableExistenceIndex, boolean incremental) {
+        super(moduleDefineHolder, new ReadWriteSafeCache<>(
+            cacheStripes, MergableBufferedData::new, cacheLockWaitLatency(moduleDefineHolder, model)));
         this.model = model;
         this.context = new HashMap<>(100);
-        this.enableDatabaseSession = enableDatabaseSession;
+        this.sessionCache = sessionCache;
+        this.session = sessionCache != null ? sessionCache.session() : null;
         this.metricsDAO = metricsDAO;
         this.nextAlarmWorker = Optional.ofNullable(nextAlarmWorker);
         this.nextExportWorker = Optional.ofNullable(nextExportWorker);
         this.transWorker = Optional.ofNullable(transWorker);
         this.supportUpdate = supportUpdate;
+        this.incremental = incremental;
+        this.incrementalMetricsDAO = incremental ? (IIncrementalMetricsDAO) metricsDAO : null;
+        this.moduleDefineHolder = moduleDefineHolder;
+        this.existenceIndex = enableExistenceIndex ? new MetricsExistenceIndex(
+            model.getDownsampling(), EXISTENCE_INDEX_TIME_BUCKETS, EXISTENCE_INDEX_FPP) : null;
 
         String name = "METRICS_L2_AGGREGATION";
         int size = BulkConsumePool.Creator.recommendMaxSize() / 8;
@@ -99,16 +158,78 @@ public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
             new MetricsTag.Keys("metricName", "level", "dimensionality"),
             new MetricsTag.Values(model.getName(), "2", model.getDownsampling().getName())
         );
+        if (existenceIndex != null) {
+            existenceIndexSkipCounter = existenceIndexCounter(metricsCreator, "skip");
+            existenceIndexHitCounter = existenceIndexCounter(metricsCreator, "hit");
+            existenceIndexFalsePositiveCounter = existenceIndexCounter(metricsCreator, "false_positive");
+            existenceIndexUntrustedCounter = existenceIndexCounter(metricsCreator, "untrusted");
+        }
+        if (session != null) {
+            sessionHitCounter = sessionCacheCounter(metricsCreator, "hit");
+            sessionMissCounter = sessionCacheCounter(metricsCreator, "miss");
+            sessionEvictionCounter = sessionCacheCounter(metricsCreator, "eviction");
+            sessionSizeGauge = metricsCreator.createGauge(
+                "metrics_persistent_session_cache_size", "The number of metrics in the session cache",
+                new MetricsTag.Keys("metricName", "level", "dimensionality"),
+                new MetricsTag.Values(model.getName(), "2", model.getDownsampling().getName())
+            );
+            sessionBytesGauge = metricsCreator.createGauge(
+                "metrics_persistent_session_cache_bytes", "The estimated bytes of metrics in the session cache",
+                new MetricsTag.Keys("metricName", "level", "dimensionality"),
+                new MetricsTag.Values(model.getName(), "2", model.getDownsampling().getName())
+            );
+        }
     }
 
     /**
      * Create the leaf MetricsPersistentWorker, no next step.
      */
     MetricsPersistentWorker(ModuleDefineHolder moduleDefineHolder, Model model, IMetricsDAO metricsDAO,
-                            boolean enableDatabaseSession, boolean supportUpdate) {
+                            MetricsSessionCache sessionCache, boolean supportUpdate, int cacheStripes,
+                            boolean enableExistenceIndex, boolean incremental) {
         this(moduleDefineHolder, model, metricsDAO,
              null, null, null,
-             enableDatabaseSession, supportUpdate
+             sessionCache, supportUpdate, cacheStripes, enableExistenceIndex, incremental
+        );
+    }
+
+    private static HistogramMetrics cacheLockWaitLatency(ModuleDefineHolder moduleDefineHolder, Model model) {
+        MetricsCreator metricsCreator = moduleDefineHolder.find(TelemetryModule.NAME)
+                                                          .provider()
+                                                          .getService(MetricsCreator.class);
+        return metricsCreator.createHistogramMetric(
+            "metrics_persistent_cache_lock_wait_latency",
+            "The latency of waiting for the lock of the L2 aggregation cache",
+            new MetricsTag.Keys("metricName", "level", "dimensionality"),
+            new MetricsTag.Values(model.getName(), "2", model.getDownsampling().getName())
+        );
+    }
+
+    /**
+     * The result of the existence index of the metrics not in the session cache,
+     * <ul>
+     * <li>skip: never persisted, the storage query is skipped.</li>
+     * <li>hit: might exist, and found in the storage.</li>
+     * <li>false_positive: might exist, but not found in the storage.</li>
+     * <li>untrusted: the time bucket is out of the index, loaded from the storage as usual.</li>
+     * </ul>
+     */
+    private CounterMetrics existenceIndexCounter(MetricsCreator metricsCreator, String result) {
+        return metricsCreator.createCounter(
+            "metrics_persistent_existence_index", "The result of the existence index of the persisted metrics",
+            new MetricsTag.Keys("metricName", "level", "dimensionality", "result"),
+            new MetricsTag.Values(model.getName(), "2", model.getDownsampling().getName(), result)
+        );
+    }
+
+    /**
+     * The result of the session cache lookup, and the evictions of the metrics for the size limits.
+     */
+    private CounterMetrics sessionCacheCounter(MetricsCreator metricsCreator, String result) {
+        return metricsCreator.createCounter(
+            "metrics_persistent_session_cache", "The result of the session cache of the persisted metrics",
+            new MetricsTag.Keys("metricName", "level", "dimensionality", "result"),
+            new MetricsTag.Values(model.getName(), "2", model.getDownsampling().getName(), result)
         );
     }
 
@@ -127,6 +248,9 @@ public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
         if (lastCollection.size() == 0) {
             return;
         }
+        if (existenceIndex != null) {
+            resetExistenceIndexIfRoutingChanged();
+        }
 
         /*
          * Hard coded the max size. This is only the batch size of one metrics, too large number is meaningless.
@@ -176,11 +300,30 @@ public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
                      */
                     cachedMetrics.combine(metrics);
                     cachedMetrics.calculate();
-                    prepareRequests.add(metricsDAO.prepareBatchUpdate(model, cachedMetrics));
+                    if (incremental) {
+                        metrics.calculate();
+                        prepareRequests.add(incrementalMetricsDAO.prepareBatchIncrement(model, metrics));
+                    } else {
+                        prepareRequests.add(metricsDAO.prepareBatchUpdate(model, cachedMetrics));
+                    }
                     nextWorker(cachedMetrics);
                 } else {
                     metrics.calculate();
-                    prepareRequests.add(metricsDAO.prepareBatchInsert(model, metrics));
+                    if (incremental) {
+                        prepareRequests.add(incrementalMetricsDAO.prepareBatchIncrement(model, metrics));
+                        /*
+                         * Keep the value in the session, then the next batches of it are merged in the memory too.
+                         */
+                        session.put(metrics);
+                    } else {
+                        prepareRequests.add(metricsDAO.prepareBatchInsert(model, metrics));
+                    }
+                    if (existenceIndex != null) {
+                        existenceIndex.add(metrics);
+                    }
+                    /*
+                     * Not in the session nor the storage, so the metrics of this batch are the whole value.
+                     */
                     nextWorker(metrics);
                 }
 
@@ -204,34 +347,112 @@ public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
     }
 
     /**
-     * Load data from the storage, if {@link #enableDatabaseSession} == true, only load data when the id doesn't exist.
+     * Load data from the storage, if the {@link #session} exists, only load data when the id doesn't exist in it. In
+     * the {@link #incremental} mode, the metrics which might be persisted are loaded as well, to seed the session with
+     * the persisted values, then the next workers receive the merged values rather than the increments of this batch.
      */
     private void loadFromStorage(List<Metrics> metrics) throws IOException {
-        if (!enableDatabaseSession) {
-            context.clear();
+        context.clear();
+
+        List<Metrics> noInCacheMetrics = metrics;
+        if (session != null) {
+            noInCacheMetrics = new ArrayList<>(metrics.size());
+            for (Metrics m : metrics) {
+                Metrics cachedMetrics = session.get(m);
+                if (cachedMetrics != null) {
+                    context.put(cachedMetrics, cachedMetrics);
+                } else {
+                    noInCacheMetrics.add(m);
+                }
+            }
+            sessionHitCounter.inc(metrics.size() - noInCacheMetrics.size());
+            sessionMissCounter.inc(noInCacheMetrics.size());
         }
 
-        List<Metrics> noInCacheMetrics = metrics.stream()
-                                                .filter(m -> !context.containsKey(m))
-                                                .collect(Collectors.toList());
-        if (!noInCacheMetrics.isEmpty()) {
-            metricsDAO.multiGet(model, noInCacheMetrics).forEach(m -> context.put(m, m));
+        if (existenceIndex != null) {
+            loadFromStorageThroughIndex(noInCacheMetrics);
+        } else if (!noInCacheMetrics.isEmpty()) {
+            multiGet(noInCacheMetrics);
         }
     }
 
-    @Override
-    public void endOfRound(long tookTime) {
-        if (enableDatabaseSession) {
-            Iterator<Metrics> iterator = context.values().iterator();
-            while (iterator.hasNext()) {
-                Metrics metrics = iterator.next();
-                metrics.extendSurvivalTime(tookTime);
-                // 70,000ms means more than one minute.
-                if (metrics.getSurvivalTime() > 70000) {
-                    iterator.remove();
+    private void multiGet(List<Metrics> metrics) throws IOException {
+        for (Metrics m : metricsDAO.multiGet(model, metrics)) {
+            context.put(m, m);
+            if (session != null) {
+                session.put(m);
+            }
+        }
+    }
+
+    /**
+     * Only load the metrics which might exist according to the {@link #existenceIndex}.
+     */
+    private void loadFromStorageThroughIndex(List<Metrics> noInCacheMetrics) throws IOException {
+        List<Metrics> mightExistMetrics = new ArrayList<>(noInCacheMetrics.size());
+        int untrusted = 0;
+        for (Metrics metrics : noInCacheMetrics) {
+            if (!existenceIndex.isTrusted(metrics.getTimeBucket())) {
+                untrusted++;
+                mightExistMetrics.add(metrics);
+            } else if (existenceIndex.mightExist(metrics)) {
+                mightExistMetrics.add(metrics);
+            }
+        }
+        existenceIndexSkipCounter.inc(noInCacheMetrics.size() - mightExistMetrics.size());
+        existenceIndexUntrustedCounter.inc(untrusted);
+        if (mightExistMetrics.isEmpty()) {
+            return;
+        }
+
+        multiGet(mightExistMetrics);
+
+        int hit = 0;
+        int falsePositive = 0;
+        for (Metrics metrics : mightExistMetrics) {
+            if (existenceIndex.isTrusted(metrics.getTimeBucket())) {
+                if (context.containsKey(metrics)) {
+                    hit++;
+                } else {
+                    falsePositive++;
                 }
             }
         }
+        existenceIndexHitCounter.inc(hit);
+        existenceIndexFalsePositiveCounter.inc(falsePositive);
+    }
+
+    /**
+     * The metrics are routed to the OAP nodes by the hash code, the metrics persisted by another node before the cluster
+     * changes are unknown to the index.
+     */
+    private void resetExistenceIndexIfRoutingChanged() {
+        if (remoteClientManager == null) {
+            remoteClientManager = moduleDefineHolder.find(CoreModule.NAME)
+                                                    .provider()
+                                                    .getService(RemoteClientManager.class);
+        }
+        final List<RemoteClient> remoteClients = remoteClientManager.getRemoteClient();
+        if (remoteClients != indexedRemoteClients) {
+            if (indexedRemoteClients != null) {
+                log.info("Reset the existence index of {}, as the cluster changes.", model.getName());
+            }
+            indexedRemoteClients = remoteClients;
+            existenceIndex.reset(System.currentTimeMillis());
+        }
+    }
+
+    @Override
+    public void endOfRound(long tookTime) {
+        context.clear();
+        if (session != null) {
+            sessionCache.sweep(System.currentTimeMillis());
+            sessionSizeGauge.setValue(session.size());
+            sessionBytesGauge.setValue(session.bytes());
+            final long evictions = session.evictions();
+            sessionEvictionCounter.inc(evictions - reportedSessionEvictions);
+            reportedSessionEvictions = evictions;
+        }
     }
 
     /**
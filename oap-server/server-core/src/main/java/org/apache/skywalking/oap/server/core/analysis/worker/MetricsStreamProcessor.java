@@ -32,8 +32,12 @@ import org.apache.skywalking.oap.server.core.analysis.MetricsExtension;
 import org.apache.skywalking.oap.server.core.analysis.Stream;
 import org.apache.skywalking.oap.server.core.analysis.StreamDefinition;
 import org.apache.skywalking.oap.server.core.analysis.StreamProcessor;
+import org.apache.skywalking.oap.server.core.analysis.data.MetricsSessionCache;
+import org.apache.skywalking.oap.server.core.analysis.metrics.IncrementalMetrics;
 import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
 import org.apache.skywalking.oap.server.core.config.DownSamplingConfigService;
+import org.apache.skywalking.oap.server.core.remote.data.StreamDataFactory;
+import org.apache.skywalking.oap.server.core.storage.IIncrementalMetricsDAO;
 import org.apache.skywalking.oap.server.core.storage.IMetricsDAO;
 import org.apache.skywalking.oap.server.core.storage.StorageDAO;
 import org.apache.skywalking.oap.server.core.storage.StorageException;
@@ -69,11 +73,32 @@ public class MetricsStreamProcessor implements StreamProcessor<Metrics> {
     private List<MetricsPersistentWorker> persistentWorkers = new ArrayList<>();
 
     /**
-     * Hold and forward CoreModuleConfig#enableDatabaseSession to the persistent worker.
+     * The session cache shared by all persistent workers, NULL if CoreModuleConfig#enableDatabaseSession == false.
      */
     @Setter
     @Getter
-    private boolean enableDatabaseSession;
+    private MetricsSessionCache metricsSessionCache;
+
+    /**
+     * Hold and forward CoreModuleConfig#metricsPersistentCacheStripes to the persistent worker.
+     */
+    @Setter
+    @Getter
+    private int metricsPersistentCacheStripes = 1;
+
+    /**
+     * Hold and forward CoreModuleConfig#enableMetricsExistenceIndex to the persistent worker.
+     */
+    @Setter
+    @Getter
+    private boolean enableMetricsExistenceIndex;
+
+    /**
+     * Hold and forward CoreModuleConfig#enableIncrementalMetricsPersistence to the persistent worker.
+     */
+    @Setter
+    @Getter
+    private boolean enableIncrementalMetricsPersistence;
 
     public static MetricsStreamProcessor getInstance() {
         return PROCESSOR;
@@ -133,16 +158,25 @@ public class MetricsStreamProcessor implements StreamProcessor<Metrics> {
             supportDownSampling = metricsExtension.supportDownSampling();
             supportUpdate = metricsExtension.supportUpdate();
         }
+        final boolean existenceIndexed = isExistenceIndexed(supportDownSampling);
+        /*
+         * The existence index decides whether the persisted metrics are loaded to seed the session, see
+         * MetricsPersistentWorker#loadFromStorage.
+         */
+        final boolean incremental = enableIncrementalMetricsPersistence && supportUpdate && existenceIndexed
+            && IncrementalMetrics.class.isAssignableFrom(metricsClass) && metricsDAO instanceof IIncrementalMetricsDAO;
         if (supportDownSampling) {
             if (configService.shouldToHour()) {
                 Model model = modelSetter.add(
                     metricsClass, stream.getScopeId(), new Storage(stream.getName(), DownSampling.Hour), false);
-                hourPersistentWorker = downSamplingWorker(moduleDefineHolder, metricsDAO, model, supportUpdate);
+                hourPersistentWorker = downSamplingWorker(
+                    moduleDefineHolder, metricsDAO, model, supportUpdate, existenceIndexed, incremental);
             }
             if (configService.shouldToDay()) {
                 Model model = modelSetter.add(
                     metricsClass, stream.getScopeId(), new Storage(stream.getName(), DownSampling.Day), false);
-                dayPersistentWorker = downSamplingWorker(moduleDefineHolder, metricsDAO, model, supportUpdate);
+                dayPersistentWorker = downSamplingWorker(
+                    moduleDefineHolder, metricsDAO, model, supportUpdate, existenceIndexed, incremental);
             }
 
             transWorker = new MetricsTransWorker(
@@ -152,13 +186,17 @@ public class MetricsStreamProcessor implements StreamProcessor<Metrics> {
         Model model = modelSetter.add(
             metricsClass, stream.getScopeId(), new Storage(stream.getName(), DownSampling.Minute), false);
         MetricsPersistentWorker minutePersistentWorker = minutePersistentWorker(
-            moduleDefineHolder, metricsDAO, model, transWorker, supportUpdate);
+            moduleDefineHolder, metricsDAO, model, transWorker, supportUpdate, existenceIndexed, incremental);
 
         String remoteReceiverWorkerName = stream.getName() + "_rec";
         IWorkerInstanceSetter workerInstanceSetter = moduleDefineHolder.find(CoreModule.NAME)
                                                                        .provider()
                                                                        .getService(IWorkerInstanceSetter.class);
-        workerInstanceSetter.put(remoteReceiverWorkerName, minutePersistentWorker, metricsClass);
+        StreamDataFactory streamDataFactory = stream.getFactory();
+        if (streamDataFactory == null) {
+            streamDataFactory = StreamDataFactory.reflective(metricsClass);
+        }
+        workerInstanceSetter.put(remoteReceiverWorkerName, minutePersistentWorker, streamDataFactory);
 
         MetricsRemoteWorker remoteWorker = new MetricsRemoteWorker(moduleDefineHolder, remoteReceiverWorkerName);
         MetricsAggregateWorker aggregateWorker = new MetricsAggregateWorker(
@@ -167,17 +205,28 @@ public class MetricsStreamProcessor implements StreamProcessor<Metrics> {
         entryWorkers.put(metricsClass, aggregateWorker);
     }
 
+    /**
+     * The existence index is partitioned by the time buckets, so it only works for the metrics whose ids include the
+     * time bucket, which are the down sampled ones. The ids of the others, such as the traffic, don't change across
+     * the time buckets, their rows persisted in the former time buckets are never in the index.
+     */
+    boolean isExistenceIndexed(boolean supportDownSampling) {
+        return enableMetricsExistenceIndex && supportDownSampling;
+    }
+
     private MetricsPersistentWorker minutePersistentWorker(ModuleDefineHolder moduleDefineHolder,
                                                            IMetricsDAO metricsDAO,
                                                            Model model,
                                                            MetricsTransWorker transWorker,
-                                                           boolean supportUpdate) {
+                                                           boolean supportUpdate,
+                                                           boolean existenceIndexed,
+                                                           boolean incremental) {
         AlarmNotifyWorker alarmNotifyWorker = new AlarmNotifyWorker(moduleDefineHolder);
         ExportWorker exportWorker = new ExportWorker(moduleDefineHolder);
 
         MetricsPersistentWorker minutePersistentWorker = new MetricsPersistentWorker(
-            moduleDefineHolder, model, metricsDAO, alarmNotifyWorker, exportWorker, transWorker, enableDatabaseSession,
-            supportUpdate
+            moduleDefineHolder, model, metricsDAO, alarmNotifyWorker, exportWorker, transWorker, metricsSessionCache,
+            supportUpdate, metricsPersistentCacheStripes, existenceIndexed, incremental
         );
         persistentWorkers.add(minutePersistentWorker);
 
@@ -187,9 +236,13 @@ public class MetricsStreamProcessor implements StreamProcessor<Metrics> {
     private MetricsPersistentWorker downSamplingWorker(ModuleDefineHolder moduleDefineHolder,
                                                        IMetricsDAO metricsDAO,
                                                        Model model,
-                                                       boolean supportUpdate) {
+                                                       boolean supportUpdate,
+                                                       boolean existenceIndexed,
+                                                       boolean incremental) {
         MetricsPersistentWorker persistentWorker = new MetricsPersistentWorker(
-            moduleDefineHolder, model, metricsDAO, enableDatabaseSession, supportUpdate);
+            moduleDefineHolder, model, metricsDAO, metricsSessionCache, supportUpdate, metricsPersistentCacheStripes,
+            existenceIndexed, incremental
+        );
         persistentWorkers.add(persistentWorker);
 
         return persistentWorker;
@@ -20,6 +20,7 @@ package org.apache.skywalking.oap.server.core.command;
 
 import java.util.UUID;
 import org.apache.skywalking.apm.network.trace.component.command.ProfileTaskCommand;
+import org.apache.skywalking.apm.network.trace.component.command.SegmentReportThrottleCommand;
 import org.apache.skywalking.oap.server.core.query.type.ProfileTask;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 import org.apache.skywalking.oap.server.library.module.Service;
@@ -41,6 +42,15 @@ public class CommandService implements Service {
             .getDumpPeriod(), task.getMaxSamplingCount(), task.getStartTime(), task.getCreateTime());
     }
 
+    /**
+     * @param sampleRate the sample rate of the segment report, the precision is 1/10000.
+     * @param duration   the throttle duration in seconds.
+     */
+    public SegmentReportThrottleCommand newSegmentReportThrottleCommand(int sampleRate, int duration) {
+        final String serialNumber = UUID.randomUUID().toString();
+        return new SegmentReportThrottleCommand(serialNumber, sampleRate, duration);
+    }
+
     private String generateSerialNumber(final int serviceInstanceId, final long time,
                                         final String serviceInstanceUUID) {
         return UUID.randomUUID().toString(); // Simply generate a uuid without taking care of the parameters
@@ -37,6 +37,7 @@ public abstract class OALDefine {
         this.sourcePackage = appendPoint(requireNonNull(sourcePackage));
         this.dynamicMetricsClassPackage = appendPoint(sourcePackage + ".oal.rt.metrics");
         this.dynamicMetricsBuilderClassPackage = appendPoint(sourcePackage + ".oal.rt.metrics.builder");
+        this.dynamicMetricsFactoryClassPackage = appendPoint(sourcePackage + ".oal.rt.metrics.factory");
         this.dynamicDispatcherClassPackage = appendPoint(sourcePackage + ".oal.rt.dispatcher");
     }
 
@@ -44,6 +45,7 @@ public abstract class OALDefine {
     private final String sourcePackage;
     private final String dynamicMetricsClassPackage;
     private final String dynamicMetricsBuilderClassPackage;
+    private final String dynamicMetricsFactoryClassPackage;
     private final String dynamicDispatcherClassPackage;
 
     private String appendPoint(String classPackage) {
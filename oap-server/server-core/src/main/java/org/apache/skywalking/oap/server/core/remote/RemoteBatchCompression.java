@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.remote;
+
+import com.google.protobuf.ByteString;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteBatchMessage;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteCompression;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteDataList;
+
+/**
+ * Compress the stream data of the {@link RemoteBatchMessage}, and read them back at the receiver side.
+ */
+public class RemoteBatchCompression {
+    /**
+     * Move the stream data of the batch into the compressed bytes, if the compression is not {@link
+     * RemoteCompression#NONE}.
+     *
+     * @return the given batch
+     */
+    public static RemoteBatchMessage.Builder compress(RemoteBatchMessage.Builder batch,
+                                                      RemoteCompression compression) throws IOException {
+        if (compression != RemoteCompression.DEFLATE) {
+            return batch;
+        }
+        final RemoteDataList remoteDataList = RemoteDataList.newBuilder()
+                                                            .addAllRemoteData(batch.getRemoteDataList())
+                                                            .build();
+        final ByteString.Output output = ByteString.newOutput(remoteDataList.getSerializedSize() / 2);
+        final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (DeflaterOutputStream deflaterOutput = new DeflaterOutputStream(output, deflater)) {
+            remoteDataList.writeTo(deflaterOutput);
+        } finally {
+            deflater.end();
+        }
+        return batch.clearRemoteData()
+                    .setCompression(RemoteCompression.DEFLATE)
+                    .setCompressedRemoteData(output.toByteString());
+    }
+
+    /**
+     * @return the stream data of the batch, decompressed if required.
+     * @throws IOException if the compression is unknown or the compressed bytes are broken.
+     */
+    public static List<RemoteData> remoteDataOf(RemoteBatchMessage batch) throws IOException {
+        switch (batch.getCompression()) {
+            case NONE:
+                return batch.getRemoteDataList();
+            case DEFLATE:
+                final Inflater inflater = new Inflater();
+                try (InputStream input = new InflaterInputStream(batch.getCompressedRemoteData().newInput(), inflater)) {
+                    return RemoteDataList.parseFrom(input).getRemoteDataList();
+                } finally {
+                    inflater.end();
+                }
+            default:
+                throw new IOException("Unknown compression of the remote batch: " + batch.getCompressionValue());
+        }
+    }
+}
@@ -19,10 +19,14 @@
 package org.apache.skywalking.oap.server.core.remote;
 
 import io.grpc.stub.StreamObserver;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import org.apache.skywalking.oap.server.core.CoreModule;
-import org.apache.skywalking.oap.server.core.remote.data.StreamData;
+import org.apache.skywalking.oap.server.core.remote.data.StreamDataFactory;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.Empty;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteBatchMessage;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteMessage;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteServiceGrpc;
@@ -97,15 +101,7 @@ public class RemoteServiceHandler extends RemoteServiceGrpc.RemoteServiceImplBas
      */
     @Override
     public StreamObserver<RemoteMessage> call(StreamObserver<Empty> responseObserver) {
-        if (Objects.isNull(workerInstanceGetter)) {
-            synchronized (RemoteServiceHandler.class) {
-                if (Objects.isNull(workerInstanceGetter)) {
-                    workerInstanceGetter = moduleDefineHolder.find(CoreModule.NAME)
-                                                             .provider()
-                                                             .getService(IWorkerInstanceGetter.class);
-                }
-            }
-        }
+        initWorkerInstanceGetter();
 
         return new StreamObserver<RemoteMessage>() {
             @Override
@@ -120,9 +116,7 @@ public class RemoteServiceHandler extends RemoteServiceGrpc.RemoteServiceImplBas
                         RemoteHandleWorker handleWorker = workerInstanceGetter.get(nextWorkerName);
                         if (handleWorker != null) {
                             AbstractWorker nextWorker = handleWorker.getWorker();
-                            StreamData streamData = handleWorker.getStreamDataClass().newInstance();
-                            streamData.deserialize(remoteData);
-                            nextWorker.in(streamData);
+                            nextWorker.in(handleWorker.getStreamDataFactory().decode(remoteData));
                         } else {
                             remoteInTargetNotFoundCounter.inc();
                             LOGGER.warn(
@@ -151,4 +145,82 @@ public class RemoteServiceHandler extends RemoteServiceGrpc.RemoteServiceImplBas
             }
         };
     }
+
+    /**
+     * gRPC handler of {@link RemoteServiceGrpc} in batches. The name of the next worker is only sent in the first batch
+     * of the worker in the stream, the following batches refer to it by the interned id.
+     */
+    @Override
+    public StreamObserver<RemoteBatchMessage> batchCall(StreamObserver<Empty> responseObserver) {
+        initWorkerInstanceGetter();
+
+        return new StreamObserver<RemoteBatchMessage>() {
+            /**
+             * The names of the next workers interned in this stream.
+             */
+            private final Map<Integer, String> nextWorkerNames = new HashMap<>();
+
+            @Override
+            public void onNext(RemoteBatchMessage message) {
+                HistogramMetrics.Timer timer = remoteInHistogram.createTimer();
+                try {
+                    String nextWorkerName = message.getNextWorkerName();
+                    if (nextWorkerName.isEmpty()) {
+                        nextWorkerName = nextWorkerNames.get(message.getNextWorkerId());
+                    } else {
+                        nextWorkerNames.put(message.getNextWorkerId(), nextWorkerName);
+                    }
+
+                    try {
+                        List<RemoteData> remoteDataList = RemoteBatchCompression.remoteDataOf(message);
+                        remoteInCounter.inc(remoteDataList.size());
+
+                        RemoteHandleWorker handleWorker = nextWorkerName == null ? null : workerInstanceGetter.get(
+                            nextWorkerName);
+                        if (handleWorker != null) {
+                            AbstractWorker nextWorker = handleWorker.getWorker();
+                            StreamDataFactory streamDataFactory = handleWorker.getStreamDataFactory();
+                            for (RemoteData remoteData : remoteDataList) {
+                                nextWorker.in(streamDataFactory.decode(remoteData));
+                            }
+                        } else {
+                            remoteInTargetNotFoundCounter.inc(remoteDataList.size());
+                            LOGGER.warn(
+                                "Work name [{}] (id: {}) not found. Check OAL script, make sure they are same in the whole cluster.",
+                                nextWorkerName, message.getNextWorkerId()
+                            );
+                        }
+                    } catch (Throwable t) {
+                        remoteInErrorCounter.inc();
+                        LOGGER.error(t.getMessage(), t);
+                    }
+                } finally {
+                    timer.finish();
+                }
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                LOGGER.error(throwable.getMessage(), throwable);
+            }
+
+            @Override
+            public void onCompleted() {
+                responseObserver.onNext(Empty.newBuilder().build());
+                responseObserver.onCompleted();
+            }
+        };
+    }
+
+    private void initWorkerInstanceGetter() {
+        if (Objects.isNull(workerInstanceGetter)) {
+            synchronized (RemoteServiceHandler.class) {
+                if (Objects.isNull(workerInstanceGetter)) {
+                    workerInstanceGetter = moduleDefineHolder.find(CoreModule.NAME)
+                                                             .provider()
+                                                             .getService(IWorkerInstanceGetter.class);
+                }
+            }
+        }
+    }
 }
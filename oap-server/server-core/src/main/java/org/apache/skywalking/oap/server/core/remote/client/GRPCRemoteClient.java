@@ -19,16 +19,24 @@
 package org.apache.skywalking.oap.server.core.remote.client;
 
 import io.grpc.ManagedChannel;
+import io.grpc.Status;
 import io.grpc.stub.StreamObserver;
 import io.netty.handler.ssl.SslContext;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
+import org.apache.skywalking.oap.server.core.remote.RemoteBatchCompression;
 import org.apache.skywalking.oap.server.core.remote.data.StreamData;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.Empty;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteBatchMessage;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteCompression;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteMessage;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteServiceGrpc;
 import org.apache.skywalking.oap.server.library.client.grpc.GRPCClient;
@@ -47,6 +55,10 @@ import org.slf4j.LoggerFactory;
 public class GRPCRemoteClient implements RemoteClient {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(GRPCRemoteClient.class);
+    /**
+     * The max number of stream data in one {@link RemoteBatchMessage}.
+     */
+    private static final int MAX_BATCH_SIZE = 1000;
 
     private final int channelSize;
     private final int bufferSize;
@@ -59,6 +71,16 @@ public class GRPCRemoteClient implements RemoteClient {
     private CounterMetrics remoteOutCounter;
     private CounterMetrics remoteOutErrorCounter;
     private int remoteTimeout;
+    /**
+     * Send the stream data in batches through {@link RemoteServiceGrpc.RemoteServiceStub#batchCall}, NULL if the
+     * batches are disabled.
+     */
+    private final RemoteCompression batchCompression;
+    /**
+     * The target OAP server is of an older version without the batchCall, fall back to sending one by one. It is reset
+     * when the client reconnects, as the target may have been upgraded.
+     */
+    private volatile boolean batchUnimplemented;
 
     public GRPCRemoteClient(final ModuleDefineHolder moduleDefineHolder,
                             final Address address,
@@ -66,12 +88,23 @@ public class GRPCRemoteClient implements RemoteClient {
                             final int bufferSize,
                             final int remoteTimeout,
                             final SslContext sslContext) {
+        this(moduleDefineHolder, address, channelSize, bufferSize, remoteTimeout, sslContext, null);
+    }
+
+    public GRPCRemoteClient(final ModuleDefineHolder moduleDefineHolder,
+                            final Address address,
+                            final int channelSize,
+                            final int bufferSize,
+                            final int remoteTimeout,
+                            final SslContext sslContext,
+                            final RemoteCompression batchCompression) {
 
         this.address = address;
         this.channelSize = channelSize;
         this.bufferSize = bufferSize;
         this.remoteTimeout = remoteTimeout;
         this.sslContext = sslContext;
+        this.batchCompression = batchCompression;
 
         remoteOutCounter = moduleDefineHolder.find(TelemetryModule.NAME)
                                              .provider()
@@ -88,6 +121,7 @@ public class GRPCRemoteClient implements RemoteClient {
     @Override
     public void connect() {
         if (!isConnect) {
+            this.batchUnimplemented = false;
             this.getClient().connect();
             this.getDataCarrier().consume(new RemoteMessageConsumer(), 1);
             this.isConnect = true;
@@ -152,6 +186,10 @@ public class GRPCRemoteClient implements RemoteClient {
         @Override
         public void consume(List<RemoteMessage> remoteMessages) {
             try {
+                if (batchCompression != null && !batchUnimplemented) {
+                    consumeInBatch(remoteMessages);
+                    return;
+                }
                 StreamObserver<RemoteMessage> streamObserver = createStreamObserver();
                 for (RemoteMessage remoteMessage : remoteMessages) {
                     remoteOutCounter.inc();
@@ -164,6 +202,43 @@ public class GRPCRemoteClient implements RemoteClient {
             }
         }
 
+        /**
+         * Group the stream data by the next worker into the batches. The worker name is interned as a numeric id in the
+         * stream, only the first batch of the worker carries the name.
+         */
+        private void consumeInBatch(List<RemoteMessage> remoteMessages) throws IOException {
+            // The consume list is reused by the consumer, keep the messages for resending.
+            StreamObserver<RemoteBatchMessage> streamObserver = createBatchStreamObserver(
+                new ArrayList<>(remoteMessages));
+            Map<String, Integer> nextWorkerIds = new HashMap<>();
+            Map<String, RemoteBatchMessage.Builder> batches = new HashMap<>();
+            for (RemoteMessage remoteMessage : remoteMessages) {
+                remoteOutCounter.inc();
+                String nextWorkerName = remoteMessage.getNextWorkerName();
+                RemoteBatchMessage.Builder batch = batches.get(nextWorkerName);
+                if (batch == null) {
+                    batch = RemoteBatchMessage.newBuilder();
+                    Integer nextWorkerId = nextWorkerIds.get(nextWorkerName);
+                    if (nextWorkerId == null) {
+                        nextWorkerId = nextWorkerIds.size();
+                        nextWorkerIds.put(nextWorkerName, nextWorkerId);
+                        batch.setNextWorkerName(nextWorkerName);
+                    }
+                    batch.setNextWorkerId(nextWorkerId);
+                    batches.put(nextWorkerName, batch);
+                }
+                batch.addRemoteData(remoteMessage.getRemoteData());
+                if (batch.getRemoteDataCount() >= MAX_BATCH_SIZE) {
+                    streamObserver.onNext(RemoteBatchCompression.compress(batch, batchCompression).build());
+                    batches.remove(nextWorkerName);
+                }
+            }
+            for (RemoteBatchMessage.Builder batch : batches.values()) {
+                streamObserver.onNext(RemoteBatchCompression.compress(batch, batchCompression).build());
+            }
+            streamObserver.onCompleted();
+        }
+
         @Override
         public void onError(List<RemoteMessage> remoteMessages, Throwable t) {
             LOGGER.error(t.getMessage(), t);
@@ -181,25 +256,36 @@ public class GRPCRemoteClient implements RemoteClient {
      * @return stream observer
      */
     private StreamObserver<RemoteMessage> createStreamObserver() {
-        int sleepTotalMillis = 0;
-        int sleepMillis = 10;
-        while (concurrentStreamObserverNumber.incrementAndGet() > 10) {
-            concurrentStreamObserverNumber.addAndGet(-1);
-
-            try {
-                Thread.sleep(sleepMillis);
-            } catch (InterruptedException e) {
-                LOGGER.error(e.getMessage(), e);
+        acquireStreamObserver();
+        return getStub().withDeadlineAfter(remoteTimeout, TimeUnit.SECONDS).call(new StreamObserver<Empty>() {
+            @Override
+            public void onNext(Empty empty) {
             }
 
-            sleepTotalMillis += sleepMillis;
+            @Override
+            public void onError(Throwable throwable) {
+                concurrentStreamObserverNumber.addAndGet(-1);
+                LOGGER.error(throwable.getMessage(), throwable);
+            }
 
-            if (sleepTotalMillis > 60000) {
-                LOGGER.warn("Remote client block times over 60 seconds.");
+            @Override
+            public void onCompleted() {
+                concurrentStreamObserverNumber.addAndGet(-1);
             }
-        }
+        });
+    }
 
-        return getStub().withDeadlineAfter(remoteTimeout, TimeUnit.SECONDS).call(new StreamObserver<Empty>() {
+    /**
+     * Create a gRPC stream observer to sending the batches of stream data, sharing the concurrency limit of {@link
+     * #createStreamObserver()}. Once the target OAP server responds UNIMPLEMENTED, the messages of this stream are queued
+     * again, and they and the following data are sent by {@link #createStreamObserver()}, until the client reconnects.
+     *
+     * @param remoteMessages the messages sent through this stream.
+     * @return stream observer
+     */
+    private StreamObserver<RemoteBatchMessage> createBatchStreamObserver(List<RemoteMessage> remoteMessages) {
+        acquireStreamObserver();
+        return getStub().withDeadlineAfter(remoteTimeout, TimeUnit.SECONDS).batchCall(new StreamObserver<Empty>() {
             @Override
             public void onNext(Empty empty) {
             }
@@ -207,6 +293,16 @@ public class GRPCRemoteClient implements RemoteClient {
             @Override
             public void onError(Throwable throwable) {
                 concurrentStreamObserverNumber.addAndGet(-1);
+                if (Status.fromThrowable(throwable).getCode() == Status.Code.UNIMPLEMENTED) {
+                    if (!batchUnimplemented) {
+                        batchUnimplemented = true;
+                        resetBatchOnReconnection();
+                        LOGGER.warn(
+                            "Remote batches are not supported by {}, fall back to sending one by one.", address);
+                    }
+                    remoteMessages.forEach(getDataCarrier()::produce);
+                    return;
+                }
                 LOGGER.error(throwable.getMessage(), throwable);
             }
 
@@ -217,6 +313,34 @@ public class GRPCRemoteClient implements RemoteClient {
         });
     }
 
+    /**
+     * Try the batches again once the channel state changes, such as the target OAP server restarts.
+     */
+    private void resetBatchOnReconnection() {
+        ManagedChannel channel = getChannel();
+        channel.notifyWhenStateChanged(channel.getState(false), () -> batchUnimplemented = false);
+    }
+
+    private void acquireStreamObserver() {
+        int sleepTotalMillis = 0;
+        int sleepMillis = 10;
+        while (concurrentStreamObserverNumber.incrementAndGet() > 10) {
+            concurrentStreamObserverNumber.addAndGet(-1);
+
+            try {
+                Thread.sleep(sleepMillis);
+            } catch (InterruptedException e) {
+                LOGGER.error(e.getMessage(), e);
+            }
+
+            sleepTotalMillis += sleepMillis;
+
+            if (sleepTotalMillis > 60000) {
+                LOGGER.warn("Remote client block times over 60 seconds.");
+            }
+        }
+    }
+
     @Override
     public void close() {
         if (Objects.nonNull(this.carrier)) {
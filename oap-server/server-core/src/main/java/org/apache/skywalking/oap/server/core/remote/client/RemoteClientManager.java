@@ -38,6 +38,7 @@ import lombok.Setter;
 import org.apache.skywalking.oap.server.core.cluster.ClusterModule;
 import org.apache.skywalking.oap.server.core.cluster.ClusterNodesQuery;
 import org.apache.skywalking.oap.server.core.cluster.RemoteInstance;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteCompression;
 import org.apache.skywalking.oap.server.library.module.ModuleDefineHolder;
 import org.apache.skywalking.oap.server.library.module.Service;
 import org.apache.skywalking.oap.server.library.server.grpc.ssl.DynamicSslContext;
@@ -62,6 +63,12 @@ public class RemoteClientManager implements Service {
     private volatile List<RemoteClient> usingClients;
     private GaugeMetrics gauge;
     private int remoteTimeout;
+    /**
+     * Hold and forward CoreModuleConfig#remoteBatchCompression to the gRPC remote clients, NULL if
+     * CoreModuleConfig#enableRemoteBatch == false.
+     */
+    @Setter
+    private RemoteCompression remoteBatchCompression;
 
     /**
      * Initial the manager for all remote communication clients.
@@ -232,7 +239,8 @@ public class RemoteClientManager implements Service {
                         newRemoteClients.add(client);
                     } else {
                         RemoteClient client;
-                        client = new GRPCRemoteClient(moduleDefineHolder, address, 1, 3000, remoteTimeout, sslContext);
+                        client = new GRPCRemoteClient(
+                            moduleDefineHolder, address, 1, 3000, remoteTimeout, sslContext, remoteBatchCompression);
                         client.connect();
                         newRemoteClients.add(client);
                     }
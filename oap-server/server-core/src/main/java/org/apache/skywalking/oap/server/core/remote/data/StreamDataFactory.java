@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.remote.data;
+
+import org.apache.skywalking.oap.server.core.UnexpectedException;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+
+/**
+ * StreamDataFactory creates the stream data of one type at the receiver side of the remote, without reflection. The
+ * factories of the metrics are generated by the OAL and MAL engines.
+ */
+public interface StreamDataFactory {
+    /**
+     * @return a new empty instance of the stream data.
+     */
+    StreamData newInstance();
+
+    /**
+     * @return a new instance of the stream data, deserialized from the remote data.
+     */
+    default StreamData decode(RemoteData remoteData) {
+        final StreamData streamData = newInstance();
+        streamData.deserialize(remoteData);
+        return streamData;
+    }
+
+    /**
+     * @return the factory creating the instances by reflection, for the stream data without a generated factory.
+     */
+    static StreamDataFactory reflective(Class<? extends StreamData> streamDataClass) {
+        return () -> {
+            try {
+                return streamDataClass.newInstance();
+            } catch (InstantiationException | IllegalAccessException e) {
+                throw new UnexpectedException("Create " + streamDataClass.getSimpleName() + " failure.", e);
+            }
+        };
+    }
+}
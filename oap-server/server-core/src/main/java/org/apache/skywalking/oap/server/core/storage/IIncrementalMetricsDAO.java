@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.storage;
+
+import java.io.IOException;
+import org.apache.skywalking.oap.server.core.analysis.metrics.IncrementalMetrics;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.storage.model.Model;
+import org.apache.skywalking.oap.server.library.client.request.UpdateRequest;
+
+/**
+ * The metrics DAO of the storage, which merges the {@link IncrementalMetrics} by itself. Only used when
+ * CoreModuleConfig#enableIncrementalMetricsPersistence is true.
+ */
+public interface IIncrementalMetricsDAO extends IMetricsDAO {
+    /**
+     * Transfer the given {@link IncrementalMetrics} to an executable upsert statement, which inserts the metrics if it
+     * doesn't exist, or adds the values of the {@link IncrementalMetrics#incrementalColumns()} to the persisted ones and
+     * recalculates the {@link IncrementalMetrics#quotient()}, atomically in the storage.
+     *
+     * @return UpdateRequest should follow the database client driver datatype, in order to make sure it could be
+     * executed ASAP.
+     */
+    UpdateRequest prepareBatchIncrement(Model model, Metrics metrics) throws IOException;
+}
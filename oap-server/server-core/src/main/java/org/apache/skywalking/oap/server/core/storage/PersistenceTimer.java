@@ -19,9 +19,16 @@
 package org.apache.skywalking.oap.server.core.storage;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
 import org.apache.skywalking.oap.server.core.CoreModuleConfig;
@@ -30,13 +37,21 @@ import org.apache.skywalking.oap.server.core.analysis.worker.PersistenceWorker;
 import org.apache.skywalking.oap.server.core.analysis.worker.TopNStreamProcessor;
 import org.apache.skywalking.oap.server.library.client.request.PrepareRequest;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.apache.skywalking.oap.server.library.server.pool.CustomThreadFactory;
 import org.apache.skywalking.oap.server.library.util.CollectionUtils;
 import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
 import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.GaugeMetrics;
 import org.apache.skywalking.oap.server.telemetry.api.HistogramMetrics;
 import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
 import org.apache.skywalking.oap.server.telemetry.api.MetricsTag;
 
+/**
+ * PersistenceTimer drives the persistence rounds of all {@link PersistenceWorker}s. A round is pipelined in two
+ * stages, the prepare stage builds the {@link PrepareRequest}s of every worker in parallel through {@link
+ * #prepareExecutorService}, and the execute stage flushes the prepared requests to the storage through {@link
+ * #batchExecutorService} in partitions of {@link #maxSyncOperationNum}, while other workers are still preparing.
+ */
 @Slf4j
 public enum PersistenceTimer {
     INSTANCE;
@@ -45,8 +60,13 @@ public enum PersistenceTimer {
     private CounterMetrics errorCounter;
     private HistogramMetrics prepareLatency;
     private HistogramMetrics executeLatency;
+    private HistogramMetrics allLatency;
+    private GaugeMetrics pendingRequests;
     private long lastTime = System.currentTimeMillis();
-    private final List<PrepareRequest> prepareRequests = new ArrayList<>(50000);
+    private int maxSyncOperationNum;
+    private int syncOperationThreadsNum;
+    private ExecutorService prepareExecutorService;
+    private ExecutorService batchExecutorService;
 
     PersistenceTimer() {
         this.debug = System.getProperty("debug") != null;
@@ -71,8 +91,24 @@ public enum PersistenceTimer {
             "persistence_timer_bulk_execute_latency", "Latency of the execute stage in persistence timer",
             MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE
         );
+        allLatency = metricsCreator.createHistogramMetric(
+            "persistence_timer_bulk_all_latency", "Latency of the whole round in persistence timer",
+            MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE
+        );
+        pendingRequests = metricsCreator.createGauge(
+            "persistence_timer_bulk_pending_requests",
+            "The number of prepared requests waiting for the execute stage in persistence timer",
+            MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE
+        );
+
+        maxSyncOperationNum = moduleConfig.getMaxSyncOperationNum();
+        syncOperationThreadsNum = moduleConfig.getSyncThreads();
 
         if (!isStarted) {
+            prepareExecutorService = Executors.newFixedThreadPool(
+                moduleConfig.getPrepareThreads(), new CustomThreadFactory("PersistencePrepare"));
+            batchExecutorService = Executors.newFixedThreadPool(
+                syncOperationThreadsNum, new CustomThreadFactory("PersistenceBatch"));
             Executors.newSingleThreadScheduledExecutor()
                      .scheduleWithFixedDelay(
                          new RunnableWithExceptionProtection(() -> extractDataAndSave(batchDAO), t -> log
@@ -90,49 +126,96 @@ public enum PersistenceTimer {
         }
 
         long startTime = System.currentTimeMillis();
+        HistogramMetrics.Timer allTimer = allLatency.createTimer();
+        // Use `stop` as a control signal to fast-fail the persistence process
+        AtomicBoolean stop = new AtomicBoolean(false);
 
+        DefaultBlockingBatchQueue<PrepareRequest> prepareQueue = new DefaultBlockingBatchQueue<>(maxSyncOperationNum);
         try {
-            HistogramMetrics.Timer timer = prepareLatency.createTimer();
+            List<PersistenceWorker> persistenceWorkers = new ArrayList<>();
+            persistenceWorkers.addAll(TopNStreamProcessor.getInstance().getPersistentWorkers());
+            persistenceWorkers.addAll(MetricsStreamProcessor.getInstance().getPersistentWorkers());
+
+            // CountDownLatch makes sure all prepare threads done eventually.
+            CountDownLatch prepareStageCountDownLatch = new CountDownLatch(persistenceWorkers.size());
 
-            try {
-                List<PersistenceWorker> persistenceWorkers = new ArrayList<>();
-                persistenceWorkers.addAll(TopNStreamProcessor.getInstance().getPersistentWorkers());
-                persistenceWorkers.addAll(MetricsStreamProcessor.getInstance().getPersistentWorkers());
+            persistenceWorkers.forEach(worker -> prepareExecutorService.submit(() -> {
+                if (stop.get()) {
+                    prepareStageCountDownLatch.countDown();
+                    return;
+                }
 
-                persistenceWorkers.forEach(worker -> {
+                HistogramMetrics.Timer timer = prepareLatency.createTimer();
+                try {
                     if (log.isDebugEnabled()) {
                         log.debug("extract {} worker data and save", worker.getClass().getName());
                     }
-
-                    worker.buildBatchRequests(prepareRequests);
-
+                    List<PrepareRequest> innerPrepareRequests = new ArrayList<>(5000);
+                    worker.buildBatchRequests(innerPrepareRequests);
+                    // Push the prepared requests into DefaultBlockingBatchQueue,
+                    // the batchExecutorService consumes from it when it reaches the size of batch.
+                    prepareQueue.offer(innerPrepareRequests);
+                    pendingRequests.setValue(prepareQueue.size());
                     worker.endOfRound(System.currentTimeMillis() - lastTime);
+                } catch (Throwable e) {
+                    errorCounter.inc();
+                    log.error(e.getMessage(), e);
+                } finally {
+                    timer.finish();
+                    prepareStageCountDownLatch.countDown();
+                }
+            }));
+
+            List<Future<?>> batchFutures = new ArrayList<>();
+            for (int i = 0; i < syncOperationThreadsNum; i++) {
+                Future<?> batchFuture = batchExecutorService.submit(() -> {
+                    // consume the prepared requests
+                    while (!stop.get()) {
+                        List<PrepareRequest> partition = prepareQueue.poll();
+                        if (partition.isEmpty()) {
+                            break;
+                        }
+                        pendingRequests.setValue(prepareQueue.size());
+                        HistogramMetrics.Timer executeLatencyTimer = executeLatency.createTimer();
+                        try {
+                            batchDAO.synchronous(partition);
+                        } catch (Throwable e) {
+                            errorCounter.inc();
+                            log.error(e.getMessage(), e);
+                        } finally {
+                            executeLatencyTimer.finish();
+                        }
+                    }
+                    return null;
                 });
+                batchFutures.add(batchFuture);
+            }
 
-                if (debug) {
-                    log.info("build batch persistence duration: {} ms", System.currentTimeMillis() - startTime);
-                }
-            } finally {
-                timer.finish();
+            // Wait for prepare stage is done.
+            prepareStageCountDownLatch.await();
+            prepareQueue.noFurtherAppending();
+            // Wait for batch stage is done.
+            for (Future<?> result : batchFutures) {
+                result.get();
             }
 
-            HistogramMetrics.Timer executeLatencyTimer = executeLatency.createTimer();
-            try {
-                if (CollectionUtils.isNotEmpty(prepareRequests)) {
-                    batchDAO.synchronous(prepareRequests);
-                }
-            } finally {
-                executeLatencyTimer.finish();
+            if (debug) {
+                log.info("build and execute batch persistence duration: {} ms",
+                         System.currentTimeMillis() - startTime
+                );
             }
         } catch (Throwable e) {
             errorCounter.inc();
             log.error(e.getMessage(), e);
+            stop.set(true);
         } finally {
             if (log.isDebugEnabled()) {
                 log.debug("Persistence data save finish");
             }
 
-            prepareRequests.clear();
+            prepareQueue.noFurtherAppending();
+            pendingRequests.setValue(0);
+            allTimer.finish();
             lastTime = System.currentTimeMillis();
         }
 
@@ -140,4 +223,67 @@ public enum PersistenceTimer {
             log.info("Batch persistence duration: {} ms", System.currentTimeMillis() - startTime);
         }
     }
+
+    /**
+     * DefaultBlockingBatchQueue is the bridge between the prepare stage and the execute stage. The prepare threads
+     * append the requests of one worker at a time, and the execute threads are waked up when there are enough requests
+     * for a batch, or no further requests would be appended in this round.
+     *
+     * @param <E> type of the queued elements.
+     */
+    @RequiredArgsConstructor
+    static class DefaultBlockingBatchQueue<E> {
+        @Getter
+        private final int maxBatchSize;
+        @Getter
+        private boolean inAppendingMode = true;
+        private final List<E> elementData = new ArrayList<>(50000);
+
+        public void offer(List<E> elements) {
+            if (CollectionUtils.isEmpty(elements)) {
+                return;
+            }
+            synchronized (elementData) {
+                if (!inAppendingMode) {
+                    throw new IllegalStateException("The queue has been closed for appending.");
+                }
+                elementData.addAll(elements);
+                if (elementData.size() >= maxBatchSize) {
+                    elementData.notifyAll();
+                }
+            }
+        }
+
+        /**
+         * @return the next partition, which size is no more than {@link #maxBatchSize}. Empty list means no further
+         * element would be available in this round.
+         */
+        public List<E> poll() throws InterruptedException {
+            synchronized (elementData) {
+                while (this.elementData.size() < maxBatchSize && inAppendingMode) {
+                    elementData.wait(1000);
+                }
+                if (CollectionUtils.isEmpty(elementData)) {
+                    return Collections.emptyList();
+                }
+                List<E> sublist = this.elementData.subList(0, Math.min(maxBatchSize, this.elementData.size()));
+                List<E> partition = new ArrayList<>(sublist);
+                sublist.clear();
+                return partition;
+            }
+        }
+
+        public int size() {
+            synchronized (elementData) {
+                return elementData.size();
+            }
+        }
+
+        public void noFurtherAppending() {
+            synchronized (elementData) {
+                inAppendingMode = false;
+                elementData.notifyAll();
+            }
+        }
+    }
 }
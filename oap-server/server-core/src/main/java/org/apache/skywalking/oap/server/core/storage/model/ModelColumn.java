@@ -21,6 +21,7 @@ package org.apache.skywalking.oap.server.core.storage.model;
 import java.lang.reflect.Type;
 import lombok.Getter;
 import org.apache.skywalking.oap.server.core.analysis.metrics.DataTable;
+import org.apache.skywalking.oap.server.core.analysis.metrics.LongBucketArray;
 
 @Getter
 public class ModelColumn {
@@ -44,9 +45,9 @@ public class ModelColumn {
         this.matchQuery = matchQuery;
         this.length = length;
         /*
-         * byte[] and {@link IntKeyLongValueHashMap} could never be query.
+         * byte[], {@link DataTable} and {@link LongBucketArray} could never be query.
          */
-        if (type.equals(byte[].class) || type.equals(DataTable.class)) {
+        if (type.equals(byte[].class) || type.equals(DataTable.class) || type.equals(LongBucketArray.class)) {
             this.storageOnly = true;
         } else {
             if (storageOnly && isValue) {
@@ -28,7 +28,18 @@ public interface StorageDataComplexObject<T> {
     String toStorageData();
 
     /**
-     * Initialize this object based on the given string data.
+     * The storage implementation could choose this for less storage size and faster parsing. The compact string must
+     * be recognized by {@link #toObject(String)} too, so the data stored in both formats could be read.
+     *
+     * @return string representing this object in the compact format. Default is same as {@link #toStorageData()}.
+     */
+    default String toCompactStorageData() {
+        return toStorageData();
+    }
+
+    /**
+     * Initialize this object based on the given string data, in the format of {@link #toStorageData()} or {@link
+     * #toCompactStorageData()}.
      */
     void toObject(String data);
 
@@ -20,6 +20,7 @@ package org.apache.skywalking.oap.server.core.worker;
 
 import org.apache.skywalking.oap.server.core.analysis.Stream;
 import org.apache.skywalking.oap.server.core.remote.data.StreamData;
+import org.apache.skywalking.oap.server.core.remote.data.StreamDataFactory;
 import org.apache.skywalking.oap.server.library.module.Service;
 
 /**
@@ -31,5 +32,15 @@ public interface IWorkerInstanceSetter extends Service {
      * @param instance The worker instance processes the given streamDataClass.
      * @param streamDataClass Type of metrics.
      */
-    void put(String remoteReceiverWorkName, AbstractWorker instance, Class<? extends StreamData> streamDataClass);
+    default void put(String remoteReceiverWorkName, AbstractWorker instance,
+                     Class<? extends StreamData> streamDataClass) {
+        put(remoteReceiverWorkName, instance, StreamDataFactory.reflective(streamDataClass));
+    }
+
+    /**
+     * @param remoteReceiverWorkName worker name
+     * @param instance               The worker instance processes the stream data created by the given factory.
+     * @param streamDataFactory      Creates the metrics received from the other OAP nodes.
+     */
+    void put(String remoteReceiverWorkName, AbstractWorker instance, StreamDataFactory streamDataFactory);
 }
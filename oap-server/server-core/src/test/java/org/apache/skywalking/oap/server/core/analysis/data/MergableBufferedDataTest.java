@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.data;
+
+import java.util.List;
+import java.util.Objects;
+import org.apache.skywalking.oap.server.core.Const;
+import org.apache.skywalking.oap.server.core.analysis.manual.relation.service.ServiceRelationServerSideMetrics;
+import org.apache.skywalking.oap.server.core.analysis.metrics.CountMetrics;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MergableBufferedDataTest {
+    @Test
+    public void testMerge() {
+        MergableBufferedData<CountMetricsImpl> data = new MergableBufferedData<>();
+        data.accept(new CountMetricsImpl("service-1", 202010181200L, 1));
+        data.accept(new CountMetricsImpl("service-2", 202010181200L, 2));
+        data.accept(new CountMetricsImpl("service-1", 202010181200L, 3));
+        data.accept(new CountMetricsImpl("service-1", 202010181201L, 4));
+
+        List<CountMetricsImpl> result = data.read();
+        Assert.assertEquals(3, result.size());
+        Assert.assertEquals(4, result.get(0).getValue());
+        Assert.assertEquals(2, result.get(1).getValue());
+        Assert.assertEquals(4, result.get(2).getValue());
+
+        Assert.assertTrue(data.read().isEmpty());
+    }
+
+    @Test
+    public void testMergeRelationOfTimeBuckets() {
+        MergableBufferedData<ServiceRelationServerSideMetrics> data = new MergableBufferedData<>();
+        data.accept(serviceRelation(202010181200L));
+        data.accept(serviceRelation(202010181201L));
+        data.accept(serviceRelation(202010181201L));
+        data.accept(serviceRelation(2020101812L));
+
+        List<ServiceRelationServerSideMetrics> result = data.read();
+        Assert.assertEquals(3, result.size());
+        Assert.assertEquals(202010181200L, result.get(0).getTimeBucket());
+        Assert.assertEquals(202010181201L, result.get(1).getTimeBucket());
+        Assert.assertEquals(2020101812L, result.get(2).getTimeBucket());
+    }
+
+    @Test
+    public void testGrowAndReuse() {
+        MergableBufferedData<CountMetricsImpl> data = new MergableBufferedData<>();
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 10000; i++) {
+                data.accept(new CountMetricsImpl("service-" + i, 202010181200L, 1));
+                data.accept(new CountMetricsImpl("service-" + i, 202010181200L, 1));
+            }
+            List<CountMetricsImpl> result = data.read();
+            Assert.assertEquals(10000, result.size());
+            for (int i = 0; i < result.size(); i++) {
+                Assert.assertEquals("service-" + i, result.get(i).entityId);
+                Assert.assertEquals(2, result.get(i).getValue());
+            }
+        }
+    }
+
+    private static ServiceRelationServerSideMetrics serviceRelation(long timeBucket) {
+        ServiceRelationServerSideMetrics metrics = new ServiceRelationServerSideMetrics();
+        metrics.setEntityId("source-service" + Const.RELATION_ID_CONNECTOR + "dest-service");
+        metrics.setTimeBucket(timeBucket);
+        return metrics;
+    }
+
+    private static class CountMetricsImpl extends CountMetrics {
+        private final String entityId;
+
+        private CountMetricsImpl(String entityId, long timeBucket, long value) {
+            this.entityId = entityId;
+            setTimeBucket(timeBucket);
+            setValue(value);
+        }
+
+        @Override
+        public String id() {
+            return getTimeBucket() + Const.ID_CONNECTOR + entityId;
+        }
+
+        @Override
+        public Metrics toHour() {
+            return null;
+        }
+
+        @Override
+        public Metrics toDay() {
+            return null;
+        }
+
+        @Override
+        public void deserialize(RemoteData remoteData) {
+
+        }
+
+        @Override
+        public RemoteData.Builder serialize() {
+            return null;
+        }
+
+        @Override
+        public int remoteHashCode() {
+            return entityId.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            CountMetricsImpl that = (CountMetricsImpl) o;
+            return getTimeBucket() == that.getTimeBucket() && entityId.equals(that.entityId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(entityId, getTimeBucket());
+        }
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.data;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.oap.server.core.Const;
+import org.apache.skywalking.oap.server.core.analysis.DownSampling;
+import org.apache.skywalking.oap.server.core.analysis.TimeBucket;
+import org.apache.skywalking.oap.server.core.analysis.metrics.CountMetrics;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MetricsExistenceIndexTest {
+    private long now;
+
+    @Before
+    public void setUp() {
+        now = System.currentTimeMillis();
+    }
+
+    private long minute(int minutesLater) {
+        return TimeBucket.getTimeBucket(now + TimeUnit.MINUTES.toMillis(minutesLater), DownSampling.Minute);
+    }
+
+    @Test
+    public void testNeverPersisted() {
+        MetricsExistenceIndex index = new MetricsExistenceIndex(DownSampling.Minute, 3, 0.01);
+        index.reset(now);
+
+        CountMetricsImpl metrics = new CountMetricsImpl("service-1", minute(11));
+        Assert.assertTrue(index.isTrusted(metrics.getTimeBucket()));
+        Assert.assertFalse(index.mightExist(metrics));
+
+        index.add(metrics);
+        Assert.assertTrue(index.mightExist(new CountMetricsImpl("service-1", minute(11))));
+        Assert.assertFalse(index.mightExist(new CountMetricsImpl("service-1", minute(12))));
+    }
+
+    @Test
+    public void testUntrustedTimeBucket() {
+        MetricsExistenceIndex index = new MetricsExistenceIndex(DownSampling.Minute, 3, 0.01);
+        index.reset(now);
+
+        // Could have been persisted before the reset, including the clients whose clock is ahead.
+        CountMetricsImpl metrics = new CountMetricsImpl("service-1", minute(10));
+        Assert.assertFalse(index.isTrusted(metrics.getTimeBucket()));
+        Assert.assertTrue(index.mightExist(metrics));
+        Assert.assertTrue(index.mightExist(new CountMetricsImpl("service-1", minute(0))));
+    }
+
+    @Test
+    public void testEvictOldestTimeBucket() {
+        MetricsExistenceIndex index = new MetricsExistenceIndex(DownSampling.Minute, 2, 0.01);
+        index.reset(now);
+
+        index.add(new CountMetricsImpl("service-1", minute(11)));
+        index.add(new CountMetricsImpl("service-1", minute(12)));
+        Assert.assertTrue(index.isTrusted(minute(11)));
+
+        index.add(new CountMetricsImpl("service-1", minute(13)));
+        Assert.assertFalse(index.isTrusted(minute(11)));
+        Assert.assertTrue(index.mightExist(new CountMetricsImpl("service-2", minute(11))));
+        Assert.assertTrue(index.mightExist(new CountMetricsImpl("service-1", minute(12))));
+        Assert.assertFalse(index.mightExist(new CountMetricsImpl("service-2", minute(13))));
+
+        // A late time bucket older than all partitions is evicted at once.
+        index.add(new CountMetricsImpl("service-1", minute(12)));
+        index.add(new CountMetricsImpl("service-1", minute(14)));
+        Assert.assertFalse(index.isTrusted(minute(12)));
+    }
+
+    @Test
+    public void testReset() {
+        MetricsExistenceIndex index = new MetricsExistenceIndex(DownSampling.Minute, 3, 0.01);
+        index.reset(now);
+        index.add(new CountMetricsImpl("service-1", minute(11)));
+
+        index.reset(now + TimeUnit.MINUTES.toMillis(5));
+        Assert.assertFalse(index.isTrusted(minute(11)));
+        Assert.assertTrue(index.isTrusted(minute(16)));
+        Assert.assertFalse(index.mightExist(new CountMetricsImpl("service-1", minute(16))));
+    }
+
+    @Test
+    public void testScaleOut() {
+        MetricsExistenceIndex index = new MetricsExistenceIndex(DownSampling.Minute, 3, 0.01);
+        index.reset(now);
+
+        final int size = 100_000;
+        for (int i = 0; i < size; i++) {
+            index.add(new CountMetricsImpl("service-" + i, minute(11)));
+        }
+        int falsePositive = 0;
+        for (int i = 0; i < size; i++) {
+            Assert.assertTrue(index.mightExist(new CountMetricsImpl("service-" + i, minute(11))));
+            if (index.mightExist(new CountMetricsImpl("endpoint-" + i, minute(11)))) {
+                falsePositive++;
+            }
+        }
+        Assert.assertTrue("false positive: " + falsePositive, falsePositive < size * 0.02);
+    }
+
+    private static class CountMetricsImpl extends CountMetrics {
+        private final String entityId;
+
+        private CountMetricsImpl(String entityId, long timeBucket) {
+            this.entityId = entityId;
+            setTimeBucket(timeBucket);
+        }
+
+        @Override
+        public String id() {
+            return getTimeBucket() + Const.ID_CONNECTOR + entityId;
+        }
+
+        @Override
+        public Metrics toHour() {
+            return null;
+        }
+
+        @Override
+        public Metrics toDay() {
+            return null;
+        }
+
+        @Override
+        public void deserialize(RemoteData remoteData) {
+
+        }
+
+        @Override
+        public RemoteData.Builder serialize() {
+            return null;
+        }
+
+        @Override
+        public int remoteHashCode() {
+            return entityId.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            CountMetricsImpl that = (CountMetricsImpl) o;
+            return getTimeBucket() == that.getTimeBucket() && entityId.equals(that.entityId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(entityId, getTimeBucket());
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.data;
+
+import java.util.Objects;
+import org.apache.skywalking.oap.server.core.Const;
+import org.apache.skywalking.oap.server.core.analysis.metrics.CountMetrics;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MetricsSessionCacheTest {
+    @Test
+    public void testSessionsOfModels() {
+        MetricsSessionCache cache = new MetricsSessionCache(100, 100 * 1024);
+        MetricsSessionCache.Session session1 = cache.session();
+        MetricsSessionCache.Session session2 = cache.session();
+
+        CountMetricsImpl metrics = new CountMetricsImpl("service-1", 202010181200L);
+        session1.put(metrics);
+        Assert.assertSame(metrics, session1.get(new CountMetricsImpl("service-1", 202010181200L)));
+        Assert.assertNull(session1.get(new CountMetricsImpl("service-1", 202010181201L)));
+        Assert.assertNull(session2.get(metrics));
+
+        Assert.assertEquals(1, session1.size());
+        Assert.assertTrue(session1.bytes() > 0);
+        Assert.assertEquals(0, session2.size());
+        Assert.assertEquals(0, session2.bytes());
+    }
+
+    @Test
+    public void testBoundedBySize() {
+        MetricsSessionCache cache = new MetricsSessionCache(100, 100 * 1024 * 1024);
+        MetricsSessionCache.Session session = cache.session();
+        for (int i = 0; i < 1000; i++) {
+            session.put(new CountMetricsImpl("service-" + i, 202010181200L));
+        }
+        Assert.assertTrue(session.size() <= 100);
+        Assert.assertEquals(1000, session.size() + session.evictions());
+    }
+
+    @Test
+    public void testBoundedByBytes() {
+        MetricsSessionCache cache = new MetricsSessionCache(1000_000, 16 * 1024);
+        MetricsSessionCache.Session session = cache.session();
+        for (int i = 0; i < 1000; i++) {
+            session.put(new CountMetricsImpl("service-" + i, 202010181200L));
+        }
+        Assert.assertTrue(session.bytes() <= 16 * 1024);
+        Assert.assertEquals(1000, session.size() + session.evictions());
+    }
+
+    @Test
+    public void testSweep() {
+        MetricsSessionCache cache = new MetricsSessionCache(100, 100 * 1024);
+        MetricsSessionCache.Session session = cache.session();
+        long now = System.currentTimeMillis();
+
+        session.put(new CountMetricsImpl("service-1", 202010181200L));
+        cache.sweep(now + 40_000);
+        session.put(new CountMetricsImpl("service-2", 202010181200L));
+        // Only one of the workers sweeps in a round.
+        cache.sweep(now + 40_100);
+        cache.sweep(now + 80_000);
+
+        Assert.assertNull(session.get(new CountMetricsImpl("service-1", 202010181200L)));
+        Assert.assertNotNull(session.get(new CountMetricsImpl("service-2", 202010181200L)));
+        Assert.assertEquals(1, session.size());
+        Assert.assertEquals(0, session.evictions());
+    }
+
+    private static class CountMetricsImpl extends CountMetrics {
+        private final String entityId;
+
+        private CountMetricsImpl(String entityId, long timeBucket) {
+            this.entityId = entityId;
+            setTimeBucket(timeBucket);
+        }
+
+        @Override
+        public String id() {
+            return getTimeBucket() + Const.ID_CONNECTOR + entityId;
+        }
+
+        @Override
+        public Metrics toHour() {
+            return null;
+        }
+
+        @Override
+        public Metrics toDay() {
+            return null;
+        }
+
+        @Override
+        public void deserialize(RemoteData remoteData) {
+
+        }
+
+        @Override
+        public RemoteData.Builder serialize() {
+            RemoteData.Builder remoteBuilder = RemoteData.newBuilder();
+            remoteBuilder.addDataStrings(entityId);
+            remoteBuilder.addDataLongs(getValue());
+            remoteBuilder.addDataLongs(getTimeBucket());
+            return remoteBuilder;
+        }
+
+        @Override
+        public int remoteHashCode() {
+            return entityId.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            CountMetricsImpl that = (CountMetricsImpl) o;
+            return getTimeBucket() == that.getTimeBucket() && entityId.equals(that.entityId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(entityId, getTimeBucket());
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.data;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ReadWriteSafeCacheTest {
+    @Test
+    public void testReadAndWrite() {
+        ReadWriteSafeCache<Integer> cache = new ReadWriteSafeCache<>(new CountBufferedData(), new CountBufferedData());
+        cache.write(1);
+        cache.write(2);
+        cache.write(1);
+        List<Integer> result = cache.read();
+        Assert.assertEquals(3, result.size());
+
+        cache.write(3);
+        result = cache.read();
+        Assert.assertEquals(1, result.size());
+        Assert.assertEquals(3, result.get(0).intValue());
+
+        Assert.assertTrue(cache.read().isEmpty());
+    }
+
+    @Test
+    public void testStripedReadAndWrite() throws InterruptedException {
+        final ReadWriteSafeCache<Integer> cache = new ReadWriteSafeCache<>(4, CountBufferedData::new, null);
+        final int writers = 4;
+        final CountDownLatch latch = new CountDownLatch(writers);
+        for (int w = 0; w < writers; w++) {
+            new Thread(() -> {
+                List<Integer> batch = new ArrayList<>();
+                for (int i = 0; i < 1000; i++) {
+                    batch.add(i);
+                    if (batch.size() == 100) {
+                        cache.write(batch);
+                        batch = new ArrayList<>();
+                    }
+                }
+                latch.countDown();
+            }).start();
+        }
+
+        List<Integer> result = new ArrayList<>();
+        while (latch.getCount() > 0) {
+            result.addAll(cache.read());
+        }
+        latch.await();
+        result.addAll(cache.read());
+
+        Assert.assertEquals(writers * 1000, result.size());
+    }
+
+    /**
+     * Keep the distinct values in every round, the duplicated values are counted in the total.
+     */
+    private static class CountBufferedData implements BufferedData<Integer> {
+        private final Map<Integer, Integer> buffer = new HashMap<>();
+
+        @Override
+        public void accept(final Integer data) {
+            buffer.merge(data, 1, Integer::sum);
+        }
+
+        @Override
+        public List<Integer> read() {
+            try {
+                List<Integer> result = new ArrayList<>();
+                buffer.forEach((value, count) -> {
+                    for (int i = 0; i < count; i++) {
+                        result.add(value);
+                    }
+                });
+                return result;
+            } finally {
+                buffer.clear();
+            }
+        }
+    }
+}
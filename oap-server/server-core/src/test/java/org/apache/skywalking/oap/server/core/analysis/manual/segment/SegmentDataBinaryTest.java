@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.manual.segment;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import java.util.Arrays;
+import org.apache.skywalking.apm.network.common.v3.KeyStringValuePair;
+import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
+import org.apache.skywalking.apm.network.language.agent.v3.SpanObject;
+import org.apache.skywalking.apm.network.language.agent.v3.SpanType;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SegmentDataBinaryTest {
+    @Test
+    public void testCompress() throws InvalidProtocolBufferException {
+        SegmentObject segment = segment(10);
+        byte[] dataBinary = SegmentDataBinary.compress(segment);
+        Assert.assertEquals(0, dataBinary[0]);
+        Assert.assertTrue(dataBinary.length < segment.getSerializedSize() / 2);
+        Assert.assertEquals(segment, SegmentDataBinary.decode(dataBinary));
+    }
+
+    @Test
+    public void testDecodeRawDataBinary() throws InvalidProtocolBufferException {
+        SegmentObject segment = segment(3);
+        Assert.assertEquals(segment, SegmentDataBinary.decode(segment.toByteArray()));
+        Assert.assertEquals(SegmentObject.getDefaultInstance(), SegmentDataBinary.decode(new byte[0]));
+    }
+
+    @Test
+    public void testKeepRawIfNotSmaller() throws InvalidProtocolBufferException {
+        SegmentObject segment = SegmentObject.newBuilder().setTraceId("t").build();
+        byte[] dataBinary = SegmentDataBinary.compress(segment);
+        Assert.assertArrayEquals(segment.toByteArray(), dataBinary);
+        Assert.assertEquals(segment, SegmentDataBinary.decode(dataBinary));
+    }
+
+    @Test(expected = InvalidProtocolBufferException.class)
+    public void testUnknownFormatVersion() throws InvalidProtocolBufferException {
+        byte[] dataBinary = SegmentDataBinary.compress(segment(10));
+        dataBinary[1] = 99;
+        SegmentDataBinary.decode(dataBinary);
+    }
+
+    @Test(expected = InvalidProtocolBufferException.class)
+    public void testTruncatedDataBinary() throws InvalidProtocolBufferException {
+        byte[] dataBinary = SegmentDataBinary.compress(segment(10));
+        SegmentDataBinary.decode(Arrays.copyOf(dataBinary, dataBinary.length / 2));
+    }
+
+    private static SegmentObject segment(int spans) {
+        SegmentObject.Builder segment = SegmentObject.newBuilder()
+                                                     .setTraceId("trace-id")
+                                                     .setTraceSegmentId("trace-id.1")
+                                                     .setService("service")
+                                                     .setServiceInstance("service-instance");
+        for (int i = 0; i < spans; i++) {
+            segment.addSpans(SpanObject.newBuilder()
+                                       .setSpanId(i)
+                                       .setParentSpanId(i - 1)
+                                       .setSpanType(i == 0 ? SpanType.Entry : SpanType.Exit)
+                                       .setOperationName("/service/endpoint")
+                                       .setPeer("service-peer:8080")
+                                       .setStartTime(1603000000000L + i)
+                                       .setEndTime(1603000000010L + i)
+                                       .addTags(KeyStringValuePair.newBuilder().setKey("http.method").setValue("GET"))
+                                       .addTags(KeyStringValuePair.newBuilder().setKey("url").setValue(
+                                           "http://service-peer:8080/service/endpoint")));
+        }
+        return segment.build();
+    }
+}
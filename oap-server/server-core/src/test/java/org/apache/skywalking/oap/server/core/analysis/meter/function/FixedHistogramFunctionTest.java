@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.meter.function;
+
+import java.util.Map;
+import org.apache.skywalking.oap.server.core.analysis.meter.MeterEntity;
+import org.apache.skywalking.oap.server.core.analysis.metrics.LongBucketArray;
+import org.apache.skywalking.oap.server.core.storage.StorageBuilder;
+import org.junit.Assert;
+import org.junit.Test;
+
+import static org.apache.skywalking.oap.server.core.analysis.meter.function.FixedHistogramFunction.DATASET;
+
+public class FixedHistogramFunctionTest {
+    private static final long[] BUCKETS = new long[] {
+        0,
+        50,
+        100,
+        250
+    };
+
+    private static final long[] BUCKETS_2ND = new long[] {
+        0,
+        51,
+        100,
+        250
+    };
+
+    private static final long[] INFINITE_BUCKETS = new long[] {
+        Long.MIN_VALUE,
+        -5,
+        0,
+        10
+    };
+
+    @Test
+    public void testFunction() {
+        FixedHistogramFunctionInst inst = new FixedHistogramFunctionInst();
+        inst.accept(MeterEntity.newService("service-test"), new BucketedValues(BUCKETS, new long[] {0, 4, 10, 10}));
+        inst.accept(MeterEntity.newService("service-test"), new BucketedValues(BUCKETS, new long[] {1, 2, 3, 4}));
+
+        final LongBucketArray dataset = inst.getDataset();
+        Assert.assertArrayEquals(new long[] {1, 6, 13, 14}, new long[] {
+            dataset.get(0),
+            dataset.get(1),
+            dataset.get(2),
+            dataset.get(3)
+        });
+    }
+
+    @Test
+    public void testFunctionWithInfinite() {
+        FixedHistogramFunctionInst inst = new FixedHistogramFunctionInst();
+        inst.accept(
+            MeterEntity.newService("service-test"), new BucketedValues(INFINITE_BUCKETS, new long[] {0, 4, 10, 10}));
+        inst.accept(
+            MeterEntity.newService("service-test"), new BucketedValues(INFINITE_BUCKETS, new long[] {1, 2, 3, 4}));
+
+        Assert.assertEquals(1L, inst.getDataset().get(0));
+        Assert.assertEquals(1L, inst.getDataset().toDataTable().get("infinite-").longValue());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIncompatible() {
+        FixedHistogramFunctionInst inst = new FixedHistogramFunctionInst();
+        inst.accept(MeterEntity.newService("service-test"), new BucketedValues(BUCKETS, new long[] {0, 4, 10, 10}));
+        inst.accept(MeterEntity.newService("service-test"), new BucketedValues(BUCKETS_2ND, new long[] {1, 2, 3, 4}));
+    }
+
+    @Test
+    public void testSerializationInInfinite() {
+        FixedHistogramFunctionInst inst = new FixedHistogramFunctionInst();
+        inst.accept(
+            MeterEntity.newService("service-test"), new BucketedValues(INFINITE_BUCKETS, new long[] {1, 4, 10, 10}));
+
+        final FixedHistogramFunctionInst inst2 = new FixedHistogramFunctionInst();
+        inst2.deserialize(inst.serialize().build());
+
+        Assert.assertEquals(inst, inst2);
+        // FixedHistogramFunction equal doesn't include dataset.
+        Assert.assertEquals(inst.getDataset(), inst2.getDataset());
+        Assert.assertSame(inst.getDataset().getBoundaries(), inst2.getDataset().getBoundaries());
+    }
+
+    @Test
+    public void testBuilder() throws IllegalAccessException, InstantiationException {
+        FixedHistogramFunctionInst inst = new FixedHistogramFunctionInst();
+        inst.accept(MeterEntity.newService("service-test"), new BucketedValues(BUCKETS, new long[] {1, 4, 10, 10}));
+
+        final StorageBuilder storageBuilder = inst.builder().newInstance();
+
+        // Simulate the storage layer do, convert the bucket array to string.
+        final Map map = storageBuilder.data2Map(inst);
+        map.put(DATASET, ((LongBucketArray) map.get(DATASET)).toStorageData());
+
+        final FixedHistogramFunction inst2 = (FixedHistogramFunction) storageBuilder.map2Data(map);
+        Assert.assertEquals(inst, inst2);
+        // FixedHistogramFunction equal doesn't include dataset.
+        Assert.assertEquals(inst.getDataset(), inst2.getDataset());
+    }
+
+    private static class FixedHistogramFunctionInst extends FixedHistogramFunction {
+
+        @Override
+        public AcceptableValue<BucketedValues> createNew() {
+            return new FixedHistogramFunctionInst();
+        }
+    }
+}
@@ -17,6 +17,7 @@
 
 package org.apache.skywalking.oap.server.core.analysis.metrics;
 
+import org.apache.skywalking.oap.server.core.Const;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -59,4 +60,37 @@ public class DataTableTestCase {
 
         Assert.assertEquals("1,100|2,200|5,500|6,600|7,700", dataTable.toStorageData());
     }
+
+    @Test
+    public void toObjectIgnoreIllegalPairs() {
+        DataTable dataTable = new DataTable();
+        dataTable.toObject("1,100|2|3,|a,b,300|,400|5,500");
+
+        Assert.assertEquals(3, dataTable.size());
+        Assert.assertEquals(100, dataTable.get("1").intValue());
+        Assert.assertEquals(400, dataTable.get("").intValue());
+        Assert.assertEquals(500, dataTable.get("5").intValue());
+    }
+
+    @Test
+    public void compactStorageData() {
+        this.dataTable.put("01", 1L);
+        this.dataTable.put("-1", -100L);
+        this.dataTable.put("p99", Long.MAX_VALUE);
+        this.dataTable.put("1000000000000", Long.MIN_VALUE);
+
+        final String compact = this.dataTable.toCompactStorageData();
+        Assert.assertFalse(compact.contains(Const.KEY_VALUE_SPLIT));
+        Assert.assertTrue(compact.length() < this.dataTable.toStorageData().length());
+
+        DataTable dataTable = new DataTable(compact);
+        Assert.assertEquals(this.dataTable, dataTable);
+        Assert.assertEquals(compact, dataTable.toCompactStorageData());
+    }
+
+    @Test
+    public void compactEmptyStorageData() {
+        final String compact = new DataTable().toCompactStorageData();
+        Assert.assertFalse(new DataTable(compact).hasData());
+    }
 }
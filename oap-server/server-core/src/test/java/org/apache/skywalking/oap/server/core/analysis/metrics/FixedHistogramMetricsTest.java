@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.metrics;
+
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FixedHistogramMetricsTest {
+    private int step = 10; //ms
+    private int maxNumOfSteps = 10; //count
+
+    @Test
+    public void testEntrance() {
+        FixedHistogramMetricsMocker metricsMocker = new FixedHistogramMetricsMocker();
+
+        metricsMocker.combine(2000, step, maxNumOfSteps);
+        metricsMocker.combine(110, step, maxNumOfSteps);
+        metricsMocker.combine(100, step, maxNumOfSteps);
+        metricsMocker.combine(50, step, maxNumOfSteps);
+        metricsMocker.combine(28, step, maxNumOfSteps);
+        metricsMocker.combine(0, step, maxNumOfSteps);
+
+        final LongBucketArray dataset = metricsMocker.getDataset();
+        Assert.assertEquals(11, dataset.size());
+        Assert.assertSame(BucketBoundaries.linear(step, maxNumOfSteps), dataset.getBoundaries());
+
+        Assert.assertEquals(1, dataset.get(0));
+        Assert.assertEquals(1, dataset.get(2));
+        Assert.assertEquals(1, dataset.get(5));
+        Assert.assertEquals(3, dataset.get(10));
+    }
+
+    @Test
+    public void testMerge() {
+        FixedHistogramMetricsMocker metricsMocker = new FixedHistogramMetricsMocker();
+        metricsMocker.combine(100, step, maxNumOfSteps);
+        metricsMocker.combine(50, step, maxNumOfSteps);
+
+        FixedHistogramMetricsMocker metricsMocker1 = new FixedHistogramMetricsMocker();
+        metricsMocker1.combine(50, step, maxNumOfSteps);
+        metricsMocker1.combine(61, step, maxNumOfSteps);
+
+        metricsMocker.combine(metricsMocker1);
+
+        final LongBucketArray dataset = metricsMocker.getDataset();
+        Assert.assertEquals(2, dataset.get(5));
+        Assert.assertEquals(1, dataset.get(6));
+        Assert.assertEquals(1, dataset.get(10));
+        Assert.assertEquals(4, dataset.sumOfValues());
+    }
+
+    @Test
+    public void testStorageDataCompatibility() {
+        HistogramMetricsMocker histogram = new HistogramMetricsMocker();
+        FixedHistogramMetricsMocker fixedHistogram = new FixedHistogramMetricsMocker();
+        for (int value : new int[] {0, 15, 15, 99, 2000}) {
+            histogram.combine(value, step, maxNumOfSteps);
+            fixedHistogram.combine(value, step, maxNumOfSteps);
+        }
+
+        Assert.assertEquals(histogram.getDataset(), new DataTable(fixedHistogram.getDataset().toStorageData()));
+        Assert.assertEquals(histogram.getDataset(), fixedHistogram.getDataset().toDataTable());
+        Assert.assertEquals(
+            fixedHistogram.getDataset(), new LongBucketArray(histogram.getDataset().toStorageData()));
+        Assert.assertEquals(
+            fixedHistogram.getDataset(), new LongBucketArray(histogram.getDataset().toCompactStorageData()));
+        Assert.assertSame(
+            fixedHistogram.getDataset().getBoundaries(),
+            new LongBucketArray(fixedHistogram.getDataset().toStorageData()).getBoundaries()
+        );
+    }
+
+    public static class FixedHistogramMetricsMocker extends FixedHistogramMetrics {
+
+        @Override
+        public String id() {
+            return null;
+        }
+
+        @Override
+        public Metrics toHour() {
+            return null;
+        }
+
+        @Override
+        public Metrics toDay() {
+            return null;
+        }
+
+        @Override
+        public int remoteHashCode() {
+            return 0;
+        }
+
+        @Override
+        public void deserialize(RemoteData remoteData) {
+
+        }
+
+        @Override
+        public RemoteData.Builder serialize() {
+            return null;
+        }
+    }
+
+    public static class HistogramMetricsMocker extends HistogramMetrics {
+
+        @Override
+        public String id() {
+            return null;
+        }
+
+        @Override
+        public Metrics toHour() {
+            return null;
+        }
+
+        @Override
+        public Metrics toDay() {
+            return null;
+        }
+
+        @Override
+        public int remoteHashCode() {
+            return 0;
+        }
+
+        @Override
+        public void deserialize(RemoteData remoteData) {
+
+        }
+
+        @Override
+        public RemoteData.Builder serialize() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.metrics;
+
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FixedPercentileMetricsTest {
+    private int precision = 10; //ms
+    private int maxNumOfSteps = 100; //count
+
+    @Test
+    public void percentileTest() {
+        FixedPercentileMetricsMocker metricsMocker = new FixedPercentileMetricsMocker();
+
+        metricsMocker.combine(110, precision, maxNumOfSteps);
+        metricsMocker.combine(90, precision, maxNumOfSteps);
+        metricsMocker.combine(95, precision, maxNumOfSteps);
+        metricsMocker.combine(99, precision, maxNumOfSteps);
+        metricsMocker.combine(50, precision, maxNumOfSteps);
+        metricsMocker.combine(50, precision, maxNumOfSteps);
+        metricsMocker.combine(50, precision, maxNumOfSteps);
+        metricsMocker.combine(50, precision, maxNumOfSteps);
+        metricsMocker.combine(50, precision, maxNumOfSteps);
+        metricsMocker.combine(75, precision, maxNumOfSteps);
+        metricsMocker.combine(75, precision, maxNumOfSteps);
+
+        metricsMocker.calculate();
+
+        Assert.assertArrayEquals(new int[] {
+            70,
+            90,
+            90,
+            90,
+            110
+        }, metricsMocker.getValues());
+    }
+
+    @Test
+    public void percentileMergeTest() {
+        FixedPercentileMetricsMocker metricsMocker = new FixedPercentileMetricsMocker();
+        metricsMocker.combine(90, precision, maxNumOfSteps);
+
+        FixedPercentileMetricsMocker metricsMocker1 = new FixedPercentileMetricsMocker();
+        metricsMocker1.combine(110, precision, maxNumOfSteps);
+        metricsMocker.combine(metricsMocker1);
+
+        metricsMocker.calculate();
+
+        Assert.assertArrayEquals(new int[] {
+            90,
+            110,
+            110,
+            110,
+            110
+        }, metricsMocker.getValues());
+    }
+
+    @Test
+    public void percentileOverflowTest() {
+        FixedPercentileMetricsMocker metricsMocker = new FixedPercentileMetricsMocker();
+
+        metricsMocker.combine(0, precision, maxNumOfSteps);
+        metricsMocker.combine(60000, precision, maxNumOfSteps);
+
+        metricsMocker.calculate();
+
+        Assert.assertArrayEquals(new int[] {
+            0,
+            1000,
+            1000,
+            1000,
+            1000
+        }, metricsMocker.getValues());
+    }
+
+    public class FixedPercentileMetricsMocker extends FixedPercentileMetrics {
+
+        @Override
+        public String id() {
+            return null;
+        }
+
+        @Override
+        public Metrics toHour() {
+            return null;
+        }
+
+        @Override
+        public Metrics toDay() {
+            return null;
+        }
+
+        @Override
+        public int remoteHashCode() {
+            return 0;
+        }
+
+        @Override
+        public void deserialize(RemoteData remoteData) {
+
+        }
+
+        @Override
+        public RemoteData.Builder serialize() {
+            return null;
+        }
+    }
+}
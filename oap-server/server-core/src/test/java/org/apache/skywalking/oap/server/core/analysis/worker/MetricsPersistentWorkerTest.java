@@ -0,0 +1,272 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.worker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.oap.server.core.Const;
+import org.apache.skywalking.oap.server.core.CoreModule;
+import org.apache.skywalking.oap.server.core.analysis.DownSampling;
+import org.apache.skywalking.oap.server.core.analysis.MetricsExtension;
+import org.apache.skywalking.oap.server.core.analysis.NodeType;
+import org.apache.skywalking.oap.server.core.analysis.TimeBucket;
+import org.apache.skywalking.oap.server.core.analysis.data.MetricsSessionCache;
+import org.apache.skywalking.oap.server.core.analysis.manual.service.ServiceTraffic;
+import org.apache.skywalking.oap.server.core.analysis.metrics.CountMetrics;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.remote.client.RemoteClientManager;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.apache.skywalking.oap.server.core.storage.IIncrementalMetricsDAO;
+import org.apache.skywalking.oap.server.core.storage.model.Model;
+import org.apache.skywalking.oap.server.core.worker.AbstractWorker;
+import org.apache.skywalking.oap.server.library.client.request.InsertRequest;
+import org.apache.skywalking.oap.server.library.client.request.PrepareRequest;
+import org.apache.skywalking.oap.server.library.client.request.UpdateRequest;
+import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
+import org.apache.skywalking.oap.server.telemetry.none.MetricsCreatorNoop;
+import org.apache.skywalking.oap.server.testing.module.ModuleDefineTesting;
+import org.apache.skywalking.oap.server.testing.module.ModuleManagerTesting;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MetricsPersistentWorkerTest {
+    private ModuleManagerTesting moduleManager;
+    private TestMetricsDAO metricsDAO;
+
+    @Before
+    public void setup() {
+        moduleManager = new ModuleManagerTesting();
+        ModuleDefineTesting coreModule = new ModuleDefineTesting();
+        moduleManager.put(CoreModule.NAME, coreModule);
+        coreModule.provider().registerServiceImplementation(
+            RemoteClientManager.class, new RemoteClientManager(moduleManager, 10));
+        ModuleDefineTesting telemetryModule = new ModuleDefineTesting();
+        moduleManager.put(TelemetryModule.NAME, telemetryModule);
+        telemetryModule.provider().registerServiceImplementation(MetricsCreator.class, new MetricsCreatorNoop());
+
+        metricsDAO = new TestMetricsDAO();
+    }
+
+    @Test
+    public void testLoadTrafficOfFormerTimeBucket() {
+        MetricsStreamProcessor processor = new MetricsStreamProcessor();
+        processor.setEnableMetricsExistenceIndex(true);
+        boolean supportDownSampling = ServiceTraffic.class.getAnnotation(MetricsExtension.class)
+                                                          .supportDownSampling();
+        boolean existenceIndexed = processor.isExistenceIndexed(supportDownSampling);
+        Assert.assertFalse(existenceIndexed);
+        Assert.assertTrue(processor.isExistenceIndexed(true));
+
+        ServiceTraffic persisted = serviceTraffic(202010181200L);
+        metricsDAO.storage.put(persisted, persisted);
+
+        MetricsPersistentWorker worker = new MetricsPersistentWorker(
+            moduleManager, model(ServiceTraffic.INDEX_NAME), metricsDAO, null, false, 1, existenceIndexed, false);
+        List<PrepareRequest> requests = new ArrayList<>();
+        worker.prepareBatch(Collections.singletonList(serviceTraffic(202010181300L)), requests);
+
+        Assert.assertEquals(1, metricsDAO.multiGetTimes);
+        Assert.assertTrue(requests.isEmpty());
+        Assert.assertEquals(0, metricsDAO.inserts);
+    }
+
+    @Test
+    public void testIncrementMetricsPersistedBeforeSession() {
+        CountMetricsImpl persisted = new CountMetricsImpl("service-1", 202010181200L, 10);
+        metricsDAO.storage.put(persisted, persisted);
+
+        ValueCollector alarm = new ValueCollector(moduleManager);
+        MetricsPersistentWorker worker = new MetricsPersistentWorker(
+            moduleManager, model("service_cpm"), metricsDAO, alarm, null, null,
+            new MetricsSessionCache(100, 100 * 1024), true, 1, true, true
+        );
+        List<PrepareRequest> requests = new ArrayList<>();
+        worker.prepareBatch(Collections.singletonList(new CountMetricsImpl("service-1", 202010181200L, 3)), requests);
+        worker.prepareBatch(Collections.singletonList(new CountMetricsImpl("service-1", 202010181200L, 2)), requests);
+
+        // The time bucket before the start is untrusted by the existence index, loaded once to seed the session, and written by the increments only.
+        Assert.assertEquals(1, metricsDAO.multiGetTimes);
+        Assert.assertEquals(2, requests.size());
+        Assert.assertEquals(0, metricsDAO.inserts);
+        Assert.assertEquals(0, metricsDAO.updates);
+        Assert.assertEquals(Arrays.asList(3L, 2L), metricsDAO.increments);
+        // The next workers receive the merged values, rather than the increments.
+        Assert.assertEquals(Arrays.asList(13L, 15L), alarm.values);
+    }
+
+    @Test
+    public void testIncrementNewMetrics() {
+        ValueCollector alarm = new ValueCollector(moduleManager);
+        MetricsPersistentWorker worker = new MetricsPersistentWorker(
+            moduleManager, model("service_cpm"), metricsDAO, alarm, null, null,
+            new MetricsSessionCache(100, 100 * 1024), true, 1, true, true
+        );
+        // Later than the start and the clock skew tolerance, trusted by the existence index.
+        long timeBucket = TimeBucket.getMinuteTimeBucket(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1));
+        List<PrepareRequest> requests = new ArrayList<>();
+        worker.prepareBatch(Collections.singletonList(new CountMetricsImpl("service-1", timeBucket, 3)), requests);
+        worker.prepareBatch(Collections.singletonList(new CountMetricsImpl("service-1", timeBucket, 2)), requests);
+        worker.prepareBatch(Collections.singletonList(new CountMetricsImpl("service-1", timeBucket + 1, 4)), requests);
+
+        // Never persisted according to the existence index, then merged in the session, so never loaded.
+        Assert.assertEquals(0, metricsDAO.multiGetTimes);
+        Assert.assertEquals(0, metricsDAO.inserts);
+        Assert.assertEquals(Arrays.asList(3L, 2L, 4L), metricsDAO.increments);
+        Assert.assertEquals(Arrays.asList(3L, 5L, 4L), alarm.values);
+    }
+
+    private static Model model(String name) {
+        return new Model(name, Collections.emptyList(), Collections.emptyList(), 0, DownSampling.Minute, false, false);
+    }
+
+    private static ServiceTraffic serviceTraffic(long timeBucket) {
+        ServiceTraffic traffic = new ServiceTraffic();
+        traffic.setName("service-1");
+        traffic.setNodeType(NodeType.Normal);
+        traffic.setTimeBucket(timeBucket);
+        return traffic;
+    }
+
+    private static class TestMetricsDAO implements IIncrementalMetricsDAO {
+        private final Map<Metrics, Metrics> storage = new HashMap<>();
+        private int multiGetTimes;
+        private int inserts;
+        private int updates;
+        private final List<Long> increments = new ArrayList<>();
+
+        @Override
+        public List<Metrics> multiGet(Model model, List<Metrics> metrics) {
+            multiGetTimes++;
+            List<Metrics> result = new ArrayList<>();
+            for (Metrics m : metrics) {
+                Metrics persisted = storage.get(m);
+                if (persisted != null) {
+                    result.add(persisted);
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public InsertRequest prepareBatchInsert(Model model, Metrics metrics) {
+            inserts++;
+            return new InsertRequest() {
+            };
+        }
+
+        @Override
+        public UpdateRequest prepareBatchUpdate(Model model, Metrics metrics) {
+            updates++;
+            return new UpdateRequest() {
+            };
+        }
+
+        @Override
+        public UpdateRequest prepareBatchIncrement(Model model, Metrics metrics) {
+            increments.add(((CountMetrics) metrics).getValue());
+            return new UpdateRequest() {
+            };
+        }
+    }
+
+    /**
+     * Keep the values when received, the merged metrics are changed by the next batches.
+     */
+    private static class ValueCollector extends AbstractWorker<Metrics> {
+        private final List<Long> values = new ArrayList<>();
+
+        private ValueCollector(ModuleManagerTesting moduleManager) {
+            super(moduleManager);
+        }
+
+        @Override
+        public void in(Metrics metrics) {
+            values.add(((CountMetrics) metrics).getValue());
+        }
+    }
+
+    private static class CountMetricsImpl extends CountMetrics {
+        private final String entityId;
+
+        private CountMetricsImpl(String entityId, long timeBucket, long value) {
+            this.entityId = entityId;
+            setTimeBucket(timeBucket);
+            setValue(value);
+        }
+
+        @Override
+        public String id() {
+            return getTimeBucket() + Const.ID_CONNECTOR + entityId;
+        }
+
+        @Override
+        public Metrics toHour() {
+            return null;
+        }
+
+        @Override
+        public Metrics toDay() {
+            return null;
+        }
+
+        @Override
+        public void deserialize(RemoteData remoteData) {
+
+        }
+
+        @Override
+        public RemoteData.Builder serialize() {
+            RemoteData.Builder remoteBuilder = RemoteData.newBuilder();
+            remoteBuilder.addDataStrings(entityId);
+            remoteBuilder.addDataLongs(getValue());
+            remoteBuilder.addDataLongs(getTimeBucket());
+            return remoteBuilder;
+        }
+
+        @Override
+        public int remoteHashCode() {
+            return entityId.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            CountMetricsImpl that = (CountMetricsImpl) o;
+            return getTimeBucket() == that.getTimeBucket() && entityId.equals(that.entityId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(entityId, getTimeBucket());
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.remote;
+
+import java.io.IOException;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteBatchMessage;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteCompression;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RemoteBatchCompressionTest {
+
+    @Test
+    public void testNone() throws IOException {
+        RemoteBatchMessage batch = RemoteBatchCompression.compress(batch(10), RemoteCompression.NONE).build();
+
+        Assert.assertEquals(RemoteCompression.NONE, batch.getCompression());
+        Assert.assertTrue(batch.getCompressedRemoteData().isEmpty());
+        Assert.assertEquals(batch(10).getRemoteDataList(), RemoteBatchCompression.remoteDataOf(batch));
+    }
+
+    @Test
+    public void testDeflate() throws IOException {
+        RemoteBatchMessage uncompressed = batch(1000).build();
+        RemoteBatchMessage batch = RemoteBatchCompression.compress(batch(1000), RemoteCompression.DEFLATE).build();
+
+        Assert.assertEquals(RemoteCompression.DEFLATE, batch.getCompression());
+        Assert.assertEquals(0, batch.getRemoteDataCount());
+        Assert.assertEquals(uncompressed.getNextWorkerName(), batch.getNextWorkerName());
+        Assert.assertTrue(batch.getSerializedSize() < uncompressed.getSerializedSize() / 2);
+        Assert.assertEquals(uncompressed.getRemoteDataList(), RemoteBatchCompression.remoteDataOf(batch));
+    }
+
+    @Test(expected = IOException.class)
+    public void testBrokenCompressedData() throws IOException {
+        RemoteBatchMessage batch = RemoteBatchCompression.compress(batch(10), RemoteCompression.DEFLATE).build();
+        RemoteBatchCompression.remoteDataOf(
+            batch.toBuilder().setCompressedRemoteData(batch.getCompressedRemoteData().substring(0, 10)).build());
+    }
+
+    @Test(expected = IOException.class)
+    public void testUnknownCompression() throws IOException {
+        RemoteBatchCompression.remoteDataOf(RemoteBatchMessage.newBuilder().setCompressionValue(100).build());
+    }
+
+    private RemoteBatchMessage.Builder batch(int size) {
+        RemoteBatchMessage.Builder batch = RemoteBatchMessage.newBuilder().setNextWorkerId(0).setNextWorkerName(
+            "endpoint_cpm_rec");
+        for (int i = 0; i < size; i++) {
+            batch.addRemoteData(RemoteData.newBuilder()
+                                          .addDataStrings("ZHVtbXk=.1_L2R1bW15L2VuZHBvaW50LyI=" + i % 100)
+                                          .addDataLongs(i)
+                                          .addDataLongs(i * 60L)
+                                          .addDataLongs(202101011200L));
+        }
+        return batch;
+    }
+}
@@ -18,12 +18,18 @@
 
 package org.apache.skywalking.oap.server.core.remote.client;
 
+import io.grpc.stub.StreamObserver;
 import io.grpc.testing.GrpcServerRule;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.skywalking.oap.server.core.CoreModule;
 import org.apache.skywalking.oap.server.core.remote.RemoteServiceHandler;
 import org.apache.skywalking.oap.server.core.remote.data.StreamData;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.Empty;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteCompression;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteMessage;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteServiceGrpc;
 import org.apache.skywalking.oap.server.core.worker.AbstractWorker;
 import org.apache.skywalking.oap.server.core.worker.IWorkerInstanceGetter;
 import org.apache.skywalking.oap.server.core.worker.IWorkerInstanceSetter;
@@ -50,6 +56,7 @@ public class GRPCRemoteClientTestCase {
 
     private final String nextWorkerName = "mock-worker";
     private ModuleManagerTesting moduleManager;
+    private final AtomicInteger received = new AtomicInteger();
     @Rule
     public final GrpcServerRule grpcServerRule = new GrpcServerRule().directExecutor();
 
@@ -69,6 +76,88 @@ public class GRPCRemoteClientTestCase {
 
     @Test
     public void testPush() throws InterruptedException {
+        mockTelemetry();
+
+        grpcServerRule.getServiceRegistry().addService(new RemoteServiceHandler(moduleManager));
+
+        Address address = new Address("not-important", 11, false);
+        GRPCRemoteClient remoteClient = spy(new GRPCRemoteClient(moduleManager, address, 1, 10, 10, null));
+        remoteClient.connect();
+
+        doReturn(grpcServerRule.getChannel()).when(remoteClient).getChannel();
+
+        for (int i = 0; i < 12; i++) {
+            remoteClient.push(nextWorkerName, new TestStreamData());
+        }
+
+        TimeUnit.SECONDS.sleep(2);
+    }
+
+    @Test
+    public void testPushInBatch() throws InterruptedException {
+        mockTelemetry();
+
+        grpcServerRule.getServiceRegistry().addService(new RemoteServiceHandler(moduleManager));
+
+        Address address = new Address("not-important", 11, false);
+        GRPCRemoteClient remoteClient = spy(
+            new GRPCRemoteClient(moduleManager, address, 1, 3000, 10, null, RemoteCompression.DEFLATE));
+        remoteClient.connect();
+
+        doReturn(grpcServerRule.getChannel()).when(remoteClient).getChannel();
+
+        for (int i = 0; i < 2500; i++) {
+            remoteClient.push(nextWorkerName, new TestStreamData());
+        }
+
+        TimeUnit.SECONDS.sleep(2);
+        Assert.assertEquals(2500, received.get());
+    }
+
+    @Test
+    public void testPushInBatchToOlderServer() throws InterruptedException {
+        mockTelemetry();
+
+        // The older OAP server only implements the call.
+        grpcServerRule.getServiceRegistry().addService(new RemoteServiceGrpc.RemoteServiceImplBase() {
+            @Override
+            public StreamObserver<RemoteMessage> call(StreamObserver<Empty> responseObserver) {
+                return new StreamObserver<RemoteMessage>() {
+                    @Override
+                    public void onNext(RemoteMessage message) {
+                        Assert.assertEquals(987, message.getRemoteData().getDataLongs(0));
+                        received.incrementAndGet();
+                    }
+
+                    @Override
+                    public void onError(Throwable throwable) {
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        responseObserver.onNext(Empty.getDefaultInstance());
+                        responseObserver.onCompleted();
+                    }
+                };
+            }
+        });
+
+        Address address = new Address("not-important", 11, false);
+        GRPCRemoteClient remoteClient = spy(
+            new GRPCRemoteClient(moduleManager, address, 1, 3000, 10, null, RemoteCompression.DEFLATE));
+        remoteClient.connect();
+
+        doReturn(grpcServerRule.getChannel()).when(remoteClient).getChannel();
+
+        for (int i = 0; i < 2500; i++) {
+            remoteClient.push(nextWorkerName, new TestStreamData());
+        }
+
+        TimeUnit.SECONDS.sleep(2);
+        Assert.assertEquals(2500, received.get());
+    }
+
+    private void mockTelemetry() {
         MetricsCreator metricsCreator = mock(MetricsCreator.class);
         when(metricsCreator.createCounter(any(), any(), any(), any())).thenReturn(new CounterMetrics() {
             @Override
@@ -97,20 +186,6 @@ public class GRPCRemoteClientTestCase {
         ModuleDefineTesting telemetryModuleDefine = new ModuleDefineTesting();
         moduleManager.put(TelemetryModule.NAME, telemetryModuleDefine);
         telemetryModuleDefine.provider().registerServiceImplementation(MetricsCreator.class, metricsCreator);
-
-        grpcServerRule.getServiceRegistry().addService(new RemoteServiceHandler(moduleManager));
-
-        Address address = new Address("not-important", 11, false);
-        GRPCRemoteClient remoteClient = spy(new GRPCRemoteClient(moduleManager, address, 1, 10, 10, null));
-        remoteClient.connect();
-
-        doReturn(grpcServerRule.getChannel()).when(remoteClient).getChannel();
-
-        for (int i = 0; i < 12; i++) {
-            remoteClient.push(nextWorkerName, new TestStreamData());
-        }
-
-        TimeUnit.SECONDS.sleep(2);
     }
 
     public static class TestStreamData extends StreamData {
@@ -145,6 +220,7 @@ public class GRPCRemoteClientTestCase {
         public void in(Object o) {
             TestStreamData streamData = (TestStreamData) o;
             Assert.assertEquals(987, streamData.value);
+            received.incrementAndGet();
         }
     }
 }
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.remote.data;
+
+import org.apache.skywalking.oap.server.core.UnexpectedException;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class StreamDataFactoryTest {
+
+    @Test
+    public void testDecode() {
+        StreamDataFactory factory = TestStreamData::new;
+
+        StreamData streamData = factory.decode(RemoteData.newBuilder().addDataLongs(100).build());
+
+        Assert.assertTrue(streamData instanceof TestStreamData);
+        Assert.assertEquals(100, ((TestStreamData) streamData).value);
+    }
+
+    @Test
+    public void testReflective() {
+        StreamDataFactory factory = StreamDataFactory.reflective(TestStreamData.class);
+
+        StreamData streamData = factory.decode(RemoteData.newBuilder().addDataLongs(100).build());
+
+        Assert.assertTrue(streamData instanceof TestStreamData);
+        Assert.assertEquals(100, ((TestStreamData) streamData).value);
+        Assert.assertNotSame(streamData, factory.newInstance());
+    }
+
+    @Test(expected = UnexpectedException.class)
+    public void testReflectiveWithoutDefaultConstructor() {
+        StreamDataFactory.reflective(AbstractStreamData.class).newInstance();
+    }
+
+    public static class TestStreamData extends StreamData {
+        private long value;
+
+        @Override
+        public int remoteHashCode() {
+            return 0;
+        }
+
+        @Override
+        public void deserialize(RemoteData remoteData) {
+            value = remoteData.getDataLongs(0);
+        }
+
+        @Override
+        public RemoteData.Builder serialize() {
+            return RemoteData.newBuilder().addDataLongs(value);
+        }
+    }
+
+    public abstract static class AbstractStreamData extends TestStreamData {
+    }
+}
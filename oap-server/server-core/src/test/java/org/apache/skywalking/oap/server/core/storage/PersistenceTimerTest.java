@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.storage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PersistenceTimerTest {
+    @Test
+    public void testBatchQueuePartition() throws InterruptedException {
+        PersistenceTimer.DefaultBlockingBatchQueue<Integer> queue = new PersistenceTimer.DefaultBlockingBatchQueue<>(3);
+        queue.offer(Arrays.asList(1, 2));
+        queue.offer(Arrays.asList(3, 4, 5, 6, 7));
+
+        Assert.assertEquals(Arrays.asList(1, 2, 3), queue.poll());
+        Assert.assertEquals(Arrays.asList(4, 5, 6), queue.poll());
+
+        queue.noFurtherAppending();
+        Assert.assertEquals(Arrays.asList(7), queue.poll());
+        Assert.assertTrue(queue.poll().isEmpty());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testOfferAfterClosed() {
+        PersistenceTimer.DefaultBlockingBatchQueue<Integer> queue = new PersistenceTimer.DefaultBlockingBatchQueue<>(3);
+        queue.noFurtherAppending();
+        queue.offer(Arrays.asList(1, 2));
+    }
+
+    @Test(timeout = 10_000)
+    public void testConcurrentPrepareAndExecute() throws Exception {
+        final int producers = 4;
+        final int perProducer = 1000;
+        PersistenceTimer.DefaultBlockingBatchQueue<Integer> queue = new PersistenceTimer.DefaultBlockingBatchQueue<>(
+            100);
+        ExecutorService executorService = Executors.newFixedThreadPool(producers + 2);
+
+        List<Future<Integer>> consumers = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            consumers.add(executorService.submit(() -> {
+                int count = 0;
+                while (true) {
+                    List<Integer> partition = queue.poll();
+                    if (partition.isEmpty()) {
+                        return count;
+                    }
+                    Assert.assertTrue(partition.size() <= 100);
+                    count += partition.size();
+                }
+            }));
+        }
+
+        List<Future<?>> producerFutures = new ArrayList<>();
+        for (int i = 0; i < producers; i++) {
+            producerFutures.add(executorService.submit(() -> {
+                for (int j = 0; j < perProducer; j += 10) {
+                    List<Integer> requests = new ArrayList<>();
+                    for (int k = 0; k < 10; k++) {
+                        requests.add(j + k);
+                    }
+                    queue.offer(requests);
+                }
+            }));
+        }
+        for (Future<?> future : producerFutures) {
+            future.get();
+        }
+        queue.noFurtherAppending();
+
+        int total = 0;
+        for (Future<Integer> consumer : consumers) {
+            total += consumer.get();
+        }
+        Assert.assertEquals(producers * perProducer, total);
+
+        executorService.shutdown();
+        executorService.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
@@ -21,23 +21,28 @@ package org.apache.skywalking.oap.server.analyzer.agent.kafka;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import java.time.Duration;
-import java.util.Iterator;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
 import java.util.Set;
-import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.admin.AdminClient;
 import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
-import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
 import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.serialization.BytesDeserializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
@@ -47,29 +52,73 @@ import org.apache.skywalking.oap.server.analyzer.agent.kafka.module.KafkaFetcher
 import org.apache.skywalking.oap.server.analyzer.agent.kafka.provider.handler.KafkaHandler;
 import org.apache.skywalking.oap.server.library.module.ModuleStartException;
 import org.apache.skywalking.oap.server.library.server.pool.CustomThreadFactory;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsTag;
 
 /**
  * Configuring and initializing a KafkaConsumer client as a dispatcher to delivery Kafka Message to registered handler by topic.
+ *
+ * The polled records are handed off to the {@link PartitionLane} of their partition in batches, so the records of one
+ * partition are handled in order, and the poll thread never handles records itself. The offsets are committed only
+ * after the records have been handled. A partition is paused when too many records of it are pending, and resumed when
+ * the lane catches up.
  */
 @Slf4j
-public class KafkaFetcherHandlerRegister implements Runnable {
+public class KafkaFetcherHandlerRegister implements Runnable, ConsumerRebalanceListener {
+    private static final long LAG_REFRESH_INTERVAL = 10_000L;
 
     private ImmutableMap.Builder<String, KafkaHandler> builder = ImmutableMap.builder();
     private ImmutableMap<String, KafkaHandler> handlerMap;
 
     private List<TopicPartition> topicPartitions = Lists.newArrayList();
-    private KafkaConsumer<String, Bytes> consumer = null;
+    private final Consumer<String, Bytes> consumer;
     private final KafkaFetcherConfig config;
     private final boolean isSharding;
 
     private int threadPoolSize = Runtime.getRuntime().availableProcessors() * 2;
-    private int threadPoolQueueSize = 10000;
+    /**
+     * The max pending records of one partition, the partition is paused beyond it.
+     */
+    private int maxPendingRecords = 10000;
     private final ThreadPoolExecutor executor;
-    private final boolean enableKafkaMessageAutoCommit;
+    private final long commitInterval;
+
+    private final Map<TopicPartition, PartitionLane> lanes = new HashMap<>();
+    private MetricsCreator metricsCreator;
+    private long lastCommitTime = 0;
+    private long lastLagRefreshTime = 0;
 
     public KafkaFetcherHandlerRegister(KafkaFetcherConfig config) throws ModuleStartException {
+        this(config, createConsumer(config));
+    }
+
+    KafkaFetcherHandlerRegister(KafkaFetcherConfig config, Consumer<String, Bytes> consumer) {
         this.config = config;
+        this.consumer = consumer;
 
+        if (config.isSharding() && StringUtil.isNotEmpty(config.getConsumePartitions())) {
+            isSharding = true;
+        } else {
+            isSharding = false;
+        }
+        if (config.getKafkaHandlerThreadPoolSize() > 0) {
+            threadPoolSize = config.getKafkaHandlerThreadPoolSize();
+        }
+        if (config.getKafkaHandlerThreadPoolQueueSize() > 0) {
+            maxPendingRecords = config.getKafkaHandlerThreadPoolQueueSize();
+        }
+        commitInterval = Long.parseLong(String.valueOf(config.getKafkaConsumerConfig().getOrDefault(
+            ConsumerConfig.AUTO_COMMIT_INTERVAL_MS_CONFIG, 5000)));
+
+        // At most one task of every lane is queued, so the queue is bounded by the number of the partitions.
+        executor = new ThreadPoolExecutor(threadPoolSize, threadPoolSize,
+                                          60, TimeUnit.SECONDS,
+                                          new LinkedBlockingQueue<>(),
+                                          new CustomThreadFactory("KafkaConsumer")
+        );
+    }
+
+    private static Consumer<String, Bytes> createConsumer(KafkaFetcherConfig config) throws ModuleStartException {
         Properties properties = new Properties();
         properties.putAll(config.getKafkaConsumerConfig());
         properties.setProperty(ConsumerConfig.GROUP_ID_CONFIG, config.getGroupId());
@@ -113,27 +162,9 @@ public class KafkaFetcherHandlerRegister implements Runnable {
             }
         }
 
-        if (config.isSharding() && StringUtil.isNotEmpty(config.getConsumePartitions())) {
-            isSharding = true;
-        } else {
-            isSharding = false;
-        }
-        if (config.getKafkaHandlerThreadPoolSize() > 0) {
-            threadPoolSize = config.getKafkaHandlerThreadPoolSize();
-        }
-        if (config.getKafkaHandlerThreadPoolQueueSize() > 0) {
-            threadPoolQueueSize = config.getKafkaHandlerThreadPoolQueueSize();
-        }
-
-        enableKafkaMessageAutoCommit = (boolean) properties.getOrDefault(
-            ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, true);
-        consumer = new KafkaConsumer<>(properties, new StringDeserializer(), new BytesDeserializer());
-        executor = new ThreadPoolExecutor(threadPoolSize, threadPoolSize,
-                                          60, TimeUnit.SECONDS,
-                                          new ArrayBlockingQueue(threadPoolQueueSize),
-                                          new CustomThreadFactory("KafkaConsumer"),
-                                          new ThreadPoolExecutor.CallerRunsPolicy()
-        );
+        // The offsets are committed by the register after the records are handled.
+        properties.setProperty(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+        return new KafkaConsumer<>(properties, new StringDeserializer(), new BytesDeserializer());
     }
 
     public void register(KafkaHandler handler) {
@@ -141,35 +172,179 @@ public class KafkaFetcherHandlerRegister implements Runnable {
         topicPartitions.addAll(handler.getTopicPartitions());
     }
 
-    public void start() {
+    public void start(MetricsCreator metricsCreator) {
+        prepareConsumer(metricsCreator);
+        new CustomThreadFactory("KafkaFetcher").newThread(this).start();
+    }
+
+    void prepareConsumer(MetricsCreator metricsCreator) {
+        this.metricsCreator = metricsCreator;
         handlerMap = builder.build();
         if (isSharding) {
             consumer.assign(topicPartitions);
         } else {
-            consumer.subscribe(handlerMap.keySet());
+            consumer.subscribe(handlerMap.keySet(), this);
         }
         consumer.seekToEnd(consumer.assignment());
-        executor.submit(this);
     }
 
     @Override
     public void run() {
         while (true) {
             try {
-                ConsumerRecords<String, Bytes> consumerRecords = consumer.poll(Duration.ofMillis(500L));
-                if (!consumerRecords.isEmpty()) {
-                    Iterator<ConsumerRecord<String, Bytes>> iterator = consumerRecords.iterator();
-                    while (iterator.hasNext()) {
-                        ConsumerRecord<String, Bytes> record = iterator.next();
-                        executor.submit(() -> handlerMap.get(record.topic()).handle(record));
-                    }
-                    if (!enableKafkaMessageAutoCommit) {
-                        consumer.commitAsync();
-                    }
-                }
+                pollOnce();
             } catch (Exception e) {
                 log.error("Kafka handle message error.", e);
             }
         }
     }
+
+    void pollOnce() {
+        ConsumerRecords<String, Bytes> consumerRecords = consumer.poll(Duration.ofMillis(500L));
+        for (final TopicPartition partition : consumerRecords.partitions()) {
+            final PartitionLane lane = lanes.computeIfAbsent(partition, this::createLane);
+            if (lane != null) {
+                lane.submit(consumerRecords.records(partition));
+            }
+        }
+
+        applyBackpressure();
+
+        final long now = System.currentTimeMillis();
+        if (now - lastCommitTime >= commitInterval) {
+            lastCommitTime = now;
+            commitProcessedOffsets(lanes.values(), false);
+        }
+        if (now - lastLagRefreshTime >= LAG_REFRESH_INTERVAL) {
+            lastLagRefreshTime = now;
+            refreshLag();
+        }
+    }
+
+    private PartitionLane createLane(TopicPartition partition) {
+        final KafkaHandler handler = handlerMap.get(partition.topic());
+        if (handler == null) {
+            log.warn("No handler for the records of {}, ignored.", partition);
+            return null;
+        }
+        final MetricsTag.Keys tagKeys = new MetricsTag.Keys("topic", "partition");
+        final MetricsTag.Values tagValues = new MetricsTag.Values(
+            partition.topic(), String.valueOf(partition.partition()));
+        return new PartitionLane(
+            partition, handler, executor,
+            metricsCreator.createCounter(
+                "kafka_fetcher_consumed_count", "The number of the handled records of the partition",
+                tagKeys, tagValues
+            ),
+            metricsCreator.createGauge(
+                "kafka_fetcher_partition_lag", "The number of the records of the partition not handled yet",
+                tagKeys, tagValues
+            )
+        );
+    }
+
+    private void applyBackpressure() {
+        final List<TopicPartition> toPause = new ArrayList<>();
+        final List<TopicPartition> toResume = new ArrayList<>();
+        for (final PartitionLane lane : lanes.values()) {
+            final int pending = lane.pendingRecords();
+            if (!lane.isPaused() && pending >= maxPendingRecords) {
+                lane.setPaused(true);
+                toPause.add(lane.getPartition());
+            } else if (lane.isPaused() && pending <= maxPendingRecords / 2) {
+                lane.setPaused(false);
+                toResume.add(lane.getPartition());
+            }
+        }
+        if (!toPause.isEmpty()) {
+            if (log.isDebugEnabled()) {
+                log.debug("Pause the partitions {} as too many records are pending.", toPause);
+            }
+            consumer.pause(toPause);
+        }
+        if (!toResume.isEmpty()) {
+            consumer.resume(toResume);
+        }
+    }
+
+    /**
+     * The committed offsets of the lanes only advance once the commit succeeds, so the failed ones are committed again
+     * in the next round. The callback of the async commit runs in the poll thread, as the other states of the lanes.
+     */
+    private void commitProcessedOffsets(Collection<PartitionLane> committingLanes, boolean sync) {
+        final Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+        final Map<TopicPartition, PartitionLane> laneOfPartitions = new HashMap<>();
+        for (final PartitionLane lane : committingLanes) {
+            final long processedOffset = lane.getProcessedOffset();
+            if (processedOffset > lane.getCommittedOffset()) {
+                offsets.put(lane.getPartition(), new OffsetAndMetadata(processedOffset));
+                laneOfPartitions.put(lane.getPartition(), lane);
+            }
+        }
+        if (offsets.isEmpty()) {
+            return;
+        }
+        if (sync) {
+            consumer.commitSync(offsets);
+            onOffsetsCommitted(offsets, laneOfPartitions);
+        } else {
+            consumer.commitAsync(offsets, (committed, e) -> {
+                if (e != null) {
+                    log.warn("Failed to commit the offsets {}, retry in the next commit.", offsets, e);
+                } else {
+                    onOffsetsCommitted(committed, laneOfPartitions);
+                }
+            });
+        }
+    }
+
+    private void onOffsetsCommitted(Map<TopicPartition, OffsetAndMetadata> committed,
+                                    Map<TopicPartition, PartitionLane> laneOfPartitions) {
+        for (final Map.Entry<TopicPartition, OffsetAndMetadata> entry : committed.entrySet()) {
+            final PartitionLane lane = laneOfPartitions.get(entry.getKey());
+            if (lane != null) {
+                lane.setCommittedOffset(Math.max(lane.getCommittedOffset(), entry.getValue().offset()));
+            }
+        }
+    }
+
+    private void refreshLag() {
+        if (lanes.isEmpty()) {
+            return;
+        }
+        try {
+            final Map<TopicPartition, Long> endOffsets = consumer.endOffsets(lanes.keySet(), Duration.ofSeconds(5));
+            for (final PartitionLane lane : lanes.values()) {
+                final Long endOffset = endOffsets.get(lane.getPartition());
+                if (endOffset != null && lane.getProcessedOffset() >= 0) {
+                    lane.getLagGauge().setValue(Math.max(0, endOffset - lane.getProcessedOffset()));
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Failed to fetch the end offsets of the partitions.", e);
+        }
+    }
+
+    @Override
+    public void onPartitionsRevoked(final Collection<TopicPartition> partitions) {
+        final List<PartitionLane> revokedLanes = new ArrayList<>(partitions.size());
+        for (final TopicPartition partition : partitions) {
+            final PartitionLane lane = lanes.remove(partition);
+            if (lane != null) {
+                lane.revoke();
+                lane.getLagGauge().setValue(0);
+                revokedLanes.add(lane);
+            }
+        }
+        try {
+            commitProcessedOffsets(revokedLanes, true);
+        } catch (Exception e) {
+            log.warn("Failed to commit the offsets of the revoked partitions {}.", partitions, e);
+        }
+    }
+
+    @Override
+    public void onPartitionsAssigned(final Collection<TopicPartition> partitions) {
+        // The lanes are created when the first records of the partitions are polled.
+    }
 }
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.analyzer.agent.kafka;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.utils.Bytes;
+import org.apache.skywalking.oap.server.analyzer.agent.kafka.provider.handler.KafkaHandler;
+import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.GaugeMetrics;
+
+/**
+ * The lane handles the polled records of one partition in order. The lanes share the handler executor, but at most one
+ * batch of a lane is in process at any time, and the lane gives up the thread after each batch so that the busy
+ * partitions can't starve the others.
+ *
+ * The states, except the pending batches, are only touched by the poll thread.
+ */
+@Slf4j
+class PartitionLane implements Runnable {
+    @Getter
+    private final TopicPartition partition;
+    private final KafkaHandler handler;
+    private final Executor executor;
+    private final CounterMetrics consumedCounter;
+    @Getter
+    private final GaugeMetrics lagGauge;
+
+    private final Queue<List<ConsumerRecord<String, Bytes>>> batches = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingRecords = new AtomicInteger();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private volatile boolean revoked = false;
+    /**
+     * The offset of the next record to handle, -1 means no record has been handled yet.
+     */
+    @Getter
+    private volatile long processedOffset = -1;
+    @Getter
+    @Setter
+    private long committedOffset = -1;
+    @Getter
+    @Setter
+    private boolean paused = false;
+
+    PartitionLane(final TopicPartition partition,
+                  final KafkaHandler handler,
+                  final Executor executor,
+                  final CounterMetrics consumedCounter,
+                  final GaugeMetrics lagGauge) {
+        this.partition = partition;
+        this.handler = handler;
+        this.executor = executor;
+        this.consumedCounter = consumedCounter;
+        this.lagGauge = lagGauge;
+    }
+
+    void submit(final List<ConsumerRecord<String, Bytes>> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        pendingRecords.addAndGet(records.size());
+        batches.offer(records);
+        schedule();
+    }
+
+    /**
+     * @return the number of the records submitted but not handled yet.
+     */
+    int pendingRecords() {
+        return pendingRecords.get();
+    }
+
+    /**
+     * Drop the pending batches, the in process batch is still finished. The dropped records are left to the new owner of
+     * the partition, which consumes from the committed offset.
+     */
+    void revoke() {
+        revoked = true;
+        batches.clear();
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            executor.execute(this);
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            final List<ConsumerRecord<String, Bytes>> batch = batches.poll();
+            if (batch != null && !revoked) {
+                try {
+                    handler.handle(batch);
+                } catch (Throwable t) {
+                    log.error("Kafka handle message error, partition: {}.", partition, t);
+                }
+                processedOffset = batch.get(batch.size() - 1).offset() + 1;
+                pendingRecords.addAndGet(-batch.size());
+                consumedCounter.inc(batch.size());
+            }
+        } finally {
+            scheduled.set(false);
+            if (!batches.isEmpty() && !revoked) {
+                schedule();
+            }
+        }
+    }
+}
@@ -35,6 +35,8 @@ import org.apache.skywalking.oap.server.library.module.ModuleDefine;
 import org.apache.skywalking.oap.server.library.module.ModuleProvider;
 import org.apache.skywalking.oap.server.library.module.ModuleStartException;
 import org.apache.skywalking.oap.server.library.module.ServiceNotProvidedException;
+import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
 
 @Slf4j
 public class KafkaFetcherProvider extends ModuleProvider {
@@ -78,7 +80,9 @@ public class KafkaFetcherProvider extends ModuleProvider {
             processService = getManager().find(AnalyzerModule.NAME).provider().getService(IMeterProcessService.class);
             handlerRegister.register(new MeterServiceHandler(getManager(), config));
         }
-        handlerRegister.start();
+        handlerRegister.start(getManager().find(TelemetryModule.NAME)
+                                          .provider()
+                                          .getService(MetricsCreator.class));
     }
 
     @Override
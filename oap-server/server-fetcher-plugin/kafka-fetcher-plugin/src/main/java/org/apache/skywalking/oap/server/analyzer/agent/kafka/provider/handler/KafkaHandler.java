@@ -62,4 +62,14 @@ public interface KafkaHandler {
      */
     void handle(ConsumerRecord<String, Bytes> record);
 
+    /**
+     * Deserialize and push the polled records of one partition to downstream, in the order of the offsets. The next
+     * batch of the partition is not handed off until this returns.
+     */
+    default void handle(List<ConsumerRecord<String, Bytes>> records) {
+        for (final ConsumerRecord<String, Bytes> record : records) {
+            handle(record);
+        }
+    }
+
 }
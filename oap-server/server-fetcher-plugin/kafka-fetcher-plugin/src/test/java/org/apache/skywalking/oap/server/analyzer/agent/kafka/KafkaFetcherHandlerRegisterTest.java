@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.analyzer.agent.kafka;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetCommitCallback;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.utils.Bytes;
+import org.apache.skywalking.oap.server.analyzer.agent.kafka.module.KafkaFetcherConfig;
+import org.apache.skywalking.oap.server.analyzer.agent.kafka.provider.handler.KafkaHandler;
+import org.apache.skywalking.oap.server.telemetry.none.MetricsCreatorNoop;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class KafkaFetcherHandlerRegisterTest {
+    private static final String TOPIC_NAME = "skywalking-segments";
+    private static final TopicPartition PARTITION = new TopicPartition(TOPIC_NAME, 0);
+
+    private final List<Long> handledOffsets = new CopyOnWriteArrayList<>();
+    private final CountDownLatch gate = new CountDownLatch(1);
+    private final KafkaFetcherConfig config = new KafkaFetcherConfig();
+    private final AtomicBoolean failCommit = new AtomicBoolean();
+    private MockConsumer<String, Bytes> consumer;
+
+    @Before
+    public void setup() {
+        config.setSharding(true);
+        config.setConsumePartitions("0");
+        config.setKafkaHandlerThreadPoolSize(2);
+        config.getKafkaConsumerConfig().put(ConsumerConfig.AUTO_COMMIT_INTERVAL_MS_CONFIG, "0");
+
+        consumer = new MockConsumer<String, Bytes>(OffsetResetStrategy.EARLIEST) {
+            @Override
+            public synchronized void commitAsync(final Map<TopicPartition, OffsetAndMetadata> offsets,
+                                                 final OffsetCommitCallback callback) {
+                if (failCommit.get()) {
+                    callback.onComplete(offsets, new KafkaException("Commit failure"));
+                    return;
+                }
+                super.commitAsync(offsets, callback);
+            }
+        };
+        consumer.updateBeginningOffsets(ImmutableMap.of(PARTITION, 0L));
+        consumer.updateEndOffsets(ImmutableMap.of(PARTITION, 0L));
+    }
+
+    @Test
+    public void handleInOrderAndCommitAfterHandled() throws InterruptedException {
+        gate.countDown();
+        KafkaFetcherHandlerRegister register = createRegister();
+        for (long offset = 0; offset < 100; offset++) {
+            addRecord(offset);
+            if (offset % 10 == 9) {
+                register.pollOnce();
+            }
+        }
+
+        waitUntil(register, () -> {
+            OffsetAndMetadata committed = consumer.committed(Collections.singleton(PARTITION)).get(PARTITION);
+            return committed != null && committed.offset() == 100;
+        });
+        assertEquals(100, handledOffsets.size());
+        for (int i = 0; i < handledOffsets.size(); i++) {
+            assertEquals(i, handledOffsets.get(i).longValue());
+        }
+    }
+
+    @Test
+    public void retryFailedCommit() throws InterruptedException {
+        gate.countDown();
+        failCommit.set(true);
+        KafkaFetcherHandlerRegister register = createRegister();
+        for (long offset = 0; offset < 10; offset++) {
+            addRecord(offset);
+        }
+        waitUntil(register, () -> handledOffsets.size() == 10);
+        register.pollOnce();
+        assertTrue(consumer.committed(Collections.singleton(PARTITION)).get(PARTITION) == null);
+
+        failCommit.set(false);
+        waitUntil(register, () -> {
+            OffsetAndMetadata committed = consumer.committed(Collections.singleton(PARTITION)).get(PARTITION);
+            return committed != null && committed.offset() == 10;
+        });
+    }
+
+    @Test
+    public void pauseAndResumeUnderBackpressure() throws InterruptedException {
+        config.setKafkaHandlerThreadPoolQueueSize(2);
+        KafkaFetcherHandlerRegister register = createRegister();
+        for (long offset = 0; offset < 4; offset++) {
+            addRecord(offset);
+        }
+        register.pollOnce();
+        assertTrue(consumer.paused().contains(PARTITION));
+        assertTrue(consumer.committed(Collections.singleton(PARTITION)).get(PARTITION) == null);
+
+        gate.countDown();
+        waitUntil(register, () -> consumer.paused().isEmpty());
+        assertEquals(4, handledOffsets.size());
+    }
+
+    private KafkaFetcherHandlerRegister createRegister() {
+        KafkaFetcherHandlerRegister register = new KafkaFetcherHandlerRegister(config, consumer);
+        register.register(new KafkaHandler() {
+            @Override
+            public String getConsumePartitions() {
+                return "0";
+            }
+
+            @Override
+            public String getTopic() {
+                return TOPIC_NAME;
+            }
+
+            @Override
+            public void handle(final ConsumerRecord<String, Bytes> record) {
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                handledOffsets.add(record.offset());
+            }
+        });
+        register.prepareConsumer(new MetricsCreatorNoop());
+        return register;
+    }
+
+    private void addRecord(long offset) {
+        consumer.addRecord(new ConsumerRecord<>(TOPIC_NAME, 0, offset, null, Bytes.wrap(new byte[0])));
+    }
+
+    private void waitUntil(KafkaFetcherHandlerRegister register,
+                           BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue("Timeout", System.currentTimeMillis() < deadline);
+            register.pollOnce();
+            Thread.sleep(10);
+        }
+    }
+}
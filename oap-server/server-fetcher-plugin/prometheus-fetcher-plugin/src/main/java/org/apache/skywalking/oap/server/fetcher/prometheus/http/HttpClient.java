@@ -21,6 +21,8 @@ package org.apache.skywalking.oap.server.fetcher.prometheus.http;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.nio.NioSocketChannel;
@@ -30,11 +32,11 @@ import io.netty.handler.codec.http.HttpHeaderValues;
 import io.netty.handler.codec.http.HttpMethod;
 import io.netty.handler.codec.http.HttpRequest;
 import io.netty.handler.codec.http.HttpVersion;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.Objects;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.SynchronousQueue;
+import java.time.Duration;
 import java.util.concurrent.TimeUnit;
 import lombok.Builder;
 import org.apache.skywalking.oap.server.library.server.ssl.HttpDynamicSslContext;
@@ -46,43 +48,79 @@ public class HttpClient {
 
     private final String caFilePath;
 
-    public String request() throws URISyntaxException, InterruptedException {
+    /**
+     * The event loop group shared by the requests. A new one is created and shut down for the request if absent.
+     */
+    private final EventLoopGroup eventLoopGroup;
+
+    /**
+     * The timeout of the whole request, from connecting to reading the end of the response.
+     */
+    @Builder.Default
+    private final Duration timeout = Duration.ofSeconds(10);
+
+    /**
+     * Send the request, and read the response content as a stream, which is read from the connection on demand.
+     *
+     * @param reader reads the response content, which is closed after reading.
+     * @return the result of the reader.
+     */
+    public <T> T request(ResponseReader<T> reader) throws URISyntaxException, InterruptedException, IOException {
         URI uri = new URI(url);
         String scheme = uri.getScheme() == null ? "http" : uri.getScheme();
         String host = uri.getHost() == null ? "127.0.0.1" : uri.getHost();
         int port = uri.getPort();
+        long deadline = System.nanoTime() + timeout.toNanos();
 
         // Configure SSL context if necessary.
         final boolean ssl = "https".equalsIgnoreCase(scheme);
         final HttpDynamicSslContext sslCtx = ssl ? HttpDynamicSslContext.forClient(caFilePath) : null;
 
         // Configure the client.
-        EventLoopGroup group = new NioEventLoopGroup();
-        BlockingQueue<String> channel = new SynchronousQueue<>();
+        EventLoopGroup group = eventLoopGroup == null ? new NioEventLoopGroup() : eventLoopGroup;
+        ResponseStream response = new ResponseStream(deadline);
         try {
             Bootstrap b = new Bootstrap();
             b.group(group)
                 .channel(NioSocketChannel.class)
-                .handler(new HttpClientInitializer(sslCtx, channel));
+                // Read the response only when the reader consumes it.
+                .option(ChannelOption.AUTO_READ, false)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) timeout.toMillis())
+                .handler(new HttpClientInitializer(sslCtx, response));
 
             // Make the connection attempt.
-            Channel ch = b.connect(host, port).sync().channel();
+            ChannelFuture connecting = b.connect(host, port);
+            if (!connecting.await(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                connecting.cancel(true);
+                throw new SocketTimeoutException("Connect timeout");
+            }
+            Channel ch = connecting.sync().channel();
+            response.attach(ch);
 
             // Prepare the HTTP request.
             HttpRequest request = new DefaultFullHttpRequest(
                 HttpVersion.HTTP_1_1, HttpMethod.GET, uri.getRawPath(), Unpooled.EMPTY_BUFFER);
             request.headers().set(HttpHeaderNames.HOST, host);
             request.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.CLOSE);
-            request.headers().set(HttpHeaderNames.ACCEPT_ENCODING, HttpHeaderValues.TEXT_PLAIN);
+            request.headers().set(HttpHeaderNames.ACCEPT_ENCODING, HttpHeaderValues.GZIP_DEFLATE);
 
             // Send the HTTP request.
             ch.writeAndFlush(request);
 
-            return Objects.requireNonNull(channel.poll(10, TimeUnit.SECONDS), "Request timeout");
+            return reader.read(response);
         } finally {
-            // Shut down executor threads to exit.
-            group.shutdownGracefully();
+            response.close();
+            if (eventLoopGroup == null) {
+                // Shut down executor threads to exit.
+                group.shutdownGracefully();
+            }
         }
     }
 
+    /**
+     * ResponseReader reads the content of the response.
+     */
+    public interface ResponseReader<T> {
+        T read(ResponseStream content) throws IOException;
+    }
 }
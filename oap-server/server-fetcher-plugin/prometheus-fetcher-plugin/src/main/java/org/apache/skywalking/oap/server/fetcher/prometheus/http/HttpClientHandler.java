@@ -18,14 +18,15 @@
 
 package org.apache.skywalking.oap.server.fetcher.prometheus.http;
 
+import io.netty.buffer.ByteBufUtil;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
 import io.netty.handler.codec.http.HttpContent;
 import io.netty.handler.codec.http.HttpObject;
 import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
 import io.netty.handler.codec.http.LastHttpContent;
-import io.netty.util.CharsetUtil;
-import java.util.concurrent.BlockingQueue;
+import java.io.IOException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -33,32 +34,75 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class HttpClientHandler extends SimpleChannelInboundHandler<HttpObject> {
 
-    private final BlockingQueue<String> channel;
+    private final ResponseStream response;
 
-    private final StringBuilder buf = new StringBuilder();
+    private boolean ended;
+
+    /**
+     * Whether any content is received in the current read.
+     */
+    private boolean received;
 
     @Override
     public void channelRead0(ChannelHandlerContext ctx, HttpObject msg) {
+        if (ended) {
+            return;
+        }
         if (msg instanceof HttpResponse) {
-            buf.setLength(0);
+            HttpResponseStatus status = ((HttpResponse) msg).status();
+            if (!HttpResponseStatus.OK.equals(status)) {
+                end(ctx, new IOException("Unexpected response status: " + status));
+                return;
+            }
         }
         if (msg instanceof HttpContent) {
             HttpContent content = (HttpContent) msg;
-            buf.append(content.content().toString(CharsetUtil.UTF_8));
+            if (content.content().isReadable()) {
+                response.onContent(ByteBufUtil.getBytes(content.content()));
+                received = true;
+            }
             if (content instanceof LastHttpContent) {
-                try {
-                    channel.put(buf.toString());
-                } catch (InterruptedException e) {
-                    ctx.fireExceptionCaught(e);
-                }
-                ctx.close();
+                end(ctx, null);
             }
         }
     }
 
+    @Override
+    public void channelReadComplete(ChannelHandlerContext ctx) throws Exception {
+        // The response stream reads the channel only when it has consumed all the received content, so read again if
+        // nothing is received, such as the bytes are buffered by the decoders.
+        if (!ended && !received) {
+            ctx.read();
+        }
+        received = false;
+        super.channelReadComplete(ctx);
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        if (!ended) {
+            end(ctx, new IOException("Connection closed before the response ends"));
+        }
+        super.channelInactive(ctx);
+    }
+
     @Override
     public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
         log.error("HTTP request error", cause);
+        if (!ended) {
+            end(ctx, cause);
+        } else {
+            ctx.close();
+        }
+    }
+
+    private void end(ChannelHandlerContext ctx, Throwable cause) {
+        ended = true;
+        if (cause == null) {
+            response.onEnd();
+        } else {
+            response.onError(cause);
+        }
         ctx.close();
     }
 }
@@ -24,16 +24,15 @@ import io.netty.channel.socket.SocketChannel;
 import io.netty.handler.codec.http.HttpClientCodec;
 import io.netty.handler.codec.http.HttpContentDecompressor;
 import io.netty.handler.ssl.SslContext;
-import java.util.concurrent.BlockingQueue;
 
 public class HttpClientInitializer extends ChannelInitializer<SocketChannel> {
 
     private final SslContext sslCtx;
-    private final BlockingQueue<String> channel;
+    private final ResponseStream response;
 
-    public HttpClientInitializer(SslContext sslCtx, BlockingQueue<String> channel) {
+    public HttpClientInitializer(SslContext sslCtx, ResponseStream response) {
         this.sslCtx = sslCtx;
-        this.channel = channel;
+        this.response = response;
     }
 
     @Override
@@ -50,6 +49,6 @@ public class HttpClientInitializer extends ChannelInitializer<SocketChannel> {
         // Remove the following line if you don't want automatic content decompression.
         p.addLast(new HttpContentDecompressor());
 
-        p.addLast(new HttpClientHandler(channel));
+        p.addLast(new HttpClientHandler(response));
     }
 }
@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.fetcher.prometheus.http;
+
+import io.netty.channel.Channel;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import lombok.Getter;
+
+/**
+ * ResponseStream streams the content of the HTTP response to the reader. The channel is read only when the received
+ * chunks are consumed, so the response is never buffered entirely in memory however large it is.
+ */
+public class ResponseStream extends InputStream {
+    private static final byte[] END = new byte[0];
+
+    private final BlockingQueue<byte[]> chunks = new LinkedBlockingQueue<>();
+
+    /**
+     * The deadline of reading the whole response, in {@link System#nanoTime()}.
+     */
+    private final long deadline;
+
+    private volatile Channel channel;
+
+    private volatile Throwable error;
+
+    private byte[] chunk;
+
+    private int position;
+
+    /**
+     * The bytes of the content read.
+     */
+    @Getter
+    private long bytes;
+
+    ResponseStream(long deadline) {
+        this.deadline = deadline;
+    }
+
+    void attach(Channel channel) {
+        this.channel = channel;
+    }
+
+    void onContent(byte[] content) {
+        chunks.offer(content);
+    }
+
+    void onEnd() {
+        chunks.offer(END);
+    }
+
+    void onError(Throwable cause) {
+        error = cause;
+        chunks.offer(END);
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!fill()) {
+            return -1;
+        }
+        return chunk[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!fill()) {
+            return -1;
+        }
+        final int n = Math.min(len, chunk.length - position);
+        System.arraycopy(chunk, position, b, off, n);
+        position += n;
+        return n;
+    }
+
+    @Override
+    public int available() {
+        return chunk == null ? 0 : chunk.length - position;
+    }
+
+    @Override
+    public void close() {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    /**
+     * @return false if the content ends.
+     */
+    private boolean fill() throws IOException {
+        while (chunk == null || position == chunk.length) {
+            if (chunk == END) {
+                if (error != null) {
+                    throw new IOException("Failed to read the response", error);
+                }
+                return false;
+            }
+            byte[] next = chunks.poll();
+            if (next == null) {
+                channel.read();
+                try {
+                    next = chunks.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while reading the response");
+                }
+                if (next == null) {
+                    throw new SocketTimeoutException("Request timeout");
+                }
+            }
+            chunk = next;
+            position = 0;
+            bytes += next.length;
+        }
+        return true;
+    }
+}
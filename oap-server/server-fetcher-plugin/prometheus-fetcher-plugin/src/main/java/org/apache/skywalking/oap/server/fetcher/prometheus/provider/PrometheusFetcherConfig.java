@@ -32,6 +32,22 @@ public class PrometheusFetcherConfig extends ModuleConfig {
 
     private final String rulePath = "fetcher-prom-rules";
 
+    /**
+     * The max number of the targets scraped concurrently, across all the rules.
+     *
+     * @since 8.4.0
+     */
+    private int scrapeThreads = 4;
+
+    /**
+     * The upper bound in milliseconds of the delay of scraping a target after its rule is triggered. The delay of
+     * every target is fixed by its URL, so the scrapes of the targets are spread rather than started at once, while the
+     * interval between the scrapes of a target is kept.
+     *
+     * @since 8.4.0
+     */
+    private long maxScrapeJitter = 1000;
+
     List<String> getEnabledRules() {
         return Arrays.stream(Optional.ofNullable(enabledRules).orElse("").toString()
                                      .split(","))
@@ -18,50 +18,50 @@
 
 package org.apache.skywalking.oap.server.fetcher.prometheus.provider;
 
-import com.google.common.collect.Maps;
-import io.vavr.CheckedFunction1;
-import java.io.ByteArrayInputStream;
-import java.io.InputStream;
-import java.net.URI;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import java.net.URISyntaxException;
 import java.time.Duration;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.codec.Charsets;
-import org.apache.skywalking.oap.meter.analyzer.MetricConvert;
 import org.apache.skywalking.oap.meter.analyzer.prometheus.PrometheusMetricConverter;
 import org.apache.skywalking.oap.meter.analyzer.prometheus.rule.Rule;
 import org.apache.skywalking.oap.meter.analyzer.prometheus.rule.Rules;
-import org.apache.skywalking.oap.meter.analyzer.prometheus.rule.StaticConfig;
+import org.apache.skywalking.oap.meter.analyzer.prometheus.rule.Target;
 import org.apache.skywalking.oap.server.core.CoreModule;
 import org.apache.skywalking.oap.server.core.analysis.meter.MeterSystem;
-import org.apache.skywalking.oap.server.fetcher.prometheus.http.HttpClient;
 import org.apache.skywalking.oap.server.fetcher.prometheus.module.PrometheusFetcherModule;
 import org.apache.skywalking.oap.server.library.module.ModuleConfig;
 import org.apache.skywalking.oap.server.library.module.ModuleDefine;
 import org.apache.skywalking.oap.server.library.module.ModuleProvider;
 import org.apache.skywalking.oap.server.library.module.ModuleStartException;
 import org.apache.skywalking.oap.server.library.module.ServiceNotProvidedException;
-import org.apache.skywalking.oap.server.library.util.prometheus.Parser;
-import org.apache.skywalking.oap.server.library.util.prometheus.Parsers;
-import org.apache.skywalking.oap.server.library.util.prometheus.metrics.Metric;
-import org.apache.skywalking.oap.server.library.util.prometheus.metrics.MetricFamily;
+import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
 
 @Slf4j
 public class PrometheusFetcherProvider extends ModuleProvider {
 
+    private static final Duration DEFAULT_FETCHER_TIMEOUT = Duration.ofSeconds(10);
+
     private final PrometheusFetcherConfig config;
 
     private List<Rule> rules;
 
     private ScheduledExecutorService ses;
 
+    /**
+     * Scrapes the targets of all rules, bounded by {@link PrometheusFetcherConfig#getScrapeThreads()}.
+     */
+    private ScheduledExecutorService scrapeExecutor;
+
+    private EventLoopGroup eventLoopGroup;
+
     public PrometheusFetcherProvider() {
         config = new PrometheusFetcherConfig();
     }
@@ -97,57 +97,40 @@ public class PrometheusFetcherProvider extends ModuleProvider {
             return;
         }
         final MeterSystem service = getManager().find(CoreModule.NAME).provider().getService(MeterSystem.class);
-        rules.forEach(r -> {
-            ses.scheduleAtFixedRate(new Runnable() {
-
-                private final PrometheusMetricConverter converter = new PrometheusMetricConverter(r, service);
-
-                @Override public void run() {
-                    if (Objects.isNull(r.getStaticConfig())) {
-                        return;
-                    }
-                    StaticConfig sc = r.getStaticConfig();
-                    long now = System.currentTimeMillis();
-                    converter.toMeter(sc.getTargets().stream()
-                        .map(CheckedFunction1.liftTry(target -> {
-                            URI url = new URI(target.getUrl());
-                            URI targetURL = url.resolve(r.getMetricsPath());
-                            String content = HttpClient.builder().url(targetURL.toString()).caFilePath(target.getSslCaFilePath()).build().request();
-                            List<Metric> result = new ArrayList<>();
-                            try (InputStream targetStream = new ByteArrayInputStream(content.getBytes(Charsets.UTF_8))) {
-                                Parser p = Parsers.text(targetStream);
-                                MetricFamily mf;
-                                while ((mf = p.parse(now)) != null) {
-                                    mf.getMetrics().forEach(metric -> {
-                                        if (Objects.isNull(sc.getLabels())) {
-                                            return;
-                                        }
-                                        Map<String, String> extraLabels = Maps.newHashMap(sc.getLabels());
-                                        extraLabels.put("instance", target.getUrl());
-                                        extraLabels.forEach((key, value) -> {
-                                            if (metric.getLabels().containsKey(key)) {
-                                                metric.getLabels().put("exported_" + key, metric.getLabels().get(key));
-                                            }
-                                            metric.getLabels().put(key, value);
-                                        });
-                                    });
-                                    result.addAll(mf.getMetrics());
-                                }
-                            }
-                            if (log.isDebugEnabled()) {
-                                log.debug("Fetch metrics from prometheus: {}", result);
-                            }
-                            return result;
-                        }))
-                        .flatMap(tryIt -> MetricConvert.log(tryIt, "Load metric"))
-                        .flatMap(Collection::stream));
+        final MetricsCreator metricsCreator = getManager().find(TelemetryModule.NAME)
+                                                          .provider()
+                                                          .getService(MetricsCreator.class);
+        scrapeExecutor = Executors.newScheduledThreadPool(config.getScrapeThreads(), Executors.defaultThreadFactory());
+        eventLoopGroup = new NioEventLoopGroup(config.getScrapeThreads());
+        for (final Rule r : rules) {
+            if (Objects.isNull(r.getStaticConfig())) {
+                continue;
+            }
+            final PrometheusMetricConverter converter = new PrometheusMetricConverter(r, service);
+            final Duration timeout = Objects.isNull(r.getFetcherTimeout())
+                ? DEFAULT_FETCHER_TIMEOUT : Duration.parse(r.getFetcherTimeout());
+            final List<TargetScraper> scrapers = new ArrayList<>();
+            for (final Target target : r.getStaticConfig().getTargets()) {
+                try {
+                    scrapers.add(new TargetScraper(r, target, converter::accepts, eventLoopGroup, timeout,
+                                                   config.getMaxScrapeJitter(), metricsCreator
+                    ));
+                } catch (URISyntaxException e) {
+                    throw new ModuleStartException("Illegal target url " + target.getUrl() + " of rule " + r.getName(), e);
                 }
-            }, 0L, Duration.parse(r.getFetcherInterval()).getSeconds(), TimeUnit.SECONDS);
-        });
+            }
+            ses.scheduleAtFixedRate(
+                new RuleFetcher(r, converter, scrapers, scrapeExecutor, timeout.toMillis()),
+                0L, Duration.parse(r.getFetcherInterval()).getSeconds(), TimeUnit.SECONDS
+            );
+        }
     }
 
     @Override
     public String[] requiredModules() {
-        return new String[] {CoreModule.NAME};
+        return new String[] {
+            CoreModule.NAME,
+            TelemetryModule.NAME
+        };
     }
 }
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.fetcher.prometheus.provider;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.skywalking.oap.meter.analyzer.prometheus.PrometheusMetricConverter;
+import org.apache.skywalking.oap.meter.analyzer.prometheus.rule.Rule;
+import org.apache.skywalking.oap.server.library.util.prometheus.metrics.Metric;
+
+/**
+ * RuleFetcher scrapes all targets of a rule concurrently in the scrape executor, every target is delayed by its
+ * jitter, then converts the metrics of all targets by the rule. A target not scraped within its jitter and timeout is
+ * cancelled, and excluded from the fetch.
+ */
+@Slf4j
+class RuleFetcher implements Runnable {
+    private final Rule rule;
+
+    private final PrometheusMetricConverter converter;
+
+    private final List<TargetScraper> scrapers;
+
+    private final ScheduledExecutorService scrapeExecutor;
+
+    private final long timeout;
+
+    RuleFetcher(Rule rule, PrometheusMetricConverter converter, List<TargetScraper> scrapers,
+                ScheduledExecutorService scrapeExecutor, long timeout) {
+        this.rule = rule;
+        this.converter = converter;
+        this.scrapers = scrapers;
+        this.scrapeExecutor = scrapeExecutor;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public void run() {
+        final long now = System.currentTimeMillis();
+        final long start = System.nanoTime();
+        final List<Future<List<Metric>>> futures = new ArrayList<>(scrapers.size());
+        for (final TargetScraper scraper : scrapers) {
+            futures.add(scrapeExecutor.schedule(() -> scraper.scrape(now), scraper.getJitter(), TimeUnit.MILLISECONDS));
+        }
+
+        final List<Metric> metrics = new ArrayList<>();
+        for (int i = 0; i < futures.size(); i++) {
+            final TargetScraper scraper = scrapers.get(i);
+            final Future<List<Metric>> future = futures.get(i);
+            final long deadline = start + TimeUnit.MILLISECONDS.toNanos(scraper.getJitter() + timeout);
+            try {
+                metrics.addAll(future.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                log.warn("Scraping {} of rule {} timeout", scraper, rule.getName());
+            } catch (ExecutionException e) {
+                log.debug("Scraping {} of rule {} failed", scraper, rule.getName(), e.getCause());
+            } catch (InterruptedException e) {
+                futures.forEach(it -> it.cancel(true));
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Fetch metrics from prometheus: {}", metrics);
+        }
+        converter.toMeter(metrics.stream());
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.fetcher.prometheus.provider;
+
+import com.google.common.collect.Maps;
+import io.netty.channel.EventLoopGroup;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+import lombok.Getter;
+import org.apache.skywalking.oap.meter.analyzer.prometheus.rule.Rule;
+import org.apache.skywalking.oap.meter.analyzer.prometheus.rule.Target;
+import org.apache.skywalking.oap.server.fetcher.prometheus.http.HttpClient;
+import org.apache.skywalking.oap.server.library.util.prometheus.Parser;
+import org.apache.skywalking.oap.server.library.util.prometheus.Parsers;
+import org.apache.skywalking.oap.server.library.util.prometheus.metrics.Histogram;
+import org.apache.skywalking.oap.server.library.util.prometheus.metrics.Metric;
+import org.apache.skywalking.oap.server.library.util.prometheus.metrics.MetricFamily;
+import org.apache.skywalking.oap.server.library.util.prometheus.metrics.Summary;
+import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.GaugeMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.HistogramMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsTag;
+
+/**
+ * TargetScraper scrapes the metrics of a target, parsing the response as a stream, and keeping only the metric families
+ * referenced by the rule.
+ */
+class TargetScraper {
+    @Getter
+    private final Target target;
+
+    private final String url;
+
+    private final HttpClient client;
+
+    private final Predicate<String> familyFilter;
+
+    /**
+     * The labels assigned to all metrics of the target, null if the rule assigns no label.
+     */
+    private final Map<String, String> extraLabels;
+
+    /**
+     * The delay in milliseconds of the scrape after the rule is triggered.
+     */
+    @Getter
+    private final long jitter;
+
+    private final HistogramMetrics latency;
+
+    private final GaugeMetrics samples;
+
+    private final CounterMetrics bytes;
+
+    TargetScraper(Rule rule, Target target, Predicate<String> familyFilter, EventLoopGroup eventLoopGroup,
+                  Duration timeout, long maxJitter, MetricsCreator metricsCreator) throws URISyntaxException {
+        this.target = target;
+        this.url = new URI(target.getUrl()).resolve(rule.getMetricsPath()).toString();
+        this.client = HttpClient.builder()
+                                .url(url)
+                                .caFilePath(target.getSslCaFilePath())
+                                .eventLoopGroup(eventLoopGroup)
+                                .timeout(timeout)
+                                .build();
+        this.familyFilter = familyFilter;
+        if (Objects.isNull(rule.getStaticConfig().getLabels())) {
+            this.extraLabels = null;
+        } else {
+            this.extraLabels = Maps.newHashMap(rule.getStaticConfig().getLabels());
+            this.extraLabels.put("instance", target.getUrl());
+        }
+        this.jitter = maxJitter > 0 ? Math.floorMod(target.getUrl().hashCode(), maxJitter) : 0;
+
+        final MetricsTag.Keys keys = new MetricsTag.Keys("rule", "target");
+        final MetricsTag.Values values = new MetricsTag.Values(rule.getName(), target.getUrl());
+        this.latency = metricsCreator.createHistogramMetric(
+            "prometheus_fetcher_scrape_latency", "The latency of scraping the prometheus target", keys, values);
+        this.samples = metricsCreator.createGauge(
+            "prometheus_fetcher_scraped_samples",
+            "The number of the samples referenced by the rule in the last scrape of the prometheus target", keys, values
+        );
+        this.bytes = metricsCreator.createCounter(
+            "prometheus_fetcher_scraped_bytes", "The bytes of the responses of the prometheus target", keys, values);
+    }
+
+    /**
+     * @param now the timestamp of the metrics.
+     * @return the metrics referenced by the rule.
+     */
+    List<Metric> scrape(long now) throws Exception {
+        try (HistogramMetrics.Timer ignored = latency.createTimer()) {
+            return client.request(content -> {
+                final List<Metric> result = new ArrayList<>();
+                final Parser p = Parsers.text(content, familyFilter);
+                long sampleCount = 0;
+                MetricFamily mf;
+                while ((mf = p.parse(now)) != null) {
+                    for (final Metric metric : mf.getMetrics()) {
+                        if (extraLabels != null) {
+                            extraLabels.forEach((key, value) -> {
+                                if (metric.getLabels().containsKey(key)) {
+                                    metric.getLabels().put("exported_" + key, metric.getLabels().get(key));
+                                }
+                                metric.getLabels().put(key, value);
+                            });
+                        }
+                        sampleCount += samplesOf(metric);
+                    }
+                    result.addAll(mf.getMetrics());
+                }
+                samples.setValue(sampleCount);
+                bytes.inc(content.getBytes());
+                return result;
+            });
+        }
+    }
+
+    private static int samplesOf(Metric metric) {
+        if (metric instanceof Histogram) {
+            return ((Histogram) metric).getBuckets().size() + 2;
+        }
+        if (metric instanceof Summary) {
+            return ((Summary) metric).getQuantiles().size() + 2;
+        }
+        return 1;
+    }
+
+    @Override
+    public String toString() {
+        return url;
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.fetcher.prometheus.provider;
+
+import com.sun.net.httpserver.HttpServer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import org.apache.skywalking.oap.meter.analyzer.prometheus.rule.Rule;
+import org.apache.skywalking.oap.meter.analyzer.prometheus.rule.StaticConfig;
+import org.apache.skywalking.oap.meter.analyzer.prometheus.rule.Target;
+import org.apache.skywalking.oap.server.library.util.prometheus.metrics.Counter;
+import org.apache.skywalking.oap.server.library.util.prometheus.metrics.Metric;
+import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.GaugeMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.HistogramMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TargetScraperTest {
+    private static final int SERIES = 10000;
+
+    private HttpServer server;
+    private EventLoopGroup eventLoopGroup;
+    private Rule rule;
+    private Target target;
+    private MetricsCreator metricsCreator;
+    private GaugeMetrics samples;
+    private CounterMetrics bytes;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.start();
+        eventLoopGroup = new NioEventLoopGroup(1);
+
+        target = new Target();
+        target.setUrl("http://127.0.0.1:" + server.getAddress().getPort());
+        StaticConfig staticConfig = new StaticConfig();
+        staticConfig.setTargets(Collections.singletonList(target));
+        staticConfig.setLabels(Collections.singletonMap("app", "test-oap"));
+        rule = new Rule();
+        rule.setName("test");
+        rule.setMetricsPath("/metrics");
+        rule.setStaticConfig(staticConfig);
+
+        metricsCreator = mock(MetricsCreator.class);
+        samples = mock(GaugeMetrics.class);
+        bytes = mock(CounterMetrics.class);
+        when(metricsCreator.createHistogramMetric(anyString(), anyString(), any(), any())).thenReturn(
+            new HistogramMetrics() {
+                @Override
+                public void observe(final double value) {
+                }
+            });
+        when(metricsCreator.createGauge(anyString(), anyString(), any(), any())).thenReturn(samples);
+        when(metricsCreator.createCounter(anyString(), anyString(), any(), any())).thenReturn(bytes);
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+        eventLoopGroup.shutdownGracefully();
+    }
+
+    @Test
+    public void testScrapeReferencedFamilies() throws Exception {
+        final byte[] content = exposition().getBytes(StandardCharsets.UTF_8);
+        server.createContext("/metrics", exchange -> {
+            // Send the chunked and compressed response.
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = new GZIPOutputStream(exchange.getResponseBody())) {
+                out.write(content);
+            }
+        });
+
+        final TargetScraper scraper = newScraper(Duration.ofSeconds(10));
+        final List<Metric> metrics = scraper.scrape(1000L);
+
+        assertEquals(SERIES, metrics.size());
+        for (final Metric metric : metrics) {
+            assertTrue(metric instanceof Counter);
+            assertEquals("http_requests_total", metric.getName());
+            assertEquals("test-oap", metric.getLabels().get("app"));
+            assertEquals("svc", metric.getLabels().get("exported_app"));
+            assertEquals(target.getUrl(), metric.getLabels().get("instance"));
+            assertEquals(1000L, metric.getTimestamp());
+        }
+        verify(samples).setValue(SERIES);
+        verify(bytes).inc(content.length);
+    }
+
+    @Test
+    public void testUnexpectedStatus() throws Exception {
+        server.createContext("/metrics", exchange -> {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+
+        try {
+            newScraper(Duration.ofSeconds(10)).scrape(1000L);
+            fail("The scrape of the unexpected status should fail");
+        } catch (IOException e) {
+            assertTrue(e.getCause().getMessage().contains("404"));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testTimeout() throws Exception {
+        server.createContext("/metrics", exchange -> {
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write("# TYPE http_requests_total counter\n".getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                Thread.sleep(3000);
+            } catch (InterruptedException ignored) {
+            }
+        });
+
+        newScraper(Duration.ofMillis(500)).scrape(1000L);
+    }
+
+    private TargetScraper newScraper(Duration timeout) throws Exception {
+        return new TargetScraper(
+            rule, target, name -> name.equals("http_requests_total"), eventLoopGroup, timeout, 1000, metricsCreator);
+    }
+
+    private static String exposition() {
+        final StringBuilder text = new StringBuilder();
+        text.append("# HELP http_request_duration_seconds A histogram of the request duration.\n");
+        text.append("# TYPE http_request_duration_seconds histogram\n");
+        for (int i = 0; i < SERIES; i++) {
+            text.append("http_request_duration_seconds_bucket{le=\"+Inf\",path=\"/").append(i).append("\"} 10\n");
+            text.append("http_request_duration_seconds_sum{path=\"/").append(i).append("\"} 5\n");
+            text.append("http_request_duration_seconds_count{path=\"/").append(i).append("\"} 10\n");
+        }
+        text.append("# HELP http_requests_total The total number of HTTP requests.\n");
+        text.append("# TYPE http_requests_total counter\n");
+        for (int i = 0; i < SERIES; i++) {
+            text.append("http_requests_total{app=\"svc\",path=\"/").append(i).append("\"} ").append(i).append('\n');
+        }
+        return text.toString();
+    }
+}
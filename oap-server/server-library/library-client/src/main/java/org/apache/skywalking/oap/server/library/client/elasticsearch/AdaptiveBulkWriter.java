@@ -0,0 +1,266 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.library.client.elasticsearch;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.rest.RestStatus;
+
+/**
+ * AdaptiveBulkWriter writes the requests of the synchronous persistence. The requests are split into the bulks by the
+ * estimated size in bytes, which is decided by the {@link BulkSizeController} according to the latency and rejections
+ * of the previous bulks, and the bulks are executed concurrently.
+ *
+ * Only the items rejected by the Elasticsearch(429 TOO_MANY_REQUESTS) are retried with the exponential backoff, as the
+ * rejected items are not executed. The other failures are not retried, because the scripted upserts are not
+ * idempotent.
+ */
+@Slf4j
+public class AdaptiveBulkWriter {
+    private static final int MAX_RETRIES = 3;
+    private static final long RETRY_BACKOFF_MILLIS = 100;
+
+    private final BulkExecutor executor;
+    private final int maxBulkActions;
+    private final BulkSizeController sizeController;
+    private final ExecutorService bulkPool;
+    @Setter
+    private volatile Listener listener = new Listener() {
+    };
+
+    /**
+     * @param executor           executes one bulk request.
+     * @param maxBulkActions     the max number of requests in one bulk.
+     * @param maxBulkBytes       the max estimated size of one bulk in bytes.
+     * @param targetLatency      the latency of one bulk in milliseconds, the bulk size decreases when it is exceeded.
+     * @param concurrentRequests the number of bulks executed concurrently.
+     */
+    public AdaptiveBulkWriter(BulkExecutor executor, int maxBulkActions, long maxBulkBytes, long targetLatency,
+                              int concurrentRequests) {
+        this.executor = executor;
+        this.maxBulkActions = maxBulkActions;
+        this.sizeController = new BulkSizeController(Math.max(1, maxBulkBytes / 16), maxBulkBytes, targetLatency);
+        this.bulkPool = concurrentRequests > 1 ? Executors.newFixedThreadPool(
+            concurrentRequests, new BulkThreadFactory()) : null;
+    }
+
+    /**
+     * Write the requests, and return when all of them are completed or failed.
+     */
+    public void write(List<DocWriteRequest<?>> requests) {
+        if (requests.isEmpty()) {
+            return;
+        }
+        long startTime = System.currentTimeMillis();
+        List<BulkRequest> bulks = split(requests);
+        if (bulkPool == null || bulks.size() == 1) {
+            bulks.forEach(this::execute);
+        } else {
+            List<Future<?>> futures = new ArrayList<>(bulks.size());
+            bulks.forEach(bulk -> futures.add(bulkPool.submit((Callable<Void>) () -> {
+                execute(bulk);
+                return null;
+            })));
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (ExecutionException e) {
+                    log.error(e.getCause().getMessage(), e.getCause());
+                }
+            }
+        }
+        log.info(
+            "Synchronous bulk took time: {} millis, size: {}, bulks: {}", System.currentTimeMillis() - startTime,
+            requests.size(), bulks.size()
+        );
+    }
+
+    List<BulkRequest> split(List<DocWriteRequest<?>> requests) {
+        long maxBytes = sizeController.bulkBytes();
+        List<BulkRequest> bulks = new ArrayList<>();
+        BulkRequest bulk = new BulkRequest();
+        for (DocWriteRequest<?> request : requests) {
+            if (bulk.numberOfActions() > 0
+                && (bulk.numberOfActions() >= maxBulkActions || bulk.estimatedSizeInBytes() >= maxBytes)) {
+                bulks.add(bulk);
+                bulk = new BulkRequest();
+            }
+            bulk.add(request);
+        }
+        bulks.add(bulk);
+        return bulks;
+    }
+
+    private void execute(BulkRequest bulk) {
+        for (int retry = 0; ; retry++) {
+            BulkRequest rejected = executeOnce(bulk);
+            if (rejected == null) {
+                return;
+            }
+            if (retry == MAX_RETRIES) {
+                onItems(rejected.requests(), Result.FAILED);
+                log.error("Bulk of {} requests is still rejected after {} retries", rejected.numberOfActions(), retry);
+                return;
+            }
+            try {
+                Thread.sleep(RETRY_BACKOFF_MILLIS << retry);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                onItems(rejected.requests(), Result.FAILED);
+                return;
+            }
+            bulk = rejected;
+        }
+    }
+
+    /**
+     * @return the bulk of the rejected requests to retry, or null if nothing to retry.
+     */
+    private BulkRequest executeOnce(BulkRequest bulk) {
+        long bytes = bulk.estimatedSizeInBytes();
+        long startTime = System.currentTimeMillis();
+        BulkResponse response;
+        try {
+            response = executor.execute(bulk);
+        } catch (ElasticsearchException e) {
+            if (e.status() == RestStatus.TOO_MANY_REQUESTS) {
+                sizeController.onRejected();
+                onItems(bulk.requests(), Result.REJECTED);
+                return bulk;
+            }
+            log.error(e.getMessage(), e);
+            onItems(bulk.requests(), Result.FAILED);
+            return null;
+        } catch (IOException | RuntimeException e) {
+            log.error(e.getMessage(), e);
+            onItems(bulk.requests(), Result.FAILED);
+            return null;
+        }
+        long latency = System.currentTimeMillis() - startTime;
+
+        BulkRequest rejected = null;
+        Map<String, int[]> counts = new HashMap<>();
+        for (BulkItemResponse item : response.getItems()) {
+            Result result = Result.WRITTEN;
+            if (item.isFailed()) {
+                if (item.getFailure().getStatus() == RestStatus.TOO_MANY_REQUESTS) {
+                    result = Result.REJECTED;
+                    if (rejected == null) {
+                        rejected = new BulkRequest();
+                    }
+                    rejected.add(bulk.requests().get(item.getItemId()));
+                } else {
+                    result = Result.FAILED;
+                    log.error("Bulk item of index {}, id {} failed: {}", item.getIndex(), item.getId(),
+                              item.getFailureMessage()
+                    );
+                }
+            }
+            counts.computeIfAbsent(item.getIndex(), index -> new int[Result.values().length])[result.ordinal()]++;
+        }
+        if (rejected == null) {
+            sizeController.onCompleted(latency);
+        } else {
+            sizeController.onRejected();
+        }
+
+        Listener current = listener;
+        current.onBulk(latency, bytes, sizeController.bulkBytes());
+        counts.forEach((index, count) -> {
+            for (Result result : Result.values()) {
+                if (count[result.ordinal()] > 0) {
+                    current.onItems(index, result, count[result.ordinal()]);
+                }
+            }
+        });
+        return rejected;
+    }
+
+    private void onItems(List<? extends DocWriteRequest> requests, Result result) {
+        Map<String, Integer> counts = new HashMap<>();
+        requests.forEach(request -> counts.merge(request.index(), 1, Integer::sum));
+        Listener current = listener;
+        counts.forEach((index, count) -> current.onItems(index, result, count));
+    }
+
+    long bulkBytes() {
+        return sizeController.bulkBytes();
+    }
+
+    @FunctionalInterface
+    public interface BulkExecutor {
+        BulkResponse execute(BulkRequest request) throws IOException;
+    }
+
+    public enum Result {
+        WRITTEN, REJECTED, FAILED
+    }
+
+    /**
+     * Listener receives the statistics of the bulks, such as for the telemetry.
+     */
+    public interface Listener {
+        /**
+         * @param latency        of the bulk in milliseconds.
+         * @param bulkBytes      the estimated size of the bulk.
+         * @param nextBulkBytes  the size of the next bulks decided by the latency or rejection of this bulk.
+         */
+        default void onBulk(long latency, long bulkBytes, long nextBulkBytes) {
+        }
+
+        /**
+         * @param index  of the items.
+         * @param result of the items.
+         * @param count  of the items.
+         */
+        default void onItems(String index, Result result, int count) {
+        }
+    }
+
+    private static class BulkThreadFactory implements ThreadFactory {
+        private static final AtomicInteger BULK_THREAD_SEQ = new AtomicInteger(0);
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "ElasticsearchSyncBulk-" + BULK_THREAD_SEQ.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.library.client.elasticsearch;
+
+/**
+ * BulkSizeController decides the size of the bulk in bytes by the AIMD(additive increase, multiplicative decrease)
+ * algorithm. The size increases by the min size after every bulk completes within the target latency, and halves once
+ * a bulk is slower than the target or rejected by the Elasticsearch, in the range of [min size, max size].
+ */
+class BulkSizeController {
+    private final long minBytes;
+    private final long maxBytes;
+    private final long targetLatencyMillis;
+    private long bulkBytes;
+
+    BulkSizeController(long minBytes, long maxBytes, long targetLatencyMillis) {
+        this.minBytes = minBytes;
+        this.maxBytes = Math.max(minBytes, maxBytes);
+        this.targetLatencyMillis = targetLatencyMillis;
+        this.bulkBytes = minBytes;
+    }
+
+    synchronized long bulkBytes() {
+        return bulkBytes;
+    }
+
+    synchronized void onCompleted(long latencyMillis) {
+        if (latencyMillis > targetLatencyMillis) {
+            decrease();
+        } else {
+            bulkBytes = Math.min(maxBytes, bulkBytes + minBytes);
+        }
+    }
+
+    synchronized void onRejected() {
+        decrease();
+    }
+
+    private void decrease() {
+        bulkBytes = Math.max(minBytes, bulkBytes / 2);
+    }
+}
@@ -38,6 +38,7 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.locks.ReentrantLock;
 import javax.net.ssl.SSLContext;
 import lombok.RequiredArgsConstructor;
@@ -77,21 +78,29 @@ import org.elasticsearch.action.bulk.BulkRequest;
 import org.elasticsearch.action.bulk.BulkResponse;
 import org.elasticsearch.action.get.GetRequest;
 import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.action.get.MultiGetItemResponse;
+import org.elasticsearch.action.get.MultiGetRequest;
+import org.elasticsearch.action.get.MultiGetResponse;
 import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.action.support.ActiveShardCount;
 import org.elasticsearch.action.support.IndicesOptions;
+import org.elasticsearch.action.support.PlainActionFuture;
 import org.elasticsearch.action.support.WriteRequest;
 import org.elasticsearch.client.Response;
 import org.elasticsearch.client.RestClient;
 import org.elasticsearch.client.RestClientBuilder;
 import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.common.Strings;
 import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.xcontent.XContentBuilder;
 import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.index.IndexNotFoundException;
 import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.script.Script;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.search.fetch.subphase.FetchSourceContext;
 
 /**
  * ElasticSearchClient connects to the ES server by using ES client APIs.
@@ -403,6 +412,71 @@ public class ElasticSearchClient implements Client, HealthCheckable {
         }
     }
 
+    /**
+     * Get the documents by the IDs from their exact indices, rather than searching all indices of the alias. One
+     * multi get request is sent per index, and these requests are executed concurrently.
+     *
+     * @param idsOfIndex the IDs grouped by the index name.
+     * @param includes   the fields of the source to fetch.
+     * @return the sources of the existing documents. The documents of the non-existing indices are treated as
+     * non-existing.
+     */
+    public List<Map<String, Object>> multiGet(Map<String, List<String>> idsOfIndex,
+                                              String[] includes) throws IOException {
+        FetchSourceContext fetchSource = new FetchSourceContext(true, includes, Strings.EMPTY_ARRAY);
+        List<PlainActionFuture<MultiGetResponse>> futures = new ArrayList<>(idsOfIndex.size());
+        idsOfIndex.forEach((indexName, ids) -> {
+            String formattedName = formatIndexName(indexName);
+            MultiGetRequest request = new MultiGetRequest();
+            ids.forEach(id -> request.add(new MultiGetRequest.Item(formattedName, TYPE, id).fetchSourceContext(
+                fetchSource)));
+            PlainActionFuture<MultiGetResponse> future = PlainActionFuture.newFuture();
+            client.multiGetAsync(request, future);
+            futures.add(future);
+        });
+        return collectSources(futures);
+    }
+
+    protected List<Map<String, Object>> collectSources(
+        List<PlainActionFuture<MultiGetResponse>> futures) throws IOException {
+        List<Map<String, Object>> sources = new ArrayList<>();
+        try {
+            for (PlainActionFuture<MultiGetResponse> future : futures) {
+                for (MultiGetItemResponse item : future.get()) {
+                    if (item.isFailed()) {
+                        Exception failure = item.getFailure().getFailure();
+                        if (isIndexNotFound(failure)) {
+                            continue;
+                        }
+                        throw new IOException(failure.getMessage(), failure);
+                    }
+                    if (item.getResponse().isExists()) {
+                        sources.add(item.getResponse().getSourceAsMap());
+                    }
+                }
+            }
+            healthChecker.health();
+            return sources;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e.getMessage(), e);
+        } catch (ExecutionException e) {
+            healthChecker.unHealth(e.getCause());
+            throw new IOException(e.getCause().getMessage(), e.getCause());
+        } catch (IOException e) {
+            healthChecker.unHealth(e);
+            throw e;
+        }
+    }
+
+    /**
+     * The index of the time series could be not created yet, when nothing has been written into it.
+     */
+    private static boolean isIndexNotFound(Exception failure) {
+        return failure instanceof IndexNotFoundException
+            || String.valueOf(failure.getMessage()).contains("index_not_found_exception");
+    }
+
     public void forceInsert(String indexName, String id, XContentBuilder source) throws IOException {
         IndexRequest request = (IndexRequest) prepareInsert(indexName, id, source);
         request.setRefreshPolicy(WriteRequest.RefreshPolicy.IMMEDIATE);
@@ -438,6 +512,16 @@ public class ElasticSearchClient implements Client, HealthCheckable {
         return new ElasticSearchUpdateRequest(indexName, TYPE, id).doc(source);
     }
 
+    /**
+     * @return the request executes the script on the document, or indexes the upsert document if it doesn't exist.
+     */
+    public UpdateRequest prepareUpsert(String indexName, String id, Script script, XContentBuilder upsert) {
+        indexName = formatIndexName(indexName);
+        ElasticSearchUpdateRequest request = new ElasticSearchUpdateRequest(indexName, TYPE, id);
+        request.script(script).upsert(upsert);
+        return request;
+    }
+
     public int delete(String indexName, String timeBucketColumnName, long endTimeBucket) throws IOException {
         indexName = formatIndexName(indexName);
         Map<String, String> params = Collections.singletonMap("conflicts", "proceed");
@@ -450,17 +534,21 @@ public class ElasticSearchClient implements Client, HealthCheckable {
         return response.getStatusLine().getStatusCode();
     }
 
-    public void synchronousBulk(BulkRequest request) {
+    /**
+     * Execute the bulk of the synchronous persistence, which waits for the refresh and one active shard. The bulk
+     * response is returned to the caller to check the item failures.
+     */
+    public BulkResponse executeBulk(BulkRequest request) throws IOException {
         request.timeout(TimeValue.timeValueMinutes(2));
         request.setRefreshPolicy(WriteRequest.RefreshPolicy.WAIT_UNTIL);
         request.waitForActiveShards(ActiveShardCount.ONE);
         try {
-            int size = request.requests().size();
-            BulkResponse responses = client.bulk(request);
-            log.info("Synchronous bulk took time: {} millis, size: {}", responses.getTook().getMillis(), size);
+            BulkResponse response = client.bulk(request);
             healthChecker.health();
+            return response;
         } catch (Throwable t) {
             healthChecker.unHealth(t);
+            throw t;
         }
     }
 
@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.library.client.elasticsearch;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.elasticsearch.ElasticsearchStatusException;
+import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.action.index.IndexResponse;
+import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.rest.RestStatus;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AdaptiveBulkWriterTest {
+    private static final String INDEX = "metrics-20201018";
+
+    private final List<List<String>> executed = new ArrayList<>();
+    private final Map<String, Integer> items = new HashMap<>();
+
+    @Test
+    public void testRetryRejectedItemsOnly() {
+        AdaptiveBulkWriter writer = new AdaptiveBulkWriter(request -> {
+            List<String> ids = ids(request);
+            executed.add(ids);
+            BulkItemResponse[] responses = new BulkItemResponse[ids.size()];
+            for (int i = 0; i < ids.size(); i++) {
+                String id = ids.get(i);
+                if (executed.size() == 1 && "1".equals(id)) {
+                    responses[i] = failure(i, id, new EsRejectedExecutionException("rejected"));
+                } else if ("2".equals(id)) {
+                    responses[i] = failure(i, id, new IllegalArgumentException("mapping"));
+                } else {
+                    responses[i] = success(i, id);
+                }
+            }
+            return new BulkResponse(responses, 1);
+        }, 100, 1024 * 1024, 1000, 1);
+        writer.setListener(new CountingListener());
+
+        writer.write(requests(4));
+
+        Assert.assertEquals(2, executed.size());
+        Assert.assertEquals(4, executed.get(0).size());
+        Assert.assertEquals(1, executed.get(1).size());
+        Assert.assertEquals("1", executed.get(1).get(0));
+        Assert.assertEquals(3, items.get(AdaptiveBulkWriter.Result.WRITTEN.name()).intValue());
+        Assert.assertEquals(1, items.get(AdaptiveBulkWriter.Result.REJECTED.name()).intValue());
+        Assert.assertEquals(1, items.get(AdaptiveBulkWriter.Result.FAILED.name()).intValue());
+    }
+
+    @Test
+    public void testRetryRejectedBulk() {
+        AdaptiveBulkWriter writer = new AdaptiveBulkWriter(request -> {
+            List<String> ids = ids(request);
+            executed.add(ids);
+            if (executed.size() == 1) {
+                throw new ElasticsearchStatusException("rejected", RestStatus.TOO_MANY_REQUESTS);
+            }
+            BulkItemResponse[] responses = new BulkItemResponse[ids.size()];
+            for (int i = 0; i < ids.size(); i++) {
+                responses[i] = success(i, ids.get(i));
+            }
+            return new BulkResponse(responses, 1);
+        }, 100, 1024 * 1024, 1000, 1);
+
+        writer.write(requests(3));
+
+        Assert.assertEquals(2, executed.size());
+        Assert.assertEquals(executed.get(0), executed.get(1));
+    }
+
+    @Test
+    public void testSplitByActionsAndBytes() {
+        AdaptiveBulkWriter writer = new AdaptiveBulkWriter(request -> null, 10, 1024 * 1024, 1000, 1);
+        Assert.assertEquals(3, writer.split(requests(25)).size());
+
+        long requestBytes = new BulkRequest().add(new IndexRequest(INDEX, "type", "0").source(
+            "{}", XContentType.JSON)).estimatedSizeInBytes();
+        writer = new AdaptiveBulkWriter(request -> null, 100, requestBytes * 5 * 16, 1000, 1);
+        List<BulkRequest> bulks = writer.split(requests(25));
+        Assert.assertEquals(5, bulks.size());
+        bulks.forEach(bulk -> Assert.assertEquals(5, bulk.numberOfActions()));
+    }
+
+    @Test
+    public void testBulkSizeAdaptsToLatency() {
+        long[] latency = new long[] {0};
+        AdaptiveBulkWriter writer = new AdaptiveBulkWriter(request -> {
+            try {
+                Thread.sleep(latency[0]);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            List<String> ids = ids(request);
+            BulkItemResponse[] responses = new BulkItemResponse[ids.size()];
+            for (int i = 0; i < ids.size(); i++) {
+                responses[i] = success(i, ids.get(i));
+            }
+            return new BulkResponse(responses, 1);
+        }, 100, 1600, 50, 2);
+
+        long minBytes = writer.bulkBytes();
+        writer.write(requests(1));
+        writer.write(requests(1));
+        Assert.assertEquals(minBytes * 3, writer.bulkBytes());
+
+        latency[0] = 100;
+        writer.write(requests(1));
+        Assert.assertEquals(minBytes * 3 / 2, writer.bulkBytes());
+    }
+
+    private static List<DocWriteRequest<?>> requests(int size) {
+        List<DocWriteRequest<?>> requests = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            requests.add(new IndexRequest(INDEX, "type", String.valueOf(i)).source("{}", XContentType.JSON));
+        }
+        return requests;
+    }
+
+    private static List<String> ids(BulkRequest request) {
+        List<String> ids = new ArrayList<>();
+        for (DocWriteRequest<?> docWriteRequest : request.requests()) {
+            ids.add(docWriteRequest.id());
+        }
+        return ids;
+    }
+
+    private static BulkItemResponse success(int itemId, String id) {
+        return new BulkItemResponse(
+            itemId, DocWriteRequest.OpType.INDEX, new IndexResponse(new ShardId(INDEX, "_na_", 0), "type", id, 1, 1, 1,
+                                                                    true
+            ));
+    }
+
+    private static BulkItemResponse failure(int itemId, String id, Exception cause) {
+        return new BulkItemResponse(
+            itemId, DocWriteRequest.OpType.INDEX, new BulkItemResponse.Failure(INDEX, "type", id, cause));
+    }
+
+    private class CountingListener implements AdaptiveBulkWriter.Listener {
+        @Override
+        public void onItems(final String index, final AdaptiveBulkWriter.Result result, final int count) {
+            Assert.assertEquals(INDEX, index);
+            items.merge(result.name(), count, Integer::sum);
+        }
+    }
+}
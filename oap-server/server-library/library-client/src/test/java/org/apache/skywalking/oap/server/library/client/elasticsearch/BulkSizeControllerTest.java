@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.library.client.elasticsearch;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BulkSizeControllerTest {
+    @Test
+    public void testIncreaseWithinTargetLatency() {
+        BulkSizeController controller = new BulkSizeController(100, 300, 1000);
+        Assert.assertEquals(100, controller.bulkBytes());
+        controller.onCompleted(1000);
+        Assert.assertEquals(200, controller.bulkBytes());
+        controller.onCompleted(10);
+        controller.onCompleted(10);
+        Assert.assertEquals(300, controller.bulkBytes());
+    }
+
+    @Test
+    public void testDecreaseOnSlowOrRejectedBulk() {
+        BulkSizeController controller = new BulkSizeController(100, 1000, 1000);
+        for (int i = 0; i < 10; i++) {
+            controller.onCompleted(10);
+        }
+        Assert.assertEquals(1000, controller.bulkBytes());
+        controller.onCompleted(1001);
+        Assert.assertEquals(500, controller.bulkBytes());
+        controller.onRejected();
+        Assert.assertEquals(250, controller.bulkBytes());
+        controller.onRejected();
+        controller.onRejected();
+        Assert.assertEquals(100, controller.bulkBytes());
+    }
+}
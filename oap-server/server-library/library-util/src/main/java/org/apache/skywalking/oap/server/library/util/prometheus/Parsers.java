@@ -19,10 +19,18 @@
 package org.apache.skywalking.oap.server.library.util.prometheus;
 
 import java.io.InputStream;
+import java.util.function.Predicate;
 import org.apache.skywalking.oap.server.library.util.prometheus.parser.TextParser;
 
 public class Parsers {
     public static Parser text(final InputStream stream) {
         return new TextParser(stream);
     }
+
+    /**
+     * @param familyFilter accepts the names of the metric families to be parsed, the others are skipped.
+     */
+    public static Parser text(final InputStream stream, final Predicate<String> familyFilter) {
+        return new TextParser(stream, familyFilter);
+    }
 }
@@ -22,6 +22,7 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.function.Predicate;
 import org.apache.commons.text.StringEscapeUtils;
 import org.apache.skywalking.oap.server.library.util.prometheus.Parser;
 import org.apache.skywalking.oap.server.library.util.prometheus.metrics.MetricFamily;
@@ -35,10 +36,25 @@ public class TextParser implements Parser {
 
     private final BufferedReader reader;
 
+    /**
+     * Test the names of the metric families, the samples of the rejected families are skipped without being parsed.
+     */
+    private final Predicate<String> familyFilter;
+
     private String lastLineReadFromStream;
 
+    /**
+     * The name of the family being skipped.
+     */
+    private String skippedFamily;
+
     public TextParser(final InputStream inputStream) {
+        this(inputStream, name -> true);
+    }
+
+    public TextParser(final InputStream inputStream, final Predicate<String> familyFilter) {
         this.reader = new BufferedReader(new InputStreamReader(inputStream));
+        this.familyFilter = familyFilter;
     }
 
     @Override
@@ -82,7 +98,7 @@ public class TextParser implements Parser {
         }
         if (line.charAt(0) == '#') {
             String[] parts = line.split("[ \t]+", 4);
-            if (parts.length < 3) {
+            if (parts.length < 3 || parts[2].equals(skippedFamily)) {
                 return false;
             }
             if (parts[1].equals("HELP")) {
@@ -92,6 +108,9 @@ public class TextParser implements Parser {
                         return true;
                     }
                     ctx.clear();
+                    if (skip(parts[2])) {
+                        return false;
+                    }
                     ctx.name = parts[2];
                     ctx.type = MetricType.GAUGE;
                     ctx.allowedNames.add(parts[2]);
@@ -106,12 +125,20 @@ public class TextParser implements Parser {
                         return true;
                     }
                     ctx.clear();
+                    if (skip(parts[2])) {
+                        return false;
+                    }
                     ctx.name = parts[2];
                 }
                 ctx.addAllowedNames(parts[3]);
             }
             return false;
         }
+        if (skippedFamily != null) {
+            // The samples of other families always follow their own HELP or TYPE lines, and the untyped samples are
+            // ignored as there is no family being parsed.
+            return false;
+        }
         TextSample sample = TextSample.parse(line);
         if (!ctx.allowedNames.contains(sample.getName())) {
             if (!ctx.name.isEmpty()) {
@@ -125,4 +152,9 @@ public class TextParser implements Parser {
         }
         return false;
     }
+
+    private boolean skip(String family) {
+        skippedFamily = familyFilter.test(family) ? null : family;
+        return skippedFamily != null;
+    }
 }
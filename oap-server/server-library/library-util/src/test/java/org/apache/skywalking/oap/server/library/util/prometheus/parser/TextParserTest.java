@@ -127,4 +127,21 @@ public class TextParserTest {
             assertThat(mfNum , is(3));
         }
     }
+
+    @Test
+    public void parseTextWithFamilyFilter() throws IOException {
+        expectedMfs.removeIf(mf -> mf.getName().equals("http_request_duration_seconds"));
+        try (InputStream is = ResourceUtils.readToStream("testdata/prometheus.txt")) {
+            TextParser parser = new TextParser(is, name -> !name.equals("http_request_duration_seconds"));
+            MetricFamily mf;
+            int mfNum = 0;
+            while ((mf = parser.parse(now)) != null) {
+                mfNum++;
+                MetricFamily expected = expectedMfs.poll();
+                assertNotNull(expected);
+                assertThat(mf, is(expected));
+            }
+            assertThat(mfNum , is(2));
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.receiver.trace.provider;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.apache.skywalking.oap.server.library.module.ModuleConfig;
+
+@Setter
+@Getter
+public class TraceServiceModuleConfig extends ModuleConfig {
+    /**
+     * The percentage of the occupancy of the segment analysis queues, over which the gRPC segment collecting streams
+     * stop requesting the next segment until the occupancy drops. Work only when the asynchronous segment analysis is
+     * activated by `segmentAnalysisThreads`.
+     *
+     * @since 8.4.0
+     */
+    private int flowControlHighWatermark = 80;
+    /**
+     * The max time in milliseconds for which a segment collecting stream is paused by the flow control. The stream is
+     * resumed after that even the analysis queues are still above the high watermark, to avoid the agent timing out.
+     *
+     * @since 8.4.0
+     */
+    private long flowControlMaxPauseTime = 1000;
+    /**
+     * The sample rate sent to the agents which are paused by the flow control and report more segments than the
+     * average of all agents. The precision is 1/10000. 10000 means not sending the throttle command.
+     *
+     * @since 8.4.0
+     */
+    private int throttleSampleRate = 10000;
+    /**
+     * The duration in seconds of the throttle command.
+     *
+     * @since 8.4.0
+     */
+    private int throttleDuration = 60;
+}
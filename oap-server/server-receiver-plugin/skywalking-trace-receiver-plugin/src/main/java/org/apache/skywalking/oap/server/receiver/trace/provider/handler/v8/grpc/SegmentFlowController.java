@@ -0,0 +1,232 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.receiver.trace.provider.handler.v8.grpc;
+
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.skywalking.apm.network.common.v3.Commands;
+import org.apache.skywalking.apm.network.trace.component.command.SegmentReportThrottleCommand;
+import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
+import org.apache.skywalking.oap.server.core.command.CommandService;
+import org.apache.skywalking.oap.server.library.server.pool.CustomThreadFactory;
+import org.apache.skywalking.oap.server.receiver.trace.provider.TraceServiceModuleConfig;
+import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.HistogramMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsTag;
+
+/**
+ * SegmentFlowController controls the inbound flow of the gRPC segment collecting streams by the occupancy of the
+ * segment analysis queues. A stream requests the next segment only after the current one has been sent to the
+ * analysis, and holds the request while the occupancy is over the high watermark, so the segments stay in the agents,
+ * rather than being buffered by the gRPC server, when the OAP node is overloaded.
+ * <p>
+ * The segment ingest rate of every agent is measured in windows. When a paused stream completes, the agent reporting
+ * more segments than the average of all agents is asked to reduce its report by the {@link
+ * SegmentReportThrottleCommand}.
+ */
+@Slf4j
+public class SegmentFlowController {
+    /**
+     * The interval in milliseconds to check the occupancy again for the paused streams.
+     */
+    private static final long RESUME_CHECK_INTERVAL = 10;
+    /**
+     * The window in seconds of the agent ingest rate.
+     */
+    private static final long INGEST_RATE_WINDOW = 10;
+
+    private final DoubleSupplier occupancy;
+    private final double highWatermark;
+    private final long maxPauseTime;
+    private final int throttleSampleRate;
+    private final int throttleDuration;
+    private final CommandService commandService;
+    private final ScheduledExecutorService scheduler;
+    private final ConcurrentHashMap<String, LongAdder> ingestCounts = new ConcurrentHashMap<>();
+    private volatile Map<String, Double> ingestRates = Collections.emptyMap();
+    private volatile double averageIngestRate;
+    private final CounterMetrics pauseCounter;
+    private final CounterMetrics throttleCounter;
+    private final HistogramMetrics agentIngestRate;
+
+    /**
+     * @param occupancy the occupancy of the segment analysis queues, in [0, 1].
+     */
+    public SegmentFlowController(TraceServiceModuleConfig config, DoubleSupplier occupancy,
+                                 CommandService commandService, MetricsCreator metricsCreator) {
+        this.occupancy = occupancy;
+        this.highWatermark = config.getFlowControlHighWatermark() / 100D;
+        this.maxPauseTime = config.getFlowControlMaxPauseTime();
+        this.throttleSampleRate = config.getThrottleSampleRate();
+        this.throttleDuration = config.getThrottleDuration();
+        this.commandService = commandService;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new CustomThreadFactory("SegmentFlowControl"));
+
+        pauseCounter = metricsCreator.createCounter(
+            "trace_in_flow_control_pause_count",
+            "The number of the segment collecting streams paused by the flow control",
+            new MetricsTag.Keys("protocol"), new MetricsTag.Values("grpc")
+        );
+        throttleCounter = metricsCreator.createCounter(
+            "trace_in_throttle_command_count", "The number of the throttle commands sent to the agents",
+            new MetricsTag.Keys("protocol"), new MetricsTag.Values("grpc")
+        );
+        agentIngestRate = metricsCreator.createHistogramMetric(
+            "trace_in_agent_segment_rate", "The number of the segments per second reported by every agent",
+            new MetricsTag.Keys("protocol"), new MetricsTag.Values("grpc"),
+            1, 5, 10, 50, 100, 500, 1000, 5000, 10000
+        );
+    }
+
+    /**
+     * Start measuring the ingest rate of the agents.
+     */
+    public void start() {
+        scheduler.scheduleAtFixedRate(
+            new RunnableWithExceptionProtection(this::rollIngestRates, t -> log.error(
+                "Measure the agent ingest rate failure.", t)), INGEST_RATE_WINDOW, INGEST_RATE_WINDOW,
+            TimeUnit.SECONDS
+        );
+    }
+
+    /**
+     * Take over the inbound flow of the stream, and request the first segment.
+     */
+    public Stream open(StreamObserver<Commands> responseObserver) {
+        if (!(responseObserver instanceof ServerCallStreamObserver)) {
+            return new Stream(null);
+        }
+        final ServerCallStreamObserver<Commands> call = (ServerCallStreamObserver<Commands>) responseObserver;
+        call.disableAutoInboundFlowControl();
+        call.request(1);
+        return new Stream(call);
+    }
+
+    void rollIngestRates() {
+        final Map<String, Double> rates = new HashMap<>();
+        double total = 0;
+        for (final Map.Entry<String, LongAdder> entry : ingestCounts.entrySet()) {
+            final long count = entry.getValue().sumThenReset();
+            if (count == 0) {
+                ingestCounts.remove(entry.getKey(), entry.getValue());
+                continue;
+            }
+            final double rate = (double) count / INGEST_RATE_WINDOW;
+            agentIngestRate.observe(rate);
+            rates.put(entry.getKey(), rate);
+            total += rate;
+        }
+        averageIngestRate = rates.isEmpty() ? 0 : total / rates.size();
+        ingestRates = rates;
+    }
+
+    private boolean isAboveAverage(String agent) {
+        final Double rate = ingestRates.get(agent);
+        return rate != null && rate >= averageIngestRate;
+    }
+
+    /**
+     * Stream represents the flow control of one segment collecting stream, which is of one agent.
+     */
+    public class Stream {
+        private final ServerCallStreamObserver<Commands> call;
+        private volatile String agent;
+        /**
+         * True if the stream has been paused by the flow control.
+         */
+        private volatile boolean paused;
+        /**
+         * The time the current pause starts, 0 means the stream is not paused. It is accessed by the receiving thread
+         * and the scheduler one after the other.
+         */
+        private long pauseStartTime;
+
+        private Stream(ServerCallStreamObserver<Commands> call) {
+            this.call = call;
+        }
+
+        /**
+         * Count the received segment into the ingest rate of the agent.
+         */
+        public void received(String service, String serviceInstance) {
+            if (agent == null) {
+                agent = service + "|" + serviceInstance;
+            }
+            ingestCounts.computeIfAbsent(agent, key -> new LongAdder()).increment();
+        }
+
+        /**
+         * Request the next segment, or hold the request until the occupancy is under the high watermark or the max
+         * pause time is over.
+         */
+        public void requestNext() {
+            if (call == null || call.isCancelled()) {
+                return;
+            }
+            if (occupancy.getAsDouble() < highWatermark) {
+                pauseStartTime = 0;
+                call.request(1);
+                return;
+            }
+            final long now = System.currentTimeMillis();
+            if (pauseStartTime == 0) {
+                pauseStartTime = now;
+                paused = true;
+                pauseCounter.inc();
+            } else if (now - pauseStartTime >= maxPauseTime) {
+                pauseStartTime = 0;
+                call.request(1);
+                return;
+            }
+            scheduler.schedule(
+                new RunnableWithExceptionProtection(this::requestNext, t -> log.error(
+                    "Resume the segment collecting stream failure.", t)), RESUME_CHECK_INTERVAL, TimeUnit.MILLISECONDS);
+        }
+
+        /**
+         * @return the commands to the agent at the end of the stream, including the throttle command if the stream
+         * has been paused and the agent reports more segments than the average.
+         */
+        public Commands commands() {
+            final Commands.Builder builder = Commands.newBuilder();
+            if (paused && throttleSampleRate < 10000 && agent != null && isAboveAverage(agent)) {
+                builder.addCommands(
+                    commandService.newSegmentReportThrottleCommand(throttleSampleRate, throttleDuration)
+                                  .serialize()
+                                  .build());
+                throttleCounter.inc();
+                if (log.isDebugEnabled()) {
+                    log.debug("Throttle the segment report of {} by the sample rate {}", agent, throttleSampleRate);
+                }
+            }
+            return builder.build();
+        }
+    }
+}
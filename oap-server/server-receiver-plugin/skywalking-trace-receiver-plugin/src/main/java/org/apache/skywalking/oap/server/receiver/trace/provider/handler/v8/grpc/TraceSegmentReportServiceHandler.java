@@ -26,8 +26,11 @@ import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
 import org.apache.skywalking.apm.network.language.agent.v3.TraceSegmentReportServiceGrpc;
 import org.apache.skywalking.oap.server.analyzer.module.AnalyzerModule;
 import org.apache.skywalking.oap.server.analyzer.provider.trace.parser.ISegmentParserService;
+import org.apache.skywalking.oap.server.core.CoreModule;
+import org.apache.skywalking.oap.server.core.command.CommandService;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 import org.apache.skywalking.oap.server.library.server.grpc.GRPCHandler;
+import org.apache.skywalking.oap.server.receiver.trace.provider.TraceServiceModuleConfig;
 import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
 import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
 import org.apache.skywalking.oap.server.telemetry.api.HistogramMetrics;
@@ -41,8 +44,9 @@ public class TraceSegmentReportServiceHandler extends TraceSegmentReportServiceG
     private CounterMetrics errorCounter;
 
     private ISegmentParserService segmentParserService;
+    private final SegmentFlowController flowController;
 
-    public TraceSegmentReportServiceHandler(ModuleManager moduleManager) {
+    public TraceSegmentReportServiceHandler(ModuleManager moduleManager, TraceServiceModuleConfig config) {
         this.moduleManager = moduleManager;
         this.segmentParserService = moduleManager.find(AnalyzerModule.NAME)
                                                  .provider()
@@ -58,10 +62,18 @@ public class TraceSegmentReportServiceHandler extends TraceSegmentReportServiceG
         errorCounter = metricsCreator.createCounter("trace_analysis_error_count", "The error number of trace analysis",
                                                     new MetricsTag.Keys("protocol"), new MetricsTag.Values("grpc")
         );
+
+        CommandService commandService = moduleManager.find(CoreModule.NAME)
+                                                     .provider()
+                                                     .getService(CommandService.class);
+        flowController = new SegmentFlowController(
+            config, segmentParserService::analysisQueueOccupancy, commandService, metricsCreator);
+        flowController.start();
     }
 
     @Override
     public StreamObserver<SegmentObject> collect(StreamObserver<Commands> responseObserver) {
+        final SegmentFlowController.Stream stream = flowController.open(responseObserver);
         return new StreamObserver<SegmentObject>() {
             @Override
             public void onNext(SegmentObject segment) {
@@ -71,11 +83,13 @@ public class TraceSegmentReportServiceHandler extends TraceSegmentReportServiceG
 
                 HistogramMetrics.Timer timer = histogram.createTimer();
                 try {
+                    stream.received(segment.getService(), segment.getServiceInstance());
                     segmentParserService.send(segment);
                 } catch (Exception e) {
                     errorCounter.inc();
                 } finally {
                     timer.finish();
+                    stream.requestNext();
                 }
             }
 
@@ -87,7 +101,7 @@ public class TraceSegmentReportServiceHandler extends TraceSegmentReportServiceG
 
             @Override
             public void onCompleted() {
-                responseObserver.onNext(Commands.newBuilder().build());
+                responseObserver.onNext(stream.commands());
                 responseObserver.onCompleted();
             }
         };
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.receiver.trace.provider.handler.v8.grpc;
+
+import io.grpc.stub.ServerCallStreamObserver;
+import org.apache.skywalking.apm.network.common.v3.Commands;
+import org.apache.skywalking.apm.network.trace.component.command.SegmentReportThrottleCommand;
+import org.apache.skywalking.oap.server.core.command.CommandService;
+import org.apache.skywalking.oap.server.receiver.trace.provider.TraceServiceModuleConfig;
+import org.apache.skywalking.oap.server.telemetry.none.MetricsCreatorNoop;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SegmentFlowControllerTest {
+    private TraceServiceModuleConfig config;
+    private volatile double occupancy;
+
+    @Before
+    public void setup() {
+        config = new TraceServiceModuleConfig();
+        config.setFlowControlHighWatermark(80);
+        config.setFlowControlMaxPauseTime(60_000);
+        config.setThrottleSampleRate(5000);
+        config.setThrottleDuration(30);
+        occupancy = 0;
+    }
+
+    @Test
+    public void testRequestNextUnderWatermark() {
+        final ServerCallStreamObserver<Commands> call = mockCall();
+        final SegmentFlowController.Stream stream = newController().open(call);
+        verify(call).disableAutoInboundFlowControl();
+        verify(call, times(1)).request(1);
+
+        stream.received("service", "instance");
+        stream.requestNext();
+        verify(call, times(2)).request(1);
+        Assert.assertEquals(0, stream.commands().getCommandsCount());
+    }
+
+    @Test
+    public void testPauseOverWatermark() {
+        final ServerCallStreamObserver<Commands> call = mockCall();
+        final SegmentFlowController.Stream stream = newController().open(call);
+
+        occupancy = 0.9;
+        stream.requestNext();
+        verify(call, times(1)).request(1);
+
+        occupancy = 0.5;
+        verify(call, timeout(1000).times(2)).request(1);
+    }
+
+    @Test
+    public void testResumeAfterMaxPauseTime() {
+        config.setFlowControlMaxPauseTime(50);
+        final ServerCallStreamObserver<Commands> call = mockCall();
+        final SegmentFlowController.Stream stream = newController().open(call);
+
+        occupancy = 1;
+        stream.requestNext();
+        verify(call, timeout(1000).times(2)).request(1);
+    }
+
+    @Test
+    public void testThrottleAboveAverageAgent() {
+        final SegmentFlowController controller = newController();
+        final SegmentFlowController.Stream heavy = controller.open(mockCall());
+        final SegmentFlowController.Stream light = controller.open(mockCall());
+        for (int i = 0; i < 100; i++) {
+            heavy.received("service", "heavy");
+        }
+        light.received("service", "light");
+        controller.rollIngestRates();
+
+        occupancy = 1;
+        heavy.requestNext();
+        light.requestNext();
+
+        final Commands commands = heavy.commands();
+        Assert.assertEquals(1, commands.getCommandsCount());
+        Assert.assertEquals(SegmentReportThrottleCommand.NAME, commands.getCommands(0).getCommand());
+        Assert.assertEquals(0, light.commands().getCommandsCount());
+    }
+
+    @Test
+    public void testNotThrottleWhenDisabled() {
+        config.setThrottleSampleRate(10000);
+        final SegmentFlowController controller = newController();
+        final SegmentFlowController.Stream stream = controller.open(mockCall());
+        stream.received("service", "instance");
+        controller.rollIngestRates();
+
+        occupancy = 1;
+        stream.requestNext();
+        Assert.assertEquals(0, stream.commands().getCommandsCount());
+    }
+
+    @Test
+    public void testStopRequestingCancelledStream() {
+        final ServerCallStreamObserver<Commands> call = mockCall();
+        final SegmentFlowController.Stream stream = newController().open(call);
+        when(call.isCancelled()).thenReturn(true);
+        stream.requestNext();
+        verify(call, times(1)).request(1);
+    }
+
+    private SegmentFlowController newController() {
+        return new SegmentFlowController(config, () -> occupancy, new CommandService(null), new MetricsCreatorNoop());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ServerCallStreamObserver<Commands> mockCall() {
+        return mock(ServerCallStreamObserver.class);
+    }
+}
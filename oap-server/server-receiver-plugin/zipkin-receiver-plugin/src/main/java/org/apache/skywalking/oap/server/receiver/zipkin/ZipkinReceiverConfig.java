@@ -36,4 +36,12 @@ public class ZipkinReceiverConfig extends ModuleConfig {
     private int expireTime = 20;
     private int maxCacheSize = 1_000_000;
     private boolean needAnalysis = false;
+    /**
+     * The number of the shards assembling the spans into traces, 0 means the number of the CPU cores.
+     */
+    private int spanCacheShards = 0;
+    /**
+     * The number of the threads transferring the finished traces, 0 means the number of the CPU cores.
+     */
+    private int traceTransferThreads = 0;
 }
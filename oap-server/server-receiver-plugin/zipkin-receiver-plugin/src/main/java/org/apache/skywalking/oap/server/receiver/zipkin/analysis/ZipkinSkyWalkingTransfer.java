@@ -27,7 +27,7 @@ public class ZipkinSkyWalkingTransfer {
     public void doTransfer(ZipkinReceiverConfig config, List<Span> spanList) {
         spanList.forEach(span -> {
             // In Zipkin, the local service name represents the application owner.
-            CacheFactory.INSTANCE.get(config).addSpan(span);
+            CacheFactory.INSTANCE.get().addSpan(span);
         });
     }
 }
@@ -19,7 +19,8 @@
 package org.apache.skywalking.oap.server.receiver.zipkin.analysis.cache;
 
 import org.apache.skywalking.oap.server.receiver.zipkin.ZipkinReceiverConfig;
-import org.apache.skywalking.oap.server.receiver.zipkin.analysis.cache.caffeine.CaffeineSpanCache;
+import org.apache.skywalking.oap.server.receiver.zipkin.analysis.cache.sharded.ShardedSpanCache;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
 
 public class CacheFactory {
     public static final CacheFactory INSTANCE = new CacheFactory();
@@ -29,14 +30,15 @@ public class CacheFactory {
     private CacheFactory() {
     }
 
-    public ISpanCache get(ZipkinReceiverConfig config) {
-        if (implementor == null) {
-            synchronized (INSTANCE) {
-                if (implementor == null) {
-                    implementor = new CaffeineSpanCache(config);
-                }
+    public void init(ZipkinReceiverConfig config, MetricsCreator metricsCreator) {
+        synchronized (INSTANCE) {
+            if (implementor == null) {
+                implementor = new ShardedSpanCache(config, metricsCreator);
             }
         }
+    }
+
+    public ISpanCache get() {
         return implementor;
     }
 }
@@ -0,0 +1,278 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.receiver.zipkin.analysis.cache.sharded;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.skywalking.oap.server.library.server.pool.CustomThreadFactory;
+import org.apache.skywalking.oap.server.receiver.zipkin.ZipkinReceiverConfig;
+import org.apache.skywalking.oap.server.receiver.zipkin.analysis.cache.ISpanCache;
+import org.apache.skywalking.oap.server.receiver.zipkin.analysis.data.ZipkinTrace;
+import org.apache.skywalking.oap.server.receiver.zipkin.analysis.transform.Zipkin2SkyWalkingTransfer;
+import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.GaugeMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.HistogramMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsTag;
+import zipkin2.Span;
+
+/**
+ * The spans are assembled into the traces in the shards by the trace id. A trace is finished when no span of it has
+ * been added in the expire time, which is checked by a timer wheel of one second ticks, and the finished traces are
+ * transferred in the worker pool.
+ *
+ * When the assembling traces reach the max cache size, the span of a new trace is transferred as a trace of its own.
+ */
+@Slf4j
+public class ShardedSpanCache implements ISpanCache {
+    private static final long TICK_MILLIS = 1000L;
+    private static final int TRANSFER_QUEUE_SIZE = 10000;
+
+    private final Shard[] shards;
+    private final long expireMillis;
+    private final int wheelSize;
+    private final int maxCacheSize;
+    private final AtomicInteger traceCount = new AtomicInteger();
+    private final TraceTransfer transfer;
+    private final ThreadPoolExecutor transferPool;
+    /**
+     * The last processed tick, only touched by the timer thread.
+     */
+    private long lastTick;
+
+    private final CounterMetrics spanCounter;
+    private final CounterMetrics completeTraceCounter;
+    private final CounterMetrics incompleteTraceCounter;
+    private final CounterMetrics transferErrorCounter;
+    private final GaugeMetrics assemblingTraceGauge;
+    private final HistogramMetrics transferLatency;
+
+    public ShardedSpanCache(ZipkinReceiverConfig config, MetricsCreator metricsCreator) {
+        this(config, metricsCreator, Zipkin2SkyWalkingTransfer.INSTANCE::transfer);
+        Executors.newSingleThreadScheduledExecutor(new CustomThreadFactory("ZipkinTraceTimer"))
+                 .scheduleAtFixedRate(this::tick, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    ShardedSpanCache(ZipkinReceiverConfig config, MetricsCreator metricsCreator, TraceTransfer transfer) {
+        final int processors = Runtime.getRuntime().availableProcessors();
+        final int shardsNum = config.getSpanCacheShards() > 0 ? config.getSpanCacheShards() : processors;
+        final int transferThreads = config.getTraceTransferThreads() > 0 ? config.getTraceTransferThreads() : processors;
+
+        this.expireMillis = config.getExpireTime() * TICK_MILLIS;
+        // The deadline of a trace is at most expireTime + 1 ticks ahead, so it never wraps around the wheel.
+        this.wheelSize = config.getExpireTime() + 2;
+        this.maxCacheSize = config.getMaxCacheSize();
+        this.shards = new Shard[shardsNum];
+        for (int i = 0; i < shardsNum; i++) {
+            shards[i] = new Shard(wheelSize);
+        }
+        this.transfer = transfer;
+        // The timer thread transfers the traces itself when the pool is full, which delays the next ticks.
+        this.transferPool = new ThreadPoolExecutor(transferThreads, transferThreads,
+                                                   60, TimeUnit.SECONDS,
+                                                   new ArrayBlockingQueue<>(TRANSFER_QUEUE_SIZE),
+                                                   new CustomThreadFactory("ZipkinTraceTransfer"),
+                                                   new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+        this.lastTick = System.currentTimeMillis() / TICK_MILLIS;
+
+        spanCounter = metricsCreator.createCounter(
+            "zipkin_span_in_count", "The number of the zipkin spans received for analysis",
+            MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE
+        );
+        completeTraceCounter = metricsCreator.createCounter(
+            "zipkin_trace_out_count", "The number of the assembled zipkin traces",
+            new MetricsTag.Keys("complete"), new MetricsTag.Values("true")
+        );
+        incompleteTraceCounter = metricsCreator.createCounter(
+            "zipkin_trace_out_count", "The number of the assembled zipkin traces",
+            new MetricsTag.Keys("complete"), new MetricsTag.Values("false")
+        );
+        transferErrorCounter = metricsCreator.createCounter(
+            "zipkin_trace_transfer_error_count", "The error number of the zipkin trace transfer",
+            MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE
+        );
+        assemblingTraceGauge = metricsCreator.createGauge(
+            "zipkin_trace_assembling_count", "The number of the zipkin traces in assembling",
+            MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE
+        );
+        transferLatency = metricsCreator.createHistogramMetric(
+            "zipkin_trace_transfer_latency", "The latency of the zipkin trace transfer",
+            MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE
+        );
+    }
+
+    @Override
+    public void addSpan(Span span) {
+        spanCounter.inc();
+        final String traceId = span.traceId();
+        final Shard shard = shards[(traceId.hashCode() & Integer.MAX_VALUE) % shards.length];
+        while (true) {
+            TraceEntry entry = shard.traces.get(traceId);
+            if (entry == null) {
+                if (traceCount.get() >= maxCacheSize) {
+                    final ZipkinTrace trace = new ZipkinTrace();
+                    trace.addSpan(span);
+                    handOff(trace);
+                    return;
+                }
+                entry = shard.traces.computeIfAbsent(traceId, id -> newEntry(shard, id));
+            }
+            if (entry.trace.addSpan(span)) {
+                entry.lastWriteTime = System.currentTimeMillis();
+                return;
+            }
+            // The trace has been finished by the timer, the span begins a new one.
+        }
+    }
+
+    private TraceEntry newEntry(Shard shard, String traceId) {
+        traceCount.incrementAndGet();
+        assemblingTraceGauge.inc();
+        final TraceEntry entry = new TraceEntry(traceId, System.currentTimeMillis());
+        schedule(shard, entry);
+        return entry;
+    }
+
+    private void schedule(Shard shard, TraceEntry entry) {
+        final long deadlineTick = (entry.lastWriteTime + expireMillis) / TICK_MILLIS + 1;
+        shard.wheel[(int) (deadlineTick % wheelSize)].offer(entry);
+    }
+
+    /**
+     * Finish the traces of the passed ticks, and reschedule the traces written since they were scheduled.
+     */
+    void tick() {
+        try {
+            final long now = System.currentTimeMillis();
+            final long currentTick = now / TICK_MILLIS;
+            while (lastTick < currentTick) {
+                lastTick++;
+                final int slot = (int) (lastTick % wheelSize);
+                for (final Shard shard : shards) {
+                    final List<TraceEntry> dueEntries = new ArrayList<>();
+                    TraceEntry entry;
+                    while ((entry = shard.wheel[slot].poll()) != null) {
+                        dueEntries.add(entry);
+                    }
+                    for (final TraceEntry dueEntry : dueEntries) {
+                        if (dueEntry.lastWriteTime + expireMillis > now) {
+                            schedule(shard, dueEntry);
+                        } else {
+                            finish(shard, dueEntry);
+                        }
+                    }
+                }
+            }
+        } catch (Throwable t) {
+            log.error("Failed to finish the zipkin traces.", t);
+        }
+    }
+
+    private void finish(Shard shard, TraceEntry entry) {
+        shard.traces.remove(entry.traceId, entry);
+        entry.trace.close();
+        traceCount.decrementAndGet();
+        assemblingTraceGauge.dec();
+        handOff(entry.trace);
+    }
+
+    private void handOff(ZipkinTrace trace) {
+        transferPool.execute(() -> {
+            final HistogramMetrics.Timer timer = transferLatency.createTimer();
+            try {
+                if (isComplete(trace.getSpans())) {
+                    completeTraceCounter.inc();
+                } else {
+                    incompleteTraceCounter.inc();
+                }
+                transfer.transfer(trace);
+            } catch (Exception e) {
+                transferErrorCounter.inc();
+                log.error(e.getMessage(), e);
+                log.warn("Zipkin trace:" + trace);
+            } finally {
+                timer.finish();
+            }
+        });
+    }
+
+    /**
+     * @return true if the trace has the root span, and the parents of all the other spans.
+     */
+    static boolean isComplete(List<Span> spans) {
+        final Set<String> spanIds = new HashSet<>(spans.size());
+        for (final Span span : spans) {
+            spanIds.add(span.id());
+        }
+        boolean hasRoot = false;
+        for (final Span span : spans) {
+            if (span.parentId() == null) {
+                hasRoot = true;
+            } else if (!spanIds.contains(span.parentId())) {
+                return false;
+            }
+        }
+        return hasRoot;
+    }
+
+    /**
+     * Transfer the finished trace to the SkyWalking segments.
+     */
+    @FunctionalInterface
+    interface TraceTransfer {
+        void transfer(ZipkinTrace trace) throws Exception;
+    }
+
+    private static class Shard {
+        private final Map<String, TraceEntry> traces = new ConcurrentHashMap<>();
+        private final Queue<TraceEntry>[] wheel;
+
+        @SuppressWarnings("unchecked")
+        private Shard(int wheelSize) {
+            wheel = new Queue[wheelSize];
+            for (int i = 0; i < wheelSize; i++) {
+                wheel[i] = new ConcurrentLinkedQueue<>();
+            }
+        }
+    }
+
+    private static class TraceEntry {
+        private final String traceId;
+        private final ZipkinTrace trace = new ZipkinTrace();
+        private volatile long lastWriteTime;
+
+        private TraceEntry(String traceId, long lastWriteTime) {
+            this.traceId = traceId;
+            this.lastWriteTime = lastWriteTime;
+        }
+    }
+}
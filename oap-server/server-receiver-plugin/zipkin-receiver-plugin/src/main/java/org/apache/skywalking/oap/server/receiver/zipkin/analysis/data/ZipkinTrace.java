@@ -26,16 +26,36 @@ import zipkin2.Span;
 public class ZipkinTrace {
     private List<Span> spans;
     private ReentrantLock spanWriteLock;
+    private boolean closed = false;
 
     public ZipkinTrace() {
         spans = new LinkedList<>();
         spanWriteLock = new ReentrantLock();
     }
 
-    public void addSpan(Span span) {
+    /**
+     * @return false if the trace has been closed, the span isn't added.
+     */
+    public boolean addSpan(Span span) {
         spanWriteLock.lock();
         try {
+            if (closed) {
+                return false;
+            }
             spans.add(span);
+            return true;
+        } finally {
+            spanWriteLock.unlock();
+        }
+    }
+
+    /**
+     * Close the trace, no span could be added since then.
+     */
+    public void close() {
+        spanWriteLock.lock();
+        try {
+            closed = true;
         } finally {
             spanWriteLock.unlock();
         }
@@ -49,8 +69,4 @@ public class ZipkinTrace {
     public String toString() {
         return "ZipkinTrace{" + "spans=" + spans + '}';
     }
-
-    public static class TriggerTrace extends ZipkinTrace {
-
-    }
 }
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.receiver.zipkin.analysis.cache.sharded;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.oap.server.receiver.zipkin.ZipkinReceiverConfig;
+import org.apache.skywalking.oap.server.receiver.zipkin.analysis.data.ZipkinTrace;
+import org.apache.skywalking.oap.server.telemetry.none.MetricsCreatorNoop;
+import org.junit.Assert;
+import org.junit.Test;
+import zipkin2.Span;
+
+public class ShardedSpanCacheTest {
+    private static final int TRACE_NUM = 100;
+    private static final int SPAN_NUM = 10;
+
+    @Test
+    public void assembleTracesConcurrently() throws InterruptedException {
+        ZipkinReceiverConfig config = new ZipkinReceiverConfig();
+        config.setExpireTime(1);
+        config.setSpanCacheShards(4);
+        config.setTraceTransferThreads(2);
+
+        Map<String, ZipkinTrace> transferred = new ConcurrentHashMap<>();
+        CountDownLatch latch = new CountDownLatch(TRACE_NUM);
+        ShardedSpanCache cache = new ShardedSpanCache(config, new MetricsCreatorNoop(), trace -> {
+            transferred.put(trace.getSpans().get(0).traceId(), trace);
+            latch.countDown();
+        });
+
+        List<Thread> threads = new ArrayList<>();
+        for (int spanIndex = 0; spanIndex < SPAN_NUM; spanIndex++) {
+            final int index = spanIndex;
+            threads.add(new Thread(() -> {
+                for (int traceIndex = 0; traceIndex < TRACE_NUM; traceIndex++) {
+                    cache.addSpan(span(traceIndex, index));
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        while (latch.getCount() > 0 && System.currentTimeMillis() < deadline) {
+            cache.tick();
+            latch.await(100, TimeUnit.MILLISECONDS);
+        }
+        Assert.assertEquals(TRACE_NUM, transferred.size());
+        for (ZipkinTrace trace : transferred.values()) {
+            Assert.assertEquals(SPAN_NUM, trace.getSpans().size());
+            Assert.assertTrue(ShardedSpanCache.isComplete(trace.getSpans()));
+        }
+    }
+
+    @Test
+    public void completeness() {
+        Span root = span(0, 0);
+        Span child = span(0, 1);
+        Assert.assertTrue(ShardedSpanCache.isComplete(Arrays.asList(root, child)));
+        Assert.assertFalse(ShardedSpanCache.isComplete(Arrays.asList(child)));
+    }
+
+    private static Span span(int traceIndex, int spanIndex) {
+        Span.Builder builder = Span.newBuilder()
+                                   .traceId(Long.toHexString(traceIndex + 1))
+                                   .id(Long.toHexString(spanIndex + 1));
+        if (spanIndex > 0) {
+            builder.parentId(Long.toHexString(1));
+        }
+        return builder.build();
+    }
+}
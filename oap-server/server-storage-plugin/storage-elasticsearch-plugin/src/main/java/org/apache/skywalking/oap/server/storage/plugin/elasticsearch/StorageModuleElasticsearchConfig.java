@@ -55,6 +55,20 @@ public class StorageModuleElasticsearchConfig extends ModuleConfig {
     private int syncBulkActions = 50000;
     private int flushInterval = 10;
     private int concurrentRequests = 2;
+    /**
+     * @since 8.4.0 The max size of the bulk of the synchronous persistence in MB. The bulk size starts from 1/16 of it,
+     * increases while the bulks complete within the {@link #syncBulkTargetLatency}, and halves once a bulk is slower
+     * than that or rejected by the Elasticsearch.
+     */
+    private int syncBulkMaxSizeInMB = 16;
+    /**
+     * @since 8.4.0 The target latency of the bulk of the synchronous persistence in milliseconds.
+     */
+    private int syncBulkTargetLatency = 1000;
+    /**
+     * @since 8.4.0 The number of the bulks of the synchronous persistence executed concurrently.
+     */
+    private int syncConcurrentRequests = 2;
     /**
      * @since 7.0.0 This could be managed inside {@link #secretsManagementFile}
      */
@@ -76,5 +90,10 @@ public class StorageModuleElasticsearchConfig extends ModuleConfig {
     private int metadataQueryMaxSize = 5000;
     private int segmentQueryMaxSize = 200;
     private int profileTaskQueryMaxSize = 200;
+    /**
+     * @since 8.4.0 Store the complex objects of metrics, such as histogram and percentile values, in the compact format.
+     * The data in both formats could be read, but the compact format can't be read by the previous releases.
+     */
+    private boolean compactComplexObject = false;
     private String advanced;
 }
@@ -51,6 +51,7 @@ import org.apache.skywalking.oap.server.core.storage.query.ITopologyQueryDAO;
 import org.apache.skywalking.oap.server.core.storage.query.ITraceQueryDAO;
 import org.apache.skywalking.oap.server.library.client.elasticsearch.ElasticSearchClient;
 import org.apache.skywalking.oap.server.library.client.elasticsearch.IndexNameConverter;
+import org.apache.skywalking.oap.server.library.client.elasticsearch.AdaptiveBulkWriter;
 import org.apache.skywalking.oap.server.library.module.ModuleConfig;
 import org.apache.skywalking.oap.server.library.module.ModuleDefine;
 import org.apache.skywalking.oap.server.library.module.ModuleProvider;
@@ -58,6 +59,7 @@ import org.apache.skywalking.oap.server.library.module.ModuleStartException;
 import org.apache.skywalking.oap.server.library.module.ServiceNotProvidedException;
 import org.apache.skywalking.oap.server.library.util.MultipleFilesChangeMonitor;
 import org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base.BatchProcessEsDAO;
+import org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base.BulkWriterTelemetry;
 import org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base.HistoryDeleteEsDAO;
 import org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base.StorageEsDAO;
 import org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base.StorageEsInstaller;
@@ -88,6 +90,7 @@ public class StorageModuleElasticsearchProvider extends ModuleProvider {
 
     protected final StorageModuleElasticsearchConfig config;
     protected ElasticSearchClient elasticSearchClient;
+    protected AdaptiveBulkWriter syncBulkWriter;
 
     public StorageModuleElasticsearchProvider() {
         super();
@@ -157,10 +160,15 @@ public class StorageModuleElasticsearchProvider extends ModuleProvider {
             indexNameConverters(config.getNameSpace())
         );
 
+        syncBulkWriter = new AdaptiveBulkWriter(
+            elasticSearchClient::executeBulk, config.getSyncBulkActions(), config.getSyncBulkMaxSizeInMB() * 1024L * 1024L,
+            config.getSyncBulkTargetLatency(), config.getSyncConcurrentRequests()
+        );
         this.registerServiceImplementation(
-            IBatchDAO.class, new BatchProcessEsDAO(elasticSearchClient, config.getBulkActions(), config.getSyncBulkActions(), config
-                .getFlushInterval(), config.getConcurrentRequests()));
-        this.registerServiceImplementation(StorageDAO.class, new StorageEsDAO(elasticSearchClient));
+            IBatchDAO.class, new BatchProcessEsDAO(elasticSearchClient, config.getBulkActions(), config.getFlushInterval(),
+                                                   config.getConcurrentRequests(), syncBulkWriter
+            ));
+        this.registerServiceImplementation(StorageDAO.class, new StorageEsDAO(elasticSearchClient, config.isCompactComplexObject()));
         this.registerServiceImplementation(
             IHistoryDeleteDAO.class, new HistoryDeleteEsDAO(elasticSearchClient));
         this.registerServiceImplementation(
@@ -198,6 +206,7 @@ public class StorageModuleElasticsearchProvider extends ModuleProvider {
         HealthCheckMetrics healthChecker = metricCreator.createHealthCheckerGauge(
             "storage_elasticsearch", MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE);
         elasticSearchClient.registerChecker(healthChecker);
+        syncBulkWriter.setListener(new BulkWriterTelemetry(metricCreator));
         try {
             elasticSearchClient.connect();
             StorageEsInstaller installer = new StorageEsInstaller(elasticSearchClient, getManager(), config);
@@ -18,37 +18,38 @@
 
 package org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base;
 
+import java.util.ArrayList;
 import java.util.List;
 
-import com.google.common.collect.Lists;
 import org.apache.skywalking.oap.server.core.storage.IBatchDAO;
+import org.apache.skywalking.oap.server.library.client.elasticsearch.AdaptiveBulkWriter;
 import org.apache.skywalking.oap.server.library.client.elasticsearch.ElasticSearchClient;
 import org.apache.skywalking.oap.server.library.client.request.InsertRequest;
 import org.apache.skywalking.oap.server.library.client.request.PrepareRequest;
 import org.apache.skywalking.oap.server.library.util.CollectionUtils;
+import org.elasticsearch.action.DocWriteRequest;
 import org.elasticsearch.action.bulk.BulkProcessor;
-import org.elasticsearch.action.bulk.BulkRequest;
 import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.action.update.UpdateRequest;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 public class BatchProcessEsDAO extends EsDAO implements IBatchDAO {
 
-    private static final Logger LOGGER = LoggerFactory.getLogger(BatchProcessEsDAO.class);
-
     private BulkProcessor bulkProcessor;
     private final int bulkActions;
-    private final int syncBulkActions;
     private final int flushInterval;
     private final int concurrentRequests;
+    private final AdaptiveBulkWriter syncBulkWriter;
 
-    public BatchProcessEsDAO(ElasticSearchClient client, int bulkActions, int syncBulkActions, int flushInterval, int concurrentRequests) {
+    /**
+     * @param syncBulkWriter writes the requests of the synchronous persistence in the adaptive size bulks.
+     */
+    public BatchProcessEsDAO(ElasticSearchClient client, int bulkActions, int flushInterval, int concurrentRequests,
+                             AdaptiveBulkWriter syncBulkWriter) {
         super(client);
         this.bulkActions = bulkActions;
-        this.syncBulkActions = syncBulkActions;
         this.flushInterval = flushInterval;
         this.concurrentRequests = concurrentRequests;
+        this.syncBulkWriter = syncBulkWriter;
     }
 
     @Override
@@ -63,20 +64,15 @@ public class BatchProcessEsDAO extends EsDAO implements IBatchDAO {
     @Override
     public void synchronous(List<PrepareRequest> prepareRequests) {
         if (CollectionUtils.isNotEmpty(prepareRequests)) {
-            List<List<PrepareRequest>> partitions = Lists.partition(prepareRequests, syncBulkActions);
-
-            for (List<PrepareRequest> partition : partitions) {
-                BulkRequest request = new BulkRequest();
-
-                for (PrepareRequest prepareRequest : partition) {
-                    if (prepareRequest instanceof InsertRequest) {
-                        request.add((IndexRequest) prepareRequest);
-                    } else {
-                        request.add((UpdateRequest) prepareRequest);
-                    }
+            List<DocWriteRequest<?>> requests = new ArrayList<>(prepareRequests.size());
+            for (PrepareRequest prepareRequest : prepareRequests) {
+                if (prepareRequest instanceof InsertRequest) {
+                    requests.add((IndexRequest) prepareRequest);
+                } else {
+                    requests.add((UpdateRequest) prepareRequest);
                 }
-                getClient().synchronousBulk(request);
             }
+            syncBulkWriter.write(requests);
         }
     }
 }
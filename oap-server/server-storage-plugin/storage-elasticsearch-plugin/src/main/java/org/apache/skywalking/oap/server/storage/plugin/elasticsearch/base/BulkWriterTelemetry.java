@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import org.apache.skywalking.oap.server.library.client.elasticsearch.AdaptiveBulkWriter;
+import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.GaugeMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.HistogramMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsTag;
+
+/**
+ * BulkWriterTelemetry exposes the statistics of the {@link AdaptiveBulkWriter} through the telemetry. The items are
+ * counted per index and result, with the time series suffix of the index removed to keep the number of counters
+ * bounded.
+ */
+public class BulkWriterTelemetry implements AdaptiveBulkWriter.Listener {
+    private static final Pattern TIME_SERIES_SUFFIX = Pattern.compile("-\\d{8}$");
+    private static final MetricsTag.Keys ITEM_TAG_KEYS = new MetricsTag.Keys("index", "result");
+
+    private final MetricsCreator metricsCreator;
+    private final HistogramMetrics bulkLatency;
+    private final GaugeMetrics bulkSize;
+    private final Map<String, CounterMetrics> itemCounters = new ConcurrentHashMap<>();
+
+    public BulkWriterTelemetry(MetricsCreator metricsCreator) {
+        this.metricsCreator = metricsCreator;
+        this.bulkLatency = metricsCreator.createHistogramMetric(
+            "elasticsearch_sync_bulk_latency", "Latency of the bulks of the synchronous persistence",
+            MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE
+        );
+        this.bulkSize = metricsCreator.createGauge(
+            "elasticsearch_sync_bulk_size", "The size in bytes of the next bulks of the synchronous persistence",
+            MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE
+        );
+    }
+
+    @Override
+    public void onBulk(final long latency, final long bulkBytes, final long nextBulkBytes) {
+        bulkLatency.observe(latency / 1000D);
+        bulkSize.setValue(nextBulkBytes);
+    }
+
+    @Override
+    public void onItems(final String index, final AdaptiveBulkWriter.Result result, final int count) {
+        String indexName = TIME_SERIES_SUFFIX.matcher(index).replaceFirst("");
+        String resultName = result.name().toLowerCase();
+        itemCounters.computeIfAbsent(indexName + "/" + resultName, key -> metricsCreator.createCounter(
+            "elasticsearch_sync_bulk_items", "The number of the items of the synchronous persistence bulks",
+            ITEM_TAG_KEYS, new MetricsTag.Values(indexName, resultName)
+        )).inc(count);
+    }
+}
@@ -34,12 +34,22 @@ public abstract class EsDAO extends AbstractDAO<ElasticSearchClient> {
     }
 
     protected XContentBuilder map2builder(Map<String, Object> objectMap) throws IOException {
+        return map2builder(objectMap, false);
+    }
+
+    /**
+     * @param compactComplexObject true to use {@link StorageDataComplexObject#toCompactStorageData()}.
+     */
+    protected XContentBuilder map2builder(Map<String, Object> objectMap,
+                                          boolean compactComplexObject) throws IOException {
         XContentBuilder builder = XContentFactory.jsonBuilder().startObject();
         for (Map.Entry<String, Object> entries: objectMap.entrySet()) {
             Object value = entries.getValue();
             String key = entries.getKey();
             if (value instanceof StorageDataComplexObject) {
-                builder.field(key, ((StorageDataComplexObject) value).toStorageData());
+                final StorageDataComplexObject complexObject = (StorageDataComplexObject) value;
+                builder.field(
+                    key, compactComplexObject ? complexObject.toCompactStorageData() : complexObject.toStorageData());
             } else {
                 builder.field(key, value);
             }
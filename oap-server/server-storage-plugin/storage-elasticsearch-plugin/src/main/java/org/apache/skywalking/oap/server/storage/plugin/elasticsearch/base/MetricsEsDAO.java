@@ -20,9 +20,13 @@ package org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import org.apache.skywalking.oap.server.core.analysis.MetricsExtension;
+import org.apache.skywalking.oap.server.core.analysis.metrics.IncrementalMetrics;
 import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
-import org.apache.skywalking.oap.server.core.storage.IMetricsDAO;
+import org.apache.skywalking.oap.server.core.storage.IIncrementalMetricsDAO;
 import org.apache.skywalking.oap.server.core.storage.StorageBuilder;
 import org.apache.skywalking.oap.server.core.storage.model.Model;
 import org.apache.skywalking.oap.server.library.client.elasticsearch.ElasticSearchClient;
@@ -30,18 +34,83 @@ import org.apache.skywalking.oap.server.library.client.request.InsertRequest;
 import org.apache.skywalking.oap.server.library.client.request.UpdateRequest;
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.script.Script;
+import org.elasticsearch.script.ScriptType;
 
-public class MetricsEsDAO extends EsDAO implements IMetricsDAO {
+public class MetricsEsDAO extends EsDAO implements IIncrementalMetricsDAO {
+    private static final String DIVISOR_PARAM = "_divisor";
 
     protected final StorageBuilder<Metrics> storageBuilder;
+    private final boolean compactComplexObject;
+    /**
+     * The painless script of the increment, the same for all the metrics of the DAO, as the values are in the
+     * parameters. Built at the first use.
+     */
+    private volatile String incrementScript;
+    /**
+     * The fields of the source to fetch in the {@link #multiGet(Model, List)}, the storage names of the model columns.
+     */
+    private volatile String[] sourceIncludes;
+    /**
+     * False if the metrics are not down sampled, defined through {@link MetricsExtension#supportDownSampling()}, such
+     * as the traffic. Their IDs don't include the time bucket. Resolved at the first use.
+     */
+    private volatile Boolean downSampled;
 
     protected MetricsEsDAO(ElasticSearchClient client, StorageBuilder<Metrics> storageBuilder) {
+        this(client, storageBuilder, false);
+    }
+
+    protected MetricsEsDAO(ElasticSearchClient client,
+                           StorageBuilder<Metrics> storageBuilder,
+                           boolean compactComplexObject) {
         super(client);
         this.storageBuilder = storageBuilder;
+        this.compactComplexObject = compactComplexObject;
     }
 
+    /**
+     * The IDs are routed to the exact indices of their time buckets, the same as {@link #prepareBatchInsert(Model,
+     * Metrics)}, and get through the multi get requests, executed concurrently per index.
+     *
+     * The metrics not down sampled are searched through the alias of all the indices, as the same ID could be written
+     * into the index of any former day.
+     */
     @Override
     public List<Metrics> multiGet(Model model, List<Metrics> metrics) throws IOException {
+        if (metrics.isEmpty()) {
+            return new ArrayList<>(0);
+        }
+        if (downSampled == null) {
+            MetricsExtension metricsExtension = metrics.get(0).getClass().getAnnotation(MetricsExtension.class);
+            downSampled = metricsExtension == null || metricsExtension.supportDownSampling();
+        }
+        if (!downSampled) {
+            return multiGetThroughAlias(model, metrics);
+        }
+
+        Map<String, List<String>> idsOfIndex = new HashMap<>();
+        for (Metrics metric : metrics) {
+            idsOfIndex.computeIfAbsent(
+                TimeSeriesUtils.writeIndexName(model, metric.getTimeBucket()), indexName -> new ArrayList<>())
+                      .add(metric.id());
+        }
+        if (sourceIncludes == null) {
+            sourceIncludes = model.getColumns()
+                                  .stream()
+                                  .map(column -> column.getColumnName().getStorageName())
+                                  .toArray(String[]::new);
+        }
+
+        List<Map<String, Object>> sources = getClient().multiGet(idsOfIndex, sourceIncludes);
+        List<Metrics> result = new ArrayList<>(sources.size());
+        for (Map<String, Object> source : sources) {
+            result.add(storageBuilder.map2Data(source));
+        }
+        return result;
+    }
+
+    private List<Metrics> multiGetThroughAlias(Model model, List<Metrics> metrics) throws IOException {
         String[] ids = metrics.stream().map(Metrics::id).toArray(String[]::new);
         SearchResponse response = getClient().ids(model.getName(), ids);
 
@@ -55,15 +124,68 @@ public class MetricsEsDAO extends EsDAO implements IMetricsDAO {
 
     @Override
     public InsertRequest prepareBatchInsert(Model model, Metrics metrics) throws IOException {
-        XContentBuilder builder = map2builder(storageBuilder.data2Map(metrics));
+        XContentBuilder builder = map2builder(storageBuilder.data2Map(metrics), compactComplexObject);
         String modelName = TimeSeriesUtils.writeIndexName(model, metrics.getTimeBucket());
         return getClient().prepareInsert(modelName, metrics.id(), builder);
     }
 
     @Override
     public UpdateRequest prepareBatchUpdate(Model model, Metrics metrics) throws IOException {
-        XContentBuilder builder = map2builder(storageBuilder.data2Map(metrics));
+        XContentBuilder builder = map2builder(storageBuilder.data2Map(metrics), compactComplexObject);
         String modelName = TimeSeriesUtils.writeIndexName(model, metrics.getTimeBucket());
         return getClient().prepareUpdate(modelName, metrics.id(), builder);
     }
+
+    @Override
+    public UpdateRequest prepareBatchIncrement(Model model, Metrics metrics) throws IOException {
+        IncrementalMetrics incrementalMetrics = (IncrementalMetrics) metrics;
+        Map<String, Object> data = storageBuilder.data2Map(metrics);
+
+        Map<String, Object> params = new HashMap<>();
+        for (String column : incrementalMetrics.incrementalColumns()) {
+            params.put(column, data.get(column));
+        }
+        IncrementalMetrics.Quotient quotient = incrementalMetrics.quotient();
+        if (quotient != null && quotient.getDivisorColumn() == null) {
+            params.put(DIVISOR_PARAM, quotient.getDivisor());
+        }
+        if (incrementScript == null) {
+            incrementScript = buildIncrementScript(incrementalMetrics);
+        }
+        Script script = new Script(ScriptType.INLINE, "painless", incrementScript, params);
+
+        XContentBuilder upsert = map2builder(data, compactComplexObject);
+        String modelName = TimeSeriesUtils.writeIndexName(model, metrics.getTimeBucket());
+        return getClient().prepareUpsert(modelName, metrics.id(), script, upsert);
+    }
+
+    /**
+     * The quotient is calculated before the increments, by the persisted values plus the increments.
+     */
+    private static String buildIncrementScript(IncrementalMetrics metrics) {
+        StringBuilder script = new StringBuilder();
+        IncrementalMetrics.Quotient quotient = metrics.quotient();
+        if (quotient != null) {
+            script.append(source(quotient.getColumn())).append(" = (")
+                  .append(increased(quotient.getDividendColumn())).append(") / ");
+            if (quotient.getDivisorColumn() == null) {
+                script.append("params['").append(DIVISOR_PARAM).append("']");
+            } else {
+                script.append("(").append(increased(quotient.getDivisorColumn())).append(")");
+            }
+            script.append(";");
+        }
+        for (String column : metrics.incrementalColumns()) {
+            script.append(source(column)).append(" += params['").append(column).append("'];");
+        }
+        return script.toString();
+    }
+
+    private static String source(String column) {
+        return "ctx._source['" + column + "']";
+    }
+
+    private static String increased(String column) {
+        return source(column) + " + params['" + column + "']";
+    }
 }
@@ -31,14 +31,20 @@ import org.apache.skywalking.oap.server.core.storage.StorageDAO;
 import org.apache.skywalking.oap.server.library.client.elasticsearch.ElasticSearchClient;
 
 public class StorageEsDAO extends EsDAO implements StorageDAO {
+    private final boolean compactComplexObject;
 
     public StorageEsDAO(ElasticSearchClient client) {
+        this(client, false);
+    }
+
+    public StorageEsDAO(ElasticSearchClient client, boolean compactComplexObject) {
         super(client);
+        this.compactComplexObject = compactComplexObject;
     }
 
     @Override
     public IMetricsDAO newMetricsDao(StorageBuilder<Metrics> storageBuilder) {
-        return new MetricsEsDAO(getClient(), storageBuilder);
+        return new MetricsEsDAO(getClient(), storageBuilder, compactComplexObject);
     }
 
     @Override
@@ -0,0 +1,192 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.skywalking.oap.server.core.analysis.DownSampling;
+import org.apache.skywalking.oap.server.core.analysis.NodeType;
+import org.apache.skywalking.oap.server.core.analysis.manual.service.ServiceTraffic;
+import org.apache.skywalking.oap.server.core.analysis.metrics.IncrementalMetrics;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.storage.StorageBuilder;
+import org.apache.skywalking.oap.server.core.storage.model.ColumnName;
+import org.apache.skywalking.oap.server.core.storage.model.Model;
+import org.apache.skywalking.oap.server.core.storage.model.ModelColumn;
+import org.apache.skywalking.oap.server.library.client.elasticsearch.ElasticSearchClient;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.script.Script;
+import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.SearchHits;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+public class MetricsEsDAOTest {
+    private Model model;
+
+    @Before
+    public void prepare() {
+        model = new Model("metrics", Arrays.asList(
+            new ModelColumn(new ColumnName("metrics", "entity_id"), String.class, String.class, false, false, false, 0),
+            new ModelColumn(new ColumnName("metrics", "value"), long.class, long.class, false, false, true, 0)
+        ), Collections.emptyList(), 0, DownSampling.Minute, false, false);
+        TimeSeriesUtils.setDAY_STEP(1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testMultiGetFromExactIndices() throws Exception {
+        ElasticSearchClient client = mock(ElasticSearchClient.class);
+        Map<String, Object> source = new HashMap<>();
+        when(client.multiGet(any(), any())).thenReturn(Collections.singletonList(source));
+        StorageBuilder<Metrics> storageBuilder = mock(StorageBuilder.class);
+        Metrics persisted = metrics("persisted", 0);
+        when(storageBuilder.map2Data(source)).thenReturn(persisted);
+
+        MetricsEsDAO dao = new MetricsEsDAO(client, storageBuilder);
+        List<Metrics> result = dao.multiGet(model, Arrays.asList(
+            metrics("a", 202010172359L), metrics("b", 202010180000L), metrics("c", 202010180001L)));
+        Assert.assertEquals(Collections.singletonList(persisted), result);
+
+        ArgumentCaptor<Map<String, List<String>>> idsOfIndex = ArgumentCaptor.forClass(Map.class);
+        ArgumentCaptor<String[]> includes = ArgumentCaptor.forClass(String[].class);
+        verify(client).multiGet(idsOfIndex.capture(), includes.capture());
+        Assert.assertEquals(2, idsOfIndex.getValue().size());
+        Assert.assertEquals(Collections.singletonList("a"), idsOfIndex.getValue().get("metrics-20201017"));
+        Assert.assertEquals(Arrays.asList("b", "c"), idsOfIndex.getValue().get("metrics-20201018"));
+        Assert.assertArrayEquals(new String[] {"entity_id", "value"}, includes.getValue());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testMultiGetTrafficOfFormerDay() throws Exception {
+        ElasticSearchClient client = mock(ElasticSearchClient.class);
+        SearchHit hit = new SearchHit(0);
+        hit.sourceRef(new BytesArray("{}"));
+        SearchResponse response = mock(SearchResponse.class);
+        when(response.getHits()).thenReturn(new SearchHits(new SearchHit[] {hit}, 1, 0));
+        when(client.ids(any(), any())).thenReturn(response);
+        StorageBuilder<Metrics> storageBuilder = mock(StorageBuilder.class);
+        ServiceTraffic persisted = serviceTraffic(202010172359L);
+        when(storageBuilder.map2Data(any())).thenReturn(persisted);
+
+        MetricsEsDAO dao = new MetricsEsDAO(client, storageBuilder);
+        ServiceTraffic traffic = serviceTraffic(202010180000L);
+        List<Metrics> result = dao.multiGet(model, Collections.singletonList(traffic));
+        Assert.assertEquals(Collections.singletonList(persisted), result);
+
+        // The traffic written in the index of the former day is found through the alias.
+        verify(client).ids("metrics", new String[] {traffic.id()});
+        verify(client, never()).multiGet(any(), any());
+    }
+
+    @Test
+    public void testIncrementByConstantDivisor() throws Exception {
+        Metrics metrics = incrementalMetrics(
+            new String[] {"total"}, IncrementalMetrics.Quotient.byConstant("value", "total", 60));
+        Map<String, Object> data = new HashMap<>();
+        data.put("value", 2L);
+        data.put("total", 120L);
+
+        Script script = increment(metrics, data);
+        Assert.assertEquals("painless", script.getLang());
+        Assert.assertEquals(
+            "ctx._source['value'] = (ctx._source['total'] + params['total']) / params['_divisor'];"
+                + "ctx._source['total'] += params['total'];",
+            script.getIdOrCode()
+        );
+        Map<String, Object> params = new HashMap<>();
+        params.put("total", 120L);
+        params.put("_divisor", 60L);
+        Assert.assertEquals(params, script.getParams());
+    }
+
+    @Test
+    public void testIncrementByColumnDivisor() throws Exception {
+        Metrics metrics = incrementalMetrics(
+            new String[] {"summation", "count"}, IncrementalMetrics.Quotient.byColumn("value", "summation", "count"));
+        Map<String, Object> data = new HashMap<>();
+        data.put("value", 150L);
+        data.put("summation", 300L);
+        data.put("count", 2L);
+
+        Script script = increment(metrics, data);
+        Assert.assertEquals(
+            "ctx._source['value'] = (ctx._source['summation'] + params['summation']) / "
+                + "(ctx._source['count'] + params['count']);"
+                + "ctx._source['summation'] += params['summation'];ctx._source['count'] += params['count'];",
+            script.getIdOrCode()
+        );
+        Map<String, Object> params = new HashMap<>();
+        params.put("summation", 300L);
+        params.put("count", 2L);
+        Assert.assertEquals(params, script.getParams());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Script increment(Metrics metrics, Map<String, Object> data) throws Exception {
+        ElasticSearchClient client = mock(ElasticSearchClient.class);
+        StorageBuilder<Metrics> storageBuilder = mock(StorageBuilder.class);
+        when(storageBuilder.data2Map(metrics)).thenReturn(data);
+
+        new MetricsEsDAO(client, storageBuilder).prepareBatchIncrement(model, metrics);
+
+        ArgumentCaptor<Script> script = ArgumentCaptor.forClass(Script.class);
+        verify(client).prepareUpsert(eq("metrics-20201018"), eq("a"), script.capture(), any());
+        return script.getValue();
+    }
+
+    private static Metrics incrementalMetrics(String[] incrementalColumns, IncrementalMetrics.Quotient quotient) {
+        Metrics metrics = mock(Metrics.class, withSettings().extraInterfaces(IncrementalMetrics.class));
+        when(metrics.id()).thenReturn("a");
+        when(metrics.getTimeBucket()).thenReturn(202010181200L);
+        when(((IncrementalMetrics) metrics).incrementalColumns()).thenReturn(incrementalColumns);
+        when(((IncrementalMetrics) metrics).quotient()).thenReturn(quotient);
+        return metrics;
+    }
+
+    private static ServiceTraffic serviceTraffic(long timeBucket) {
+        ServiceTraffic traffic = new ServiceTraffic();
+        traffic.setName("service-1");
+        traffic.setNodeType(NodeType.Normal);
+        traffic.setTimeBucket(timeBucket);
+        return traffic;
+    }
+
+    private static Metrics metrics(String id, long timeBucket) {
+        Metrics metrics = mock(Metrics.class);
+        when(metrics.id()).thenReturn(id);
+        when(metrics.getTimeBucket()).thenReturn(timeBucket);
+        return metrics;
+    }
+}
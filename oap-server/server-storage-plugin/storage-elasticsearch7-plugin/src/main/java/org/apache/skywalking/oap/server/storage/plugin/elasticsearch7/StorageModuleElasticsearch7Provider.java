@@ -47,6 +47,7 @@ import org.apache.skywalking.oap.server.core.storage.query.IMetricsQueryDAO;
 import org.apache.skywalking.oap.server.core.storage.query.ITopNRecordsQueryDAO;
 import org.apache.skywalking.oap.server.core.storage.query.ITopologyQueryDAO;
 import org.apache.skywalking.oap.server.core.storage.query.ITraceQueryDAO;
+import org.apache.skywalking.oap.server.library.client.elasticsearch.AdaptiveBulkWriter;
 import org.apache.skywalking.oap.server.library.module.ModuleConfig;
 import org.apache.skywalking.oap.server.library.module.ModuleDefine;
 import org.apache.skywalking.oap.server.library.module.ModuleProvider;
@@ -54,6 +55,7 @@ import org.apache.skywalking.oap.server.library.module.ModuleStartException;
 import org.apache.skywalking.oap.server.library.module.ServiceNotProvidedException;
 import org.apache.skywalking.oap.server.library.util.MultipleFilesChangeMonitor;
 import org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base.BatchProcessEsDAO;
+import org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base.BulkWriterTelemetry;
 import org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base.HistoryDeleteEsDAO;
 import org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base.TimeSeriesUtils;
 import org.apache.skywalking.oap.server.storage.plugin.elasticsearch.cache.NetworkAddressAliasEsDAO;
@@ -87,6 +89,7 @@ public class StorageModuleElasticsearch7Provider extends ModuleProvider {
 
     protected final StorageModuleElasticsearch7Config config;
     protected ElasticSearch7Client elasticSearch7Client;
+    protected AdaptiveBulkWriter syncBulkWriter;
 
     public StorageModuleElasticsearch7Provider() {
         super();
@@ -155,11 +158,15 @@ public class StorageModuleElasticsearch7Provider extends ModuleProvider {
             indexNameConverters(config.getNameSpace())
         );
 
+        syncBulkWriter = new AdaptiveBulkWriter(
+            elasticSearch7Client::executeBulk, config.getSyncBulkActions(), config.getSyncBulkMaxSizeInMB() * 1024L * 1024L,
+            config.getSyncBulkTargetLatency(), config.getSyncConcurrentRequests()
+        );
         this.registerServiceImplementation(
-            IBatchDAO.class, new BatchProcessEsDAO(elasticSearch7Client, config.getBulkActions(), config.getSyncBulkActions(),
-                                                   config.getFlushInterval(), config.getConcurrentRequests()
+            IBatchDAO.class, new BatchProcessEsDAO(elasticSearch7Client, config.getBulkActions(), config.getFlushInterval(),
+                                                   config.getConcurrentRequests(), syncBulkWriter
             ));
-        this.registerServiceImplementation(StorageDAO.class, new StorageEs7DAO(elasticSearch7Client));
+        this.registerServiceImplementation(StorageDAO.class, new StorageEs7DAO(elasticSearch7Client, config.isCompactComplexObject()));
         this.registerServiceImplementation(
             IHistoryDeleteDAO.class, new HistoryDeleteEsDAO(elasticSearch7Client));
         this.registerServiceImplementation(
@@ -207,6 +214,7 @@ public class StorageModuleElasticsearch7Provider extends ModuleProvider {
         HealthCheckMetrics healthChecker = metricCreator.createHealthCheckerGauge(
             "storage_elasticsearch", MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE);
         elasticSearch7Client.registerChecker(healthChecker);
+        syncBulkWriter.setListener(new BulkWriterTelemetry(metricCreator));
         try {
             elasticSearch7Client.connect();
 
@@ -44,11 +44,14 @@ import org.elasticsearch.action.bulk.BulkRequest;
 import org.elasticsearch.action.bulk.BulkResponse;
 import org.elasticsearch.action.get.GetRequest;
 import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.action.get.MultiGetRequest;
+import org.elasticsearch.action.get.MultiGetResponse;
 import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.action.support.ActiveShardCount;
 import org.elasticsearch.action.support.IndicesOptions;
+import org.elasticsearch.action.support.PlainActionFuture;
 import org.elasticsearch.action.support.WriteRequest;
 import org.elasticsearch.action.support.master.AcknowledgedResponse;
 import org.elasticsearch.client.GetAliasesResponse;
@@ -58,12 +61,15 @@ import org.elasticsearch.client.indices.CreateIndexResponse;
 import org.elasticsearch.client.indices.GetIndexRequest;
 import org.elasticsearch.client.indices.IndexTemplatesExistRequest;
 import org.elasticsearch.client.indices.PutIndexTemplateRequest;
+import org.elasticsearch.common.Strings;
 import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.xcontent.XContentBuilder;
 import org.elasticsearch.index.query.QueryBuilders;
 import org.elasticsearch.index.reindex.BulkByScrollResponse;
 import org.elasticsearch.index.reindex.DeleteByQueryRequest;
+import org.elasticsearch.script.Script;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.search.fetch.subphase.FetchSourceContext;
 
 /**
  *
@@ -237,6 +243,22 @@ public class ElasticSearch7Client extends ElasticSearchClient {
         }
     }
 
+    @Override
+    public List<Map<String, Object>> multiGet(Map<String, List<String>> idsOfIndex,
+                                              String[] includes) throws IOException {
+        FetchSourceContext fetchSource = new FetchSourceContext(true, includes, Strings.EMPTY_ARRAY);
+        List<PlainActionFuture<MultiGetResponse>> futures = new ArrayList<>(idsOfIndex.size());
+        idsOfIndex.forEach((indexName, ids) -> {
+            String formattedName = formatIndexName(indexName);
+            MultiGetRequest request = new MultiGetRequest();
+            ids.forEach(id -> request.add(new MultiGetRequest.Item(formattedName, id).fetchSourceContext(fetchSource)));
+            PlainActionFuture<MultiGetResponse> future = PlainActionFuture.newFuture();
+            client.mgetAsync(request, RequestOptions.DEFAULT, future);
+            futures.add(future);
+        });
+        return collectSources(futures);
+    }
+
     public void forceInsert(String indexName, String id, XContentBuilder source) throws IOException {
         IndexRequest request = (IndexRequest) prepareInsert(indexName, id, source);
         request.setRefreshPolicy(WriteRequest.RefreshPolicy.IMMEDIATE);
@@ -272,6 +294,13 @@ public class ElasticSearch7Client extends ElasticSearchClient {
         return new ElasticSearch7UpdateRequest(indexName, id).doc(source);
     }
 
+    public UpdateRequest prepareUpsert(String indexName, String id, Script script, XContentBuilder upsert) {
+        indexName = formatIndexName(indexName);
+        ElasticSearch7UpdateRequest request = new ElasticSearch7UpdateRequest(indexName, id);
+        request.script(script).upsert(upsert);
+        return request;
+    }
+
     public int delete(String indexName, String timeBucketColumnName, long endTimeBucket) throws IOException {
         indexName = formatIndexName(indexName);
 
@@ -286,17 +315,17 @@ public class ElasticSearch7Client extends ElasticSearchClient {
         return HttpStatus.SC_OK;
     }
 
-    public void synchronousBulk(BulkRequest request) {
+    public BulkResponse executeBulk(BulkRequest request) throws IOException {
         request.timeout(TimeValue.timeValueMinutes(2));
         request.setRefreshPolicy(WriteRequest.RefreshPolicy.WAIT_UNTIL);
         request.waitForActiveShards(ActiveShardCount.ONE);
         try {
-            int size = request.requests().size();
-            BulkResponse responses = client.bulk(request, RequestOptions.DEFAULT);
-            log.info("Synchronous bulk took time: {} millis, size: {}", responses.getTook().getMillis(), size);
+            BulkResponse response = client.bulk(request, RequestOptions.DEFAULT);
             healthChecker.health();
+            return response;
         } catch (Throwable t) {
             healthChecker.unHealth(t);
+            throw t;
         }
     }
 
@@ -35,14 +35,20 @@ import org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base.NoneSt
 import org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base.RecordEsDAO;
 
 public class StorageEs7DAO extends EsDAO implements StorageDAO {
+    private final boolean compactComplexObject;
 
     public StorageEs7DAO(ElasticSearchClient client) {
+        this(client, false);
+    }
+
+    public StorageEs7DAO(ElasticSearchClient client, boolean compactComplexObject) {
         super(client);
+        this.compactComplexObject = compactComplexObject;
     }
 
     @Override
     public IMetricsDAO newMetricsDao(StorageBuilder<Metrics> storageBuilder) {
-        return new MetricsEs7DAO(getClient(), storageBuilder);
+        return new MetricsEs7DAO(getClient(), storageBuilder, compactComplexObject);
     }
 
     @Override
@@ -43,13 +43,29 @@ public class SQLExecutor implements InsertRequest, UpdateRequest {
     }
 
     public void invoke(Connection connection) throws SQLException {
-        PreparedStatement preparedStatement = connection.prepareStatement(sql);
+        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            setParameters(preparedStatement);
 
+            LOGGER.debug("execute aql in batch: {}", sql);
+            preparedStatement.execute();
+        }
+    }
+
+    /**
+     * Bind the parameters of this executor to the given statement, which must be prepared by the {@link #getSql()} of
+     * this executor.
+     */
+    public void setParameters(PreparedStatement preparedStatement) throws SQLException {
         for (int i = 0; i < param.size(); i++) {
             preparedStatement.setObject(i + 1, param.get(i));
         }
+    }
+
+    public String getSql() {
+        return sql;
+    }
 
-        LOGGER.debug("execute aql in batch: {}", sql);
-        preparedStatement.execute();
+    public List<Object> getParam() {
+        return param;
     }
 }
@@ -59,4 +59,18 @@ public class H2StorageConfig extends ModuleConfig {
      * @since 8.2.0
      */
     private int numOfSearchableValuesPerTag = 2;
+    /**
+     * The max number of the statements in one JDBC batch. The prepared requests of the same SQL statement are executed
+     * in batches of this size.
+     *
+     * @since 8.4.0
+     */
+    private int maxSizeOfBatchSql = 100;
+    /**
+     * The number of the threads executing the asynchronous batch persistence, such as the records. Each thread executes
+     * on its own connection of the pool.
+     *
+     * @since 8.4.0
+     */
+    private int asyncBatchPersistentPoolSize = 1;
 }
@@ -18,9 +18,14 @@
 
 package org.apache.skywalking.oap.server.storage.plugin.jdbc.h2.dao;
 
+import java.sql.BatchUpdateException;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.BulkConsumePool;
@@ -35,23 +40,33 @@ import org.apache.skywalking.oap.server.library.client.request.PrepareRequest;
 import org.apache.skywalking.oap.server.library.util.CollectionUtils;
 import org.apache.skywalking.oap.server.storage.plugin.jdbc.SQLExecutor;
 
+/**
+ * The batch DAO of the JDBC storage implementations, H2, MySQL and TiDB. The prepared requests are grouped by their SQL
+ * statements, and every group is executed through the JDBC batch, {@link PreparedStatement#addBatch()} and {@link
+ * PreparedStatement#executeBatch()}, rather than one round trip per request. The statement of an insert or update
+ * request is decided by the table and the columns, so one group is one kind of data.
+ *
+ * The requests of one persistence round are unique by ID, so the order among the groups doesn't matter.
+ */
 @Slf4j
 public class H2BatchDAO implements IBatchDAO {
     private JDBCHikariCPClient h2Client;
     private final DataCarrier<PrepareRequest> dataCarrier;
+    private final int maxBatchSqlSize;
 
-    public H2BatchDAO(JDBCHikariCPClient h2Client) {
+    public H2BatchDAO(JDBCHikariCPClient h2Client, int maxBatchSqlSize, int asyncBatchPersistentPoolSize) {
         this.h2Client = h2Client;
+        this.maxBatchSqlSize = maxBatchSqlSize;
 
         String name = "H2_ASYNCHRONOUS_BATCH_PERSISTENT";
-        BulkConsumePool.Creator creator = new BulkConsumePool.Creator(name, 1, 20);
+        BulkConsumePool.Creator creator = new BulkConsumePool.Creator(name, asyncBatchPersistentPoolSize, 20);
         try {
             ConsumerPoolFactory.INSTANCE.createIfAbsent(name, creator);
         } catch (Exception e) {
             throw new UnexpectedException(e.getMessage(), e);
         }
 
-        this.dataCarrier = new DataCarrier<>(1, 10000);
+        this.dataCarrier = new DataCarrier<>(asyncBatchPersistentPoolSize, 10000);
         this.dataCarrier.consume(ConsumerPoolFactory.INSTANCE.get(name), new H2BatchDAO.H2BatchConsumer(this));
     }
 
@@ -65,11 +80,16 @@ public class H2BatchDAO implements IBatchDAO {
             log.debug("batch sql statements execute, data size: {}", prepareRequests.size());
         }
 
+        Map<String, List<SQLExecutor>> groups = new LinkedHashMap<>();
+        for (PrepareRequest prepareRequest : prepareRequests) {
+            SQLExecutor sqlExecutor = (SQLExecutor) prepareRequest;
+            groups.computeIfAbsent(sqlExecutor.getSql(), sql -> new ArrayList<>()).add(sqlExecutor);
+        }
+
         try (Connection connection = h2Client.getConnection()) {
-            for (PrepareRequest prepareRequest : prepareRequests) {
+            for (Map.Entry<String, List<SQLExecutor>> group : groups.entrySet()) {
                 try {
-                    SQLExecutor sqlExecutor = (SQLExecutor) prepareRequest;
-                    sqlExecutor.invoke(connection);
+                    executeBatch(connection, group.getKey(), group.getValue());
                 } catch (SQLException e) {
                     // Just avoid one execution failure makes the rest of batch failure.
                     log.error(e.getMessage(), e);
@@ -80,6 +100,40 @@ public class H2BatchDAO implements IBatchDAO {
         }
     }
 
+    private void executeBatch(Connection connection, String sql, List<SQLExecutor> sqlExecutors) throws SQLException {
+        if (sqlExecutors.size() == 1) {
+            sqlExecutors.get(0).invoke(connection);
+            return;
+        }
+
+        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            int batchSize = 0;
+            for (SQLExecutor sqlExecutor : sqlExecutors) {
+                sqlExecutor.setParameters(preparedStatement);
+                preparedStatement.addBatch();
+                if (++batchSize == maxBatchSqlSize) {
+                    executeBatch(preparedStatement, sql);
+                    batchSize = 0;
+                }
+            }
+            if (batchSize > 0) {
+                executeBatch(preparedStatement, sql);
+            }
+        }
+    }
+
+    private void executeBatch(PreparedStatement preparedStatement, String sql) throws SQLException {
+        if (log.isDebugEnabled()) {
+            log.debug("execute sql in batch: {}", sql);
+        }
+        try {
+            preparedStatement.executeBatch();
+        } catch (BatchUpdateException e) {
+            // The drivers keep executing the rest of the batch after one statement fails, only report it here.
+            log.error(e.getMessage(), e);
+        }
+    }
+
     @Override
     public void asynchronous(InsertRequest insertRequest) {
         this.dataCarrier.produce(insertRequest);
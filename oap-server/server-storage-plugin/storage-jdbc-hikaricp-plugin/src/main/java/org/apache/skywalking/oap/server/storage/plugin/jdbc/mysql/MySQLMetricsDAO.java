@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.jdbc.mysql;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.skywalking.oap.server.core.analysis.metrics.IncrementalMetrics;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.storage.IIncrementalMetricsDAO;
+import org.apache.skywalking.oap.server.core.storage.StorageBuilder;
+import org.apache.skywalking.oap.server.core.storage.model.Model;
+import org.apache.skywalking.oap.server.core.storage.model.ModelColumn;
+import org.apache.skywalking.oap.server.library.client.jdbc.hikaricp.JDBCHikariCPClient;
+import org.apache.skywalking.oap.server.storage.plugin.jdbc.SQLExecutor;
+import org.apache.skywalking.oap.server.storage.plugin.jdbc.TableMetaInfo;
+import org.apache.skywalking.oap.server.storage.plugin.jdbc.h2.dao.H2MetricsDAO;
+
+/**
+ * MySQLMetricsDAO merges the {@link IncrementalMetrics} through {@code INSERT ... ON DUPLICATE KEY UPDATE}, which is
+ * supported by MySQL and TiDB.
+ */
+public class MySQLMetricsDAO extends H2MetricsDAO implements IIncrementalMetricsDAO {
+    private final StorageBuilder<Metrics> storageBuilder;
+
+    public MySQLMetricsDAO(JDBCHikariCPClient mysqlClient, StorageBuilder<Metrics> storageBuilder) {
+        super(mysqlClient, storageBuilder);
+        this.storageBuilder = storageBuilder;
+    }
+
+    /**
+     * The quotient is assigned before the increments, by the persisted values plus the inserting values, as the
+     * assignments after the increments would see the increased values.
+     */
+    @Override
+    public SQLExecutor prepareBatchIncrement(Model model, Metrics metrics) throws IOException {
+        IncrementalMetrics incrementalMetrics = (IncrementalMetrics) metrics;
+        SQLExecutor insertExecutor = getInsertExecutor(model.getName(), metrics, storageBuilder);
+        List<Object> param = new ArrayList<>(insertExecutor.getParam());
+
+        StringBuilder sql = new StringBuilder(insertExecutor.getSql()).append(" ON DUPLICATE KEY UPDATE ");
+        IncrementalMetrics.Quotient quotient = incrementalMetrics.quotient();
+        if (quotient != null) {
+            sql.append(storageName(model, quotient.getColumn()))
+               .append(" = (").append(increased(model, quotient.getDividendColumn())).append(") DIV ");
+            if (quotient.getDivisorColumn() == null) {
+                sql.append("?");
+                param.add(quotient.getDivisor());
+            } else {
+                sql.append("(").append(increased(model, quotient.getDivisorColumn())).append(")");
+            }
+            sql.append(", ");
+        }
+        String[] incrementalColumns = incrementalMetrics.incrementalColumns();
+        for (int i = 0; i < incrementalColumns.length; i++) {
+            String column = storageName(model, incrementalColumns[i]);
+            sql.append(column).append(" = ").append(increased(model, incrementalColumns[i]));
+            if (i != incrementalColumns.length - 1) {
+                sql.append(", ");
+            }
+        }
+        return new SQLExecutor(sql.toString(), param);
+    }
+
+    private static String increased(Model model, String columnName) {
+        String column = storageName(model, columnName);
+        return column + " + VALUES(" + column + ")";
+    }
+
+    private static String storageName(Model model, String columnName) {
+        for (ModelColumn column : TableMetaInfo.get(model.getName()).getColumns()) {
+            if (column.getColumnName().getName().equals(columnName)) {
+                return column.getColumnName().getStorageName();
+            }
+        }
+        throw new IllegalArgumentException("Column " + columnName + " doesn't exist in " + model.getName());
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.jdbc.mysql;
+
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.storage.IMetricsDAO;
+import org.apache.skywalking.oap.server.core.storage.StorageBuilder;
+import org.apache.skywalking.oap.server.library.client.jdbc.hikaricp.JDBCHikariCPClient;
+import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.apache.skywalking.oap.server.storage.plugin.jdbc.h2.dao.H2StorageDAO;
+
+public class MySQLStorageDAO extends H2StorageDAO {
+    private final JDBCHikariCPClient mysqlClient;
+
+    public MySQLStorageDAO(ModuleManager manager,
+                           JDBCHikariCPClient mysqlClient,
+                           int maxSizeOfArrayColumn,
+                           int numOfSearchableValuesPerTag) {
+        super(manager, mysqlClient, maxSizeOfArrayColumn, numOfSearchableValuesPerTag);
+        this.mysqlClient = mysqlClient;
+    }
+
+    @Override
+    public IMetricsDAO newMetricsDao(StorageBuilder<Metrics> storageBuilder) {
+        return new MySQLMetricsDAO(mysqlClient, storageBuilder);
+    }
+}
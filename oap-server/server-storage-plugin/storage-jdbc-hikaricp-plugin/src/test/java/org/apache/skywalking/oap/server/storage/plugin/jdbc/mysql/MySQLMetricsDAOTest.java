@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.jdbc.mysql;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.skywalking.oap.server.core.analysis.DownSampling;
+import org.apache.skywalking.oap.server.core.analysis.metrics.CPMMetrics;
+import org.apache.skywalking.oap.server.core.analysis.metrics.LongAvgMetrics;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.apache.skywalking.oap.server.core.storage.StorageBuilder;
+import org.apache.skywalking.oap.server.core.storage.model.ColumnName;
+import org.apache.skywalking.oap.server.core.storage.model.Model;
+import org.apache.skywalking.oap.server.core.storage.model.ModelColumn;
+import org.apache.skywalking.oap.server.storage.plugin.jdbc.SQLExecutor;
+import org.apache.skywalking.oap.server.storage.plugin.jdbc.TableMetaInfo;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MySQLMetricsDAOTest {
+    private static final String ON_DUPLICATE_KEY_UPDATE = " ON DUPLICATE KEY UPDATE ";
+
+    @Test
+    public void testIncrementCPM() throws Exception {
+        Model model = model("service_cpm", "value", "total");
+        TestCPMMetrics metrics = new TestCPMMetrics();
+        metrics.setTimeBucket(2020101812L);
+        metrics.setTotal(120);
+        metrics.calculate();
+
+        SQLExecutor executor = new MySQLMetricsDAO(null, new MapStorageBuilder("value", "total"))
+            .prepareBatchIncrement(model, metrics);
+
+        Assert.assertEquals(
+            "value = (total + VALUES(total)) DIV ?, total = total + VALUES(total)", update(executor.getSql()));
+        // The inserted values, then the divisor of the hour bucket.
+        Assert.assertEquals(Arrays.asList(metrics.id(), 2L, 120L, 60L), executor.getParam());
+    }
+
+    @Test
+    public void testIncrementLongAvg() throws Exception {
+        Model model = model("service_resp_time", "summation", "count", "value");
+        TestLongAvgMetrics metrics = new TestLongAvgMetrics();
+        metrics.setTimeBucket(202010181200L);
+        metrics.setSummation(300);
+        metrics.setCount(2);
+        metrics.calculate();
+
+        SQLExecutor executor = new MySQLMetricsDAO(null, new MapStorageBuilder("summation", "count", "value"))
+            .prepareBatchIncrement(model, metrics);
+
+        Assert.assertEquals(
+            "value = (summation + VALUES(summation)) DIV (count + VALUES(count)), "
+                + "summation = summation + VALUES(summation), count = count + VALUES(count)",
+            update(executor.getSql())
+        );
+        Assert.assertEquals(Arrays.asList(metrics.id(), 300L, 2L, 150L), executor.getParam());
+    }
+
+    @Test
+    public void testIncrementOverriddenColumn() throws Exception {
+        Model model = model("service_cpm_overridden", "value", "total");
+        model.getColumns().get(1).getColumnName().overrideName("total", "total_count");
+        TestCPMMetrics metrics = new TestCPMMetrics();
+        metrics.setTimeBucket(202010181200L);
+        metrics.setTotal(3);
+        metrics.calculate();
+
+        SQLExecutor executor = new MySQLMetricsDAO(null, new MapStorageBuilder("value", "total"))
+            .prepareBatchIncrement(model, metrics);
+
+        Assert.assertEquals(
+            "value = (total_count + VALUES(total_count)) DIV ?, total_count = total_count + VALUES(total_count)",
+            update(executor.getSql())
+        );
+        Assert.assertEquals(Arrays.asList(metrics.id(), 3L, 3L, 1L), executor.getParam());
+    }
+
+    private static String update(String sql) {
+        int index = sql.indexOf(ON_DUPLICATE_KEY_UPDATE);
+        Assert.assertTrue(sql, index > 0);
+        return sql.substring(index + ON_DUPLICATE_KEY_UPDATE.length());
+    }
+
+    private static Model model(String name, String... columnNames) {
+        List<ModelColumn> columns = new ArrayList<>();
+        for (String columnName : columnNames) {
+            columns.add(new ModelColumn(
+                new ColumnName(name, columnName), long.class, long.class, false, false, true, 0));
+        }
+        Model model = new Model(name, columns, Collections.emptyList(), 0, DownSampling.Minute, false, false);
+        TableMetaInfo.addModel(model);
+        return model;
+    }
+
+    /**
+     * Map the given columns to the long values through the getters.
+     */
+    private static class MapStorageBuilder implements StorageBuilder<Metrics> {
+        private final String[] columns;
+
+        private MapStorageBuilder(String... columns) {
+            this.columns = columns;
+        }
+
+        @Override
+        public Metrics map2Data(Map<String, Object> dbMap) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Map<String, Object> data2Map(Metrics storageData) {
+            Map<String, Object> map = new HashMap<>();
+            for (String column : columns) {
+                map.put(column, value(storageData, column));
+            }
+            return map;
+        }
+
+        private static long value(Metrics metrics, String column) {
+            if (metrics instanceof CPMMetrics) {
+                CPMMetrics cpmMetrics = (CPMMetrics) metrics;
+                return "total".equals(column) ? cpmMetrics.getTotal() : cpmMetrics.getValue();
+            }
+            LongAvgMetrics longAvgMetrics = (LongAvgMetrics) metrics;
+            switch (column) {
+                case "summation":
+                    return longAvgMetrics.getSummation();
+                case "count":
+                    return longAvgMetrics.getCount();
+                default:
+                    return longAvgMetrics.getValue();
+            }
+        }
+    }
+
+    private static class TestCPMMetrics extends CPMMetrics {
+        @Override
+        public String id() {
+            return getTimeBucket() + "_service-1";
+        }
+
+        @Override
+        public Metrics toHour() {
+            return null;
+        }
+
+        @Override
+        public Metrics toDay() {
+            return null;
+        }
+
+        @Override
+        public void deserialize(RemoteData remoteData) {
+
+        }
+
+        @Override
+        public RemoteData.Builder serialize() {
+            return null;
+        }
+
+        @Override
+        public int remoteHashCode() {
+            return 0;
+        }
+    }
+
+    private static class TestLongAvgMetrics extends LongAvgMetrics {
+        @Override
+        public String id() {
+            return getTimeBucket() + "_service-1";
+        }
+
+        @Override
+        public Metrics toHour() {
+            return null;
+        }
+
+        @Override
+        public Metrics toDay() {
+            return null;
+        }
+
+        @Override
+        public void deserialize(RemoteData remoteData) {
+
+        }
+
+        @Override
+        public RemoteData.Builder serialize() {
+            return null;
+        }
+
+        @Override
+        public int remoteHashCode() {
+            return 0;
+        }
+    }
+}
@@ -18,7 +18,7 @@
 
 package org.apache.skywalking.oap.server.tool.profile.core.mock;
 
-import org.apache.skywalking.oap.server.core.remote.data.StreamData;
+import org.apache.skywalking.oap.server.core.remote.data.StreamDataFactory;
 import org.apache.skywalking.oap.server.core.worker.AbstractWorker;
 import org.apache.skywalking.oap.server.core.worker.IWorkerInstanceGetter;
 import org.apache.skywalking.oap.server.core.worker.IWorkerInstanceSetter;
@@ -35,6 +35,6 @@ public class MockWorkerInstancesService implements IWorkerInstanceSetter, IWorke
     }
 
     @Override
-    public void put(String remoteReceiverWorkName, AbstractWorker instance, Class<? extends StreamData> streamDataClass) {
+    public void put(String remoteReceiverWorkName, AbstractWorker instance, StreamDataFactory streamDataFactory) {
     }
 }